@@ -12,7 +12,10 @@ import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 import org.eclipse.hawkbit.artifact.repository.model.AbstractDbArtifact;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
@@ -22,7 +25,8 @@ import com.google.common.base.Throwables;
 
 /**
  * {@link AbstractDbArtifact} implementation which dynamically creates a
- * {@link FileInputStream} on calling {@link #getFileInputStream()}.
+ * {@link FileInputStream} on calling {@link #getFileInputStream()} or a
+ * {@link FileChannel} on calling {@link #getFileChannel()}.
  */
 public class ArtifactFilesystem extends AbstractDbArtifact {
 
@@ -46,4 +50,21 @@ public class ArtifactFilesystem extends AbstractDbArtifact {
             throw Throwables.propagate(e);
         }
     }
+
+    @Override
+    // suppress warning, this FileChannel needs to be closed by the caller, this
+    // cannot be closed in this method
+    @SuppressWarnings("squid:S2095")
+    public FileChannel getFileChannel() {
+        try {
+            return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        } catch (final IOException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    @Override
+    public File getFile() {
+        return file;
+    }
 }
@@ -23,11 +23,21 @@ public class ArtifactFilesystemConfiguration {
     /**
      * @param artifactFilesystemProperties
      *            the artifact file system properties
-     * @return Default {@link ArtifactRepository} implementation.
+     * @return Default {@link ArtifactRepository} implementation, wrapped by a
+     *         {@link CachingArtifactRepository} if the artifact cache is
+     *         enabled.
      */
     @Bean
     @ConditionalOnMissingBean
     public ArtifactRepository artifactRepository(final ArtifactFilesystemProperties artifactFilesystemProperties) {
-        return new ArtifactFilesystemRepository(artifactFilesystemProperties);
+        final ArtifactFilesystemRepository repository = new ArtifactFilesystemRepository(
+                artifactFilesystemProperties);
+
+        final ArtifactFilesystemProperties.Cache cache = artifactFilesystemProperties.getCache();
+        if (cache.getMaxBytes() > 0) {
+            return new CachingArtifactRepository(repository, cache.getMaxBytes(), cache.getMaxArtifactSize());
+        }
+
+        return repository;
     }
 }
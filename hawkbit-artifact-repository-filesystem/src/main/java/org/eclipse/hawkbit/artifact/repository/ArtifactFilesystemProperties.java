@@ -22,6 +22,8 @@ public class ArtifactFilesystemProperties {
      */
     private String path = "./artifactrepo";
 
+    private final Cache cache = new Cache();
+
     public String getPath() {
         return path;
     }
@@ -29,4 +31,43 @@ public class ArtifactFilesystemProperties {
     public void setPath(final String path) {
         this.path = path;
     }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    /**
+     * Configuration of the in-memory cache for frequently downloaded
+     * artifacts.
+     */
+    public static class Cache {
+
+        /**
+         * Maximum overall size of the cached artifacts in bytes which are held
+         * off-heap (0 to disable the cache).
+         */
+        private long maxBytes;
+
+        /**
+         * Maximum size of a single artifact in bytes to be cached. Larger
+         * artifacts are always served from the file-system.
+         */
+        private long maxArtifactSize = 128L * 1024 * 1024;
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(final long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public long getMaxArtifactSize() {
+            return maxArtifactSize;
+        }
+
+        public void setMaxArtifactSize(final long maxArtifactSize) {
+            this.maxArtifactSize = maxArtifactSize;
+        }
+    }
 }
@@ -10,6 +10,8 @@ package org.eclipse.hawkbit.artifact.repository;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
@@ -17,10 +19,11 @@ import java.util.List;
 import org.apache.commons.io.FileUtils;
 import org.eclipse.hawkbit.artifact.repository.model.AbstractDbArtifact;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.validation.annotation.Validated;
 
 import com.google.common.base.Splitter;
-import com.google.common.io.Files;
 
 /**
  * Implementation of the {@link ArtifactRepository} to store artifacts on the
@@ -33,10 +36,17 @@ import com.google.common.io.Files;
  * Due the limit of many file-systems of files within one directory, the files
  * are stored in different sub-directories based on the last four digits of the
  * SHA1-hash {@code (/basepath/[two digit sha1]/[two digit sha1])}.
+ * 
+ * Uploads are staged in a directory below the base directory, i.e. on the
+ * same file-system, and atomically linked to their final location.
  */
 @Validated
 public class ArtifactFilesystemRepository extends AbstractArtifactRepository {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ArtifactFilesystemRepository.class);
+
+    private static final String STAGING_DIRECTORY = ".staging";
+
     private final ArtifactFilesystemProperties artifactResourceProperties;
 
     /**
@@ -69,22 +79,60 @@ public class ArtifactFilesystemRepository extends AbstractArtifactRepository {
     protected AbstractDbArtifact store(final String tenant, final String sha1Hash16, final String mdMD5Hash16,
             final String contentType, final String tempFile) throws IOException {
 
-        final File file = new File(tempFile);
-        return renameFileToSHA1Naming(tenant, file, new ArtifactFilesystem(file, sha1Hash16,
-                new DbArtifactHash(sha1Hash16, mdMD5Hash16), file.length(), contentType));
+        final File fileSHA1Naming = getFile(tenant, sha1Hash16);
+        if (tempFile != null) {
+            moveToSHA1Naming(new File(tempFile), fileSHA1Naming);
+        }
+
+        return new ArtifactFilesystem(fileSHA1Naming, sha1Hash16, new DbArtifactHash(sha1Hash16, mdMD5Hash16),
+                fileSHA1Naming.length(), contentType);
+    }
+
+    @Override
+    protected File createTempFile() {
+        try {
+            final Path stagingDirectory = Paths.get(artifactResourceProperties.getPath(), STAGING_DIRECTORY);
+            Files.createDirectories(stagingDirectory);
+            return Files.createTempFile(stagingDirectory, null, null).toFile();
+        } catch (final IOException e) {
+            throw new ArtifactStoreException("Cannot create staging file", e);
+        }
     }
 
-    private ArtifactFilesystem renameFileToSHA1Naming(final String tenant, final File file,
-            final AbstractDbArtifact artifact) throws IOException {
-        final File fileSHA1Naming = getFile(tenant, artifact.getHashes().getSha1());
+    @Override
+    protected boolean isStored(final String tenant, final String sha1Hash) {
+        return getSha1DirectoryPath(tenant, sha1Hash).resolve(sha1Hash).toFile().exists();
+    }
+
+    private static void moveToSHA1Naming(final File file, final File fileSHA1Naming) throws IOException {
         if (fileSHA1Naming.exists()) {
+            // concurrent upload of the same binary
+            FileUtils.deleteQuietly(file);
+            return;
+        }
+
+        // a hard link is created atomically and only if the target does not
+        // exist yet, i.e. the first of concurrent uploads wins and the file is
+        // never visible before it is complete
+        try {
+            Files.createLink(fileSHA1Naming.toPath(), file.toPath());
+        } catch (final FileAlreadyExistsException e) {
+            LOG.debug("File {} stored concurrently.", fileSHA1Naming, e);
+        } catch (final UnsupportedOperationException | IOException e) {
+            LOG.debug("Hard link to {} not supported, moving file.", fileSHA1Naming, e);
+            moveIfAbsent(file, fileSHA1Naming);
+        } finally {
             FileUtils.deleteQuietly(file);
-        } else {
-            Files.move(file, fileSHA1Naming);
         }
+    }
 
-        return new ArtifactFilesystem(fileSHA1Naming, artifact.getArtifactId(), artifact.getHashes(),
-                artifact.getSize(), artifact.getContentType());
+    private static void moveIfAbsent(final File file, final File fileSHA1Naming) throws IOException {
+        try {
+            // without REPLACE_EXISTING the move fails for an existing target
+            Files.move(file.toPath(), fileSHA1Naming.toPath());
+        } catch (final FileAlreadyExistsException e) {
+            LOG.debug("File {} stored concurrently.", fileSHA1Naming, e);
+        }
     }
 
     private File getFile(final String tenant, final String sha1) {
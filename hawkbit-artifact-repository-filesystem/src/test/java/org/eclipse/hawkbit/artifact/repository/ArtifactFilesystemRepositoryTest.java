@@ -9,14 +9,17 @@
 package org.eclipse.hawkbit.artifact.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Random;
 
 import org.apache.commons.io.IOUtils;
 import org.assertj.core.api.Assertions;
 import org.eclipse.hawkbit.artifact.repository.model.AbstractDbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
 import org.junit.Test;
 
 import ru.yandex.qatools.allure.annotations.Description;
@@ -94,6 +97,35 @@ public class ArtifactFilesystemRepositoryTest {
         }
     }
 
+    @Test
+    @Description("Verfies that an upload is staged below the repository path and no staging file remains after the artifact is stored")
+    public void storeLeavesNoStagingFile() {
+        final AbstractDbArtifact artifact = storeRandomArtifact(randomBytes());
+
+        assertThat(artifact.getHashes().getMd5()).isNotNull();
+        assertThat(Paths.get(artifactResourceProperties.getPath(), ".staging").toFile().list()).isEmpty();
+    }
+
+    @Test
+    @Description("Verfies that the upload of an already stored binary with a known SHA1 hash is verified but not written again")
+    public void storeAlreadyStoredBinaryWithKnownHash() {
+        final byte[] fileContent = randomBytes();
+        final AbstractDbArtifact artifact = storeRandomArtifact(fileContent);
+
+        final AbstractDbArtifact again = artifactFilesystemRepository.store(TENANT,
+                new ByteArrayInputStream(fileContent), "filename.tmp", "application/txt",
+                new DbArtifactHash(artifact.getHashes().getSha1(), artifact.getHashes().getMd5()));
+
+        assertThat(again.getHashes().getSha1()).isEqualTo(artifact.getHashes().getSha1());
+        assertThat(again.getHashes().getMd5()).isEqualTo(artifact.getHashes().getMd5());
+        assertThat(again.getSize()).isEqualTo(fileContent.length);
+        assertThat(Paths.get(artifactResourceProperties.getPath(), ".staging").toFile().list()).isEmpty();
+
+        assertThatExceptionOfType(HashNotMatchException.class)
+                .isThrownBy(() -> artifactFilesystemRepository.store(TENANT, new ByteArrayInputStream(randomBytes()),
+                        "filename.tmp", "application/txt", new DbArtifactHash(artifact.getHashes().getSha1(), null)));
+    }
+
     private AbstractDbArtifact storeRandomArtifact(final byte[] fileContent) {
         final String fileName = "filename.tmp";
         final ByteArrayInputStream inputStream = new ByteArrayInputStream(fileContent);
@@ -13,6 +13,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 
 import org.apache.commons.io.IOUtils;
 import org.assertj.core.api.Assertions;
@@ -52,4 +57,34 @@ public class ArtifactFilesystemTest {
         final byte[] buffer = new byte[1024];
         IOUtils.read(underTest.getFileInputStream(), buffer);
     }
+
+    @Test
+    @Description("Verifies that an exception is thrown on opening a FileChannel when file does not exists")
+    public void getFileChannelOfNonExistingFileThrowsException() {
+        final File file = new File("fileWhichTotalDoesNotExists");
+        final ArtifactFilesystem underTest = new ArtifactFilesystem(file, "fileWhichTotalDoesNotExists",
+                new DbArtifactHash("1", "2"), 0L, null);
+        try {
+            underTest.getFileChannel();
+            Assertions.fail("Expected a NoSuchFileException because file does not exists");
+        } catch (final RuntimeException e) {
+            assertThat(e.getCause()).isInstanceOf(NoSuchFileException.class);
+        }
+    }
+
+    @Test
+    @Description("Verifies that a FileChannel can be opened if file exists and reads the file content")
+    public void getFileChannelOfExistingFile() throws IOException {
+        final File createTempFile = File.createTempFile(ArtifactFilesystemTest.class.getSimpleName(), "");
+        createTempFile.deleteOnExit();
+        Files.write(createTempFile.toPath(), "hawkbit".getBytes(StandardCharsets.US_ASCII));
+
+        final ArtifactFilesystem underTest = new ArtifactFilesystem(createTempFile,
+                ArtifactFilesystemTest.class.getSimpleName(), new DbArtifactHash("1", "2"), 7L, null);
+        try (FileChannel channel = underTest.getFileChannel()) {
+            final ByteBuffer buffer = ByteBuffer.allocate(7);
+            channel.read(buffer, 0);
+            assertThat(new String(buffer.array(), StandardCharsets.US_ASCII)).isEqualTo("hawkbit");
+        }
+    }
 }
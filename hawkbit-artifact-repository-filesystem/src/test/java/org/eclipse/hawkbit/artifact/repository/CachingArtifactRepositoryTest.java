@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import org.apache.commons.io.IOUtils;
+import org.eclipse.hawkbit.artifact.repository.model.AbstractDbArtifact;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Artifact File System Repository")
+@Stories("Test caching of artifact binaries in memory")
+public class CachingArtifactRepositoryTest {
+    private static final String TENANT = "test_tenant";
+
+    @Rule
+    public final TemporaryFolder repositoryFolder = new TemporaryFolder();
+
+    private CachingArtifactRepository cachingArtifactRepository;
+
+    @Before
+    public void setupRepository() {
+        final ArtifactFilesystemProperties properties = new ArtifactFilesystemProperties();
+        properties.setPath(repositoryFolder.getRoot().getAbsolutePath());
+        cachingArtifactRepository = new CachingArtifactRepository(new ArtifactFilesystemRepository(properties), 1024,
+                512);
+    }
+
+    @Test
+    @Description("Verfies that an artifact is served from the cache after the first lookup")
+    public void cachedArtifactIsServedFromMemory() throws IOException {
+        final byte[] fileContent = randomBytes(100);
+        final String sha1 = storeRandomArtifact(fileContent).getHashes().getSha1();
+
+        final AbstractDbArtifact first = cachingArtifactRepository.getArtifactBySha1(TENANT, sha1);
+        final AbstractDbArtifact second = cachingArtifactRepository.getArtifactBySha1(TENANT, sha1);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getFileChannel()).isNull();
+        assertThat(cachingArtifactRepository.getStats().hitCount()).isEqualTo(1);
+        assertThat(cachingArtifactRepository.getStats().missCount()).isEqualTo(1);
+        assertThat(cachingArtifactRepository.getCachedBytes()).isEqualTo(100);
+
+        try (InputStream content = second.getFileInputStream()) {
+            assertThat(IOUtils.toByteArray(content)).isEqualTo(fileContent);
+        }
+        try (InputStream content = second.getFileInputStream()) {
+            assertThat(content.skip(90)).isEqualTo(90);
+            assertThat(IOUtils.toByteArray(content)).hasSize(10);
+        }
+    }
+
+    @Test
+    @Description("Verfies that artifacts which exceed the maximum artifact size are not cached")
+    public void largeArtifactIsNotCached() {
+        final String sha1 = storeRandomArtifact(randomBytes(600)).getHashes().getSha1();
+
+        final AbstractDbArtifact artifact = cachingArtifactRepository.getArtifactBySha1(TENANT, sha1);
+
+        assertThat(artifact).isInstanceOf(ArtifactFilesystem.class);
+        assertThat(cachingArtifactRepository.getCachedArtifacts()).isZero();
+    }
+
+    @Test
+    @Description("Verfies that a deleted artifact is evicted from the cache")
+    public void deletedArtifactIsEvicted() {
+        final String sha1 = storeRandomArtifact(randomBytes(100)).getHashes().getSha1();
+        assertThat(cachingArtifactRepository.getArtifactBySha1(TENANT, sha1)).isNotNull();
+
+        cachingArtifactRepository.deleteBySha1(TENANT, sha1);
+
+        assertThat(cachingArtifactRepository.getCachedArtifacts()).isZero();
+        assertThat(cachingArtifactRepository.getArtifactBySha1(TENANT, sha1)).isNull();
+    }
+
+    @Test
+    @Description("Verfies that an invalidated artifact is evicted from the cache but kept in the repository")
+    public void invalidatedArtifactIsEvictedOnly() {
+        final String sha1 = storeRandomArtifact(randomBytes(100)).getHashes().getSha1();
+        final AbstractDbArtifact cached = cachingArtifactRepository.getArtifactBySha1(TENANT, sha1);
+
+        cachingArtifactRepository.invalidate(TENANT, sha1);
+
+        assertThat(cachingArtifactRepository.getCachedArtifacts()).isZero();
+        final AbstractDbArtifact reloaded = cachingArtifactRepository.getArtifactBySha1(TENANT, sha1);
+        assertThat(reloaded).isNotNull().isNotSameAs(cached);
+        assertThat(cachingArtifactRepository.getStats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    @Description("Verfies that invalidating a tenant evicts the artifacts of this tenant only")
+    public void invalidatedTenantIsEvicted() {
+        final String sha1 = storeRandomArtifact(randomBytes(100)).getHashes().getSha1();
+        final String otherSha1 = cachingArtifactRepository.store("other_tenant",
+                new ByteArrayInputStream(randomBytes(100)), "filename.tmp", "application/txt", null).getHashes()
+                .getSha1();
+        cachingArtifactRepository.getArtifactBySha1(TENANT, sha1);
+        cachingArtifactRepository.getArtifactBySha1("other_tenant", otherSha1);
+
+        cachingArtifactRepository.invalidateTenant(TENANT.toUpperCase());
+
+        assertThat(cachingArtifactRepository.getCachedArtifacts()).isEqualTo(1);
+        assertThat(cachingArtifactRepository.getArtifactBySha1(TENANT, sha1)).isNotNull();
+    }
+
+    @Test
+    @Description("Verfies that an evicted artifact can still be read by the open streams and that its buffer is "
+            + "released after the last stream is closed")
+    public void evictedArtifactIsReadableUntilStreamIsClosed() throws IOException {
+        final byte[] fileContent = randomBytes(100);
+        final String sha1 = storeRandomArtifact(fileContent).getHashes().getSha1();
+        final AbstractDbArtifact cached = cachingArtifactRepository.getArtifactBySha1(TENANT, sha1);
+
+        final InputStream content = cached.getFileInputStream();
+        cachingArtifactRepository.deleteBySha1(TENANT, sha1);
+
+        assertThat(IOUtils.toByteArray(content)).isEqualTo(fileContent);
+        content.close();
+
+        try {
+            content.read();
+            fail("Expected an IOException as the stream is closed");
+        } catch (final IOException e) {
+            assertThat(e).hasMessage("Stream closed");
+        }
+    }
+
+    @Test
+    @Description("Verfies that the least recently used artifacts are evicted if the cache exceeds its maximum size")
+    public void cacheIsBoundedBySize() {
+        for (int i = 0; i < 5; i++) {
+            final String sha1 = storeRandomArtifact(randomBytes(400)).getHashes().getSha1();
+            cachingArtifactRepository.getArtifactBySha1(TENANT, sha1);
+        }
+
+        assertThat(cachingArtifactRepository.getCachedBytes()).isLessThanOrEqualTo(1024);
+        assertThat(cachingArtifactRepository.getStats().evictionCount()).isGreaterThan(0);
+    }
+
+    private AbstractDbArtifact storeRandomArtifact(final byte[] fileContent) {
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(fileContent);
+        return cachingArtifactRepository.store(TENANT, inputStream, "filename.tmp", "application/txt", null);
+    }
+
+    private static byte[] randomBytes(final int size) {
+        final byte[] randomBytes = new byte[size];
+        new Random().nextBytes(randomBytes);
+        return randomBytes;
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.hawkbit.amqp.PartitionedAmqpMessageReceiver;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * {@link PublicMetrics} of the {@link PartitionedAmqpMessageReceiver}, i.e. the
+ * queue depth, the number of processed messages and the latency from delivery
+ * until processed per partition.
+ */
+public class AmqpReceiverMetrics implements PublicMetrics {
+
+    private static final String PREFIX = "hawkbit.dmf.receiver.";
+
+    private final PartitionedAmqpMessageReceiver receiver;
+
+    /**
+     * @param receiver
+     *            to report
+     */
+    public AmqpReceiverMetrics(final PartitionedAmqpMessageReceiver receiver) {
+        this.receiver = receiver;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        final List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(PREFIX + "coalesced", receiver.getCoalesced()));
+        for (int i = 0; i < receiver.getPartitionCount(); i++) {
+            final String partition = PREFIX + "partition." + i + ".";
+            metrics.add(new Metric<>(partition + "queue.size", receiver.getQueueSize(i)));
+            metrics.add(new Metric<>(partition + "processed", receiver.getProcessed(i)));
+            metrics.add(new Metric<>(partition + "latency.last", receiver.getLastLatency(i)));
+            metrics.add(new Metric<>(partition + "latency.max", receiver.getMaxLatency(i)));
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.hawkbit.amqp.AmqpMessageSenderService;
+import org.eclipse.hawkbit.amqp.BatchingAmqpMessageSenderService;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * {@link PublicMetrics} of the {@link BatchingAmqpMessageSenderService}, i.e.
+ * the number of sent messages, the queue depth and the confirm latency of the
+ * broker. Other {@link AmqpMessageSenderService}s provide no metrics.
+ */
+public class AmqpSenderMetrics implements PublicMetrics {
+
+    private static final String PREFIX = "hawkbit.dmf.sender.";
+
+    private final AmqpMessageSenderService amqpSenderService;
+
+    /**
+     * @param amqpSenderService
+     *            to report
+     */
+    public AmqpSenderMetrics(final AmqpMessageSenderService amqpSenderService) {
+        this.amqpSenderService = amqpSenderService;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        if (!(amqpSenderService instanceof BatchingAmqpMessageSenderService)) {
+            return Collections.emptyList();
+        }
+
+        final BatchingAmqpMessageSenderService sender = (BatchingAmqpMessageSenderService) amqpSenderService;
+        final List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(PREFIX + "queue.size", sender.getQueueSize()));
+        metrics.add(new Metric<>(PREFIX + "sent", sender.getSent()));
+        metrics.add(new Metric<>(PREFIX + "sent.directly", sender.getSentDirectly()));
+        metrics.add(new Metric<>(PREFIX + "batches.failed", sender.getFailedBatches()));
+        metrics.add(new Metric<>(PREFIX + "confirm.latency.last", sender.getLastConfirmLatency()));
+        metrics.add(new Metric<>(PREFIX + "confirm.latency.max", sender.getMaxConfirmLatency()));
+        return metrics;
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
+import org.eclipse.hawkbit.artifact.repository.CachingArtifactRepository;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import com.google.common.cache.CacheStats;
+
+/**
+ * {@link PublicMetrics} of the {@link CachingArtifactRepository}, i.e. hits,
+ * misses and evictions of the artifact cache.
+ */
+public class ArtifactCacheMetrics implements PublicMetrics {
+
+    private static final String PREFIX = "hawkbit.artifact.cache.";
+
+    private final ArtifactRepository artifactRepository;
+
+    /**
+     * @param artifactRepository
+     *            the repository to report, metrics are only reported if it is
+     *            a {@link CachingArtifactRepository}
+     */
+    public ArtifactCacheMetrics(final ArtifactRepository artifactRepository) {
+        this.artifactRepository = artifactRepository;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        if (!(artifactRepository instanceof CachingArtifactRepository)) {
+            return Collections.emptyList();
+        }
+
+        final CachingArtifactRepository cachingRepository = (CachingArtifactRepository) artifactRepository;
+        final CacheStats stats = cachingRepository.getStats();
+
+        final List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(PREFIX + "hits", stats.hitCount()));
+        metrics.add(new Metric<>(PREFIX + "misses", stats.missCount()));
+        metrics.add(new Metric<>(PREFIX + "evictions", stats.evictionCount()));
+        metrics.add(new Metric<>(PREFIX + "size", cachingRepository.getCachedArtifacts()));
+        metrics.add(new Metric<>(PREFIX + "bytes", cachingRepository.getCachedBytes()));
+        return metrics;
+    }
+}
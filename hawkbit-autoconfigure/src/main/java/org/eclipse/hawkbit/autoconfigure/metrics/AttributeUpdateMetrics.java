@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.hawkbit.amqp.BatchingAttributeUpdateService;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * {@link PublicMetrics} of the {@link BatchingAttributeUpdateService}, i.e. the
+ * queue depth and the number of persisted and dropped attribute updates.
+ */
+public class AttributeUpdateMetrics implements PublicMetrics {
+
+    private static final String PREFIX = "hawkbit.dmf.attributes.";
+
+    private final BatchingAttributeUpdateService attributeUpdateService;
+
+    /**
+     * @param attributeUpdateService
+     *            to report
+     */
+    public AttributeUpdateMetrics(final BatchingAttributeUpdateService attributeUpdateService) {
+        this.attributeUpdateService = attributeUpdateService;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        final List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(PREFIX + "queue.size", attributeUpdateService.getQueueSize()));
+        metrics.add(new Metric<>(PREFIX + "persisted", attributeUpdateService.getPersisted()));
+        metrics.add(new Metric<>(PREFIX + "dropped", attributeUpdateService.getDropped()));
+        metrics.add(new Metric<>(PREFIX + "unknown", attributeUpdateService.getUnknown()));
+        return metrics;
+    }
+}
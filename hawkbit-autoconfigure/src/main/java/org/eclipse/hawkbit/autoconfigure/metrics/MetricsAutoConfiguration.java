@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.metrics;
+
+import org.eclipse.hawkbit.amqp.AmqpMessageSenderService;
+import org.eclipse.hawkbit.amqp.BatchingAmqpMessageSenderService;
+import org.eclipse.hawkbit.amqp.BatchingAttributeUpdateService;
+import org.eclipse.hawkbit.amqp.PartitionedAmqpMessageReceiver;
+import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
+import org.eclipse.hawkbit.artifact.repository.CachingArtifactRepository;
+import org.eclipse.hawkbit.autoconfigure.dmf.amqp.DmfApiAutoConfiguration;
+import org.eclipse.hawkbit.autoconfigure.repository.ArtifactFilesystemAutoConfiguration;
+import org.eclipse.hawkbit.autoconfigure.repository.JpaRepositoryAutoConfiguration;
+import org.eclipse.hawkbit.repository.jpa.TargetPollQueue;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutScheduler;
+import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Auto configuration which exposes hawkBit internal metrics through the
+ * Spring Boot actuator {@link PublicMetrics} if the actuator is on the
+ * classpath.
+ */
+@Configuration
+@ConditionalOnClass(PublicMetrics.class)
+@AutoConfigureAfter({ ArtifactFilesystemAutoConfiguration.class, JpaRepositoryAutoConfiguration.class,
+        DmfApiAutoConfiguration.class })
+public class MetricsAutoConfiguration {
+
+    /**
+     * Metrics of the artifact repository.
+     */
+    @Configuration
+    @ConditionalOnClass(CachingArtifactRepository.class)
+    @ConditionalOnBean(ArtifactRepository.class)
+    static class ArtifactRepositoryMetricsConfiguration {
+
+        /**
+         * @param artifactRepository
+         *            the artifact repository
+         * @return {@link PublicMetrics} of the artifact cache
+         */
+        @Bean
+        public PublicMetrics artifactCacheMetrics(final ArtifactRepository artifactRepository) {
+            return new ArtifactCacheMetrics(artifactRepository);
+        }
+    }
+
+    /**
+     * Metrics of the RSQL query caches.
+     */
+    @Configuration
+    @ConditionalOnClass(RSQLUtility.class)
+    static class RsqlCacheMetricsConfiguration {
+
+        /**
+         * @return {@link PublicMetrics} of the RSQL query caches
+         */
+        @Bean
+        public PublicMetrics rsqlCacheMetrics() {
+            return new RsqlCacheMetrics();
+        }
+    }
+
+    /**
+     * Metrics of the lazy target poll persistence.
+     */
+    @Configuration
+    @ConditionalOnClass(TargetPollQueue.class)
+    @ConditionalOnBean(TargetPollQueue.class)
+    static class TargetPollQueueMetricsConfiguration {
+
+        /**
+         * @param targetPollQueue
+         *            the queue of target polls
+         * @return {@link PublicMetrics} of the target poll queue
+         */
+        @Bean
+        public PublicMetrics targetPollQueueMetrics(final TargetPollQueue targetPollQueue) {
+            return new TargetPollQueueMetrics(targetPollQueue);
+        }
+    }
+
+    /**
+     * Metrics of the rollout scheduler.
+     */
+    @Configuration
+    @ConditionalOnClass(RolloutScheduler.class)
+    @ConditionalOnBean(RolloutScheduler.class)
+    static class RolloutSchedulerMetricsConfiguration {
+
+        /**
+         * @param rolloutScheduler
+         *            the rollout scheduler
+         * @return {@link PublicMetrics} of the rollout handling
+         */
+        @Bean
+        public PublicMetrics rolloutSchedulerMetrics(final RolloutScheduler rolloutScheduler) {
+            return new RolloutSchedulerMetrics(rolloutScheduler);
+        }
+    }
+
+    /**
+     * Metrics of the DMF message sender.
+     */
+    @Configuration
+    @ConditionalOnClass(BatchingAmqpMessageSenderService.class)
+    @ConditionalOnBean(AmqpMessageSenderService.class)
+    static class AmqpSenderMetricsConfiguration {
+
+        /**
+         * @param amqpSenderService
+         *            the DMF message sender
+         * @return {@link PublicMetrics} of the DMF message sender
+         */
+        @Bean
+        public PublicMetrics amqpSenderMetrics(final AmqpMessageSenderService amqpSenderService) {
+            return new AmqpSenderMetrics(amqpSenderService);
+        }
+    }
+
+    /**
+     * Metrics of the partitioned DMF message receiver.
+     */
+    @Configuration
+    @ConditionalOnClass(PartitionedAmqpMessageReceiver.class)
+    @ConditionalOnBean(PartitionedAmqpMessageReceiver.class)
+    static class AmqpReceiverMetricsConfiguration {
+
+        /**
+         * @param receiver
+         *            the partitioned DMF message receiver
+         * @return {@link PublicMetrics} of the DMF message receiver
+         */
+        @Bean
+        public PublicMetrics amqpReceiverMetrics(final PartitionedAmqpMessageReceiver receiver) {
+            return new AmqpReceiverMetrics(receiver);
+        }
+    }
+
+    /**
+     * Metrics of the batched DMF attribute updates.
+     */
+    @Configuration
+    @ConditionalOnClass(BatchingAttributeUpdateService.class)
+    @ConditionalOnBean(BatchingAttributeUpdateService.class)
+    static class AttributeUpdateMetricsConfiguration {
+
+        /**
+         * @param attributeUpdateService
+         *            the batching attribute update service
+         * @return {@link PublicMetrics} of the DMF attribute updates
+         */
+        @Bean
+        public PublicMetrics attributeUpdateMetrics(final BatchingAttributeUpdateService attributeUpdateService) {
+            return new AttributeUpdateMetrics(attributeUpdateService);
+        }
+    }
+}
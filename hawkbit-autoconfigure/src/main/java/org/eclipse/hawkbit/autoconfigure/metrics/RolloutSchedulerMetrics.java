@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutScheduler;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * {@link PublicMetrics} of the {@link RolloutScheduler}, i.e. the rollout
+ * handling time aggregated over all tenants. There is no metric per tenant
+ * to keep the number of metrics independent of the number of tenants.
+ */
+public class RolloutSchedulerMetrics implements PublicMetrics {
+
+    private static final String PREFIX = "hawkbit.rollout.scheduler.";
+
+    private final RolloutScheduler rolloutScheduler;
+
+    /**
+     * @param rolloutScheduler
+     *            to report
+     */
+    public RolloutSchedulerMetrics(final RolloutScheduler rolloutScheduler) {
+        this.rolloutScheduler = rolloutScheduler;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        final List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(PREFIX + "tenants", rolloutScheduler.getHandledTenants()));
+        metrics.add(new Metric<>(PREFIX + "time.last", rolloutScheduler.getLastRunTime()));
+        metrics.add(new Metric<>(PREFIX + "time.max", rolloutScheduler.getMaxRunTime()));
+        metrics.add(new Metric<>(PREFIX + "tenant.time.max", rolloutScheduler.getMaxTenantTime()));
+        return metrics;
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * {@link PublicMetrics} of the caches of the {@link RSQLUtility}, i.e. hits,
+ * misses and hit rate of the parsed queries and of the resolved fields.
+ */
+public class RsqlCacheMetrics implements PublicMetrics {
+
+    private static final String PREFIX = "hawkbit.rsql.cache.";
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        final List<Metric<?>> metrics = new ArrayList<>();
+        addMetrics(metrics, PREFIX + "queries.", RSQLUtility.getParseCacheStats());
+        addMetrics(metrics, PREFIX + "fields.", RSQLUtility.getFieldCacheStats());
+        return metrics;
+    }
+
+    private static void addMetrics(final List<Metric<?>> metrics, final String prefix, final CacheStats stats) {
+        metrics.add(new Metric<>(prefix + "hits", stats.hitCount()));
+        metrics.add(new Metric<>(prefix + "misses", stats.missCount()));
+        metrics.add(new Metric<>(prefix + "hit.rate", stats.hitRate()));
+        metrics.add(new Metric<>(prefix + "evictions", stats.evictionCount()));
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.jpa.TargetPollQueue;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * {@link PublicMetrics} of the {@link TargetPollQueue}, i.e. the coalescing
+ * ratio of target polls and the flush latency.
+ */
+public class TargetPollQueueMetrics implements PublicMetrics {
+
+    private static final String PREFIX = "hawkbit.poll.queue.";
+
+    private final TargetPollQueue targetPollQueue;
+
+    /**
+     * @param targetPollQueue
+     *            to report
+     */
+    public TargetPollQueueMetrics(final TargetPollQueue targetPollQueue) {
+        this.targetPollQueue = targetPollQueue;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        final List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(PREFIX + "size", targetPollQueue.getSize()));
+        metrics.add(new Metric<>(PREFIX + "polls", targetPollQueue.getPolls()));
+        metrics.add(new Metric<>(PREFIX + "persisted", targetPollQueue.getPersisted()));
+        metrics.add(new Metric<>(PREFIX + "coalescing.ratio", targetPollQueue.getCoalescingRatio()));
+        metrics.add(new Metric<>(PREFIX + "flush.latency.last", targetPollQueue.getLastFlushLatency()));
+        metrics.add(new Metric<>(PREFIX + "flush.latency.max", targetPollQueue.getMaxFlushLatency()));
+        return metrics;
+    }
+}
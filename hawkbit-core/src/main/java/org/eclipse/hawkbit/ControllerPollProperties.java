@@ -59,6 +59,31 @@ public class ControllerPollProperties implements Serializable {
      */
     private int maintenanceWindowPollCount = 3;
 
+    /**
+     * Maximum time in HH:MM:SS notation a long polling request of a controller
+     * is parked until it is answered if nothing changes for the target.
+     */
+    private String longPollingTimeout = "00:00:50";
+
+    /**
+     * Number of threads which answer parked long polling requests.
+     */
+    private int longPollingThreads = 4;
+
+    /**
+     * Interval in HH:MM:SS notation in which the aggregated progress of the
+     * artifact downloads on a node is published.
+     */
+    private String downloadProgressInterval = "00:00:05";
+
+    /**
+     * Time window in HH:MM:SS notation in which the download status of an
+     * action is written once, i.e. further (range) requests of the artifacts
+     * of the action do not write a status. 00:00:00 writes a status for
+     * every request.
+     */
+    private String downloadStatusWindow = "00:05:00";
+
     public String getPollingTime() {
         return pollingTime;
     }
@@ -110,4 +135,36 @@ public class ControllerPollProperties implements Serializable {
     public void setMaintenanceWindowPollCount(int maintenanceWindowPollCount) {
         this.maintenanceWindowPollCount = maintenanceWindowPollCount;
     }
+
+    public String getLongPollingTimeout() {
+        return longPollingTimeout;
+    }
+
+    public void setLongPollingTimeout(final String longPollingTimeout) {
+        this.longPollingTimeout = longPollingTimeout;
+    }
+
+    public int getLongPollingThreads() {
+        return longPollingThreads;
+    }
+
+    public void setLongPollingThreads(final int longPollingThreads) {
+        this.longPollingThreads = longPollingThreads;
+    }
+
+    public String getDownloadProgressInterval() {
+        return downloadProgressInterval;
+    }
+
+    public void setDownloadProgressInterval(final String downloadProgressInterval) {
+        this.downloadProgressInterval = downloadProgressInterval;
+    }
+
+    public String getDownloadStatusWindow() {
+        return downloadStatusWindow;
+    }
+
+    public void setDownloadStatusWindow(final String downloadStatusWindow) {
+        this.downloadStatusWindow = downloadStatusWindow;
+    }
 }
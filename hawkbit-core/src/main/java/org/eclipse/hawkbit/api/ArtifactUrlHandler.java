@@ -46,4 +46,22 @@ public interface ArtifactUrlHandler {
      * @return an URL for the given artifact parameters in a given protocol
      */
     List<ArtifactUrl> getUrls(URLPlaceholder placeholder, ApiType api, URI requestUri);
+
+    /**
+     * Returns a template of the download URLs for a given artifact which
+     * generates the URLs for many targets without resolving the target
+     * independent parts again.
+     *
+     * @param placeholder
+     *            data for URL generation, the target specific data is ignored
+     * @param api
+     *            given protocol that URL needs to support
+     * 
+     * @return a template of the URLs for the given artifact parameters in a
+     *         given protocol
+     */
+    default ArtifactUrlTemplate getUrlTemplate(final URLPlaceholder placeholder, final ApiType api) {
+        return (controllerId, targetId) -> getUrls(new URLPlaceholder(placeholder.getTenant(),
+                placeholder.getTenantId(), controllerId, targetId, placeholder.getSoftwareData()), api);
+    }
 }
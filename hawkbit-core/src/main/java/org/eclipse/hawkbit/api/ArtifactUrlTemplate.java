@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.api;
+
+import java.util.List;
+
+/**
+ * Download URLs of an artifact where everything but the target specific parts
+ * is already resolved. A template is meant to be reused for all targets the
+ * artifact is sent to.
+ */
+@FunctionalInterface
+public interface ArtifactUrlTemplate {
+
+    /**
+     * Generates the download URLs of the artifact for a specific target.
+     *
+     * @param controllerId
+     *            of the target
+     * @param targetId
+     *            of the target
+     * @return the URLs of the artifact for the target
+     */
+    List<ArtifactUrl> getUrls(String controllerId, Long targetId);
+}
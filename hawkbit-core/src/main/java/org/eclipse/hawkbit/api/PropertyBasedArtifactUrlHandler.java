@@ -12,13 +12,16 @@ import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.api.ArtifactUrlHandlerProperties.UrlProtocol;
@@ -67,6 +70,10 @@ public class PropertyBasedArtifactUrlHandler implements ArtifactUrlHandler {
     private static final String SOFTWARE_MODULE_ID_BASE10_PLACDEHOLDER = "softwareModuleId";
     private static final String SOFTWARE_MODULE_ID_BASE62_PLACDEHOLDER = "softwareModuleIdBase62";
 
+    private static final Set<String> TARGET_PLACEHOLDERS = new HashSet<>(
+            Arrays.asList(CONTROLLER_ID_PLACEHOLDER, TARGET_ID_BASE10_PLACEHOLDER, TARGET_ID_BASE62_PLACEHOLDER));
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{(\\w+)\\}");
+
     private final ArtifactUrlHandlerProperties urlHandlerProperties;
 
     /**
@@ -84,31 +91,24 @@ public class PropertyBasedArtifactUrlHandler implements ArtifactUrlHandler {
 
     @Override
     public List<ArtifactUrl> getUrls(final URLPlaceholder placeholder, final ApiType api, final URI requestUri) {
+        return getUrlTemplate(placeholder, api, requestUri).getUrls(placeholder.getControllerId(),
+                placeholder.getTargetId());
+    }
 
-        return urlHandlerProperties.getProtocols().entrySet().stream()
-                .filter(entry -> entry.getValue().getSupports().contains(api))
-                .filter(entry -> entry.getValue().isEnabled())
-                .map(entry -> new ArtifactUrl(entry.getValue().getProtocol().toUpperCase(), entry.getValue().getRel(),
-                        generateUrl(entry.getValue(), placeholder, requestUri)))
-                .collect(Collectors.toList());
-
+    @Override
+    public ArtifactUrlTemplate getUrlTemplate(final URLPlaceholder placeholder, final ApiType api) {
+        return getUrlTemplate(placeholder, api, null);
     }
 
-    private static String generateUrl(final UrlProtocol protocol, final URLPlaceholder placeholder,
+    private ArtifactUrlTemplate getUrlTemplate(final URLPlaceholder placeholder, final ApiType api,
             final URI requestUri) {
-        final Set<Entry<String, String>> entrySet = getReplaceMap(protocol, placeholder, requestUri).entrySet();
-
-        String urlPattern = protocol.getRef();
+        final List<UrlPattern> patterns = urlHandlerProperties.getProtocols().values().stream()
+                .filter(protocol -> protocol.getSupports().contains(api)).filter(UrlProtocol::isEnabled)
+                .map(protocol -> new UrlPattern(protocol, getReplaceMap(protocol, placeholder, requestUri)))
+                .collect(Collectors.toList());
 
-        for (final Entry<String, String> entry : entrySet) {
-            if (entry.getKey().equals(PORT_PLACEHOLDER)) {
-                urlPattern = urlPattern.replace(":{" + entry.getKey() + "}",
-                        StringUtils.isEmpty(entry.getValue()) ? "" : (":" + entry.getValue()));
-            } else {
-                urlPattern = urlPattern.replace("{" + entry.getKey() + "}", entry.getValue());
-            }
-        }
-        return urlPattern;
+        return (controllerId, targetId) -> patterns.stream().map(pattern -> pattern.resolve(controllerId, targetId))
+                .collect(Collectors.toList());
     }
 
     private static Map<String, String> getReplaceMap(final UrlProtocol protocol, final URLPlaceholder placeholder,
@@ -134,9 +134,6 @@ public class PropertyBasedArtifactUrlHandler implements ArtifactUrlHandler {
         replaceMap.put(TENANT_PLACEHOLDER, placeholder.getTenant());
         replaceMap.put(TENANT_ID_BASE10_PLACEHOLDER, String.valueOf(placeholder.getTenantId()));
         replaceMap.put(TENANT_ID_BASE62_PLACEHOLDER, Base62Util.fromBase10(placeholder.getTenantId()));
-        replaceMap.put(CONTROLLER_ID_PLACEHOLDER, placeholder.getControllerId());
-        replaceMap.put(TARGET_ID_BASE10_PLACEHOLDER, String.valueOf(placeholder.getTargetId()));
-        replaceMap.put(TARGET_ID_BASE62_PLACEHOLDER, Base62Util.fromBase10(placeholder.getTargetId()));
         replaceMap.put(ARTIFACT_ID_BASE62_PLACEHOLDER,
                 Base62Util.fromBase10(placeholder.getSoftwareData().getArtifactId()));
         replaceMap.put(ARTIFACT_ID_BASE10_PLACEHOLDER, String.valueOf(placeholder.getSoftwareData().getArtifactId()));
@@ -147,6 +144,18 @@ public class PropertyBasedArtifactUrlHandler implements ArtifactUrlHandler {
         return replaceMap;
     }
 
+    private static String getTargetPlaceholderValue(final String placeholder, final String controllerId,
+            final Long targetId) {
+        switch (placeholder) {
+        case CONTROLLER_ID_PLACEHOLDER:
+            return controllerId;
+        case TARGET_ID_BASE10_PLACEHOLDER:
+            return String.valueOf(targetId);
+        default:
+            return Base62Util.fromBase10(targetId);
+        }
+    }
+
     private static String getRequestPort(final UrlProtocol protocol, final URI requestUri) {
         if (requestUri == null) {
             return getPort(protocol);
@@ -191,4 +200,54 @@ public class PropertyBasedArtifactUrlHandler implements ArtifactUrlHandler {
         return host + "." + domain;
     }
 
+    /**
+     * URL pattern of a protocol which is split into the literal parts, with
+     * all target independent placeholders already replaced, and the target
+     * specific placeholders in between.
+     */
+    private static final class UrlPattern {
+        private final String protocol;
+        private final String rel;
+        private final List<String> literals = new ArrayList<>();
+        private final List<String> targetPlaceholders = new ArrayList<>();
+
+        private UrlPattern(final UrlProtocol protocol, final Map<String, String> replaceMap) {
+            this.protocol = protocol.getProtocol().toUpperCase();
+            this.rel = protocol.getRel();
+
+            final String port = replaceMap.get(PORT_PLACEHOLDER);
+            final String pattern = protocol.getRef().replace(":{" + PORT_PLACEHOLDER + "}",
+                    StringUtils.isEmpty(port) ? "" : (":" + port));
+
+            final Matcher matcher = PLACEHOLDER_PATTERN.matcher(pattern);
+            final StringBuilder literal = new StringBuilder();
+            int end = 0;
+            while (matcher.find()) {
+                literal.append(pattern, end, matcher.start());
+                end = matcher.end();
+
+                final String placeholder = matcher.group(1);
+                if (TARGET_PLACEHOLDERS.contains(placeholder)) {
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    targetPlaceholders.add(placeholder);
+                } else if (replaceMap.get(placeholder) != null && !PORT_PLACEHOLDER.equals(placeholder)) {
+                    literal.append(replaceMap.get(placeholder));
+                } else {
+                    literal.append(matcher.group());
+                }
+            }
+            literal.append(pattern, end, pattern.length());
+            literals.add(literal.toString());
+        }
+
+        private ArtifactUrl resolve(final String controllerId, final Long targetId) {
+            final StringBuilder url = new StringBuilder(literals.get(0));
+            for (int i = 0; i < targetPlaceholders.size(); i++) {
+                url.append(getTargetPlaceholderValue(targetPlaceholders.get(i), controllerId, targetId))
+                        .append(literals.get(i + 1));
+            }
+            return new ArtifactUrl(protocol, rel, url.toString());
+        }
+    }
 }
@@ -8,24 +8,25 @@
  */
 package org.eclipse.hawkbit.artifact.repository;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-import java.security.DigestInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import org.eclipse.hawkbit.artifact.repository.model.AbstractDbArtifact;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.util.StringUtils;
 
 import com.google.common.io.BaseEncoding;
-import com.google.common.io.ByteStreams;
 
 /**
  * Abstract utility class for ArtifactRepository implementations with common
@@ -35,6 +36,18 @@ public abstract class AbstractArtifactRepository implements ArtifactRepository {
     private static final String TEMP_FILE_PREFIX = "tmp";
     private static final String TEMP_FILE_SUFFIX = "artifactrepo";
 
+    /**
+     * Size of the buffer the uploaded binary is hashed and written with.
+     */
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Direct buffers of finished uploads which are reused by the next uploads.
+     * The pool is bounded as further buffers are only released by the garbage
+     * collection.
+     */
+    private static final BlockingQueue<ByteBuffer> BUFFER_POOL = new ArrayBlockingQueue<>(4);
+
     private static final Logger LOG = LoggerFactory.getLogger(AbstractArtifactRepository.class);
 
     @Override
@@ -52,22 +65,29 @@ public abstract class AbstractArtifactRepository implements ArtifactRepository {
             throw new ArtifactStoreException(e.getMessage(), e);
         }
 
-        String tempFile = null;
-        try (final DigestInputStream inputstream = wrapInDigestInputStream(content, mdSHA1, mdMD5)) {
+        final String sanitizedTenant = sanitizeTenant(tenant);
+
+        // a binary which is already stored is only hashed to verify the
+        // upload but not written again
+        final File tempFile = hash != null && hash.getSha1() != null && isStored(sanitizedTenant, hash.getSha1())
+                ? null
+                : createTempFile();
+        try (final InputStream inputstream = content) {
 
-            tempFile = storeTempFile(inputstream);
+            copyAndHash(inputstream, tempFile, mdSHA1, mdMD5);
 
             final String sha1Hash16 = BaseEncoding.base16().lowerCase().encode(mdSHA1.digest());
             final String md5Hash16 = BaseEncoding.base16().lowerCase().encode(mdMD5.digest());
 
             checkHashes(sha1Hash16, md5Hash16, hash);
 
-            return store(sanitizeTenant(tenant), sha1Hash16, md5Hash16, contentType, tempFile);
+            return store(sanitizedTenant, sha1Hash16, md5Hash16, contentType,
+                    tempFile != null ? tempFile.getPath() : null);
         } catch (final IOException e) {
             throw new ArtifactStoreException(e.getMessage(), e);
         } finally {
-            if (!StringUtils.isEmpty(tempFile)) {
-                deleteTempFile(tempFile);
+            if (tempFile != null) {
+                deleteTempFile(tempFile.getPath());
             }
         }
     }
@@ -80,24 +100,75 @@ public abstract class AbstractArtifactRepository implements ArtifactRepository {
         }
     }
 
-    protected String storeTempFile(final InputStream content) throws IOException {
-        final File file = createTempFile();
-
-        try (final OutputStream outputstream = new BufferedOutputStream(new FileOutputStream(file))) {
-            ByteStreams.copy(content, outputstream);
-            outputstream.flush();
+    /**
+     * Creates the file the uploaded binary is written to while its hashes are
+     * computed. Implementations should create it on the same file-system as
+     * the final location of the binary to allow a rename instead of a copy.
+     * 
+     * @return the temporary file in the default temporary-file directory
+     */
+    protected File createTempFile() {
+        try {
+            return File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+        } catch (final IOException e) {
+            throw new ArtifactStoreException("Cannot create tempfile", e);
         }
+    }
 
-        return file.getPath();
+    /**
+     * @param tenant
+     *            the sanitized tenant
+     * @param sha1Hash
+     *            of the binary
+     * @return <code>true</code> if a binary with the given SHA1 hash is
+     *         already stored, <code>false</code> otherwise or if unknown
+     */
+    protected boolean isStored(final String tenant, final String sha1Hash) {
+        return false;
     }
 
-    private static File createTempFile() {
+    /**
+     * Writes the content to the file, if any, and updates the digests in the
+     * same pass.
+     */
+    private static void copyAndHash(final InputStream content, final File file, final MessageDigest... digests)
+            throws IOException {
+        final ReadableByteChannel from = Channels.newChannel(content);
+        final ByteBuffer pooled = BUFFER_POOL.poll();
+        final ByteBuffer buffer = pooled != null ? pooled : ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        try (final FileChannel to = file != null ? FileChannel.open(file.toPath(), StandardOpenOption.WRITE) : null) {
+            boolean endOfStream = false;
+            while (!endOfStream) {
+                endOfStream = fill(from, buffer);
+                buffer.flip();
+
+                for (final MessageDigest digest : digests) {
+                    digest.update(buffer.duplicate());
+                }
+                while (to != null && buffer.hasRemaining()) {
+                    to.write(buffer);
+                }
+                buffer.clear();
+            }
+        } finally {
+            buffer.clear();
+            BUFFER_POOL.offer(buffer);
+        }
+    }
 
-        try {
-            return File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
-        } catch (final IOException e) {
-            throw new ArtifactStoreException("Cannot create tempfile", e);
+    /**
+     * Reads from the channel until the buffer is full.
+     * 
+     * @return <code>true</code> if the end of the stream has been reached
+     */
+    private static boolean fill(final ReadableByteChannel from, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (from.read(buffer) == -1) {
+                return true;
+            }
         }
+        return false;
     }
 
     private static void checkHashes(final String sha1Hash16, final String md5Hash16, final DbArtifactHash hash) {
@@ -115,14 +186,27 @@ public abstract class AbstractArtifactRepository implements ArtifactRepository {
         }
     }
 
+    /**
+     * Moves the uploaded binary to its final location.
+     * 
+     * @param tenant
+     *            the sanitized tenant
+     * @param sha1Hash16
+     *            of the binary
+     * @param mdMD5Hash16
+     *            of the binary
+     * @param contentType
+     *            of the binary
+     * @param tempFile
+     *            the uploaded binary or <code>null</code> if the binary is
+     *            already stored, see {@link #isStored(String, String)}
+     * @return the stored artifact
+     * @throws IOException
+     *             if the binary could not be stored
+     */
     protected abstract AbstractDbArtifact store(final String tenant, final String sha1Hash16, final String mdMD5Hash16,
             final String contentType, final String tempFile) throws IOException;
 
-    private static DigestInputStream wrapInDigestInputStream(final InputStream input, final MessageDigest mdSHA1,
-            final MessageDigest mdMD5) {
-        return new DigestInputStream(new DigestInputStream(input, mdMD5), mdSHA1);
-    }
-
     protected static String sanitizeTenant(final String tenant) {
         return tenant.trim().toUpperCase();
     }
@@ -0,0 +1,410 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.hawkbit.artifact.repository.model.AbstractDbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalListener;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * {@link ArtifactRepository} decorator which keeps the most recently
+ * downloaded artifacts in off-heap (direct) {@link ByteBuffer}s. Artifacts are
+ * served from memory on a cache hit without accessing the underlying
+ * repository.
+ *
+ * The cache is bounded by the overall size of the cached binaries, the least
+ * recently used artifacts are evicted first. Artifacts which exceed the
+ * configured maximum artifact size are never cached. The buffer of an evicted
+ * artifact is released as soon as the last running download of it is
+ * finished.
+ *
+ * The cache of a node is kept consistent with the repository of the cluster by
+ * {@link #invalidate(String, String)} and {@link #invalidateTenant(String)},
+ * which have to be called if an artifact is deleted on another node.
+ */
+public class CachingArtifactRepository implements ArtifactRepository {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachingArtifactRepository.class);
+
+    private static final BufferCleaner CLEANER = resolveCleaner();
+
+    private final ArtifactRepository delegate;
+    private final long maxArtifactSize;
+    private final Cache<ArtifactCacheKey, CachedArtifact> cache;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate
+     *            the repository which holds the artifacts
+     * @param maxBytes
+     *            the maximum overall size of the cached artifacts in bytes
+     * @param maxArtifactSize
+     *            the maximum size of a single artifact in bytes to be cached
+     */
+    public CachingArtifactRepository(final ArtifactRepository delegate, final long maxBytes,
+            final long maxArtifactSize) {
+        this.delegate = delegate;
+        // a direct buffer is limited to Integer.MAX_VALUE bytes
+        this.maxArtifactSize = Math.min(Math.min(maxArtifactSize, maxBytes), Integer.MAX_VALUE);
+        // one segment only, as the weight limit is split between the segments
+        // which would limit the size of a cacheable artifact otherwise
+        this.cache = CacheBuilder.newBuilder().concurrencyLevel(1).maximumWeight(maxBytes)
+                .weigher((final ArtifactCacheKey key, final CachedArtifact value) -> (int) value.getSize())
+                .removalListener((RemovalListener<ArtifactCacheKey, CachedArtifact>) notification -> notification
+                        .getValue().release())
+                .recordStats().build();
+    }
+
+    @Override
+    public AbstractDbArtifact store(final String tenant, final InputStream content, final String filename,
+            final String contentType, final DbArtifactHash hash) {
+        return delegate.store(tenant, content, filename, contentType, hash);
+    }
+
+    @Override
+    public void deleteBySha1(final String tenant, final String sha1Hash) {
+        invalidate(tenant, sha1Hash);
+        delegate.deleteBySha1(tenant, sha1Hash);
+    }
+
+    @Override
+    public AbstractDbArtifact getArtifactBySha1(final String tenant, final String sha1Hash) {
+        try {
+            return cache.get(new ArtifactCacheKey(tenant, sha1Hash), () -> load(tenant, sha1Hash));
+        } catch (final ExecutionException e) {
+            // the loader throws UncachedArtifactException only
+            return ((UncachedArtifactException) e.getCause()).artifact;
+        } catch (final UncheckedExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause());
+            throw e;
+        }
+    }
+
+    @Override
+    public void deleteByTenant(final String tenant) {
+        invalidateTenant(tenant);
+        delegate.deleteByTenant(tenant);
+    }
+
+    /**
+     * Evicts an artifact from the cache without deleting it from the
+     * repository, e.g. as it has been deleted by another node.
+     *
+     * @param tenant
+     *            the tenant of the artifact
+     * @param sha1Hash
+     *            the SHA1 hash of the artifact
+     */
+    public void invalidate(final String tenant, final String sha1Hash) {
+        cache.invalidate(new ArtifactCacheKey(tenant, sha1Hash));
+    }
+
+    /**
+     * Evicts all artifacts of a tenant from the cache without deleting them
+     * from the repository, e.g. as the tenant has been deleted by another
+     * node.
+     *
+     * @param tenant
+     *            the tenant
+     */
+    public void invalidateTenant(final String tenant) {
+        final String sanitizedTenant = AbstractArtifactRepository.sanitizeTenant(tenant);
+        cache.asMap().keySet().removeIf(key -> key.tenant.equals(sanitizedTenant));
+    }
+
+    /**
+     * @return the hit, miss and eviction statistics of the cache
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * @return the number of cached artifacts
+     */
+    public long getCachedArtifacts() {
+        return cache.size();
+    }
+
+    /**
+     * @return the overall size of the cached artifacts in bytes
+     */
+    public long getCachedBytes() {
+        return cache.asMap().values().stream().mapToLong(CachedArtifact::getSize).sum();
+    }
+
+    private CachedArtifact load(final String tenant, final String sha1Hash) throws UncachedArtifactException {
+        final AbstractDbArtifact artifact = delegate.getArtifactBySha1(tenant, sha1Hash);
+        if (artifact == null || artifact.getSize() > maxArtifactSize) {
+            throw new UncachedArtifactException(artifact);
+        }
+
+        try {
+            return read(artifact);
+        } catch (final IOException e) {
+            LOG.warn("Failed to cache artifact {} of tenant {}, serving it from the repository", sha1Hash, tenant, e);
+            throw new UncachedArtifactException(artifact);
+        }
+    }
+
+    private static CachedArtifact read(final AbstractDbArtifact artifact) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect((int) artifact.getSize());
+
+        final FileChannel channel = artifact.getFileChannel();
+        if (channel != null) {
+            try (FileChannel from = channel) {
+                int read = 0;
+                while (buffer.hasRemaining() && read != -1) {
+                    read = from.read(buffer);
+                }
+            }
+        } else {
+            try (InputStream from = artifact.getFileInputStream()) {
+                final byte[] buf = new byte[0x2000];
+                int read;
+                while (buffer.hasRemaining()
+                        && (read = from.read(buf, 0, Math.min(buf.length, buffer.remaining()))) != -1) {
+                    buffer.put(buf, 0, read);
+                }
+            }
+        }
+
+        if (buffer.hasRemaining()) {
+            free(buffer);
+            throw new IOException("Artifact " + artifact.getArtifactId() + " is smaller than its expected size");
+        }
+
+        buffer.flip();
+        return new CachedArtifact(artifact, buffer);
+    }
+
+    /**
+     * Frees the memory of a direct buffer immediately instead of waiting for
+     * the garbage collector. Falls back to the garbage collector if the JVM
+     * does not offer a cleaner for the buffer.
+     */
+    private static void free(final ByteBuffer buffer) {
+        try {
+            CLEANER.clean(buffer);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            LOG.debug("Direct buffer is released by the garbage collector", e);
+        }
+    }
+
+    /**
+     * Resolves the JVM internal cleaner of direct buffers once, i.e.
+     * {@code sun.misc.Unsafe#invokeCleaner} on Java 9 and later and the
+     * {@code sun.misc.Cleaner} of the buffer on Java 8.
+     */
+    private static BufferCleaner resolveCleaner() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            final Object unsafe = theUnsafe.get(null);
+            return buffer -> invokeCleaner.invoke(unsafe, buffer);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            LOG.trace("sun.misc.Unsafe#invokeCleaner is not available", e);
+        }
+
+        try {
+            final Method cleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            final Method cleanMethod = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            return buffer -> {
+                final Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleanMethod.invoke(cleaner);
+                }
+            };
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            LOG.trace("sun.misc.Cleaner is not available", e);
+        }
+
+        LOG.info("Direct buffers of the artifact cache are released by the garbage collector");
+        return buffer -> {
+            // left to the garbage collector
+        };
+    }
+
+    @FunctionalInterface
+    private interface BufferCleaner {
+        void clean(ByteBuffer buffer) throws ReflectiveOperationException;
+    }
+
+    /**
+     * Thrown by the loader of the cache if an artifact is not cached, e.g. as
+     * it exceeds the maximum artifact size.
+     */
+    private static final class UncachedArtifactException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final transient AbstractDbArtifact artifact;
+
+        private UncachedArtifactException(final AbstractDbArtifact artifact) {
+            super(null, null, false, false);
+            this.artifact = artifact;
+        }
+    }
+
+    private static final class ArtifactCacheKey {
+        private final String tenant;
+        private final String sha1Hash;
+
+        private ArtifactCacheKey(final String tenant, final String sha1Hash) {
+            this.tenant = AbstractArtifactRepository.sanitizeTenant(tenant);
+            this.sha1Hash = sha1Hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * tenant.hashCode() + sha1Hash.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final ArtifactCacheKey other = (ArtifactCacheKey) obj;
+            return tenant.equals(other.tenant) && sha1Hash.equals(other.sha1Hash);
+        }
+    }
+
+    /**
+     * {@link AbstractDbArtifact} which is served from an in-memory buffer. The
+     * buffer is referenced by the cache and by every open stream and freed
+     * when the last reference is released.
+     */
+    private static final class CachedArtifact extends AbstractDbArtifact {
+        private final AbstractDbArtifact artifact;
+        private final ByteBuffer buffer;
+        private final ByteBuffer content;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private CachedArtifact(final AbstractDbArtifact artifact, final ByteBuffer buffer) {
+            super(artifact.getArtifactId(), artifact.getHashes(), artifact.getSize(), artifact.getContentType());
+            this.artifact = artifact;
+            this.buffer = buffer;
+            this.content = buffer.asReadOnlyBuffer();
+        }
+
+        @Override
+        public InputStream getFileInputStream() {
+            if (!retain()) {
+                // evicted and freed in the meantime
+                return artifact.getFileInputStream();
+            }
+            return new ByteBufferInputStream(this, content.duplicate());
+        }
+
+        private boolean retain() {
+            int current;
+            do {
+                current = references.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!references.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        private void release() {
+            if (references.decrementAndGet() == 0) {
+                free(buffer);
+            }
+        }
+    }
+
+    /**
+     * {@link InputStream} on a {@link ByteBuffer} which supports skipping
+     * without reading the skipped bytes.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final CachedArtifact artifact;
+        private final ByteBuffer buffer;
+        private boolean closed;
+
+        private ByteBufferInputStream(final CachedArtifact artifact, final ByteBuffer buffer) {
+            this.artifact = artifact;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                artifact.release();
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            ensureOpen();
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            ensureOpen();
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            final int read = Math.min(len, buffer.remaining());
+            buffer.get(b, off, read);
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            ensureOpen();
+            final int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            ensureOpen();
+            return buffer.remaining();
+        }
+
+        private void ensureOpen() throws IOException {
+            // the buffer may be freed after the stream is closed
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+        }
+    }
+}
@@ -8,7 +8,9 @@
  */
 package org.eclipse.hawkbit.artifact.repository.model;
 
+import java.io.File;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 
 import org.springframework.util.Assert;
 
@@ -68,4 +70,28 @@ public abstract class AbstractDbArtifact {
      * @return {@link InputStream} to read from artifact.
      */
     public abstract InputStream getFileInputStream();
+
+    /**
+     * Opens a {@link FileChannel} on this artifact if the repository keeps the
+     * binary in a local file, e.g. to read the artifact into a buffer in one
+     * go. Caller has to take care of closing the channel. Repeatable calls open
+     * a new {@link FileChannel}.
+     * 
+     * @return {@link FileChannel} to read from artifact or <code>null</code> if
+     *         not supported by the repository, in that case
+     *         {@link #getFileInputStream()} has to be used
+     */
+    public FileChannel getFileChannel() {
+        return null;
+    }
+
+    /**
+     * @return the local file the repository keeps the binary in, e.g. to let
+     *         the servlet container send it to the client without copying it
+     *         through the heap, or <code>null</code> if the binary is not kept
+     *         in a local file
+     */
+    public File getFile() {
+        return null;
+    }
 }
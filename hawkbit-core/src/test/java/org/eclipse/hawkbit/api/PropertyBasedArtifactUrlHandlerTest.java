@@ -187,4 +187,26 @@ public class PropertyBasedArtifactUrlHandlerTest {
                         + SOFTWAREMODULEID + "/artifacts/" + FILENAME_ENCODE));
 
     }
+
+    @Test
+    @Description("Verfies that a URL template generates the same URLs for different targets as the direct generation.")
+    public void urlTemplateGeneratesUrlsPerTarget() {
+        final UrlProtocol proto = new UrlProtocol();
+        proto.setSupports(Arrays.asList(ApiType.DMF));
+        proto.setRef(
+                "{protocol}://{hostname}:{port}/{tenant}/{controllerId}/{targetId}/{targetIdBase62}/{artifactFileName}");
+        properties.getProtocols().put("download-http", proto);
+
+        final ArtifactUrlTemplate template = urlHandlerUnderTest.getUrlTemplate(
+                new URLPlaceholder(TENANT, TENANT_ID, null, null,
+                        new SoftwareData(SOFTWAREMODULEID, FILENAME_DECODE, ARTIFACTID, SHA1HASH)),
+                ApiType.DMF);
+
+        assertThat(template.getUrls(CONTROLLER_ID, TARGETID))
+                .isEqualTo(urlHandlerUnderTest.getUrls(placeholder, ApiType.DMF))
+                .containsExactly(new ArtifactUrl("http".toUpperCase(), "download-http", HTTP_LOCALHOST + TENANT + "/"
+                        + CONTROLLER_ID + "/" + TARGETID + "/" + TARGETID_BASE62 + "/" + FILENAME_ENCODE));
+        assertThat(template.getUrls("other", 1L)).containsExactly(new ArtifactUrl("http".toUpperCase(),
+                "download-http", HTTP_LOCALHOST + TENANT + "/other/1/1/" + FILENAME_ENCODE));
+    }
 }
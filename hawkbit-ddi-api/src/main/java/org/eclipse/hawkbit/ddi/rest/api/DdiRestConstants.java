@@ -50,6 +50,12 @@ public final class DdiRestConstants {
      */
     public static final String NO_ACTION_HISTORY = "0";
 
+    /**
+     * Request parameter of the controller base resource to wait for a change
+     * instead of returning an empty response immediately.
+     */
+    public static final String LONG_POLLING = "longPolling";
+
     private DdiRestConstants() {
         // constant class, private constructor.
     }
@@ -29,6 +29,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
 
 /**
  * REST resource handling for root controller CRUD operations.
@@ -69,6 +70,24 @@ public interface DdiRootControllerRestApi {
     ResponseEntity<DdiControllerBase> getControllerBase(@PathVariable("tenant") final String tenant,
             @PathVariable("controllerId") final String controllerId);
 
+    /**
+     * Long polling variant of the root resource for an individual
+     * {@link Target}. The response is held back until the target has
+     * something to do, i.e. an action has been assigned or canceled, or until
+     * the configured long polling timeout has elapsed. The controller is
+     * expected to poll again right after it got an answer without links.
+     *
+     * @param tenant
+     *            of the request
+     * @param controllerId
+     *            of the target that matches to controller id
+     * @return the deferred response
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/{controllerId}", params = DdiRestConstants.LONG_POLLING
+            + "=true", produces = { MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    DeferredResult<ResponseEntity<DdiControllerBase>> getControllerBaseLongPolling(
+            @PathVariable("tenant") final String tenant, @PathVariable("controllerId") final String controllerId);
+
     /**
      * Handles GET {@link DdiArtifact} download request. This could be full or
      * partial (as specified by RFC7233 (Range Requests)) download request.
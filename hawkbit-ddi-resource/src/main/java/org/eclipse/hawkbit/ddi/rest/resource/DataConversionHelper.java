@@ -8,6 +8,10 @@
  */
 package org.eclipse.hawkbit.ddi.rest.resource;
 
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.id;
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.number;
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.text;
+
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -31,7 +35,9 @@ import org.eclipse.hawkbit.repository.model.Artifact;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleMetadata;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetSnapshot;
 import org.eclipse.hawkbit.rest.data.ResponseList;
+import org.eclipse.hawkbit.rest.util.LinkTemplate;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.mvc.ControllerLinkBuilder;
@@ -42,6 +48,22 @@ import org.springframework.util.CollectionUtils;
  * Utility class for the DDI API.
  */
 public final class DataConversionHelper {
+
+    private static final LinkTemplate CANCEL_ACTION = LinkTemplate.of(() -> ControllerLinkBuilder
+            .linkTo(ControllerLinkBuilder.methodOn(DdiRootController.class, text(0))
+                    .getControllerCancelAction(text(0), text(1), id(2)))
+            .withRel(DdiRestConstants.CANCEL_ACTION));
+
+    private static final LinkTemplate DEPLOYMENT_BASE_ACTION = LinkTemplate.of(() -> ControllerLinkBuilder
+            .linkTo(ControllerLinkBuilder.methodOn(DdiRootController.class, text(0))
+                    .getControllerBasedeploymentAction(text(0), text(1), id(2), number(3), null))
+            .withRel(DdiRestConstants.DEPLOYMENT_BASE_ACTION));
+
+    private static final LinkTemplate CONFIG_DATA_ACTION = LinkTemplate.of(() -> ControllerLinkBuilder
+            .linkTo(ControllerLinkBuilder.methodOn(DdiRootController.class, text(0)).putConfigData(null, text(0),
+                    text(1)))
+            .withRel(DdiRestConstants.CONFIG_DATA_ACTION));
+
     // utility class, private constructor.
     private DataConversionHelper() {
 
@@ -108,37 +130,28 @@ public final class DataConversionHelper {
 
     }
 
-    static DdiControllerBase fromTarget(final Target target, final Action action,
+    static DdiControllerBase fromTarget(final TargetSnapshot target, final Action action,
             final String defaultControllerPollTime, final TenantAware tenantAware) {
         final DdiControllerBase result = new DdiControllerBase(
                 new DdiConfig(new DdiPolling(defaultControllerPollTime)));
 
         if (action != null) {
             if (action.isCancelingOrCanceled()) {
-                result.add(ControllerLinkBuilder
-                        .linkTo(ControllerLinkBuilder.methodOn(DdiRootController.class, tenantAware.getCurrentTenant())
-                                .getControllerCancelAction(tenantAware.getCurrentTenant(), target.getControllerId(),
-                                        action.getId()))
-                        .withRel(DdiRestConstants.CANCEL_ACTION));
+                result.add(CANCEL_ACTION.expand(tenantAware.getCurrentTenant(), target.getControllerId(),
+                        action.getId()));
             } else {
                 // we need to add the hashcode here of the actionWithStatus
                 // because the action might
                 // have changed from 'soft' to 'forced' type and we need to
                 // change the payload of the
                 // response because of eTags.
-                result.add(ControllerLinkBuilder
-                        .linkTo(ControllerLinkBuilder.methodOn(DdiRootController.class, tenantAware.getCurrentTenant())
-                                .getControllerBasedeploymentAction(tenantAware.getCurrentTenant(),
-                                        target.getControllerId(), action.getId(), calculateEtag(action), null))
-                        .withRel(DdiRestConstants.DEPLOYMENT_BASE_ACTION));
+                result.add(DEPLOYMENT_BASE_ACTION.expand(tenantAware.getCurrentTenant(), target.getControllerId(),
+                        action.getId(), calculateEtag(action)));
             }
         }
 
         if (target.isRequestControllerAttributes()) {
-            result.add(ControllerLinkBuilder
-                    .linkTo(ControllerLinkBuilder.methodOn(DdiRootController.class, tenantAware.getCurrentTenant())
-                            .putConfigData(null, tenantAware.getCurrentTenant(), target.getControllerId()))
-                    .withRel(DdiRestConstants.CONFIG_DATA_ACTION));
+            result.add(CONFIG_DATA_ACTION.expand(tenantAware.getCurrentTenant(), target.getControllerId()));
         }
         return result;
     }
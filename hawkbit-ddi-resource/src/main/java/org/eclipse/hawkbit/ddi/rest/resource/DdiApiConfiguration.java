@@ -8,7 +8,12 @@
  */
 package org.eclipse.hawkbit.ddi.rest.resource;
 
+import org.eclipse.hawkbit.ControllerPollProperties;
 import org.eclipse.hawkbit.rest.RestConfiguration;
+import org.eclipse.hawkbit.tenancy.configuration.DurationHelper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -24,4 +29,32 @@ import org.springframework.stereotype.Controller;
 @Import(RestConfiguration.class)
 public class DdiApiConfiguration {
 
+    /**
+     * @param controllerPollProperties
+     *            for the long polling configuration
+     * @return registry of the parked long polling requests
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    LongPollingRegistry longPollingRegistry(final ControllerPollProperties controllerPollProperties) {
+        return new LongPollingRegistry(controllerPollProperties.getLongPollingThreads());
+    }
+
+    /**
+     * @param controllerPollProperties
+     *            for the download progress configuration
+     * @param applicationContext
+     *            to publish the progress with the ID of this node
+     * @return aggregator of the download progress on this node
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    DownloadProgressAggregator downloadProgressAggregator(final ControllerPollProperties controllerPollProperties,
+            final ApplicationContext applicationContext) {
+        return new DownloadProgressAggregator(applicationContext, applicationContext.getId(),
+                DurationHelper.formattedStringToDuration(controllerPollProperties.getDownloadProgressInterval())
+                        .toMillis(),
+                DurationHelper.formattedStringToDuration(controllerPollProperties.getDownloadStatusWindow())
+                        .toMillis());
+    }
 }
@@ -10,6 +10,7 @@ package org.eclipse.hawkbit.ddi.rest.resource;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,6 +18,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.NotEmpty;
 
+import org.eclipse.hawkbit.ControllerPollProperties;
 import org.eclipse.hawkbit.api.ArtifactUrlHandler;
 import org.eclipse.hawkbit.artifact.repository.model.AbstractDbArtifact;
 import org.eclipse.hawkbit.ddi.json.model.DdiActionFeedback;
@@ -42,39 +44,42 @@ import org.eclipse.hawkbit.repository.RepositoryConstants;
 import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.repository.UpdateMode;
 import org.eclipse.hawkbit.repository.builder.ActionStatusCreate;
-import org.eclipse.hawkbit.repository.event.remote.DownloadProgressEvent;
 import org.eclipse.hawkbit.repository.exception.ArtifactBinaryNotFoundException;
 import org.eclipse.hawkbit.repository.exception.CancelActionNotAllowedException;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.exception.SoftwareModuleNotAssignedToTargetException;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
-import org.eclipse.hawkbit.repository.model.ActionStatus;
 import org.eclipse.hawkbit.repository.model.Artifact;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetSnapshot;
 import org.eclipse.hawkbit.rest.util.FileStreamingUtil;
 import org.eclipse.hawkbit.rest.util.HttpUtil;
 import org.eclipse.hawkbit.rest.util.RequestResponseContextHolder;
 import org.eclipse.hawkbit.security.HawkbitSecurityProperties;
 import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.eclipse.hawkbit.tenancy.configuration.DurationHelper;
 import org.eclipse.hawkbit.util.IpUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Scope;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
 
 /**
  * The {@link DdiRootController} of the hawkBit server DDI API that is queried
@@ -90,12 +95,6 @@ public class DdiRootController implements DdiRootControllerRestApi {
     private static final Logger LOG = LoggerFactory.getLogger(DdiRootController.class);
     private static final String GIVEN_ACTION_IS_NOT_ASSIGNED_TO_GIVEN_TARGET = "given action ({}) is not assigned to given target ({}).";
 
-    @Autowired
-    private ApplicationEventPublisher eventPublisher;
-
-    @Autowired
-    private ApplicationContext applicationContext;
-
     @Autowired
     private ControllerManagement controllerManagement;
 
@@ -120,6 +119,15 @@ public class DdiRootController implements DdiRootControllerRestApi {
     @Autowired
     private EntityFactory entityFactory;
 
+    @Autowired
+    private LongPollingRegistry longPollingRegistry;
+
+    @Autowired
+    private ControllerPollProperties controllerPollProperties;
+
+    @Autowired
+    private DownloadProgressAggregator downloadProgressAggregator;
+
     @Override
     public ResponseEntity<List<DdiArtifact>> getSoftwareModulesArtifacts(@PathVariable("tenant") final String tenant,
             @PathVariable("controllerId") final String controllerId,
@@ -143,9 +151,82 @@ public class DdiRootController implements DdiRootControllerRestApi {
             @PathVariable("controllerId") final String controllerId) {
         LOG.debug("getControllerBase({})", controllerId);
 
-        final Target target = controllerManagement.findOrRegisterTargetIfItDoesNotexist(controllerId, IpUtil
-                .getClientIpFromRequest(requestResponseContextHolder.getHttpServletRequest(), securityProperties));
-        final Action action = controllerManagement.findOldestActiveActionByTarget(controllerId).orElse(null);
+        return getControllerBase(controllerId, IpUtil
+                .getClientIpFromRequest(requestResponseContextHolder.getHttpServletRequest(), securityProperties),
+                false);
+    }
+
+    @Override
+    public DeferredResult<ResponseEntity<DdiControllerBase>> getControllerBaseLongPolling(
+            @PathVariable("tenant") final String tenant, @PathVariable("controllerId") final String controllerId) {
+        LOG.debug("getControllerBaseLongPolling({})", controllerId);
+
+        final URI address = IpUtil.getClientIpFromRequest(requestResponseContextHolder.getHttpServletRequest(),
+                securityProperties);
+        final String currentTenant = tenantAware.getCurrentTenant();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        final HttpServletRequest request = requestResponseContextHolder.getHttpServletRequest();
+        final DeferredResult<ResponseEntity<DdiControllerBase>> result = new DeferredResult<>(
+                DurationHelper.formattedStringToDuration(controllerPollProperties.getLongPollingTimeout()).toMillis());
+
+        // registered before the current state is queried in order not to miss
+        // a change in between, the result exists already so that a waiter
+        // which is woken up right away can answer the request
+        final Runnable waiter = () -> answerParkedRequest(result, controllerId, address, request, securityContext);
+        longPollingRegistry.register(currentTenant, controllerId, waiter);
+        result.onCompletion(() -> longPollingRegistry.unregister(currentTenant, controllerId, waiter));
+
+        final ResponseEntity<DdiControllerBase> current;
+        try {
+            current = getControllerBase(controllerId, address, false);
+        } catch (final RuntimeException e) {
+            longPollingRegistry.unregister(currentTenant, controllerId, waiter);
+            throw e;
+        }
+
+        // nothing has changed until the timeout
+        result.onTimeout(() -> result.setResult(current));
+
+        // the target has already something to do, e.g. an action or a config
+        // data request
+        if (hasSomethingToDo(current.getBody())) {
+            result.setResult(current);
+        }
+
+        return result;
+    }
+
+    private static boolean hasSomethingToDo(final DdiControllerBase base) {
+        return base != null && !base.getLinks().isEmpty();
+    }
+
+    private void answerParkedRequest(final DeferredResult<ResponseEntity<DdiControllerBase>> result,
+            final String controllerId, final URI address, final HttpServletRequest request,
+            final SecurityContext securityContext) {
+        if (result.isSetOrExpired()) {
+            return;
+        }
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        SecurityContextHolder.setContext(securityContext);
+        try {
+            // the idle target cache of this node might not be aware of the
+            // change the waiter has been woken up for yet
+            result.setResult(getControllerBase(controllerId, address, true));
+        } catch (final RuntimeException e) {
+            LOG.debug("Failed to answer long polling request of {}", controllerId, e);
+            result.setErrorResult(e);
+        } finally {
+            SecurityContextHolder.clearContext();
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private ResponseEntity<DdiControllerBase> getControllerBase(final String controllerId, final URI address,
+            final boolean bypassIdleCache) {
+        final TargetSnapshot target = controllerManagement.findOrRegisterTargetSnapshot(controllerId, address);
+        final Action action = controllerManagement.findOldestActiveActionByTarget(controllerId, bypassIdleCache)
+                .orElse(null);
 
         checkAndCancelExpiredAction(action);
 
@@ -186,39 +267,45 @@ public class DdiRootController implements DdiRootControllerRestApi {
             if (ifMatch != null && !HttpUtil.matchesHttpHeader(ifMatch, artifact.getSha1Hash())) {
                 result = new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
             } else {
-                final ActionStatus action = checkAndLogDownload(requestResponseContextHolder.getHttpServletRequest(),
+                final long statusId = checkAndLogDownload(requestResponseContextHolder.getHttpServletRequest(),
                         target, module.getId());
-
-                final Long statusId = action.getId();
+                final String currentTenant = tenantAware.getCurrentTenant();
 
                 result = FileStreamingUtil.writeFileResponse(file, artifact.getFilename(), artifact.getCreatedAt(),
                         requestResponseContextHolder.getHttpServletResponse(),
                         requestResponseContextHolder.getHttpServletRequest(),
-                        (length, shippedSinceLastEvent, total) -> eventPublisher
-                                .publishEvent(new DownloadProgressEvent(tenantAware.getCurrentTenant(), statusId,
-                                        shippedSinceLastEvent, applicationContext.getId())));
+                        (length, shippedSinceLastEvent, total) -> downloadProgressAggregator.shipped(currentTenant,
+                                statusId, shippedSinceLastEvent));
 
             }
         }
         return result;
     }
 
-    private ActionStatus checkAndLogDownload(final HttpServletRequest request, final Target target, final Long module) {
+    /**
+     * @return ID of the download status of the action, which is shared by all
+     *         downloads of the action within the configured time window
+     */
+    private long checkAndLogDownload(final HttpServletRequest request, final Target target, final Long module) {
         final Action action = controllerManagement
                 .getActionForDownloadByTargetAndSoftwareModule(target.getControllerId(), module)
                 .orElseThrow(() -> new SoftwareModuleNotAssignedToTargetException(module, target.getControllerId()));
-        final String range = request.getHeader("Range");
 
-        String message;
-        if (range != null) {
-            message = RepositoryConstants.SERVER_MESSAGE_PREFIX + "Target downloads range " + range + " of: "
-                    + request.getRequestURI();
-        } else {
-            message = RepositoryConstants.SERVER_MESSAGE_PREFIX + "Target downloads " + request.getRequestURI();
-        }
+        return downloadProgressAggregator.getDownloadStatus(tenantAware.getCurrentTenant(), action.getId(), () -> {
+            final String range = request.getHeader("Range");
+
+            String message;
+            if (range != null) {
+                message = RepositoryConstants.SERVER_MESSAGE_PREFIX + "Target downloads range " + range + " of: "
+                        + request.getRequestURI();
+            } else {
+                message = RepositoryConstants.SERVER_MESSAGE_PREFIX + "Target downloads " + request.getRequestURI();
+            }
 
-        return controllerManagement.addInformationalActionStatus(
-                entityFactory.actionStatus().create(action.getId()).status(Status.DOWNLOAD).message(message));
+            return controllerManagement.addInformationalActionStatus(
+                    entityFactory.actionStatus().create(action.getId()).status(Status.DOWNLOAD).message(message))
+                    .getId();
+        });
     }
 
     private static boolean checkModule(final String fileName, final SoftwareModule module) {
@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ddi.rest.resource;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.eclipse.hawkbit.repository.event.remote.DownloadProgressEvent;
+import org.eclipse.hawkbit.repository.model.ActionStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Aggregates the download progress of the artifact downloads on this node.
+ * The shipped bytes are summed up per {@link ActionStatus} of the download and
+ * published as one {@link DownloadProgressEvent} per status and interval
+ * instead of an event for every 10 percent of every requested range.
+ *
+ * In addition the "Target downloads" {@link ActionStatus} of an action is
+ * written once per time window only, i.e. the range requests of a resuming
+ * controller share the status of the first request.
+ */
+public class DownloadProgressAggregator {
+    private static final Logger LOG = LoggerFactory.getLogger(DownloadProgressAggregator.class);
+
+    private final ConcurrentMap<StatusKey, AtomicLong> shippedBytes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ActionKey, LoggedDownload> loggedDownloads = new ConcurrentHashMap<>();
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final String applicationId;
+    private final long statusWindow;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor.
+     *
+     * @param eventPublisher
+     *            to publish the progress
+     * @param applicationId
+     *            of this node
+     * @param publishInterval
+     *            in milliseconds in which the progress is published
+     * @param statusWindow
+     *            in milliseconds in which the download status of an action is
+     *            written once, <code>0</code> to write it for every request
+     */
+    public DownloadProgressAggregator(final ApplicationEventPublisher eventPublisher, final String applicationId,
+            final long publishInterval, final long statusWindow) {
+        this.eventPublisher = eventPublisher;
+        this.applicationId = applicationId;
+        this.statusWindow = statusWindow;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("ddi-download-progress-%d").setDaemon(true).build());
+        scheduler.scheduleWithFixedDelay(this::publish, publishInterval, publishInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the download status of the given action which has been written
+     * within the status window or writes a new one.
+     *
+     * @param tenant
+     *            of the action
+     * @param actionId
+     *            of the download
+     * @param logDownload
+     *            writes the download status and returns its ID
+     * @return ID of the download status
+     */
+    public long getDownloadStatus(final String tenant, final long actionId, final LongSupplier logDownload) {
+        final ActionKey key = new ActionKey(tenant, actionId);
+        final long now = System.currentTimeMillis();
+
+        final LoggedDownload logged = loggedDownloads.get(key);
+        if (logged != null && now - logged.loggedAt < statusWindow) {
+            return logged.actionStatusId;
+        }
+
+        // concurrent requests may write a status each which is acceptable
+        final long actionStatusId = logDownload.getAsLong();
+        if (statusWindow > 0) {
+            loggedDownloads.put(key, new LoggedDownload(actionStatusId, now));
+        }
+        return actionStatusId;
+    }
+
+    /**
+     * Adds shipped bytes to the progress of the given download status.
+     *
+     * @param tenant
+     *            of the download
+     * @param actionStatusId
+     *            of the download
+     * @param bytes
+     *            shipped since the last call
+     */
+    public void shipped(final String tenant, final long actionStatusId, final long bytes) {
+        // added within compute so that publish cannot miss the bytes
+        shippedBytes.compute(new StatusKey(tenant, actionStatusId), (key, counter) -> {
+            final AtomicLong result = counter == null ? new AtomicLong() : counter;
+            result.addAndGet(bytes);
+            return result;
+        });
+    }
+
+    /**
+     * Publishes the progress aggregated since the last call.
+     */
+    public void publish() {
+        try {
+            shippedBytes.keySet().forEach(key -> {
+                final AtomicLong counter = shippedBytes.remove(key);
+                if (counter != null && counter.get() > 0) {
+                    eventPublisher.publishEvent(
+                            new DownloadProgressEvent(key.tenant, key.actionStatusId, counter.get(), applicationId));
+                }
+            });
+
+            final long now = System.currentTimeMillis();
+            loggedDownloads.values().removeIf(logged -> now - logged.loggedAt >= statusWindow);
+        } catch (final RuntimeException e) {
+            // keep the schedule alive
+            LOG.error("Failed to publish the download progress", e);
+        }
+    }
+
+    /**
+     * @return number of download status with unpublished progress
+     */
+    public int getPendingProgress() {
+        return shippedBytes.size();
+    }
+
+    /**
+     * Publishes the remaining progress and stops publishing.
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        publish();
+    }
+
+    private static final class StatusKey {
+        private final String tenant;
+        private final long actionStatusId;
+
+        private StatusKey(final String tenant, final long actionStatusId) {
+            this.tenant = tenant;
+            this.actionStatusId = actionStatusId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, actionStatusId);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final StatusKey other = (StatusKey) obj;
+            return tenant.equals(other.tenant) && actionStatusId == other.actionStatusId;
+        }
+    }
+
+    private static final class ActionKey {
+        private final String tenant;
+        private final long actionId;
+
+        private ActionKey(final String tenant, final long actionId) {
+            this.tenant = tenant;
+            this.actionId = actionId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, actionId);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final ActionKey other = (ActionKey) obj;
+            return tenant.equals(other.tenant) && actionId == other.actionId;
+        }
+    }
+
+    private static final class LoggedDownload {
+        private final long actionStatusId;
+        private final long loggedAt;
+
+        private LoggedDownload(final long actionStatusId, final long loggedAt) {
+            this.actionStatusId = actionStatusId;
+            this.loggedAt = loggedAt;
+        }
+    }
+}
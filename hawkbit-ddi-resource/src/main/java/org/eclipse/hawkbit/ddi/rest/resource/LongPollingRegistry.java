@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ddi.rest.resource;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Registry of the parked long polling requests of the controllers on this
+ * node. The waiters are woken up by the (remote) events which change what a
+ * controller has to do, i.e. an assignment or the cancellation of an action.
+ * The woken up waiters are run by dedicated threads in order not to block the
+ * event delivery.
+ */
+public class LongPollingRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(LongPollingRegistry.class);
+
+    private final ConcurrentMap<WaiterKey, Set<Runnable>> waiters = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    /**
+     * Constructor.
+     *
+     * @param threads
+     *            number of threads that run the woken up waiters
+     */
+    public LongPollingRegistry(final int threads) {
+        this.executor = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("ddi-long-polling-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Registers a waiter for the given target. The waiter is called once at
+     * most and has to be unregistered by the caller if it is not needed
+     * anymore.
+     *
+     * @param tenant
+     *            of the target
+     * @param controllerId
+     *            of the target
+     * @param waiter
+     *            to run if the target has something to do
+     */
+    public void register(final String tenant, final String controllerId, final Runnable waiter) {
+        waiters.computeIfAbsent(new WaiterKey(tenant, controllerId), key -> ConcurrentHashMap.newKeySet()).add(waiter);
+    }
+
+    /**
+     * Unregisters the given waiter.
+     *
+     * @param tenant
+     *            of the target
+     * @param controllerId
+     *            of the target
+     * @param waiter
+     *            to unregister
+     */
+    public void unregister(final String tenant, final String controllerId, final Runnable waiter) {
+        waiters.computeIfPresent(new WaiterKey(tenant, controllerId), (key, set) -> {
+            set.remove(waiter);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    @EventListener(classes = TargetAssignDistributionSetEvent.class)
+    void wakeUpOnAssignment(final TargetAssignDistributionSetEvent event) {
+        wakeUp(event.getTenant(), event.getActions().keySet());
+    }
+
+    @EventListener(classes = CancelTargetAssignmentEvent.class)
+    void wakeUpOnCancel(final CancelTargetAssignmentEvent event) {
+        if (event.getControllerId() != null) {
+            wakeUp(event.getTenant(), event.getControllerId());
+        }
+    }
+
+    private void wakeUp(final String tenant, final Collection<String> controllerIds) {
+        if (waiters.isEmpty()) {
+            return;
+        }
+
+        controllerIds.forEach(controllerId -> wakeUp(tenant, controllerId));
+    }
+
+    private void wakeUp(final String tenant, final String controllerId) {
+        final Set<Runnable> woken = waiters.remove(new WaiterKey(tenant, controllerId));
+        if (woken == null) {
+            return;
+        }
+
+        woken.forEach(waiter -> {
+            try {
+                executor.execute(waiter);
+            } catch (final RejectedExecutionException e) {
+                LOG.debug("Long polling waiter of {} not run as registry is shut down.", controllerId, e);
+            }
+        });
+    }
+
+    /**
+     * @return number of targets with parked requests on this node
+     */
+    public int getWaitingTargets() {
+        return waiters.size();
+    }
+
+    /**
+     * Stops running woken up waiters.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class WaiterKey {
+        private final String tenant;
+        private final String controllerId;
+
+        private WaiterKey(final String tenant, final String controllerId) {
+            // tenants are case insensitive
+            this.tenant = tenant.toUpperCase(Locale.ENGLISH);
+            this.controllerId = controllerId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, controllerId);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final WaiterKey other = (WaiterKey) obj;
+            return tenant.equals(other.tenant) && controllerId.equals(other.controllerId);
+        }
+    }
+}
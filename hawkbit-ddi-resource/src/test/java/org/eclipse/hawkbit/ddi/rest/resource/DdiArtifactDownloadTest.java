@@ -27,10 +27,14 @@ import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.RandomUtils;
 import org.eclipse.hawkbit.ddi.rest.resource.DdiArtifactDownloadTest.DownloadTestConfiguration;
 import org.eclipse.hawkbit.repository.event.remote.DownloadProgressEvent;
+import org.eclipse.hawkbit.repository.model.Action.Status;
 import org.eclipse.hawkbit.repository.model.Artifact;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Target;
@@ -38,6 +42,7 @@ import org.eclipse.hawkbit.repository.test.util.TestdataFactory;
 import org.eclipse.hawkbit.repository.test.util.WithUser;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.SpringApplicationConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -47,6 +52,7 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import com.google.common.base.Charsets;
 import com.google.common.net.HttpHeaders;
+import com.jayway.awaitility.Awaitility;
 
 import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
@@ -60,8 +66,10 @@ import ru.yandex.qatools.allure.annotations.Stories;
 @SpringApplicationConfiguration(classes = DownloadTestConfiguration.class)
 public class DdiArtifactDownloadTest extends AbstractDDiApiIntegrationTest {
 
-    private static volatile int downLoadProgress = 0;
-    private static volatile long shippedBytes = 0;
+    private static final List<DownloadProgressEvent> PROGRESS_EVENTS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private DownloadProgressAggregator downloadProgressAggregator;
 
     private final SimpleDateFormat dateFormat = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.ENGLISH);
 
@@ -157,8 +165,6 @@ public class DdiArtifactDownloadTest extends AbstractDDiApiIntegrationTest {
     @WithUser(principal = "4712", authorities = "ROLE_CONTROLLER", allSpPermissions = true)
     @Description("Tests valid downloads through the artifact resource by identifying the artifact not by ID but file name.")
     public void downloadArtifactThroughFileName() throws Exception {
-        downLoadProgress = 1;
-        shippedBytes = 0;
         assertThat(softwareModuleManagement.findAll(PAGE)).hasSize(0);
 
         // create target
@@ -192,9 +198,21 @@ public class DdiArtifactDownloadTest extends AbstractDDiApiIntegrationTest {
         assertTrue("The same file that was uploaded is expected when downloaded",
                 Arrays.equals(result.getResponse().getContentAsByteArray(), random));
 
-        // download complete
-        assertThat(downLoadProgress).isEqualTo(10);
-        assertThat(shippedBytes).isEqualTo(artifactSize);
+        // download complete, progress is published aggregated in one event
+        // as the publish interval of the test exceeds the test
+        final long actionId = deploymentManagement.findActionsByTarget(target.getControllerId(), PAGE).getContent()
+                .get(0).getId();
+        final long downloadStatusId = deploymentManagement.findActionStatusByAction(PAGE, actionId).getContent()
+                .stream().filter(actionStatus -> actionStatus.getStatus() == Status.DOWNLOAD).findFirst().get()
+                .getId();
+        downloadProgressAggregator.publish();
+
+        Awaitility.await().atMost(5, TimeUnit.SECONDS)
+                .until(() -> !progressEvents(downloadStatusId).isEmpty());
+        TimeUnit.MILLISECONDS.sleep(200);
+        final List<DownloadProgressEvent> events = progressEvents(downloadStatusId);
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getShippedBytesSinceLast()).isEqualTo(artifactSize);
     }
 
     @Test
@@ -250,6 +268,7 @@ public class DdiArtifactDownloadTest extends AbstractDDiApiIntegrationTest {
         assignDistributionSet(ds, targets);
 
         final int range = 100 * 1024;
+        final long actionStatusCount = deploymentManagement.countActionStatusAll();
 
         // full file download with standard range request
         final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -272,6 +291,8 @@ public class DdiArtifactDownloadTest extends AbstractDDiApiIntegrationTest {
         }
 
         assertThat(outputStream.toByteArray()).isEqualTo(random);
+        assertThat(deploymentManagement.countActionStatusAll()).as("one download status for all ranges")
+                .isEqualTo(actionStatusCount + 1);
 
         // return last 1000 Bytes
         MvcResult result = mvc.perform(
@@ -345,6 +366,11 @@ public class DdiArtifactDownloadTest extends AbstractDDiApiIntegrationTest {
 
     }
 
+    private static List<DownloadProgressEvent> progressEvents(final long actionStatusId) {
+        return PROGRESS_EVENTS.stream().filter(event -> Long.valueOf(actionStatusId).equals(event.getSource()))
+                .collect(Collectors.toList());
+    }
+
     @Configuration
     public static class DownloadTestConfiguration {
 
@@ -359,9 +385,7 @@ public class DdiArtifactDownloadTest extends AbstractDDiApiIntegrationTest {
 
         @EventListener(classes = DownloadProgressEvent.class)
         public static void listen(final DownloadProgressEvent event) {
-            downLoadProgress++;
-            shippedBytes += event.getShippedBytesSinceLast();
-
+            PROGRESS_EVENTS.add(event);
         }
     }
 
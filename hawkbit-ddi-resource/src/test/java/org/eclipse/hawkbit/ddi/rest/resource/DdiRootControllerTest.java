@@ -19,14 +19,17 @@ import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import org.eclipse.hawkbit.ddi.rest.api.DdiRestConstants;
 import org.eclipse.hawkbit.im.authentication.SpPermission;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
@@ -54,6 +57,7 @@ import org.eclipse.hawkbit.util.IpUtil;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 
 import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
@@ -587,4 +591,33 @@ public class DdiRootControllerTest extends AbstractDDiApiIntegrationTest {
                 .andExpect(jsonPath("$.deployment.update", equalTo("forced")))
                 .andExpect(jsonPath("$.deployment.maintenanceWindow", equalTo("available")));
     }
+
+    @Test
+    @Description("Ensures that a long polling request is parked while the target has nothing to do and answered as soon as a distribution set is assigned.")
+    public void longPollingRequestIsAnsweredOnAssignment() throws Exception {
+        final Target target = testdataFactory.createTarget("4712");
+        final DistributionSet ds = testdataFactory.createDistributionSet("");
+
+        final MvcResult parked = mvc
+                .perform(get("/{tenant}/controller/v1/4712", tenantAware.getCurrentTenant())
+                        .param(DdiRestConstants.LONG_POLLING, "true").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted()).andReturn();
+        assertThat(parked.getResponse().getContentAsString()).isEmpty();
+
+        assignDistributionSet(ds.getId(), target.getControllerId());
+        final Action action = deploymentManagement.findActiveActionsByTarget(PAGE, target.getControllerId())
+                .getContent().get(0);
+
+        mvc.perform(asyncDispatch(parked)).andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.deploymentBase.href",
+                        startsWith("http://localhost/" + tenantAware.getCurrentTenant()
+                                + "/controller/v1/4712/deploymentBase/" + action.getId())));
+
+        // answered immediately as the target has already something to do
+        final MvcResult immediate = mvc
+                .perform(get("/{tenant}/controller/v1/4712", tenantAware.getCurrentTenant())
+                        .param(DdiRestConstants.LONG_POLLING, "true").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted()).andReturn();
+        assertThat(immediate.getAsyncResult()).isNotNull();
+    }
 }
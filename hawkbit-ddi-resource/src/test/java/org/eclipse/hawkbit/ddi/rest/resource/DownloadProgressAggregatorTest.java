@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ddi.rest.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.repository.event.remote.DownloadProgressEvent;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Direct Device Integration API")
+@Stories("Download progress aggregation")
+public class DownloadProgressAggregatorTest {
+
+    private static final String TENANT = "tenant";
+
+    // long enough that only the explicit calls publish
+    private static final long PUBLISH_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final AtomicLong writtenStatus = new AtomicLong();
+    private final LongSupplier logDownload = writtenStatus::incrementAndGet;
+
+    private DownloadProgressAggregator aggregator;
+
+    @After
+    public void shutdown() {
+        aggregator.shutdown();
+    }
+
+    @Test
+    @Description("Verifies that the download status of an action is reused within the status window.")
+    public void statusIsReusedWithinWindow() {
+        aggregator = new DownloadProgressAggregator(eventPublisher, "node", PUBLISH_INTERVAL,
+                TimeUnit.MINUTES.toMillis(5));
+
+        assertThat(aggregator.getDownloadStatus(TENANT, 1L, logDownload)).isEqualTo(1L);
+        assertThat(aggregator.getDownloadStatus(TENANT, 1L, logDownload)).isEqualTo(1L);
+        aggregator.publish();
+        assertThat(aggregator.getDownloadStatus(TENANT, 1L, logDownload)).isEqualTo(1L);
+
+        // other actions get a status of their own
+        assertThat(aggregator.getDownloadStatus(TENANT, 2L, logDownload)).isEqualTo(2L);
+        assertThat(aggregator.getDownloadStatus("other", 1L, logDownload)).isEqualTo(3L);
+        assertThat(writtenStatus.get()).isEqualTo(3L);
+    }
+
+    @Test
+    @Description("Verifies that a new download status is written once the status window has expired.")
+    public void statusExpiresAfterWindow() throws InterruptedException {
+        aggregator = new DownloadProgressAggregator(eventPublisher, "node", PUBLISH_INTERVAL, 50);
+
+        assertThat(aggregator.getDownloadStatus(TENANT, 1L, logDownload)).isEqualTo(1L);
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertThat(aggregator.getDownloadStatus(TENANT, 1L, logDownload)).isEqualTo(2L);
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        // expired entries are removed on publish
+        aggregator.publish();
+        assertThat(aggregator.getDownloadStatus(TENANT, 1L, logDownload)).isEqualTo(3L);
+    }
+
+    @Test
+    @Description("Verifies that a download status is written for every request if the status window is 0.")
+    public void zeroWindowWritesStatusPerRequest() {
+        aggregator = new DownloadProgressAggregator(eventPublisher, "node", PUBLISH_INTERVAL, 0);
+
+        assertThat(aggregator.getDownloadStatus(TENANT, 1L, logDownload)).isEqualTo(1L);
+        assertThat(aggregator.getDownloadStatus(TENANT, 1L, logDownload)).isEqualTo(2L);
+        assertThat(aggregator.getDownloadStatus(TENANT, 1L, logDownload)).isEqualTo(3L);
+    }
+
+    @Test
+    @Description("Verifies that the shipped bytes are published as one event per download status and that publishing "
+            + "empties the counters.")
+    public void publishEmptiesCounters() {
+        aggregator = new DownloadProgressAggregator(eventPublisher, "node", PUBLISH_INTERVAL, 0);
+
+        aggregator.shipped(TENANT, 1L, 100);
+        aggregator.shipped(TENANT, 1L, 50);
+        aggregator.shipped(TENANT, 2L, 10);
+        assertThat(aggregator.getPendingProgress()).isEqualTo(2);
+
+        aggregator.publish();
+        assertThat(aggregator.getPendingProgress()).isZero();
+
+        final ArgumentCaptor<ApplicationEvent> events = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        final List<String> progress = events.getAllValues().stream().map(DownloadProgressEvent.class::cast)
+                .map(event -> event.getSource() + "=" + event.getShippedBytesSinceLast())
+                .collect(Collectors.toList());
+        assertThat(progress).containsOnly("1=150", "2=10");
+
+        // nothing left to publish
+        aggregator.publish();
+        aggregator.shipped(TENANT, 1L, 5);
+        aggregator.publish();
+        verify(eventPublisher, times(3)).publishEvent(any(ApplicationEvent.class));
+    }
+}
@@ -40,6 +40,7 @@ import org.springframework.amqp.rabbit.listener.ConditionalRejectingErrorHandler
 import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -50,6 +51,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.retry.backoff.ExponentialBackOffPolicy;
 import org.springframework.retry.support.RetryTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.util.ErrorHandler;
 
 import com.google.common.collect.Maps;
@@ -234,15 +236,55 @@ public class AmqpConfiguration {
      *            for target repo access
      * @param entityFactory
      *            to create entities
+     * @param attributeUpdateService
+     *            to persist attribute updates in batches if configured
      *
      * @return handler service bean
      */
     @Bean
     public AmqpMessageHandlerService amqpMessageHandlerService(final RabbitTemplate rabbitTemplate,
             final AmqpMessageDispatcherService amqpMessageDispatcherService,
-            final ControllerManagement controllerManagement, final EntityFactory entityFactory) {
+            final ControllerManagement controllerManagement, final EntityFactory entityFactory,
+            final ObjectProvider<BatchingAttributeUpdateService> attributeUpdateService) {
         return new AmqpMessageHandlerService(rabbitTemplate, amqpMessageDispatcherService, controllerManagement,
-                entityFactory);
+                entityFactory, attributeUpdateService.getIfAvailable());
+    }
+
+    /**
+     * Create the service which persists DMF attribute updates in batches if
+     * configured.
+     *
+     * @param controllerManagement
+     *            for target repo access
+     *
+     * @return the batching attribute update service bean
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq.attribute-batch", name = "enabled")
+    public BatchingAttributeUpdateService batchingAttributeUpdateService(
+            final ControllerManagement controllerManagement) {
+        return new BatchingAttributeUpdateService(controllerManagement, amqpProperties.getAttributeBatch());
+    }
+
+    /**
+     * Create the receiver which processes the DMF receiver queue on
+     * partitioned workers if configured.
+     *
+     * @param amqpMessageHandlerService
+     *            which processes the messages
+     * @param txManager
+     *            to process consecutive status updates of an action in one
+     *            transaction
+     *
+     * @return the partitioned receiver bean
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq.partitioned-receiver", name = "enabled")
+    public PartitionedAmqpMessageReceiver partitionedAmqpMessageReceiver(
+            final AmqpMessageHandlerService amqpMessageHandlerService,
+            final ObjectProvider<PlatformTransactionManager> txManager) {
+        return new PartitionedAmqpMessageReceiver(rabbitConnectionFactory, amqpMessageHandlerService, amqpProperties,
+                new DelayedRequeueExceptionStrategy(amqpProperties.getRequeueDelay()), txManager.getIfUnique());
     }
 
     /**
@@ -260,13 +302,17 @@ public class AmqpConfiguration {
     }
 
     /**
-     * Create default amqp sender service bean.
+     * Create default amqp sender service bean, which sends batches
+     * asynchronously if configured.
      *
      * @return the default amqp sender service bean
      */
     @Bean
     @ConditionalOnMissingBean
     public AmqpMessageSenderService amqpSenderServiceBean() {
+        if (amqpProperties.getBatchSender().isEnabled()) {
+            return new BatchingAmqpMessageSenderService(rabbitTemplate(), amqpProperties.getBatchSender());
+        }
         return new DefaultAmqpMessageSenderService(rabbitTemplate());
     }
 
@@ -277,6 +323,10 @@ public class AmqpConfiguration {
         final ConfigurableRabbitListenerContainerFactory factory = new ConfigurableRabbitListenerContainerFactory(
                 amqpProperties.isMissingQueuesFatal(), amqpProperties.getDeclarationRetries(), errorHandler);
         configurer.configure(factory, rabbitConnectionFactory);
+        if (amqpProperties.getPartitionedReceiver().isEnabled()) {
+            // consumed by the PartitionedAmqpMessageReceiver instead
+            factory.setManuallyStartedQueue(amqpProperties.getReceiverQueue());
+        }
         return factory;
     }
 
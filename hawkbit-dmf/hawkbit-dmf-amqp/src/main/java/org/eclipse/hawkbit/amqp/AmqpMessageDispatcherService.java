@@ -9,15 +9,18 @@
 package org.eclipse.hawkbit.amqp;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.api.ApiType;
 import org.eclipse.hawkbit.api.ArtifactUrl;
 import org.eclipse.hawkbit.api.ArtifactUrlHandler;
+import org.eclipse.hawkbit.api.ArtifactUrlTemplate;
 import org.eclipse.hawkbit.api.URLPlaceholder;
 import org.eclipse.hawkbit.api.URLPlaceholder.SoftwareData;
 import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
@@ -41,6 +44,7 @@ import org.eclipse.hawkbit.repository.model.Artifact;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleMetadata;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TenantMetaData;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.eclipse.hawkbit.util.IpUtil;
 import org.slf4j.Logger;
@@ -55,6 +59,7 @@ import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.util.CollectionUtils;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 /**
@@ -142,10 +147,25 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
                                             new PageRequest(0, RepositoryConstants.MAX_META_DATA_COUNT), module.getId())
                                             .getContent()));
 
-            targetManagement.getByControllerID(assignedEvent.getActions().keySet())
-                    .forEach(target -> sendUpdateMessageToTarget(assignedEvent.getTenant(), target,
-                            assignedEvent.getActions().get(target.getControllerId()), modules,
-                            assignedEvent.isMaintenanceWindowAvailable()));
+            // everything which depends on the distribution set only is
+            // converted once for all targets
+            final List<SoftwareModuleTemplate> softwareModules = createSoftwareModuleTemplates(modules);
+
+            // the targets are loaded and dispatched chunk by chunk to bound
+            // the size of the queries and of the loaded targets, e.g. for
+            // events of older nodes which send a whole assignment at once
+            final Map<String, Long> actions = assignedEvent.getActions();
+            Lists.partition(new ArrayList<>(actions.keySet()), RepositoryConstants.MAX_ACTIONS_PER_ASSIGNMENT_EVENT)
+                    .forEach(controllerIds -> {
+                        final Map<String, Target> targets = targetManagement.getByControllerID(controllerIds)
+                                .stream().collect(Collectors.toMap(Target::getControllerId, Function.identity()));
+
+                        // dispatched in the order of the assignment
+                        controllerIds.stream().map(targets::get).filter(Objects::nonNull)
+                                .forEach(target -> sendUpdateMessage(assignedEvent.getTenant(), target,
+                                        actions.get(target.getControllerId()), softwareModules,
+                                        assignedEvent.isMaintenanceWindowAvailable()));
+                    });
 
         });
     }
@@ -201,6 +221,16 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
 
     protected void sendUpdateMessageToTarget(final String tenant, final Target target, final Long actionId,
             final Map<SoftwareModule, List<SoftwareModuleMetadata>> modules, final boolean maintenanceWindowAvailable) {
+        if (!IpUtil.isAmqpUri(target.getAddress())) {
+            return;
+        }
+
+        sendUpdateMessage(tenant, target, actionId, createSoftwareModuleTemplates(modules),
+                maintenanceWindowAvailable);
+    }
+
+    private void sendUpdateMessage(final String tenant, final Target target, final Long actionId,
+            final List<SoftwareModuleTemplate> softwareModules, final boolean maintenanceWindowAvailable) {
 
         final URI targetAdress = target.getAddress();
         if (!IpUtil.isAmqpUri(targetAdress)) {
@@ -213,11 +243,8 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         final String targetSecurityToken = systemSecurityContext.runAsSystem(target::getSecurityToken);
         downloadAndUpdateRequest.setTargetSecurityToken(targetSecurityToken);
 
-        modules.entrySet().forEach(entry -> {
-
-            final DmfSoftwareModule amqpSoftwareModule = convertToAmqpSoftwareModule(target, entry);
-            downloadAndUpdateRequest.addSoftwareModule(amqpSoftwareModule);
-        });
+        softwareModules.forEach(softwareModule -> downloadAndUpdateRequest
+                .addSoftwareModule(softwareModule.toDmfSoftwareModule(target.getControllerId(), target.getId())));
 
         final Message message = getMessageConverter().toMessage(downloadAndUpdateRequest,
                 createConnectorMessagePropertiesEvent(tenant, target.getControllerId(),
@@ -294,49 +321,90 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         return messageProperties;
     }
 
-    private DmfSoftwareModule convertToAmqpSoftwareModule(final Target target,
-            final Entry<SoftwareModule, List<SoftwareModuleMetadata>> entry) {
-        final DmfSoftwareModule amqpSoftwareModule = new DmfSoftwareModule();
-        amqpSoftwareModule.setModuleId(entry.getKey().getId());
-        amqpSoftwareModule.setModuleType(entry.getKey().getType().getKey());
-        amqpSoftwareModule.setModuleVersion(entry.getKey().getVersion());
-        amqpSoftwareModule.setArtifacts(convertArtifacts(target, entry.getKey().getArtifacts()));
+    private List<SoftwareModuleTemplate> createSoftwareModuleTemplates(
+            final Map<SoftwareModule, List<SoftwareModuleMetadata>> modules) {
+        final TenantMetaData tenantMetaData = systemManagement.getTenantMetadata();
+
+        return modules.entrySet().stream()
+                .map(entry -> new SoftwareModuleTemplate(entry.getKey(), convertMetadata(entry.getValue()),
+                        entry.getKey().getArtifacts().stream()
+                                .map(artifact -> new ArtifactTemplate(artifact,
+                                        artifactUrlHandler.getUrlTemplate(new URLPlaceholder(tenantMetaData.getTenant(),
+                                                tenantMetaData.getId(), null, null,
+                                                new SoftwareData(artifact.getSoftwareModule().getId(),
+                                                        artifact.getFilename(), artifact.getId(),
+                                                        artifact.getSha1Hash())),
+                                                ApiType.DMF)))
+                                .collect(Collectors.toList())))
+                .collect(Collectors.toList());
+    }
 
-        if (!CollectionUtils.isEmpty(entry.getValue())) {
-            amqpSoftwareModule.setMetadata(convertMetadata(entry.getValue()));
+    private static List<DmfMetadata> convertMetadata(final List<SoftwareModuleMetadata> metadata) {
+        if (CollectionUtils.isEmpty(metadata)) {
+            return null;
         }
 
-        return amqpSoftwareModule;
-    }
-
-    private List<DmfMetadata> convertMetadata(final List<SoftwareModuleMetadata> metadata) {
         return metadata.stream().map(md -> new DmfMetadata(md.getKey(), md.getValue())).collect(Collectors.toList());
     }
 
-    private List<DmfArtifact> convertArtifacts(final Target target, final List<Artifact> localArtifacts) {
-        if (localArtifacts.isEmpty()) {
-            return Collections.emptyList();
+    /**
+     * Target independent part of a {@link DmfSoftwareModule}.
+     */
+    private static final class SoftwareModuleTemplate {
+        private final SoftwareModule softwareModule;
+        private final List<DmfMetadata> metadata;
+        private final List<ArtifactTemplate> artifacts;
+
+        private SoftwareModuleTemplate(final SoftwareModule softwareModule, final List<DmfMetadata> metadata,
+                final List<ArtifactTemplate> artifacts) {
+            this.softwareModule = softwareModule;
+            this.metadata = metadata;
+            this.artifacts = artifacts;
         }
 
-        return localArtifacts.stream().map(localArtifact -> convertArtifact(target, localArtifact))
-                .collect(Collectors.toList());
+        private DmfSoftwareModule toDmfSoftwareModule(final String controllerId, final Long targetId) {
+            final DmfSoftwareModule amqpSoftwareModule = new DmfSoftwareModule();
+            amqpSoftwareModule.setModuleId(softwareModule.getId());
+            amqpSoftwareModule.setModuleType(softwareModule.getType().getKey());
+            amqpSoftwareModule.setModuleVersion(softwareModule.getVersion());
+            amqpSoftwareModule.setArtifacts(artifacts.isEmpty() ? Collections.emptyList()
+                    : artifacts.stream().map(artifact -> artifact.toDmfArtifact(controllerId, targetId))
+                            .collect(Collectors.toList()));
+
+            if (metadata != null) {
+                amqpSoftwareModule.setMetadata(metadata);
+            }
+
+            return amqpSoftwareModule;
+        }
     }
 
-    private DmfArtifact convertArtifact(final Target target, final Artifact localArtifact) {
-        final DmfArtifact artifact = new DmfArtifact();
-
-        artifact.setUrls(artifactUrlHandler
-                .getUrls(new URLPlaceholder(systemManagement.getTenantMetadata().getTenant(),
-                        systemManagement.getTenantMetadata().getId(), target.getControllerId(), target.getId(),
-                        new SoftwareData(localArtifact.getSoftwareModule().getId(), localArtifact.getFilename(),
-                                localArtifact.getId(), localArtifact.getSha1Hash())),
-                        ApiType.DMF)
-                .stream().collect(Collectors.toMap(ArtifactUrl::getProtocol, ArtifactUrl::getRef)));
-
-        artifact.setFilename(localArtifact.getFilename());
-        artifact.setHashes(new DmfArtifactHash(localArtifact.getSha1Hash(), localArtifact.getMd5Hash()));
-        artifact.setSize(localArtifact.getSize());
-        return artifact;
+    /**
+     * Target independent part of a {@link DmfArtifact}, i.e. everything but the
+     * download URLs which are generated per target from a template.
+     */
+    private static final class ArtifactTemplate {
+        private final Artifact artifact;
+        private final DmfArtifactHash hashes;
+        private final ArtifactUrlTemplate urlTemplate;
+
+        private ArtifactTemplate(final Artifact artifact, final ArtifactUrlTemplate urlTemplate) {
+            this.artifact = artifact;
+            this.hashes = new DmfArtifactHash(artifact.getSha1Hash(), artifact.getMd5Hash());
+            this.urlTemplate = urlTemplate;
+        }
+
+        private DmfArtifact toDmfArtifact(final String controllerId, final Long targetId) {
+            final DmfArtifact dmfArtifact = new DmfArtifact();
+
+            dmfArtifact.setUrls(urlTemplate.getUrls(controllerId, targetId).stream()
+                    .collect(Collectors.toMap(ArtifactUrl::getProtocol, ArtifactUrl::getRef)));
+
+            dmfArtifact.setFilename(artifact.getFilename());
+            dmfArtifact.setHashes(hashes);
+            dmfArtifact.setSize(artifact.getSize());
+            return dmfArtifact;
+        }
     }
 
 }
@@ -28,6 +28,7 @@ import org.eclipse.hawkbit.im.authentication.TenantAwareAuthenticationDetails;
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.EntityFactory;
 import org.eclipse.hawkbit.repository.RepositoryConstants;
+import org.eclipse.hawkbit.repository.TargetAttributesUpdate;
 import org.eclipse.hawkbit.repository.UpdateMode;
 import org.eclipse.hawkbit.repository.builder.ActionStatusCreate;
 import org.eclipse.hawkbit.repository.model.Action;
@@ -70,6 +71,8 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
 
     private final EntityFactory entityFactory;
 
+    private final BatchingAttributeUpdateService attributeUpdateService;
+
     /**
      * Constructor.
      * 
@@ -85,10 +88,33 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
     public AmqpMessageHandlerService(final RabbitTemplate rabbitTemplate,
             final AmqpMessageDispatcherService amqpMessageDispatcherService,
             final ControllerManagement controllerManagement, final EntityFactory entityFactory) {
+        this(rabbitTemplate, amqpMessageDispatcherService, controllerManagement, entityFactory, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param rabbitTemplate
+     *            for converting messages
+     * @param amqpMessageDispatcherService
+     *            to sending events to DMF client
+     * @param controllerManagement
+     *            for target repo access
+     * @param entityFactory
+     *            to create entities
+     * @param attributeUpdateService
+     *            to persist attribute updates in batches or <code>null</code>
+     *            to persist every update on its own
+     */
+    public AmqpMessageHandlerService(final RabbitTemplate rabbitTemplate,
+            final AmqpMessageDispatcherService amqpMessageDispatcherService,
+            final ControllerManagement controllerManagement, final EntityFactory entityFactory,
+            final BatchingAttributeUpdateService attributeUpdateService) {
         super(rabbitTemplate);
         this.amqpMessageDispatcherService = amqpMessageDispatcherService;
         this.controllerManagement = controllerManagement;
         this.entityFactory = entityFactory;
+        this.attributeUpdateService = attributeUpdateService;
     }
 
     /**
@@ -164,7 +190,7 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         SecurityContextHolder.setContext(securityContextImpl);
     }
 
-    private static void setTenantSecurityContext(final String tenantId) {
+    static void setTenantSecurityContext(final String tenantId) {
         final AnonymousAuthenticationToken authenticationToken = new AnonymousAuthenticationToken(
                 UUID.randomUUID().toString(), "AMQP-Controller",
                 Collections.singletonList(new SimpleGrantedAuthority(SpringEvalExpressions.CONTROLLER_ROLE_ANONYMOUS)));
@@ -250,8 +276,17 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
     private void updateAttributes(final Message message) {
         final DmfAttributeUpdate attributeUpdate = convertMessage(message, DmfAttributeUpdate.class);
         final String thingId = getStringHeaderKey(message, MessageHeaderKey.THING_ID, "ThingId is null");
-        controllerManagement.updateControllerAttributes(thingId, attributeUpdate.getAttributes(),
-                getUpdateMode(attributeUpdate));
+        final UpdateMode mode = getUpdateMode(attributeUpdate);
+
+        // coalesced with the updates of other targets if configured so and
+        // not shut down yet
+        if (attributeUpdateService != null && attributeUpdateService.offer(
+                getStringHeaderKey(message, MessageHeaderKey.TENANT, "Tenant is null"),
+                new TargetAttributesUpdate(thingId, attributeUpdate.getAttributes(), mode))) {
+            return;
+        }
+
+        controllerManagement.updateControllerAttributes(thingId, attributeUpdate.getAttributes(), mode);
     }
 
     /**
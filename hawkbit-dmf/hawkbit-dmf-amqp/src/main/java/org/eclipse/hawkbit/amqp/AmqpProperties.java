@@ -8,6 +8,8 @@
  */
 package org.eclipse.hawkbit.amqp;
 
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -66,6 +68,33 @@ public class AmqpProperties {
      */
     private long requeueDelay = DEFAULT_REQUEUE_DELAY;
 
+    /**
+     * Asynchronous, batched sending of DMF messages.
+     */
+    private final BatchSender batchSender = new BatchSender();
+
+    /**
+     * Batched persistence of DMF attribute updates.
+     */
+    private final AttributeBatch attributeBatch = new AttributeBatch();
+
+    /**
+     * Concurrent, partitioned processing of the DMF receiver queue.
+     */
+    private final PartitionedReceiver partitionedReceiver = new PartitionedReceiver();
+
+    public BatchSender getBatchSender() {
+        return batchSender;
+    }
+
+    public AttributeBatch getAttributeBatch() {
+        return attributeBatch;
+    }
+
+    public PartitionedReceiver getPartitionedReceiver() {
+        return partitionedReceiver;
+    }
+
     public long getRequeueDelay() {
         return requeueDelay;
     }
@@ -129,4 +158,231 @@ public class AmqpProperties {
     public void setEnabled(final boolean enabled) {
         this.enabled = enabled;
     }
+
+    /**
+     * Configuration of the {@link BatchingAmqpMessageSenderService}.
+     */
+    public static class BatchSender {
+
+        /**
+         * Set to <code>true</code> to send DMF messages asynchronously in
+         * batches which are confirmed by the broker.
+         */
+        private boolean enabled;
+
+        /**
+         * Maximum number of messages queued for sending, shared equally by
+         * the workers.
+         */
+        private int queueSize = 10_000;
+
+        /**
+         * Maximum number of messages published before waiting for the
+         * confirms of the broker.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Number of workers which publish the queued messages, each on its
+         * own channel.
+         */
+        private int workers = 2;
+
+        /**
+         * Maximum time in milliseconds to wait for the confirms of a batch.
+         */
+        private long confirmTimeout = TimeUnit.SECONDS.toMillis(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public void setQueueSize(final int queueSize) {
+            this.queueSize = queueSize;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(final int workers) {
+            this.workers = workers;
+        }
+
+        public long getConfirmTimeout() {
+            return confirmTimeout;
+        }
+
+        public void setConfirmTimeout(final long confirmTimeout) {
+            this.confirmTimeout = confirmTimeout;
+        }
+    }
+
+    /**
+     * Configuration of the {@link BatchingAttributeUpdateService}.
+     */
+    public static class AttributeBatch {
+
+        /**
+         * Set to <code>true</code> to persist the attribute updates of many
+         * targets in one transaction. The update messages are acknowledged
+         * before the attributes are persisted.
+         */
+        private boolean enabled;
+
+        /**
+         * Maximum number of attribute updates queued for persistence. The
+         * message listeners wait if the queue is full.
+         */
+        private int queueSize = 10_000;
+
+        /**
+         * Maximum number of attribute updates persisted in one transaction.
+         */
+        private int batchSize = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public void setQueueSize(final int queueSize) {
+            this.queueSize = queueSize;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Configuration of the {@link PartitionedAmqpMessageReceiver}.
+     */
+    public static class PartitionedReceiver {
+
+        /**
+         * Set to <code>true</code> to process the messages of the DMF receiver
+         * queue concurrently on partitions by tenant and thing ID instead of
+         * on the listener threads.
+         */
+        private boolean enabled;
+
+        /**
+         * Number of partitions, each processed by its own worker.
+         */
+        private int partitions = 8;
+
+        /**
+         * Maximum number of messages queued per partition.
+         */
+        private int queueSize = 1_000;
+
+        /**
+         * Maximum number of unacknowledged messages delivered by the broker.
+         */
+        private int prefetch = 1_000;
+
+        /**
+         * Maximum number of consecutive status updates of the same action
+         * which are processed in one transaction.
+         */
+        private int maxCoalesced = 50;
+
+        /**
+         * Maximum number of attempts to process a failed message before it is
+         * rejected without requeue, i.e. dead-lettered. The message is retried
+         * in place as a requeued message would overtake the later messages of
+         * the same thing.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Time in milliseconds to wait before a failed message is processed
+         * again.
+         */
+        private long retryDelay = 1_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getPartitions() {
+            return partitions;
+        }
+
+        public void setPartitions(final int partitions) {
+            this.partitions = partitions;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public void setQueueSize(final int queueSize) {
+            this.queueSize = queueSize;
+        }
+
+        public int getPrefetch() {
+            return prefetch;
+        }
+
+        public void setPrefetch(final int prefetch) {
+            this.prefetch = prefetch;
+        }
+
+        public int getMaxCoalesced() {
+            return maxCoalesced;
+        }
+
+        public void setMaxCoalesced(final int maxCoalesced) {
+            this.maxCoalesced = maxCoalesced;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(final int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getRetryDelay() {
+            return retryDelay;
+        }
+
+        public void setRetryDelay(final long retryDelay) {
+            this.retryDelay = retryDelay;
+        }
+    }
 }
@@ -0,0 +1,321 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.hawkbit.amqp.AmqpProperties.BatchSender;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.eclipse.hawkbit.util.IpUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpIOException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.ChannelProxy;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.CorrelationData;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.rabbitmq.client.Channel;
+
+/**
+ * {@link AmqpMessageSenderService} which decouples the sending of messages
+ * from the calling thread. The messages are queued in bounded queues which are
+ * drained by dedicated workers. Every worker publishes a batch of messages on
+ * its own channel in confirm mode and waits for the publisher confirms of the
+ * whole batch at once instead of sending the messages one by one.
+ *
+ * All messages of a target are queued for the same worker to keep their
+ * order. The caller is blocked if the queue of the worker is full. A batch
+ * which is not confirmed by the broker is sent again message by message, i.e.
+ * the messages are delivered at least once.
+ */
+public class BatchingAmqpMessageSenderService extends DefaultAmqpMessageSenderService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingAmqpMessageSenderService.class);
+
+    private static final long POLL_TIMEOUT = 100;
+
+    private final BatchSender properties;
+    private final List<BlockingQueue<OutgoingMessage>> queues;
+    private final ExecutorService workers;
+
+    private volatile boolean running = true;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder sentDirectly = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final AtomicLong lastConfirmLatency = new AtomicLong();
+    private final AtomicLong maxConfirmLatency = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param rabbitTemplate
+     *            the AMQP template
+     * @param properties
+     *            of the queue and the workers
+     */
+    public BatchingAmqpMessageSenderService(final RabbitTemplate rabbitTemplate, final BatchSender properties) {
+        super(rabbitTemplate);
+        this.properties = properties;
+
+        final int workerCount = Math.max(1, properties.getWorkers());
+        this.queues = new ArrayList<>(workerCount);
+        this.workers = Executors.newFixedThreadPool(workerCount,
+                new ThreadFactoryBuilder().setNameFormat("dmf-sender-%d").setDaemon(true).build());
+
+        for (int i = 0; i < workerCount; i++) {
+            final BlockingQueue<OutgoingMessage> queue = new ArrayBlockingQueue<>(
+                    Math.max(1, properties.getQueueSize() / workerCount));
+            queues.add(queue);
+            workers.execute(() -> publishQueuedMessages(queue));
+        }
+    }
+
+    @Override
+    public void sendMessage(final Message message, final URI sendTo) {
+        if (!IpUtil.isAmqpUri(sendTo)) {
+            return;
+        }
+
+        if (isCorrelationIdEmpty(message)) {
+            message.getMessageProperties()
+                    .setCorrelationId(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        // blocks while the queue is full but not beyond the shutdown
+        final BlockingQueue<OutgoingMessage> queue = queueOf(message, sendTo);
+        final OutgoingMessage outgoing = new OutgoingMessage(message, sendTo);
+        try {
+            while (running) {
+                if (queue.offer(outgoing, POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (final InterruptedException e) {
+            LOGGER.warn("Interrupted while queuing message for exchange {}", sendTo, e);
+            Thread.currentThread().interrupt();
+        }
+
+        LOGGER.debug("Sender is not running, sending message to {} directly.", sendTo);
+        sentDirectly.increment();
+        super.sendMessage(message, sendTo);
+    }
+
+    /**
+     * @return the queue of the worker which is responsible for the target the
+     *         message is addressed to
+     */
+    private BlockingQueue<OutgoingMessage> queueOf(final Message message, final URI sendTo) {
+        final MessageProperties messageProperties = message.getMessageProperties();
+        final Object thingId = messageProperties.getHeaders().get(MessageHeaderKey.THING_ID);
+        final int hash = thingId != null
+                ? Objects.hash(messageProperties.getHeaders().get(MessageHeaderKey.TENANT), thingId)
+                : sendTo.hashCode();
+        return queues.get(Math.floorMod(hash, queues.size()));
+    }
+
+    private void publishQueuedMessages(final BlockingQueue<OutgoingMessage> queue) {
+        final List<OutgoingMessage> batch = new ArrayList<>(properties.getBatchSize());
+        Channel channel = null;
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    final OutgoingMessage first = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+
+                    batch.add(first);
+                    queue.drainTo(batch, properties.getBatchSize() - 1);
+
+                    if (channel == null) {
+                        channel = openChannel();
+                    }
+                    if (!publish(channel, batch)) {
+                        discard(channel);
+                        channel = null;
+                    }
+                } catch (final InterruptedException e) {
+                    LOGGER.debug("DMF sender worker interrupted", e);
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (final RuntimeException e) {
+                    LOGGER.error("Failed to send batch of {} messages", batch.size(), e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            discard(channel);
+        }
+    }
+
+    /**
+     * Opens the channel of a worker which is used exclusively by this worker
+     * as it is switched to confirm mode.
+     */
+    private Channel openChannel() {
+        final Channel channel = getRabbitTemplate().getConnectionFactory().createConnection().createChannel(false);
+        try {
+            channel.confirmSelect();
+        } catch (final IOException e) {
+            discard(channel);
+            throw new AmqpIOException(e);
+        }
+        return channel;
+    }
+
+    /**
+     * Closes the channel of a worker. The underlying channel is closed as
+     * well so that the channel in confirm mode is not returned to the cache of
+     * the connection factory.
+     */
+    private static void discard(final Channel channel) {
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            if (channel instanceof ChannelProxy) {
+                ((ChannelProxy) channel).getTargetChannel().close();
+            }
+            channel.close();
+        } catch (final IOException | TimeoutException | RuntimeException e) {
+            LOGGER.debug("Failed to close DMF sender channel", e);
+        }
+    }
+
+    /**
+     * Publishes the batch on the given channel and waits for the confirms.
+     *
+     * @return <code>false</code> if the batch has not been confirmed and has
+     *         been sent again one by one
+     */
+    private boolean publish(final Channel channel, final List<OutgoingMessage> batch) {
+        try {
+            // the template applies its message post processors
+            for (final OutgoingMessage outgoing : batch) {
+                final Message message = outgoing.message;
+                getRabbitTemplate().doSend(channel, outgoing.getExchange(), null, message, false,
+                        new CorrelationData(new String(message.getMessageProperties().getCorrelationId(),
+                                StandardCharsets.UTF_8)));
+            }
+
+            final long start = System.currentTimeMillis();
+            channel.waitForConfirmsOrDie(properties.getConfirmTimeout());
+            final long latency = System.currentTimeMillis() - start;
+
+            sent.add(batch.size());
+            lastConfirmLatency.set(latency);
+            maxConfirmLatency.accumulateAndGet(latency, Math::max);
+            LOGGER.debug("Batch of {} messages confirmed by broker after {} ms.", batch.size(), latency);
+            return true;
+        } catch (final Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            failedBatches.increment();
+            LOGGER.warn("Batch of {} messages not confirmed by broker, sending them one by one.", batch.size(), e);
+            batch.forEach(outgoing -> super.sendMessage(outgoing.message, outgoing.sendTo));
+            sent.add(batch.size());
+            return false;
+        }
+    }
+
+    /**
+     * Stops accepting new messages and waits until the queued messages are
+     * sent.
+     */
+    public void shutdown() {
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(properties.getConfirmTimeout(), TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("{} messages have not been sent on shutdown.", getQueueSize());
+                workers.shutdownNow();
+            }
+        } catch (final InterruptedException e) {
+            LOGGER.warn("Interrupted while waiting for queued messages to be sent", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return number of messages waiting to be sent
+     */
+    public int getQueueSize() {
+        return queues.stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    /**
+     * @return number of messages sent by the workers
+     */
+    public long getSent() {
+        return sent.sum();
+    }
+
+    /**
+     * @return number of messages sent by the caller as the sender was shut
+     *         down
+     */
+    public long getSentDirectly() {
+        return sentDirectly.sum();
+    }
+
+    /**
+     * @return number of batches which have not been confirmed by the broker
+     */
+    public long getFailedBatches() {
+        return failedBatches.sum();
+    }
+
+    /**
+     * @return time in milliseconds the broker took to confirm the last batch
+     */
+    public long getLastConfirmLatency() {
+        return lastConfirmLatency.get();
+    }
+
+    /**
+     * @return maximum time in milliseconds the broker took to confirm a batch
+     */
+    public long getMaxConfirmLatency() {
+        return maxConfirmLatency.get();
+    }
+
+    private static final class OutgoingMessage {
+        private final Message message;
+        private final URI sendTo;
+
+        private OutgoingMessage(final Message message, final URI sendTo) {
+            this.message = message;
+            this.sendTo = sendTo;
+        }
+
+        private String getExchange() {
+            return sendTo.getPath().substring(1);
+        }
+    }
+}
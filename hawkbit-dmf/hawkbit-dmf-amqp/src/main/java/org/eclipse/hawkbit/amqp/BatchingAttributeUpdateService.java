@@ -0,0 +1,259 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.amqp.AmqpProperties.AttributeBatch;
+import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.TargetAttributesUpdate;
+import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Coalesces the attribute updates of DMF UPDATE_ATTRIBUTES messages. The
+ * updates are queued in a bounded queue which is drained by a dedicated
+ * worker. The worker persists all updates of a tenant it has drained at once
+ * in one transaction by means of
+ * {@link ControllerManagement#updateControllerAttributes(List)}. If that
+ * transaction fails the updates are persisted one by one in separate
+ * transactions, so that only the failing updates are dropped.
+ *
+ * The updates are persisted after the messages have been acknowledged, i.e.
+ * queued updates are lost if the node goes down. A full queue blocks the
+ * caller so that an update is never persisted before an older update of the
+ * same target. Updates which are offered after the shutdown are expected to
+ * be persisted directly by the caller.
+ */
+public class BatchingAttributeUpdateService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingAttributeUpdateService.class);
+
+    private static final long POLL_TIMEOUT = 100;
+    private static final long SHUTDOWN_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+    private final ControllerManagement controllerManagement;
+    private final AttributeBatch properties;
+    private final BlockingQueue<QueuedUpdate> queue;
+    private final ExecutorService worker;
+
+    private final CountDownLatch drained = new CountDownLatch(1);
+    private volatile boolean running = true;
+
+    private final LongAdder persisted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder unknown = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param controllerManagement
+     *            to persist the attributes
+     * @param properties
+     *            of the queue
+     */
+    public BatchingAttributeUpdateService(final ControllerManagement controllerManagement,
+            final AttributeBatch properties) {
+        this.controllerManagement = controllerManagement;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueSize());
+        this.worker = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("dmf-attribute-update-%d").setDaemon(true).build());
+
+        worker.execute(this::persistQueuedUpdates);
+    }
+
+    /**
+     * Queues the given update for persistence and waits for space in the
+     * queue if necessary.
+     *
+     * @param tenant
+     *            of the target
+     * @param update
+     *            to persist
+     * @return <code>false</code> if the update has not been queued and has to
+     *         be persisted by the caller, i.e. after the shutdown once the
+     *         queued updates have been persisted
+     */
+    public boolean offer(final String tenant, final TargetAttributesUpdate update) {
+        final QueuedUpdate queued = new QueuedUpdate(tenant, update);
+        try {
+            while (running) {
+                if (queue.offer(queued, POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+
+            // the caller must not overtake the queued updates
+            drained.await(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            LOGGER.debug("Interrupted while queuing attribute update of {}", update.getControllerId(), e);
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private void persistQueuedUpdates() {
+        final List<QueuedUpdate> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                final QueuedUpdate first = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                persist(batch);
+            } catch (final InterruptedException e) {
+                LOGGER.debug("DMF attribute update worker interrupted", e);
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void persist(final List<QueuedUpdate> batch) {
+        // keeps the order of the updates per tenant
+        final Map<String, List<TargetAttributesUpdate>> byTenant = batch.stream()
+                .collect(Collectors.groupingBy(QueuedUpdate::getTenant, LinkedHashMap::new,
+                        Collectors.mapping(QueuedUpdate::getUpdate, Collectors.toList())));
+
+        byTenant.forEach((tenant, updates) -> {
+            try {
+                AmqpMessageHandlerService.setTenantSecurityContext(tenant);
+                if (updates.size() == 1 || !persistBatch(tenant, updates)) {
+                    updates.forEach(update -> persistSingle(tenant, update));
+                }
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+    }
+
+    private boolean persistBatch(final String tenant, final List<TargetAttributesUpdate> updates) {
+        try {
+            final int changed = controllerManagement.updateControllerAttributes(updates);
+            persisted.add(updates.size());
+            LOGGER.debug("{} attribute updates of tenant {} persisted, {} targets changed.", updates.size(), tenant,
+                    changed);
+            return true;
+        } catch (final RuntimeException e) {
+            LOGGER.debug("Failed to persist {} attribute updates of tenant {} at once, persisting them one by one.",
+                    updates.size(), tenant, e);
+            return false;
+        }
+    }
+
+    private void persistSingle(final String tenant, final TargetAttributesUpdate update) {
+        try {
+            controllerManagement.updateControllerAttributes(update.getControllerId(), update.getAttributes(),
+                    update.getMode());
+            persisted.increment();
+        } catch (final EntityNotFoundException e) {
+            unknown.increment();
+            LOGGER.warn("Attribute update of unknown target {} of tenant {} is dropped.", update.getControllerId(),
+                    tenant);
+        } catch (final RuntimeException e) {
+            dropped.increment();
+            LOGGER.error("Failed to persist attribute update of target {} of tenant {}.", update.getControllerId(),
+                    tenant, e);
+        }
+    }
+
+    /**
+     * Stops accepting new updates and waits until the queued updates are
+     * persisted.
+     */
+    public void shutdown() {
+        running = false;
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("{} attribute updates have not been persisted on shutdown.", queue.size());
+                worker.shutdownNow();
+                return;
+            }
+
+            // queued by a caller which has been waiting while the worker ended
+            final List<QueuedUpdate> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            if (!remaining.isEmpty()) {
+                persist(remaining);
+            }
+        } catch (final InterruptedException e) {
+            LOGGER.warn("Interrupted while waiting for queued attribute updates to be persisted", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            drained.countDown();
+        }
+    }
+
+    /**
+     * @return number of updates waiting to be persisted
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return number of updates persisted by the worker
+     */
+    public long getPersisted() {
+        return persisted.sum();
+    }
+
+    /**
+     * @return number of updates dropped as they failed
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return number of updates dropped as their target does not exist
+     */
+    public long getUnknown() {
+        return unknown.sum();
+    }
+
+    private static final class QueuedUpdate {
+        private final String tenant;
+        private final TargetAttributesUpdate update;
+
+        private QueuedUpdate(final String tenant, final TargetAttributesUpdate update) {
+            this.tenant = tenant;
+            this.update = update;
+        }
+
+        private String getTenant() {
+            return tenant;
+        }
+
+        private TargetAttributesUpdate getUpdate() {
+            return update;
+        }
+    }
+}
@@ -8,6 +8,8 @@
  */
 package org.eclipse.hawkbit.amqp;
 
+import java.util.Arrays;
+
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
@@ -20,6 +22,7 @@ import org.springframework.util.ErrorHandler;
  */
 public class ConfigurableRabbitListenerContainerFactory extends SimpleRabbitListenerContainerFactory {
     private final int declarationRetries;
+    private String manuallyStartedQueue;
 
     /**
      * Constructor.
@@ -40,6 +43,15 @@ public class ConfigurableRabbitListenerContainerFactory extends SimpleRabbitList
         setMissingQueuesFatal(missingQueuesFatal);
     }
 
+    /**
+     * @param manuallyStartedQueue
+     *            queue whose listener containers are not started with the
+     *            application context as the queue is consumed by other means
+     */
+    public void setManuallyStartedQueue(final String manuallyStartedQueue) {
+        this.manuallyStartedQueue = manuallyStartedQueue;
+    }
+
     @Override
     // Exception squid:UnusedProtectedMethod - called by
     // AbstractRabbitListenerContainerFactory
@@ -47,5 +59,9 @@ public class ConfigurableRabbitListenerContainerFactory extends SimpleRabbitList
     protected void initializeContainer(final SimpleMessageListenerContainer instance) {
         super.initializeContainer(instance);
         instance.setDeclarationRetries(declarationRetries);
+
+        if (manuallyStartedQueue != null && Arrays.asList(instance.getQueueNames()).contains(manuallyStartedQueue)) {
+            instance.setAutoStartup(false);
+        }
     }
 }
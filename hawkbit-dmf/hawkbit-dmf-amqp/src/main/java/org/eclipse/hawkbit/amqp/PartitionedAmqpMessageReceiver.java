@@ -0,0 +1,450 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.hawkbit.amqp.AmqpProperties.PartitionedReceiver;
+import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.ChannelAwareMessageListener;
+import org.springframework.amqp.rabbit.listener.FatalExceptionStrategy;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.exception.ListenerExecutionFailedException;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.rabbitmq.client.Channel;
+
+/**
+ * Receiver of the DMF receiver queue which decouples the processing of the
+ * messages from the listener thread. The messages are prefetched by a single
+ * consumer and dispatched onto partitions by hash of tenant and thing ID. Every
+ * partition is processed by its own worker, i.e. the messages of a thing are
+ * processed in the order of the queue while the messages of different things
+ * are processed concurrently.
+ *
+ * Consecutive status updates of the same action in a partition are processed
+ * in one transaction. If that fails they are processed one by one again.
+ *
+ * The messages are acknowledged manually after they have been processed by
+ * the {@link AmqpMessageHandlerService}. Failed messages are retried in place
+ * unless the failure is fatal, as a requeued message would overtake the later
+ * messages of the same thing. Messages which fail finally are rejected without
+ * requeue, i.e. dead-lettered.
+ */
+public class PartitionedAmqpMessageReceiver implements ChannelAwareMessageListener, SmartLifecycle {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedAmqpMessageReceiver.class);
+
+    private static final long POLL_TIMEOUT = 100;
+    private static final long SHUTDOWN_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+    private final AmqpMessageHandlerService amqpMessageHandlerService;
+    private final PartitionedReceiver properties;
+    private final FatalExceptionStrategy exceptionStrategy;
+    private final TransactionTemplate transactionTemplate;
+    private final SimpleMessageListenerContainer container;
+    private final String virtualHost;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Partition[] partitions;
+    private final ExecutorService workers;
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private volatile boolean running = true;
+
+    /**
+     * Constructor.
+     *
+     * @param connectionFactory
+     *            to consume the receiver queue
+     * @param amqpMessageHandlerService
+     *            which processes the messages
+     * @param amqpProperties
+     *            of the receiver queue and the partitions
+     * @param exceptionStrategy
+     *            that decides if a failed message is requeued
+     * @param txManager
+     *            to process consecutive status updates of an action in one
+     *            transaction or <code>null</code> to process every message
+     *            on its own
+     */
+    public PartitionedAmqpMessageReceiver(final ConnectionFactory connectionFactory,
+            final AmqpMessageHandlerService amqpMessageHandlerService, final AmqpProperties amqpProperties,
+            final FatalExceptionStrategy exceptionStrategy, final PlatformTransactionManager txManager) {
+        this.amqpMessageHandlerService = amqpMessageHandlerService;
+        this.properties = amqpProperties.getPartitionedReceiver();
+        this.exceptionStrategy = exceptionStrategy;
+        this.transactionTemplate = txManager == null ? null : new TransactionTemplate(txManager);
+        this.virtualHost = connectionFactory.getVirtualHost();
+
+        this.partitions = new Partition[properties.getPartitions()];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition(properties.getQueueSize());
+        }
+        this.workers = Executors.newFixedThreadPool(partitions.length,
+                new ThreadFactoryBuilder().setNameFormat("dmf-receiver-%d").setDaemon(true).build());
+        for (final Partition partition : partitions) {
+            workers.execute(() -> processPartition(partition));
+        }
+
+        container = new SimpleMessageListenerContainer(connectionFactory);
+        container.setQueueNames(amqpProperties.getReceiverQueue());
+        container.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        container.setPrefetchCount(properties.getPrefetch());
+        // a single consumer keeps the order of the queue for the partitions
+        container.setConcurrentConsumers(1);
+        container.setMissingQueuesFatal(amqpProperties.isMissingQueuesFatal());
+        container.setDeclarationRetries(amqpProperties.getDeclarationRetries());
+        container.setMessageListener(this);
+        container.afterPropertiesSet();
+    }
+
+    @Override
+    public void onMessage(final Message message, final Channel channel) throws IOException {
+        if (!running) {
+            // left unacknowledged, redelivered after the channel is closed
+            return;
+        }
+
+        final IncomingMessage incoming = new IncomingMessage(message, channel);
+        try {
+            partitions[partitionOf(incoming)].queue.put(incoming);
+        } catch (final InterruptedException e) {
+            LOGGER.warn("Interrupted while dispatching message, message is requeued.", e);
+            Thread.currentThread().interrupt();
+            channel.basicReject(incoming.getDeliveryTag(), true);
+        }
+    }
+
+    private int partitionOf(final IncomingMessage incoming) {
+        return Math.floorMod(Objects.hash(incoming.tenant, incoming.thingId), partitions.length);
+    }
+
+    private void processPartition(final Partition partition) {
+        final List<IncomingMessage> batch = new ArrayList<>(properties.getMaxCoalesced());
+        while (running || !partition.queue.isEmpty()) {
+            try {
+                final IncomingMessage first = partition.queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                partition.queue.drainTo(batch, properties.getMaxCoalesced() - 1);
+                process(partition, batch);
+            } catch (final InterruptedException e) {
+                LOGGER.debug("DMF receiver worker interrupted", e);
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(final Partition partition, final List<IncomingMessage> batch) {
+        int start = 0;
+        // the rest of an interrupted batch is redelivered in order
+        while (start < batch.size() && !Thread.currentThread().isInterrupted()) {
+            final IncomingMessage first = batch.get(start);
+            int end = start + 1;
+            if (transactionTemplate != null && getActionId(first) != null) {
+                while (end < batch.size() && isSameAction(first, batch.get(end))) {
+                    end++;
+                }
+            }
+
+            if (end - start > 1) {
+                processCoalesced(partition, batch.subList(start, end));
+            } else {
+                processSingle(partition, first);
+            }
+            start = end;
+        }
+    }
+
+    private boolean isSameAction(final IncomingMessage first, final IncomingMessage other) {
+        return Objects.equals(first.tenant, other.tenant) && Objects.equals(getActionId(first), getActionId(other));
+    }
+
+    private void processCoalesced(final Partition partition, final List<IncomingMessage> group) {
+        try {
+            // the tenant of the transaction is bound when it begins
+            AmqpMessageHandlerService.setTenantSecurityContext(group.get(0).tenant);
+            transactionTemplate.execute(status -> {
+                group.forEach(this::handle);
+                return null;
+            });
+        } catch (final RuntimeException e) {
+            LOGGER.debug("Failed to process {} status updates of action {} at once, processing them one by one.",
+                    group.size(), getActionId(group.get(0)), e);
+            group.forEach(incoming -> processSingle(partition, incoming));
+            return;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        coalesced.add(group.size());
+        group.forEach(incoming -> {
+            ack(incoming);
+            partition.processed(incoming);
+        });
+    }
+
+    private void processSingle(final Partition partition, final IncomingMessage incoming) {
+        try {
+            for (int attempt = 1;; attempt++) {
+                try {
+                    handle(incoming);
+                    ack(incoming);
+                    return;
+                } catch (final RuntimeException e) {
+                    if (isFatal(e) || attempt >= properties.getMaxAttempts()) {
+                        reject(incoming, attempt, e);
+                        return;
+                    }
+                    LOGGER.debug("Failed to process message in attempt {}, retrying.", attempt, e);
+                }
+                TimeUnit.MILLISECONDS.sleep(properties.getRetryDelay());
+            }
+        } catch (final InterruptedException e) {
+            // left unacknowledged, redelivered after the channel is closed
+            LOGGER.warn("Interrupted while retrying message, it will be redelivered.", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            partition.processed(incoming);
+        }
+    }
+
+    private boolean isFatal(final RuntimeException cause) {
+        return cause instanceof AmqpRejectAndDontRequeueException || exceptionStrategy
+                .isFatal(new ListenerExecutionFailedException("Failed to process DMF message", cause));
+    }
+
+    private void handle(final IncomingMessage incoming) {
+        amqpMessageHandlerService.onMessage(incoming.message, incoming.type, incoming.tenant, virtualHost);
+    }
+
+    private static void ack(final IncomingMessage incoming) {
+        try {
+            incoming.channel.basicAck(incoming.getDeliveryTag(), false);
+        } catch (final IOException | RuntimeException e) {
+            // e.g. a ShutdownSignalException of a closed channel
+            LOGGER.warn("Failed to acknowledge processed message, it will be redelivered.", e);
+        }
+    }
+
+    private static void reject(final IncomingMessage incoming, final int attempts, final RuntimeException cause) {
+        LOGGER.warn("Failed to process message after {} attempt(s), it is dead-lettered.", attempts, cause);
+
+        try {
+            incoming.channel.basicReject(incoming.getDeliveryTag(), false);
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.warn("Failed to reject message, it will be redelivered.", e);
+        }
+    }
+
+    private Long getActionId(final IncomingMessage incoming) {
+        if (!incoming.actionIdResolved) {
+            incoming.actionId = readActionId(incoming);
+            incoming.actionIdResolved = true;
+        }
+        return incoming.actionId;
+    }
+
+    private Long readActionId(final IncomingMessage incoming) {
+        if (!MessageType.EVENT.name().equals(incoming.type) || !EventTopic.UPDATE_ACTION_STATUS.name()
+                .equals(incoming.message.getMessageProperties().getHeaders().get(MessageHeaderKey.TOPIC))) {
+            return null;
+        }
+
+        try {
+            final JsonNode actionId = objectMapper.readTree(incoming.message.getBody()).path("actionId");
+            return actionId.isIntegralNumber() ? actionId.asLong() : null;
+        } catch (final IOException | RuntimeException e) {
+            // the handler rejects the message later on
+            LOGGER.trace("Failed to read action ID of message", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void start() {
+        container.start();
+    }
+
+    /**
+     * Stops dispatching the delivered messages and waits until the dispatched
+     * messages are processed before the consumer is stopped, so that they can
+     * still be acknowledged on its channel. Messages which have not been
+     * dispatched are redelivered. The receiver cannot be started again.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Messages have not been processed on shutdown, they will be redelivered.");
+                workers.shutdownNow();
+            }
+        } catch (final InterruptedException e) {
+            LOGGER.warn("Interrupted while waiting for dispatched messages to be processed", e);
+            Thread.currentThread().interrupt();
+        }
+        container.stop();
+        container.destroy();
+    }
+
+    @Override
+    public void stop(final Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return container.isRunning();
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public int getPhase() {
+        // started after and stopped before the other components
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return number of partitions
+     */
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * @param partition
+     *            index
+     * @return number of messages waiting to be processed in the partition
+     */
+    public int getQueueSize(final int partition) {
+        return partitions[partition].queue.size();
+    }
+
+    /**
+     * @param partition
+     *            index
+     * @return number of messages processed in the partition
+     */
+    public long getProcessed(final int partition) {
+        return partitions[partition].processed.sum();
+    }
+
+    /**
+     * @param partition
+     *            index
+     * @return time in milliseconds from the delivery until the processing of
+     *         the last message of the partition finished
+     */
+    public long getLastLatency(final int partition) {
+        return partitions[partition].lastLatency.get();
+    }
+
+    /**
+     * @param partition
+     *            index
+     * @return maximum time in milliseconds from the delivery until the
+     *         processing of a message of the partition finished
+     */
+    public long getMaxLatency(final int partition) {
+        return partitions[partition].maxLatency.get();
+    }
+
+    /**
+     * @return number of messages processed together with other status
+     *         updates of the same action
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    private static final class Partition {
+        private final BlockingQueue<IncomingMessage> queue;
+        private final LongAdder processed = new LongAdder();
+        private final AtomicLong lastLatency = new AtomicLong();
+        private final AtomicLong maxLatency = new AtomicLong();
+
+        private Partition(final int queueSize) {
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        private void processed(final IncomingMessage incoming) {
+            final long latency = System.currentTimeMillis() - incoming.receivedAt;
+            processed.increment();
+            lastLatency.set(latency);
+            maxLatency.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    private static final class IncomingMessage {
+        private final Message message;
+        private final Channel channel;
+        private final String type;
+        private final String tenant;
+        private final String thingId;
+        private final long receivedAt = System.currentTimeMillis();
+
+        private Long actionId;
+        private boolean actionIdResolved;
+
+        private IncomingMessage(final Message message, final Channel channel) {
+            this.message = message;
+            this.channel = channel;
+            this.type = getHeader(message, MessageHeaderKey.TYPE);
+            this.tenant = getHeader(message, MessageHeaderKey.TENANT);
+            this.thingId = getHeader(message, MessageHeaderKey.THING_ID);
+        }
+
+        private static String getHeader(final Message message, final String key) {
+            final Object value = message.getMessageProperties().getHeaders().get(key);
+            return value == null ? null : value.toString();
+        }
+
+        private long getDeliveryTag() {
+            return message.getMessageProperties().getDeliveryTag();
+        }
+    }
+}
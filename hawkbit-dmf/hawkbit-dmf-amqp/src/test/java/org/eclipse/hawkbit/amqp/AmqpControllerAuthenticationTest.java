@@ -37,6 +37,8 @@ import org.eclipse.hawkbit.repository.jpa.model.JpaArtifact;
 import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModule;
 import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModuleType;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetSnapshot;
+import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 import org.eclipse.hawkbit.repository.model.TenantConfigurationValue;
 import org.eclipse.hawkbit.repository.model.TenantMetaData;
 import org.eclipse.hawkbit.security.DdiSecurityProperties;
@@ -139,6 +141,10 @@ public class AmqpControllerAuthenticationTest {
         final ControllerManagement controllerManagement = mock(ControllerManagement.class);
         when(controllerManagement.getByControllerId(anyString())).thenReturn(Optional.of(targteMock));
         when(controllerManagement.get(any(Long.class))).thenReturn(Optional.of(targteMock));
+        final TargetSnapshot snapshot = new TargetSnapshot(TARGET_ID, CONTROLLER_ID, CONTROLLER_ID, null,
+                TargetUpdateStatus.REGISTERED, null, false);
+        when(controllerManagement.getSnapshotByControllerId(anyString())).thenReturn(Optional.of(snapshot));
+        when(controllerManagement.getSnapshot(any(Long.class))).thenReturn(Optional.of(snapshot));
 
         when(targteMock.getSecurityToken()).thenReturn(CONTROLLER_ID);
         when(targteMock.getControllerId()).thenReturn(CONTROLLER_ID);
@@ -21,9 +21,12 @@ import java.io.File;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.api.ArtifactUrl;
 import org.eclipse.hawkbit.api.ArtifactUrlHandler;
@@ -102,6 +105,8 @@ public class AmqpMessageDispatcherServiceTest extends AbstractIntegrationTest {
         final ArtifactUrlHandler artifactUrlHandlerMock = Mockito.mock(ArtifactUrlHandler.class);
         when(artifactUrlHandlerMock.getUrls(anyObject(), anyObject()))
                 .thenReturn(Arrays.asList(new ArtifactUrl("http", "download", "http://mockurl")));
+        when(artifactUrlHandlerMock.getUrlTemplate(anyObject(), anyObject())).thenReturn(
+                (controllerId, targetId) -> Arrays.asList(new ArtifactUrl("http", "download", "http://mockurl")));
 
         systemManagement = Mockito.mock(SystemManagement.class);
         final TenantMetaData tenantMetaData = Mockito.mock(TenantMetaData.class);
@@ -214,6 +219,30 @@ public class AmqpMessageDispatcherServiceTest extends AbstractIntegrationTest {
         }
     }
 
+    @Test
+    @Description("Verifies that the download and install messages of an assignment event are sent in the order of "
+            + "the assignment")
+    public void sendDownloadRequestsInAssignmentOrder() {
+        final DistributionSet ds = testdataFactory.createDistributionSet(UUID.randomUUID().toString());
+        final Map<String, Long> actions = new LinkedHashMap<>();
+        for (long i = 5; i > 0; i--) {
+            final String controllerId = "ordered" + i;
+            targetManagement.create(entityFactory.target().create().controllerId(controllerId)
+                    .securityToken(TEST_TOKEN).address(AMQP_URI.toString()));
+            actions.put(controllerId, i);
+        }
+
+        amqpMessageDispatcherService.targetAssignDistributionSet(new TargetAssignDistributionSetEvent(TENANT,
+                ds.getId(), actions, serviceMatcher.getServiceId(), false));
+
+        final ArgumentCaptor<Message> argumentCaptor = ArgumentCaptor.forClass(Message.class);
+        Mockito.verify(senderService, Mockito.times(actions.size())).sendMessage(argumentCaptor.capture(),
+                eq(AMQP_URI));
+        assertThat(argumentCaptor.getAllValues().stream()
+                .map(message -> message.getMessageProperties().getHeaders().get(MessageHeaderKey.THING_ID))
+                .collect(Collectors.toList())).containsExactlyElementsOf(actions.keySet());
+    }
+
     @Test
     @Description("Verifies that send cancel event works")
     public void testSendCancelRequest() {
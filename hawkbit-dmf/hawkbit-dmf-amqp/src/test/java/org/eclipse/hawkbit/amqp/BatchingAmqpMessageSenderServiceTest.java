@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.amqp.AmqpProperties.BatchSender;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.CorrelationData;
+
+import com.rabbitmq.client.Channel;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Device Management Federation API")
+@Stories("Batching AmqpMessage Sender Service Test")
+public class BatchingAmqpMessageSenderServiceTest {
+
+    private static final URI TARGET = URI.create("amqp://vhost/exchange");
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final Channel channel = mock(Channel.class);
+    private final BatchSender properties = new BatchSender();
+
+    @Before
+    public void setup() {
+        final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        final Connection connection = mock(Connection.class);
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createChannel(false)).thenReturn(channel);
+        properties.setWorkers(1);
+    }
+
+    @Test
+    @Description("Verifies that queued messages are published by the template on the confirm channel of the worker "
+            + "and confirmed by the broker.")
+    public void messagesArePublishedAndConfirmed() throws Exception {
+        final BatchingAmqpMessageSenderService sender = new BatchingAmqpMessageSenderService(rabbitTemplate,
+                properties);
+
+        for (int i = 0; i < 10; i++) {
+            sender.sendMessage(message("thing", i), TARGET);
+        }
+        sender.shutdown();
+
+        verify(rabbitTemplate, times(10)).doSend(eq(channel), eq("exchange"), isNull(String.class),
+                any(Message.class), anyBoolean(), any(CorrelationData.class));
+        verify(channel).confirmSelect();
+        verify(channel, atLeastOnce()).waitForConfirmsOrDie(anyLong());
+        // the channel in confirm mode is not returned to the cache
+        verify(channel).close();
+        assertThat(sender.getSent()).isEqualTo(10);
+        assertThat(sender.getQueueSize()).isZero();
+        assertThat(sender.getFailedBatches()).isZero();
+    }
+
+    @Test
+    @Description("Verifies that the messages of a target are published in order if several workers are used.")
+    public void messagesOfTargetArePublishedInOrder() throws Exception {
+        final List<Message> published = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> published.add((Message) invocation.getArguments()[3])).when(rabbitTemplate)
+                .doSend(any(Channel.class), anyString(), anyString(), any(Message.class), anyBoolean(),
+                        any(CorrelationData.class));
+        properties.setWorkers(4);
+        final BatchingAmqpMessageSenderService sender = new BatchingAmqpMessageSenderService(rabbitTemplate,
+                properties);
+
+        for (int i = 0; i < 100; i++) {
+            sender.sendMessage(message("thing" + i % 5, i), TARGET);
+        }
+        sender.shutdown();
+
+        assertThat(published).hasSize(100);
+        for (int thing = 0; thing < 5; thing++) {
+            final String thingId = "thing" + thing;
+            final List<Byte> bodies = published.stream()
+                    .filter(message -> thingId
+                            .equals(message.getMessageProperties().getHeaders().get(MessageHeaderKey.THING_ID)))
+                    .map(message -> message.getBody()[0]).collect(Collectors.toList());
+            assertThat(bodies).hasSize(20).isSorted();
+        }
+    }
+
+    @Test
+    @Description("Verifies that the messages of a batch which is not confirmed by the broker are sent again one by "
+            + "one and that the channel is replaced.")
+    public void unconfirmedBatchIsSentAgain() throws Exception {
+        doThrow(new IOException("nack")).when(channel).waitForConfirmsOrDie(anyLong());
+        final BatchingAmqpMessageSenderService sender = new BatchingAmqpMessageSenderService(rabbitTemplate,
+                properties);
+
+        sender.sendMessage(message("thing", 0), TARGET);
+        sender.shutdown();
+
+        verify(rabbitTemplate).send(eq("exchange"), anyString(), any(Message.class), any(CorrelationData.class));
+        verify(channel).close();
+        assertThat(sender.getFailedBatches()).isEqualTo(1);
+        assertThat(sender.getSent()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("Verifies that messages are sent directly by the caller if the sender does not queue messages anymore.")
+    public void messagesAreSentDirectlyAfterShutdown() throws Exception {
+        final BatchingAmqpMessageSenderService sender = new BatchingAmqpMessageSenderService(rabbitTemplate,
+                properties);
+        sender.shutdown();
+
+        sender.sendMessage(message("thing", 0), TARGET);
+
+        verify(rabbitTemplate).send(eq("exchange"), anyString(), any(Message.class), any(CorrelationData.class));
+        verify(rabbitTemplate, never()).doSend(any(Channel.class), anyString(), anyString(), any(Message.class),
+                anyBoolean(), any(CorrelationData.class));
+        assertThat(sender.getSentDirectly()).isEqualTo(1);
+    }
+
+    private static Message message(final String thingId, final int index) {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setHeader(MessageHeaderKey.TENANT, "tenant");
+        messageProperties.setHeader(MessageHeaderKey.THING_ID, thingId);
+        return new Message(new byte[] { (byte) index }, messageProperties);
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.amqp.AmqpProperties.AttributeBatch;
+import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.TargetAttributesUpdate;
+import org.eclipse.hawkbit.repository.UpdateMode;
+import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Device Management Federation API")
+@Stories("Batching Attribute Update Service Test")
+public class BatchingAttributeUpdateServiceTest {
+
+    private final ControllerManagement controllerManagement = mock(ControllerManagement.class);
+    private final List<String> persisted = new CopyOnWriteArrayList<>();
+
+    @Test
+    @Description("Verifies that a full queue blocks the caller instead of letting it persist the update before the "
+            + "queued updates of the same target.")
+    @SuppressWarnings("unchecked")
+    public void fullQueueBlocksCaller() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            blocked.countDown();
+            release.await();
+            final List<TargetAttributesUpdate> updates = invocation.getArgumentAt(0, List.class);
+            persisted.addAll(updates.stream().map(update -> update.getAttributes().get("value"))
+                    .collect(Collectors.toList()));
+            return updates.size();
+        }).when(controllerManagement).updateControllerAttributes(anyListOf(TargetAttributesUpdate.class));
+
+        final AttributeBatch properties = new AttributeBatch();
+        properties.setQueueSize(1);
+        final BatchingAttributeUpdateService service = new BatchingAttributeUpdateService(controllerManagement,
+                properties);
+
+        // the worker is blocked by the first update, the second one is queued
+        assertThat(service.offer("tenant", update("1"))).isTrue();
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.offer("tenant", update("2"))).isTrue();
+
+        final ExecutorService caller = Executors.newSingleThreadExecutor();
+        final Future<Boolean> third = caller.submit(() -> service.offer("tenant", update("3")));
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertThat(third.isDone()).isFalse();
+
+        release.countDown();
+        assertThat(third.get(5, TimeUnit.SECONDS)).isTrue();
+        caller.shutdown();
+        service.shutdown();
+
+        assertThat(persisted).containsExactly("1", "2", "3");
+        assertThat(service.offer("tenant", update("4"))).isFalse();
+    }
+
+    @Test
+    @Description("Verifies that the updates of a failed batch are persisted one by one and that only the updates "
+            + "of unknown targets and the failing updates are dropped.")
+    @SuppressWarnings("unchecked")
+    public void failedBatchIsPersistedOneByOne() {
+        doAnswer(invocation -> {
+            final List<TargetAttributesUpdate> updates = invocation.getArgumentAt(0, List.class);
+            if (updates.stream().anyMatch(update -> !"thing".equals(update.getControllerId()))) {
+                throw new EntityNotFoundException(Target.class, "unknown");
+            }
+            persisted.addAll(updates.stream().map(update -> update.getAttributes().get("value"))
+                    .collect(Collectors.toList()));
+            return updates.size();
+        }).when(controllerManagement).updateControllerAttributes(anyListOf(TargetAttributesUpdate.class));
+        doAnswer(invocation -> {
+            final String controllerId = invocation.getArgumentAt(0, String.class);
+            if ("unknown".equals(controllerId)) {
+                throw new EntityNotFoundException(Target.class, controllerId);
+            }
+            if ("broken".equals(controllerId)) {
+                throw new IllegalStateException("broken");
+            }
+            persisted.add(invocation.getArgumentAt(1, Map.class).get("value").toString());
+            return null;
+        }).when(controllerManagement).updateControllerAttributes(anyString(), anyMapOf(String.class, String.class),
+                any(UpdateMode.class));
+
+        final BatchingAttributeUpdateService service = new BatchingAttributeUpdateService(controllerManagement,
+                new AttributeBatch());
+        assertThat(service.offer("tenant", update("1"))).isTrue();
+        assertThat(service.offer("tenant", update("unknown", "2"))).isTrue();
+        assertThat(service.offer("tenant", update("3"))).isTrue();
+        assertThat(service.offer("tenant", update("broken", "4"))).isTrue();
+        assertThat(service.offer("tenant", update("5"))).isTrue();
+        service.shutdown();
+
+        assertThat(persisted).containsExactly("1", "3", "5");
+        assertThat(service.getPersisted()).isEqualTo(3);
+        assertThat(service.getUnknown()).isEqualTo(1);
+        assertThat(service.getDropped()).isEqualTo(1);
+    }
+
+    private static TargetAttributesUpdate update(final String value) {
+        return update("thing", value);
+    }
+
+    private static TargetAttributesUpdate update(final String controllerId, final String value) {
+        return new TargetAttributesUpdate(controllerId, Collections.singletonMap("value", value), UpdateMode.MERGE);
+    }
+}
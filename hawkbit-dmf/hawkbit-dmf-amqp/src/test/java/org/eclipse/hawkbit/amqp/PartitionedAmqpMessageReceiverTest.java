@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ShutdownSignalException;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Device Management Federation API")
+@Stories("Partitioned AmqpMessage Receiver Test")
+public class PartitionedAmqpMessageReceiverTest {
+
+    private static final String TENANT = "DEFAULT";
+    private static final String VIRTUAL_HOST = "vhost";
+
+    private final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+    private final AmqpMessageHandlerService handler = mock(AmqpMessageHandlerService.class);
+    private final Channel channel = mock(Channel.class);
+    private final AmqpProperties properties = new AmqpProperties();
+    private final AtomicLong deliveryTags = new AtomicLong();
+
+    @Before
+    public void setup() {
+        when(connectionFactory.getVirtualHost()).thenReturn(VIRTUAL_HOST);
+        properties.getPartitionedReceiver().setPartitions(1);
+    }
+
+    @Test
+    @Description("Verifies that the messages of a thing are processed and acknowledged in the order of the queue.")
+    public void messagesOfThingAreProcessedInOrder() throws Exception {
+        final PartitionedAmqpMessageReceiver receiver = createReceiver(null);
+
+        final Message created = thingMessage(MessageType.THING_CREATED, "thing", new byte[0]);
+        final Message updated = statusMessage("thing", 1);
+        receiver.onMessage(created, channel);
+        receiver.onMessage(updated, channel);
+        receiver.stop();
+
+        final InOrder inOrder = inOrder(handler, channel);
+        inOrder.verify(handler).onMessage(created, MessageType.THING_CREATED.name(), TENANT, VIRTUAL_HOST);
+        inOrder.verify(channel).basicAck(created.getMessageProperties().getDeliveryTag(), false);
+        inOrder.verify(handler).onMessage(updated, MessageType.EVENT.name(), TENANT, VIRTUAL_HOST);
+        inOrder.verify(channel).basicAck(updated.getMessageProperties().getDeliveryTag(), false);
+        assertThat(receiver.getProcessed(0)).isEqualTo(2);
+        assertThat(receiver.getQueueSize(0)).isZero();
+    }
+
+    @Test
+    @Description("Verifies that a failed message is retried in place before the later messages of the thing and "
+            + "dead-lettered if the failure is fatal or persists.")
+    public void failedMessagesAreRetriedInPlace() throws Exception {
+        properties.getPartitionedReceiver().setRetryDelay(0);
+        final Message fatal = statusMessage("fatal", 1);
+        final Message temporary = statusMessage("thing", 2);
+        final Message later = statusMessage("thing", 3);
+        final Message persistent = statusMessage("persistent", 4);
+        when(handler.onMessage(eq(fatal), anyString(), anyString(), anyString()))
+                .thenThrow(new AmqpRejectAndDontRequeueException("fatal"));
+        when(handler.onMessage(eq(temporary), anyString(), anyString(), anyString()))
+                .thenThrow(new IllegalStateException("temporary")).thenReturn(null);
+        when(handler.onMessage(eq(persistent), anyString(), anyString(), anyString()))
+                .thenThrow(new IllegalStateException("persistent"));
+        final PartitionedAmqpMessageReceiver receiver = createReceiver(null);
+
+        receiver.onMessage(fatal, channel);
+        receiver.onMessage(temporary, channel);
+        receiver.onMessage(later, channel);
+        receiver.onMessage(persistent, channel);
+        receiver.stop();
+
+        verify(handler, times(1)).onMessage(eq(fatal), anyString(), anyString(), anyString());
+        verify(channel).basicReject(fatal.getMessageProperties().getDeliveryTag(), false);
+
+        final InOrder inOrder = inOrder(handler, channel);
+        inOrder.verify(handler, times(2)).onMessage(eq(temporary), anyString(), anyString(), anyString());
+        inOrder.verify(channel).basicAck(temporary.getMessageProperties().getDeliveryTag(), false);
+        inOrder.verify(handler).onMessage(eq(later), anyString(), anyString(), anyString());
+        inOrder.verify(channel).basicAck(later.getMessageProperties().getDeliveryTag(), false);
+
+        verify(handler, times(3)).onMessage(eq(persistent), anyString(), anyString(), anyString());
+        verify(channel).basicReject(persistent.getMessageProperties().getDeliveryTag(), false);
+        verify(channel, never()).basicReject(anyLong(), eq(true));
+    }
+
+    @Test
+    @Description("Verifies that a failing acknowledgement, e.g. of a closed channel, does not stop the worker.")
+    public void failedAcknowledgementIsTolerated() throws Exception {
+        final Message first = statusMessage("thing", 1);
+        final Message second = statusMessage("thing", 2);
+        doThrow(new ShutdownSignalException(false, false, null, null)).when(channel)
+                .basicAck(first.getMessageProperties().getDeliveryTag(), false);
+        final PartitionedAmqpMessageReceiver receiver = createReceiver(null);
+
+        receiver.onMessage(first, channel);
+        receiver.onMessage(second, channel);
+        receiver.stop();
+
+        verify(channel).basicAck(second.getMessageProperties().getDeliveryTag(), false);
+        assertThat(receiver.getProcessed(0)).isEqualTo(2);
+    }
+
+    @Test
+    @Description("Verifies that messages delivered after the receiver has been stopped are left for redelivery.")
+    public void messagesAreNotDispatchedAfterStop() throws Exception {
+        final PartitionedAmqpMessageReceiver receiver = createReceiver(null);
+        receiver.stop();
+
+        receiver.onMessage(statusMessage("thing", 1), channel);
+
+        verify(handler, never()).onMessage(any(Message.class), anyString(), anyString(), anyString());
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verify(channel, never()).basicReject(anyLong(), anyBoolean());
+    }
+
+    @Test
+    @Description("Verifies that consecutive status updates of an action are processed in one transaction.")
+    public void statusUpdatesOfActionAreCoalesced() throws Exception {
+        final PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+        when(txManager.getTransaction(any(TransactionDefinition.class))).thenReturn(mock(TransactionStatus.class));
+        final PartitionedAmqpMessageReceiver receiver = createReceiver(txManager);
+
+        // blocks the worker until the status updates are dispatched
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch dispatched = new CountDownLatch(1);
+        final Message blocking = thingMessage(MessageType.THING_CREATED, "other", new byte[0]);
+        when(handler.onMessage(eq(blocking), anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            blocked.countDown();
+            dispatched.await(10, TimeUnit.SECONDS);
+            return null;
+        });
+        receiver.onMessage(blocking, channel);
+        assertThat(blocked.await(10, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 3; i++) {
+            receiver.onMessage(statusMessage("thing", 1), channel);
+        }
+        dispatched.countDown();
+        receiver.stop();
+
+        verify(txManager, times(1)).getTransaction(any(TransactionDefinition.class));
+        verify(handler, times(3)).onMessage(any(Message.class), eq(MessageType.EVENT.name()), eq(TENANT),
+                eq(VIRTUAL_HOST));
+        verify(channel, times(4)).basicAck(anyLong(), eq(false));
+        assertThat(receiver.getCoalesced()).isEqualTo(3);
+    }
+
+    private PartitionedAmqpMessageReceiver createReceiver(final PlatformTransactionManager txManager) {
+        return new PartitionedAmqpMessageReceiver(connectionFactory, handler, properties,
+                new DelayedRequeueExceptionStrategy(0), txManager);
+    }
+
+    private Message statusMessage(final String thingId, final long actionId) {
+        final Message message = thingMessage(MessageType.EVENT, thingId,
+                ("{\"actionId\":" + actionId + ",\"actionStatus\":\"RUNNING\"}").getBytes(StandardCharsets.UTF_8));
+        message.getMessageProperties().setHeader(MessageHeaderKey.TOPIC, EventTopic.UPDATE_ACTION_STATUS.name());
+        return message;
+    }
+
+    private Message thingMessage(final MessageType type, final String thingId, final byte[] body) {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setHeader(MessageHeaderKey.TYPE, type.name());
+        messageProperties.setHeader(MessageHeaderKey.TENANT, TENANT);
+        messageProperties.setHeader(MessageHeaderKey.THING_ID, thingId);
+        messageProperties.setDeliveryTag(deliveryTags.incrementAndGet());
+        return new Message(body, messageProperties);
+    }
+}
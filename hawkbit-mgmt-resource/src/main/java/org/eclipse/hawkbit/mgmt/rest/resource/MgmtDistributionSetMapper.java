@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.mgmt.rest.resource;
 
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.id;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
@@ -31,12 +32,31 @@ import org.eclipse.hawkbit.repository.model.DistributionSetAssignmentResult;
 import org.eclipse.hawkbit.repository.model.DistributionSetMetadata;
 import org.eclipse.hawkbit.repository.model.MetaData;
 import org.eclipse.hawkbit.rest.data.ResponseList;
+import org.eclipse.hawkbit.rest.util.LinkTemplate;
 
 /**
  * A mapper which maps repository model to RESTful model representation and
  * back.
  */
 public final class MgmtDistributionSetMapper {
+
+    private static final LinkTemplate DISTRIBUTION_SET = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtDistributionSetRestApi.class).getDistributionSet(id(0))).withSelfRel());
+
+    private static final LinkTemplate MODULES = LinkTemplate.of(() -> linkTo(methodOn(
+            MgmtDistributionSetRestApi.class).getAssignedSoftwareModules(id(0),
+                    MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET_VALUE,
+                    MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE, null))
+                            .withRel(MgmtRestConstants.DISTRIBUTIONSET_V1_MODULE));
+
+    private static final LinkTemplate TYPE = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtDistributionSetTypeRestApi.class).getDistributionSetType(id(0)))
+                    .withRel("type"));
+
+    private static final LinkTemplate METADATA = LinkTemplate.of(() -> linkTo(methodOn(
+            MgmtDistributionSetRestApi.class).getMetadata(id(0),
+                    MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET_VALUE,
+                    MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE, null, null)).withRel("metadata"));
     private MgmtDistributionSetMapper() {
         // Utility class
     }
@@ -115,24 +135,17 @@ public final class MgmtDistributionSetMapper {
 
         response.setRequiredMigrationStep(distributionSet.isRequiredMigrationStep());
 
-        response.add(linkTo(methodOn(MgmtDistributionSetRestApi.class).getDistributionSet(response.getDsId()))
-                .withSelfRel());
+        response.add(DISTRIBUTION_SET.expand(response.getDsId()));
 
         return response;
     }
 
     static void addLinks(final DistributionSet distributionSet, final MgmtDistributionSet response) {
-        response.add(linkTo(methodOn(MgmtDistributionSetRestApi.class).getAssignedSoftwareModules(response.getDsId(),
-                MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET_VALUE,
-                MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE, null))
-                        .withRel(MgmtRestConstants.DISTRIBUTIONSET_V1_MODULE));
+        response.add(MODULES.expand(response.getDsId()));
 
-        response.add(linkTo(methodOn(MgmtDistributionSetTypeRestApi.class)
-                .getDistributionSetType(distributionSet.getType().getId())).withRel("type"));
+        response.add(TYPE.expand(distributionSet.getType().getId()));
 
-        response.add(linkTo(methodOn(MgmtDistributionSetRestApi.class).getMetadata(response.getDsId(),
-                MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET_VALUE,
-                MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE, null, null)).withRel("metadata"));
+        response.add(METADATA.expand(response.getDsId()));
     }
 
     static MgmtTargetAssignmentResponseBody toResponse(final DistributionSetAssignmentResult dsAssignmentResult) {
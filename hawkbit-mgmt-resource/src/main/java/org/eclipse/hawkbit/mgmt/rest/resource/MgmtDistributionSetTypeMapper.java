@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.mgmt.rest.resource;
 
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.id;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
@@ -25,6 +26,7 @@ import org.eclipse.hawkbit.mgmt.rest.api.MgmtRestConstants;
 import org.eclipse.hawkbit.repository.EntityFactory;
 import org.eclipse.hawkbit.repository.builder.DistributionSetTypeCreate;
 import org.eclipse.hawkbit.repository.model.DistributionSetType;
+import org.eclipse.hawkbit.rest.util.LinkTemplate;
 
 /**
  * A mapper which maps repository model to RESTful model representation and
@@ -33,6 +35,18 @@ import org.eclipse.hawkbit.repository.model.DistributionSetType;
  */
 final class MgmtDistributionSetTypeMapper {
 
+    private static final LinkTemplate DISTRIBUTION_SET_TYPE = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtDistributionSetTypeRestApi.class).getDistributionSetType(id(0)))
+                    .withSelfRel());
+
+    private static final LinkTemplate MANDATORY_MODULES = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtDistributionSetTypeRestApi.class).getMandatoryModules(id(0)))
+                    .withRel(MgmtRestConstants.DISTRIBUTIONSETTYPE_V1_MANDATORY_MODULES));
+
+    private static final LinkTemplate OPTIONAL_MODULES = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtDistributionSetTypeRestApi.class).getOptionalModules(id(0)))
+                    .withRel(MgmtRestConstants.DISTRIBUTIONSETTYPE_V1_OPTIONAL_MODULES));
+
     // private constructor, utility class
     private MgmtDistributionSetTypeMapper() {
 
@@ -90,19 +104,16 @@ final class MgmtDistributionSetTypeMapper {
         result.setModuleId(type.getId());
         result.setDeleted(type.isDeleted());
 
-        result.add(linkTo(methodOn(MgmtDistributionSetTypeRestApi.class).getDistributionSetType(result.getModuleId()))
-                .withSelfRel());
+        result.add(DISTRIBUTION_SET_TYPE.expand(result.getModuleId()));
 
         return result;
     }
 
     static void addLinks(final MgmtDistributionSetType result) {
 
-        result.add(linkTo(methodOn(MgmtDistributionSetTypeRestApi.class).getMandatoryModules(result.getModuleId()))
-                .withRel(MgmtRestConstants.DISTRIBUTIONSETTYPE_V1_MANDATORY_MODULES));
+        result.add(MANDATORY_MODULES.expand(result.getModuleId()));
 
-        result.add(linkTo(methodOn(MgmtDistributionSetTypeRestApi.class).getOptionalModules(result.getModuleId()))
-                .withRel(MgmtRestConstants.DISTRIBUTIONSETTYPE_V1_OPTIONAL_MODULES));
+        result.add(OPTIONAL_MODULES.expand(result.getModuleId()));
     }
 
 }
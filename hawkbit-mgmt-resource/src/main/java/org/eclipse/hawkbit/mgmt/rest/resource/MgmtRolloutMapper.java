@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.mgmt.rest.resource;
 
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.id;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
@@ -41,6 +42,7 @@ import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupSuccessCond
 import org.eclipse.hawkbit.repository.model.RolloutGroupConditionBuilder;
 import org.eclipse.hawkbit.repository.model.RolloutGroupConditions;
 import org.eclipse.hawkbit.repository.model.TotalTargetCountStatus;
+import org.eclipse.hawkbit.rest.util.LinkTemplate;
 
 /**
  * A mapper which maps repository model to RESTful model representation and
@@ -50,6 +52,25 @@ import org.eclipse.hawkbit.repository.model.TotalTargetCountStatus;
  */
 final class MgmtRolloutMapper {
 
+    private static final LinkTemplate START = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtRolloutRestApi.class).start(id(0))).withRel("start"));
+
+    private static final LinkTemplate PAUSE = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtRolloutRestApi.class).pause(id(0))).withRel("pause"));
+
+    private static final LinkTemplate RESUME = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtRolloutRestApi.class).resume(id(0))).withRel("resume"));
+
+    private static final LinkTemplate GROUPS = LinkTemplate.of(() -> linkTo(methodOn(MgmtRolloutRestApi.class)
+            .getRolloutGroups(id(0), MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET_VALUE,
+                    MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE, null, null)).withRel("groups"));
+
+    private static final LinkTemplate ROLLOUT = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtRolloutRestApi.class).getRollout(id(0))).withSelfRel());
+
+    private static final LinkTemplate ROLLOUT_GROUP = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtRolloutRestApi.class).getRolloutGroup(id(0), id(1))).withSelfRel());
+
     private static final String NOT_SUPPORTED = " is not supported";
 
     private MgmtRolloutMapper() {
@@ -85,15 +106,13 @@ final class MgmtRolloutMapper {
                         rollout.getTotalTargetCountStatus().getTotalTargetCountByStatus(status));
             }
 
-            body.add(linkTo(methodOn(MgmtRolloutRestApi.class).start(rollout.getId())).withRel("start"));
-            body.add(linkTo(methodOn(MgmtRolloutRestApi.class).pause(rollout.getId())).withRel("pause"));
-            body.add(linkTo(methodOn(MgmtRolloutRestApi.class).resume(rollout.getId())).withRel("resume"));
-            body.add(linkTo(methodOn(MgmtRolloutRestApi.class).getRolloutGroups(rollout.getId(),
-                    MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET_VALUE,
-                    MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE, null, null)).withRel("groups"));
+            body.add(START.expand(rollout.getId()));
+            body.add(PAUSE.expand(rollout.getId()));
+            body.add(RESUME.expand(rollout.getId()));
+            body.add(GROUPS.expand(rollout.getId()));
         }
 
-        body.add(linkTo(methodOn(MgmtRolloutRestApi.class).getRollout(rollout.getId())).withSelfRel());
+        body.add(ROLLOUT.expand(rollout.getId()));
         return body;
     }
 
@@ -182,8 +201,7 @@ final class MgmtRolloutMapper {
             }
         }
 
-        body.add(linkTo(methodOn(MgmtRolloutRestApi.class).getRolloutGroup(rolloutGroup.getRollout().getId(),
-                rolloutGroup.getId())).withSelfRel());
+        body.add(ROLLOUT_GROUP.expand(rolloutGroup.getRollout().getId(), rolloutGroup.getId()));
         return body;
     }
 
@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.mgmt.rest.resource;
 
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.id;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
@@ -31,6 +32,7 @@ import org.eclipse.hawkbit.repository.model.Artifact;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleMetadata;
 import org.eclipse.hawkbit.rest.data.ResponseList;
+import org.eclipse.hawkbit.rest.util.LinkTemplate;
 
 /**
  * A mapper which maps repository model to RESTful model representation and
@@ -38,6 +40,30 @@ import org.eclipse.hawkbit.rest.data.ResponseList;
  *
  */
 public final class MgmtSoftwareModuleMapper {
+
+    private static final LinkTemplate SOFTWARE_MODULE = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtSoftwareModuleRestApi.class).getSoftwareModule(id(0))).withSelfRel());
+
+    private static final LinkTemplate ARTIFACTS = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtSoftwareModuleRestApi.class).getArtifacts(id(0)))
+                    .withRel(MgmtRestConstants.SOFTWAREMODULE_V1_ARTIFACT));
+
+    private static final LinkTemplate TYPE = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtSoftwareModuleTypeRestApi.class).getSoftwareModuleType(id(0)))
+                    .withRel(MgmtRestConstants.SOFTWAREMODULE_V1_TYPE));
+
+    private static final LinkTemplate METADATA = LinkTemplate.of(() -> linkTo(methodOn(
+            MgmtSoftwareModuleResource.class).getMetadata(id(0),
+                    MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET_VALUE,
+                    MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE, null, null)).withRel("metadata")
+                            .expand());
+
+    private static final LinkTemplate ARTIFACT = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtSoftwareModuleRestApi.class).getArtifact(id(0), id(1))).withSelfRel());
+
+    private static final LinkTemplate DOWNLOAD = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtDownloadArtifactResource.class).downloadArtifact(id(0), id(1)))
+                    .withRel("download"));
     private MgmtSoftwareModuleMapper() {
         // Utility class
     }
@@ -108,24 +134,17 @@ public final class MgmtSoftwareModuleMapper {
         response.setVendor(softwareModule.getVendor());
         response.setDeleted(softwareModule.isDeleted());
 
-        response.add(linkTo(methodOn(MgmtSoftwareModuleRestApi.class).getSoftwareModule(response.getModuleId()))
-                .withSelfRel());
+        response.add(SOFTWARE_MODULE.expand(response.getModuleId()));
 
         return response;
     }
 
     static void addLinks(final SoftwareModule softwareModule, final MgmtSoftwareModule response) {
-        response.add(linkTo(methodOn(MgmtSoftwareModuleRestApi.class).getArtifacts(response.getModuleId()))
-                .withRel(MgmtRestConstants.SOFTWAREMODULE_V1_ARTIFACT));
+        response.add(ARTIFACTS.expand(response.getModuleId()));
 
-        response.add(linkTo(
-                methodOn(MgmtSoftwareModuleTypeRestApi.class).getSoftwareModuleType(softwareModule.getType().getId()))
-                        .withRel(MgmtRestConstants.SOFTWAREMODULE_V1_TYPE));
+        response.add(TYPE.expand(softwareModule.getType().getId()));
 
-        response.add(linkTo(methodOn(MgmtSoftwareModuleResource.class).getMetadata(response.getModuleId(),
-                MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET_VALUE,
-                MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE, null, null)).withRel("metadata")
-                        .expand());
+        response.add(METADATA.expand(response.getModuleId()));
     }
 
     static MgmtArtifact toResponse(final Artifact artifact) {
@@ -138,16 +157,14 @@ public final class MgmtSoftwareModuleMapper {
 
         MgmtRestModelMapper.mapBaseToBase(artifactRest, artifact);
 
-        artifactRest.add(linkTo(methodOn(MgmtSoftwareModuleRestApi.class)
-                .getArtifact(artifact.getSoftwareModule().getId(), artifact.getId())).withSelfRel());
+        artifactRest.add(ARTIFACT.expand(artifact.getSoftwareModule().getId(), artifact.getId()));
 
         return artifactRest;
     }
 
     static void addLinks(final Artifact artifact, final MgmtArtifact response) {
 
-        response.add(linkTo(methodOn(MgmtDownloadArtifactResource.class)
-                .downloadArtifact(artifact.getSoftwareModule().getId(), artifact.getId())).withRel("download"));
+        response.add(DOWNLOAD.expand(artifact.getSoftwareModule().getId(), artifact.getId()));
     }
 
     static List<MgmtArtifact> artifactsToResponse(final Collection<Artifact> artifacts) {
@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.mgmt.rest.resource;
 
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.id;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
@@ -23,6 +24,7 @@ import org.eclipse.hawkbit.repository.EntityFactory;
 import org.eclipse.hawkbit.repository.builder.SoftwareModuleTypeCreate;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleType;
 import org.eclipse.hawkbit.rest.data.ResponseList;
+import org.eclipse.hawkbit.rest.util.LinkTemplate;
 
 /**
  * A mapper which maps repository model to RESTful model representation and
@@ -31,6 +33,10 @@ import org.eclipse.hawkbit.rest.data.ResponseList;
  */
 final class MgmtSoftwareModuleTypeMapper {
 
+    private static final LinkTemplate SOFTWARE_MODULE_TYPE = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtSoftwareModuleTypeRestApi.class).getSoftwareModuleType(id(0)))
+                    .withSelfRel());
+
     // private constructor, utility class
     private MgmtSoftwareModuleTypeMapper() {
 
@@ -70,8 +76,7 @@ final class MgmtSoftwareModuleTypeMapper {
         result.setModuleId(type.getId());
         result.setDeleted(type.isDeleted());
 
-        result.add(linkTo(methodOn(MgmtSoftwareModuleTypeRestApi.class).getSoftwareModuleType(result.getModuleId()))
-                .withSelfRel());
+        result.add(SOFTWARE_MODULE_TYPE.expand(result.getModuleId()));
 
         return result;
     }
@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.mgmt.rest.resource;
 
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.id;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
@@ -27,6 +28,7 @@ import org.eclipse.hawkbit.repository.model.DistributionSetTag;
 import org.eclipse.hawkbit.repository.model.Tag;
 import org.eclipse.hawkbit.repository.model.TargetTag;
 import org.eclipse.hawkbit.rest.data.ResponseList;
+import org.eclipse.hawkbit.rest.util.LinkTemplate;
 
 /**
  * A mapper which maps repository model to RESTful model representation and
@@ -34,6 +36,25 @@ import org.eclipse.hawkbit.rest.data.ResponseList;
  *
  */
 final class MgmtTagMapper {
+
+    private static final LinkTemplate TARGET_TAG = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtTargetTagRestApi.class).getTargetTag(id(0))).withSelfRel());
+
+    private static final LinkTemplate ASSIGNED_TARGETS = LinkTemplate.of(() -> linkTo(methodOn(
+            MgmtTargetTagRestApi.class).getAssignedTargets(id(0),
+                    MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET_VALUE,
+                    MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE, null, null))
+                            .withRel("assignedTargets"));
+
+    private static final LinkTemplate DISTRIBUTION_SET_TAG = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtDistributionSetTagRestApi.class).getDistributionSetTag(id(0)))
+                    .withSelfRel());
+
+    private static final LinkTemplate ASSIGNED_DISTRIBUTION_SETS = LinkTemplate.of(() -> linkTo(methodOn(
+            MgmtDistributionSetTagRestApi.class).getAssignedDistributionSets(id(0),
+                    MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET_VALUE,
+                    MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE, null, null))
+                            .withRel("assignedDistributionSets"));
     private MgmtTagMapper() {
         // Utility class
     }
@@ -60,16 +81,13 @@ final class MgmtTagMapper {
 
         mapTag(response, targetTag);
 
-        response.add(linkTo(methodOn(MgmtTargetTagRestApi.class).getTargetTag(targetTag.getId())).withSelfRel());
+        response.add(TARGET_TAG.expand(targetTag.getId()));
 
         return response;
     }
 
     static void addLinks(final TargetTag targetTag, final MgmtTag response) {
-        response.add(linkTo(methodOn(MgmtTargetTagRestApi.class).getAssignedTargets(targetTag.getId(),
-                MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET_VALUE,
-                MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE, null, null))
-                        .withRel("assignedTargets"));
+        response.add(ASSIGNED_TARGETS.expand(targetTag.getId()));
 
     }
 
@@ -95,18 +113,13 @@ final class MgmtTagMapper {
 
         mapTag(response, distributionSetTag);
 
-        response.add(
-                linkTo(methodOn(MgmtDistributionSetTagRestApi.class).getDistributionSetTag(distributionSetTag.getId()))
-                        .withSelfRel());
+        response.add(DISTRIBUTION_SET_TAG.expand(distributionSetTag.getId()));
 
         return response;
     }
 
     static void addLinks(final DistributionSetTag distributionSetTag, final MgmtTag response) {
-        response.add(linkTo(methodOn(MgmtDistributionSetTagRestApi.class).getAssignedDistributionSets(
-                distributionSetTag.getId(), MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET_VALUE,
-                MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE, null, null))
-                        .withRel("assignedDistributionSets"));
+        response.add(ASSIGNED_DISTRIBUTION_SETS.expand(distributionSetTag.getId()));
     }
 
     static List<TagCreate> mapTagFromRequest(final EntityFactory entityFactory,
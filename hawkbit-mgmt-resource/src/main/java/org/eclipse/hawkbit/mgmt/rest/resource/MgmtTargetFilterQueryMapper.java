@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.mgmt.rest.resource;
 
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.id;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
@@ -22,6 +23,7 @@ import org.eclipse.hawkbit.repository.EntityFactory;
 import org.eclipse.hawkbit.repository.builder.TargetFilterQueryCreate;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.TargetFilterQuery;
+import org.eclipse.hawkbit.rest.util.LinkTemplate;
 import org.springframework.util.CollectionUtils;
 
 /**
@@ -31,6 +33,13 @@ import org.springframework.util.CollectionUtils;
  */
 public final class MgmtTargetFilterQueryMapper {
 
+    private static final LinkTemplate FILTER = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtTargetFilterQueryRestApi.class).getFilter(id(0))).withSelfRel());
+
+    private static final LinkTemplate AUTO_ASSIGN_DS = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtTargetFilterQueryRestApi.class).postAssignedDistributionSet(id(0), null))
+                    .withRel("autoAssignDS"));
+
     private MgmtTargetFilterQueryMapper() {
         // Utility class
     }
@@ -59,14 +68,13 @@ public final class MgmtTargetFilterQueryMapper {
             targetRest.setAutoAssignDistributionSet(distributionSet.getId());
         }
 
-        targetRest.add(linkTo(methodOn(MgmtTargetFilterQueryRestApi.class).getFilter(filter.getId())).withSelfRel());
+        targetRest.add(FILTER.expand(filter.getId()));
 
         return targetRest;
     }
 
     static void addLinks(final MgmtTargetFilterQuery targetRest) {
-        targetRest.add(linkTo(methodOn(MgmtTargetFilterQueryRestApi.class)
-                .postAssignedDistributionSet(targetRest.getFilterId(), null)).withRel("autoAssignDS"));
+        targetRest.add(AUTO_ASSIGN_DS.expand(targetRest.getFilterId()));
     }
 
     static TargetFilterQueryCreate fromRequest(final EntityFactory entityFactory,
@@ -8,6 +8,8 @@
  */
 package org.eclipse.hawkbit.mgmt.rest.resource;
 
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.id;
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.text;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
@@ -40,6 +42,7 @@ import org.eclipse.hawkbit.repository.model.PollStatus;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.rest.data.ResponseList;
 import org.eclipse.hawkbit.rest.data.SortDirection;
+import org.eclipse.hawkbit.rest.util.LinkTemplate;
 import org.eclipse.hawkbit.util.IpUtil;
 import org.springframework.data.domain.PageRequest;
 
@@ -50,6 +53,42 @@ import org.springframework.data.domain.PageRequest;
  */
 public final class MgmtTargetMapper {
 
+    private static final LinkTemplate TARGET = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtTargetRestApi.class).getTarget(text(0))).withSelfRel());
+
+    private static final LinkTemplate ASSIGNED_DS = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtTargetRestApi.class).getAssignedDistributionSet(text(0)))
+                    .withRel(MgmtRestConstants.TARGET_V1_ASSIGNED_DISTRIBUTION_SET));
+
+    private static final LinkTemplate INSTALLED_DS = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtTargetRestApi.class).getInstalledDistributionSet(text(0)))
+                    .withRel(MgmtRestConstants.TARGET_V1_INSTALLED_DISTRIBUTION_SET));
+
+    private static final LinkTemplate ATTRIBUTES = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtTargetRestApi.class).getAttributes(text(0)))
+                    .withRel(MgmtRestConstants.TARGET_V1_ATTRIBUTES));
+
+    private static final LinkTemplate ACTIONS = LinkTemplate.of(() -> linkTo(methodOn(MgmtTargetRestApi.class)
+            .getActionHistory(text(0), 0, MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE,
+                    ActionFields.ID.getFieldName() + ":" + SortDirection.DESC, null))
+                            .withRel(MgmtRestConstants.TARGET_V1_ACTIONS).expand());
+
+    private static final LinkTemplate ACTION = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtTargetRestApi.class).getAction(text(0), id(1))).withSelfRel());
+
+    private static final LinkTemplate CANCELED_ACTION = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtTargetRestApi.class).getAction(text(0), id(1)))
+                    .withRel(MgmtRestConstants.TARGET_V1_CANCELED_ACTION));
+
+    private static final LinkTemplate ACTION_DS = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtDistributionSetRestApi.class).getDistributionSet(id(0)))
+                    .withRel("distributionset"));
+
+    private static final LinkTemplate ACTION_STATUS = LinkTemplate.of(() -> linkTo(methodOn(MgmtTargetRestApi.class)
+            .getActionStatusList(text(0), id(1), 0, MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE,
+                    ActionStatusFields.ID.getFieldName() + ":" + SortDirection.DESC))
+                            .withRel(MgmtRestConstants.TARGET_V1_ACTION_STATUS));
+
     private MgmtTargetMapper() {
         // Utility class
     }
@@ -61,16 +100,10 @@ public final class MgmtTargetMapper {
      *            the target response
      */
     public static void addTargetLinks(final MgmtTarget response) {
-        response.add(linkTo(methodOn(MgmtTargetRestApi.class).getAssignedDistributionSet(response.getControllerId()))
-                .withRel(MgmtRestConstants.TARGET_V1_ASSIGNED_DISTRIBUTION_SET));
-        response.add(linkTo(methodOn(MgmtTargetRestApi.class).getInstalledDistributionSet(response.getControllerId()))
-                .withRel(MgmtRestConstants.TARGET_V1_INSTALLED_DISTRIBUTION_SET));
-        response.add(linkTo(methodOn(MgmtTargetRestApi.class).getAttributes(response.getControllerId()))
-                .withRel(MgmtRestConstants.TARGET_V1_ATTRIBUTES));
-        response.add(linkTo(methodOn(MgmtTargetRestApi.class).getActionHistory(response.getControllerId(), 0,
-                MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE,
-                ActionFields.ID.getFieldName() + ":" + SortDirection.DESC, null))
-                        .withRel(MgmtRestConstants.TARGET_V1_ACTIONS).expand());
+        response.add(ASSIGNED_DS.expand(response.getControllerId()));
+        response.add(INSTALLED_DS.expand(response.getControllerId()));
+        response.add(ATTRIBUTES.expand(response.getControllerId()));
+        response.add(ACTIONS.expand(response.getControllerId()));
     }
 
     static void addPollStatus(final Target target, final MgmtTarget targetRest) {
@@ -145,7 +178,7 @@ public final class MgmtTargetMapper {
             targetRest.setInstalledAt(installationDate);
         }
 
-        targetRest.add(linkTo(methodOn(MgmtTargetRestApi.class).getTarget(target.getControllerId())).withSelfRel());
+        targetRest.add(TARGET.expand(target.getControllerId()));
 
         return targetRest;
     }
@@ -207,7 +240,7 @@ public final class MgmtTargetMapper {
 
         MgmtRestModelMapper.mapBaseToBase(result, action);
 
-        result.add(linkTo(methodOn(MgmtTargetRestApi.class).getAction(targetId, action.getId())).withSelfRel());
+        result.add(ACTION.expand(targetId, action.getId()));
 
         return result;
     }
@@ -216,18 +249,12 @@ public final class MgmtTargetMapper {
         final MgmtAction result = toResponse(controllerId, action);
 
         if (action.isCancelingOrCanceled()) {
-            result.add(linkTo(methodOn(MgmtTargetRestApi.class).getAction(controllerId, action.getId()))
-                    .withRel(MgmtRestConstants.TARGET_V1_CANCELED_ACTION));
+            result.add(CANCELED_ACTION.expand(controllerId, action.getId()));
         } else {
-            result.add(linkTo(
-                    methodOn(MgmtDistributionSetRestApi.class).getDistributionSet(action.getDistributionSet().getId()))
-                            .withRel("distributionset"));
+            result.add(ACTION_DS.expand(action.getDistributionSet().getId()));
         }
 
-        result.add(linkTo(methodOn(MgmtTargetRestApi.class).getActionStatusList(controllerId, action.getId(), 0,
-                MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE,
-                ActionStatusFields.ID.getFieldName() + ":" + SortDirection.DESC))
-                        .withRel(MgmtRestConstants.TARGET_V1_ACTION_STATUS));
+        result.add(ACTION_STATUS.expand(controllerId, action.getId()));
 
         return result;
     }
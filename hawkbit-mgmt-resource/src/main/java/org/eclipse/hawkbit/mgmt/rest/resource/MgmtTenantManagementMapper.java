@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.mgmt.rest.resource;
 
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.text;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
@@ -17,6 +18,7 @@ import java.util.stream.Collectors;
 import org.eclipse.hawkbit.mgmt.json.model.system.MgmtSystemTenantConfigurationValue;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
 import org.eclipse.hawkbit.repository.model.TenantConfigurationValue;
+import org.eclipse.hawkbit.rest.util.LinkTemplate;
 import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationProperties;
 import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationProperties.TenantConfigurationKey;
 
@@ -26,6 +28,10 @@ import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationProperties.T
  */
 public final class MgmtTenantManagementMapper {
 
+    private static final LinkTemplate CONFIGURATION_VALUE = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtTenantManagementResource.class).getTenantConfigurationValue(text(0)))
+                    .withSelfRel());
+
     private MgmtTenantManagementMapper() {
         // Utility class
     }
@@ -50,8 +56,7 @@ public final class MgmtTenantManagementMapper {
         restConfValue.setLastModifiedAt(repoConfValue.getLastModifiedAt());
         restConfValue.setLastModifiedBy(repoConfValue.getLastModifiedBy());
 
-        restConfValue.add(
-                linkTo(methodOn(MgmtTenantManagementResource.class).getTenantConfigurationValue(key)).withSelfRel());
+        restConfValue.add(CONFIGURATION_VALUE.expand(key));
 
         return restConfValue;
     }
@@ -31,6 +31,7 @@ import org.eclipse.hawkbit.repository.model.ActionStatus;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleMetadata;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetSnapshot;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationProperties.TenantConfigurationKey;
 import org.springframework.data.domain.Page;
@@ -150,6 +151,21 @@ public interface ControllerManagement {
     @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
     Optional<Action> findOldestActiveActionByTarget(@NotEmpty String controllerId);
 
+    /**
+     * Same as {@link #findOldestActiveActionByTarget(String)} but optionally
+     * bypasses the cache of the targets which are known to have no active
+     * {@link Action}, e.g. if the caller has been notified about an
+     * assignment which the cache might not be aware of yet.
+     *
+     * @param controllerId
+     *            identifies the target to retrieve the actions from
+     * @param bypassIdleCache
+     *            <code>true</code> to query the repository in any case
+     * @return the oldest active action of the target
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    Optional<Action> findOldestActiveActionByTarget(@NotEmpty String controllerId, boolean bypassIdleCache);
+
     /**
      * Get the {@link Action} entity for given actionId with all lazy
      * attributes.
@@ -193,6 +209,22 @@ public interface ControllerManagement {
     @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
     Target findOrRegisterTargetIfItDoesNotexist(@NotEmpty String controllerId, @NotNull URI address);
 
+    /**
+     * Same as {@link #findOrRegisterTargetIfItDoesNotexist(String, URI)} but
+     * returns a {@link TargetSnapshot} only. A poll of an already known target
+     * which changes neither its {@link Target#getAddress()} nor its
+     * {@link Target#getUpdateStatus()} is answered from the snapshot cache
+     * without accessing the repository.
+     *
+     * @param controllerId
+     *            reference
+     * @param address
+     *            the client IP address of the target, might be {@code null}
+     * @return snapshot of the target
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    TargetSnapshot findOrRegisterTargetSnapshot(@NotEmpty String controllerId, @NotNull URI address);
+
     /**
      * Retrieves last {@link Action} for a download of an artifact of given
      * module and target if exists and is not canceled.
@@ -320,7 +352,8 @@ public interface ControllerManagement {
 
     /**
      * Updates attributes of the controller according to the given
-     * {@link UpdateMode}.
+     * {@link UpdateMode}. Only the changed attributes are written, nothing at
+     * all if the attributes are unchanged.
      *
      * @param controllerId
      *            to update
@@ -340,6 +373,25 @@ public interface ControllerManagement {
     Target updateControllerAttributes(@NotEmpty String controllerId, @NotNull Map<String, String> attributes,
             UpdateMode mode);
 
+    /**
+     * Updates attributes of many controllers in one transaction. The updates
+     * are applied in the given order. If one of the updates fails none of
+     * them is applied.
+     *
+     * @param updates
+     *            to apply
+     *
+     * @return number of targets whose attributes have been changed
+     *
+     * @throws EntityNotFoundException
+     *             if one of the targets could not be found
+     * @throws QuotaExceededException
+     *             if maximum number of attributes per target is exceeded by
+     *             one of the updates
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    int updateControllerAttributes(@NotNull List<TargetAttributesUpdate> updates);
+
     /**
      * Finds {@link Target} based on given controller ID returns found Target
      * without details, i.e. NO {@link Target#getTags()} and
@@ -368,6 +420,33 @@ public interface ControllerManagement {
             + SpringEvalExpressions.IS_SYSTEM_CODE)
     Optional<Target> get(long targetId);
 
+    /**
+     * Finds the cached {@link TargetSnapshot} of the {@link Target} with given
+     * controller ID. The snapshot is loaded into the cache if it is not cached
+     * yet.
+     *
+     * @param controllerId
+     *            to look for.
+     * @return {@link TargetSnapshot} or empty if the target does not exist
+     * @see Target#getControllerId()
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    Optional<TargetSnapshot> getSnapshotByControllerId(@NotEmpty String controllerId);
+
+    /**
+     * Finds the cached {@link TargetSnapshot} of the {@link Target} with given
+     * ID. The snapshot is loaded into the cache if it is not cached yet.
+     *
+     * @param targetId
+     *            to look for.
+     * @return {@link TargetSnapshot} or empty if the target does not exist
+     * @see Target#getId()
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER + SpringEvalExpressions.HAS_AUTH_OR
+            + SpringEvalExpressions.IS_SYSTEM_CODE)
+    Optional<TargetSnapshot> getSnapshot(long targetId);
+
     /**
      * Retrieves the specified number of messages from action history of the
      * given {@link Action} based on messageCount. Regardless of the value of
@@ -45,6 +45,13 @@ public final class RepositoryConstants {
      */
     public static final int MAX_META_DATA_COUNT = 50;
 
+    /**
+     * Maximum number of actions that are sent within one
+     * {@link org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent}.
+     * Larger assignments are split into multiple events.
+     */
+    public static final int MAX_ACTIONS_PER_ASSIGNMENT_EVENT = 500;
+
     private RepositoryConstants() {
         // Utility class.
     }
@@ -46,11 +46,75 @@ public class RepositoryProperties {
      */
     private long pollPersistenceFlushTime = TimeUnit.SECONDS.toMillis(10);
 
+    /**
+     * Number of shards of the poll persistence queue which are flushed in
+     * parallel.
+     */
+    private int pollPersistenceShards = 4;
+
     /**
      * Set to true to persist polls immediately.
      */
     private boolean eagerPollPersistence;
 
+    /**
+     * Set to <code>true</code> to persist intermediate {@link ActionStatus}
+     * updates of the controller (i.e. all but FINISHED and ERROR)
+     * asynchronously in batches.
+     */
+    private boolean lazyActionStatusPersistence;
+
+    /**
+     * Maximum number of intermediate {@link ActionStatus} updates queued
+     * before flush.
+     */
+    private int actionStatusPersistenceQueueSize = 10_000;
+
+    /**
+     * Maximum time before the {@link ActionStatus} queue is flushed in
+     * {@link TimeUnit#MILLISECONDS}.
+     */
+    private long actionStatusPersistenceFlushTime = TimeUnit.SECONDS.toMillis(1);
+
+    /**
+     * Number of tenants the rollout scheduler handles in parallel. The tenants
+     * are handled sequentially on the scheduler thread if set to 1.
+     */
+    private int rolloutSchedulerThreads = 1;
+
+    /**
+     * Number of rollouts of a tenant which are handled in parallel. The
+     * rollouts are handled sequentially if set to 1.
+     */
+    private int rolloutHandlerThreads = 1;
+
+    /**
+     * Set to <code>true</code> to evaluate the success and error conditions
+     * only for running rollout groups whose actions changed since the last
+     * run of the rollout handler.
+     */
+    private boolean eventDrivenRolloutHandling;
+
+    /**
+     * Interval in {@link TimeUnit#MILLISECONDS} in which all running rollout
+     * groups are evaluated regardless of changes if the rollouts are handled
+     * event driven.
+     */
+    private long rolloutFullEvaluationInterval = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Set to <code>true</code> to check the auto assignments of created and
+     * updated targets immediately. The periodic check of all targets still
+     * runs and picks up the changes which have been missed.
+     */
+    private boolean eventDrivenAutoAssignment;
+
+    /**
+     * Maximum number of targets waiting for the check of their auto
+     * assignments if the auto assignment is event driven.
+     */
+    private int autoAssignmentQueueSize = 1000;
+
     public boolean isEagerPollPersistence() {
         return eagerPollPersistence;
     }
@@ -67,6 +131,14 @@ public class RepositoryProperties {
         this.pollPersistenceFlushTime = pollPersistenceFlushTime;
     }
 
+    public int getPollPersistenceShards() {
+        return pollPersistenceShards;
+    }
+
+    public void setPollPersistenceShards(final int pollPersistenceShards) {
+        this.pollPersistenceShards = pollPersistenceShards;
+    }
+
     public int getPollPersistenceQueueSize() {
         return pollPersistenceQueueSize;
     }
@@ -75,6 +147,46 @@ public class RepositoryProperties {
         this.pollPersistenceQueueSize = pollPersistenceQueueSize;
     }
 
+    public boolean isLazyActionStatusPersistence() {
+        return lazyActionStatusPersistence;
+    }
+
+    public void setLazyActionStatusPersistence(final boolean lazyActionStatusPersistence) {
+        this.lazyActionStatusPersistence = lazyActionStatusPersistence;
+    }
+
+    public int getActionStatusPersistenceQueueSize() {
+        return actionStatusPersistenceQueueSize;
+    }
+
+    public void setActionStatusPersistenceQueueSize(final int actionStatusPersistenceQueueSize) {
+        this.actionStatusPersistenceQueueSize = actionStatusPersistenceQueueSize;
+    }
+
+    public long getActionStatusPersistenceFlushTime() {
+        return actionStatusPersistenceFlushTime;
+    }
+
+    public void setActionStatusPersistenceFlushTime(final long actionStatusPersistenceFlushTime) {
+        this.actionStatusPersistenceFlushTime = actionStatusPersistenceFlushTime;
+    }
+
+    public int getRolloutSchedulerThreads() {
+        return rolloutSchedulerThreads;
+    }
+
+    public void setRolloutSchedulerThreads(final int rolloutSchedulerThreads) {
+        this.rolloutSchedulerThreads = rolloutSchedulerThreads;
+    }
+
+    public int getRolloutHandlerThreads() {
+        return rolloutHandlerThreads;
+    }
+
+    public void setRolloutHandlerThreads(final int rolloutHandlerThreads) {
+        this.rolloutHandlerThreads = rolloutHandlerThreads;
+    }
+
     public boolean isRejectActionStatusForClosedAction() {
         return rejectActionStatusForClosedAction;
     }
@@ -91,4 +203,35 @@ public class RepositoryProperties {
         this.publishTargetPollEvent = publishTargetPollEvent;
     }
 
+    public boolean isEventDrivenRolloutHandling() {
+        return eventDrivenRolloutHandling;
+    }
+
+    public void setEventDrivenRolloutHandling(final boolean eventDrivenRolloutHandling) {
+        this.eventDrivenRolloutHandling = eventDrivenRolloutHandling;
+    }
+
+    public long getRolloutFullEvaluationInterval() {
+        return rolloutFullEvaluationInterval;
+    }
+
+    public void setRolloutFullEvaluationInterval(final long rolloutFullEvaluationInterval) {
+        this.rolloutFullEvaluationInterval = rolloutFullEvaluationInterval;
+    }
+
+    public boolean isEventDrivenAutoAssignment() {
+        return eventDrivenAutoAssignment;
+    }
+
+    public void setEventDrivenAutoAssignment(final boolean eventDrivenAutoAssignment) {
+        this.eventDrivenAutoAssignment = eventDrivenAutoAssignment;
+    }
+
+    public int getAutoAssignmentQueueSize() {
+        return autoAssignmentQueueSize;
+    }
+
+    public void setAutoAssignmentQueueSize(final int autoAssignmentQueueSize) {
+        this.autoAssignmentQueueSize = autoAssignmentQueueSize;
+    }
 }
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.hawkbit.repository.model.Target;
+
+/**
+ * Update of the controller attributes of a {@link Target} as part of a batch.
+ *
+ * @see ControllerManagement#updateControllerAttributes(java.util.List)
+ */
+public final class TargetAttributesUpdate {
+
+    private final String controllerId;
+    private final Map<String, String> attributes;
+    private final UpdateMode mode;
+
+    /**
+     * Constructor.
+     *
+     * @param controllerId
+     *            of the target to update
+     * @param attributes
+     *            to apply
+     * @param mode
+     *            the update mode or <code>null</code> for
+     *            {@link UpdateMode#MERGE}
+     */
+    public TargetAttributesUpdate(final String controllerId, final Map<String, String> attributes,
+            final UpdateMode mode) {
+        this.controllerId = controllerId;
+        this.attributes = Collections.unmodifiableMap(attributes);
+        this.mode = mode;
+    }
+
+    public String getControllerId() {
+        return controllerId;
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    public UpdateMode getMode() {
+        return mode;
+    }
+
+    @Override
+    public String toString() {
+        return "TargetAttributesUpdate [controllerId=" + controllerId + ", mode=" + mode + "]";
+    }
+}
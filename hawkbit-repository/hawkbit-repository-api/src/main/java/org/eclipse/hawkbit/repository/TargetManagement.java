@@ -296,6 +296,92 @@ public interface TargetManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
     Page<Target> findByInRolloutGroupWithoutAction(@NotNull Pageable pageRequest, long group);
 
+    /**
+     * Finds the next targets for all the given parameter
+     * {@link TargetFilterQuery} and that don't have the specified distribution
+     * set in their action history. The targets are ordered by their ID and
+     * start after the given ID, i.e. a bulk scan continues with the ID of the
+     * last target of the previous {@link Slice} instead of an offset and does
+     * not need a count query.
+     *
+     * @param lastId
+     *            ID of the last target of the previous slice or {@code 0} for
+     *            the first slice
+     * @param limit
+     *            maximum number of targets in the slice
+     * @param distributionSetId
+     *            id of the {@link DistributionSet}
+     * @param rsqlParam
+     *            filter definition in RSQL syntax
+     * @return a slice of the found {@link Target}s ordered by ID
+     * 
+     * @throws EntityNotFoundException
+     *             if distribution set with given ID does not exist
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    Slice<Target> findByTargetFilterQueryAndNonDSAfterId(long lastId, int limit, long distributionSetId,
+            @NotNull String rsqlParam);
+
+    /**
+     * Checks if the given {@link Target} matches the given
+     * {@link TargetFilterQuery} and does not have the specified distribution
+     * set in its action history.
+     *
+     * @param targetId
+     *            id of the {@link Target}
+     * @param distributionSetId
+     *            id of the {@link DistributionSet}
+     * @param rsqlParam
+     *            filter definition in RSQL syntax
+     * @return <code>true</code> if the target matches
+     *
+     * @throws EntityNotFoundException
+     *             if distribution set with given ID does not exist
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    boolean isTargetMatchingQueryAndNonDS(long targetId, long distributionSetId, @NotNull String rsqlParam);
+
+    /**
+     * Finds the next targets for all the given parameter
+     * {@link TargetFilterQuery} and that are not assigned to one of the
+     * {@link RolloutGroup}s. The targets are ordered by their ID and start
+     * after the given ID.
+     *
+     * @param lastId
+     *            ID of the last target of the previous slice or {@code 0} for
+     *            the first slice
+     * @param limit
+     *            maximum number of targets in the slice
+     * @param groups
+     *            the list of {@link RolloutGroup}s
+     * @param rsqlParam
+     *            filter definition in RSQL syntax
+     * @return a slice of the found {@link Target}s ordered by ID
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    Slice<Target> findByTargetFilterQueryAndNotInRolloutGroupsAfterId(long lastId, int limit,
+            @NotEmpty Collection<Long> groups, @NotNull String rsqlParam);
+
+    /**
+     * Finds the next targets of the provided {@link RolloutGroup} that have no
+     * Action for the RolloutGroup. The targets are ordered by their ID and
+     * start after the given ID.
+     *
+     * @param lastId
+     *            ID of the last target of the previous slice or {@code 0} for
+     *            the first slice
+     * @param limit
+     *            maximum number of targets in the slice
+     * @param group
+     *            the {@link RolloutGroup}
+     * @return a slice of the found {@link Target}s ordered by ID
+     * 
+     * @throws EntityNotFoundException
+     *             if rollout group with given ID does not exist
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    Slice<Target> findByInRolloutGroupWithoutActionAfterId(long lastId, int limit, long group);
+
     /**
      * retrieves {@link Target}s by the assigned {@link DistributionSet}.
      * 
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote;
+
+/**
+ * Event is send in case the binary of an artifact or all binaries of a tenant
+ * have been deleted from the artifact repository, e.g. to evict them from the
+ * artifact caches of all nodes.
+ */
+public class ArtifactBinaryDeletedEvent extends RemoteTenantAwareEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private String sha1Hash;
+
+    /**
+     * Default constructor.
+     */
+    public ArtifactBinaryDeletedEvent() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor for the deletion of all binaries of a tenant.
+     *
+     * @param tenant
+     *            the tenant
+     * @param applicationId
+     *            the application id
+     */
+    public ArtifactBinaryDeletedEvent(final String tenant, final String applicationId) {
+        super(tenant, tenant, applicationId);
+    }
+
+    /**
+     * Constructor for the deletion of a single binary.
+     *
+     * @param tenant
+     *            the tenant
+     * @param sha1Hash
+     *            the SHA1 hash of the deleted binary
+     * @param applicationId
+     *            the application id
+     */
+    public ArtifactBinaryDeletedEvent(final String tenant, final String sha1Hash, final String applicationId) {
+        super(sha1Hash, tenant, applicationId);
+        this.sha1Hash = sha1Hash;
+    }
+
+    /**
+     * @return the SHA1 hash of the deleted binary or <code>null</code> if all
+     *         binaries of the tenant have been deleted
+     */
+    public String getSha1Hash() {
+        return sha1Hash;
+    }
+}
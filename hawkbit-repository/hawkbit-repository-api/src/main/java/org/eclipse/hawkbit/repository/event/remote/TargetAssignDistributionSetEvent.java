@@ -9,16 +9,29 @@
 package org.eclipse.hawkbit.repository.event.remote;
 
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.eclipse.hawkbit.repository.RepositoryConstants;
 import org.eclipse.hawkbit.repository.model.Action;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 /**
  * TenantAwareEvent that gets sent when a distribution set gets assigned to a
  * target.
+ *
+ * The targets and their actions are held in two parallel arrays instead of a
+ * map to keep the serialized event compact. Large assignments are split into
+ * multiple events of at most
+ * {@link RepositoryConstants#MAX_ACTIONS_PER_ASSIGNMENT_EVENT} actions by the
+ * sender. The map of events sent by older nodes is still read.
  */
 public class TargetAssignDistributionSetEvent extends RemoteTenantAwareEvent {
 
@@ -28,7 +41,25 @@ public class TargetAssignDistributionSetEvent extends RemoteTenantAwareEvent {
 
     private boolean maintenanceWindowAvailable;
 
-    private final Map<String, Long> actions = new HashMap<>();
+    /**
+     * The actions of events sent by older nodes. Kept at its position for the
+     * field order based serialization.
+     *
+     * @deprecated replaced by {@link #controllerIds} and {@link #actionIds},
+     *             only read
+     */
+    @Deprecated
+    @JsonProperty
+    @JsonInclude(Include.NON_EMPTY)
+    private Map<String, Long> actions;
+
+    @JsonProperty
+    private String[] controllerIds = new String[0];
+
+    @JsonProperty
+    private long[] actionIds = new long[0];
+
+    private transient Map<String, Long> actionsView;
 
     /**
      * Default constructor.
@@ -39,7 +70,7 @@ public class TargetAssignDistributionSetEvent extends RemoteTenantAwareEvent {
 
     /**
      * Constructor.
-     * 
+     *
      * @param tenant
      *            of the event
      * @param distributionSetId
@@ -53,12 +84,39 @@ public class TargetAssignDistributionSetEvent extends RemoteTenantAwareEvent {
      */
     public TargetAssignDistributionSetEvent(final String tenant, final long distributionSetId, final List<Action> a,
             final String applicationId, final boolean maintenanceWindowAvailable) {
+        this(tenant, distributionSetId, toActionMap(distributionSetId, a), applicationId, maintenanceWindowAvailable);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            of the event
+     * @param distributionSetId
+     *            of the set that was assigned
+     * @param controllerIdsToActionIds
+     *            the controller IDs of the targets and the IDs of their
+     *            actions
+     * @param applicationId
+     *            the application id.
+     * @param maintenanceWindowAvailable
+     *            see {@link Action#isMaintenanceWindowAvailable()}
+     */
+    public TargetAssignDistributionSetEvent(final String tenant, final long distributionSetId,
+            final Map<String, Long> controllerIdsToActionIds, final String applicationId,
+            final boolean maintenanceWindowAvailable) {
         super(distributionSetId, tenant, applicationId);
         this.distributionSetId = distributionSetId;
         this.maintenanceWindowAvailable = maintenanceWindowAvailable;
-        actions.putAll(a.stream().filter(action -> action.getDistributionSet().getId().longValue() == distributionSetId)
-                .collect(Collectors.toMap(action -> action.getTarget().getControllerId(), Action::getId)));
 
+        controllerIds = new String[controllerIdsToActionIds.size()];
+        actionIds = new long[controllerIdsToActionIds.size()];
+        int index = 0;
+        for (final Map.Entry<String, Long> entry : controllerIdsToActionIds.entrySet()) {
+            controllerIds[index] = entry.getKey();
+            actionIds[index] = entry.getValue();
+            index++;
+        }
     }
 
     public TargetAssignDistributionSetEvent(final Action action, final String applicationId) {
@@ -66,6 +124,12 @@ public class TargetAssignDistributionSetEvent extends RemoteTenantAwareEvent {
                 action.isMaintenanceWindowAvailable());
     }
 
+    private static Map<String, Long> toActionMap(final long distributionSetId, final List<Action> actions) {
+        return actions.stream().filter(action -> action.getDistributionSet().getId().longValue() == distributionSetId)
+                .collect(Collectors.toMap(action -> action.getTarget().getControllerId(), Action::getId,
+                        (first, second) -> second, LinkedHashMap::new));
+    }
+
     public Long getDistributionSetId() {
         return distributionSetId;
     }
@@ -74,8 +138,26 @@ public class TargetAssignDistributionSetEvent extends RemoteTenantAwareEvent {
         return maintenanceWindowAvailable;
     }
 
+    /**
+     * @return the controller IDs of the targets mapped to the IDs of their
+     *         actions in the order of the assignment
+     */
+    @JsonIgnore
+    @SuppressWarnings("deprecation")
     public Map<String, Long> getActions() {
-        return actions;
+        if (actionsView == null) {
+            if (controllerIds.length == 0 && actions != null) {
+                actionsView = Collections.unmodifiableMap(actions);
+            } else {
+                final Map<String, Long> map = new LinkedHashMap<>(controllerIds.length * 2);
+                for (int i = 0; i < controllerIds.length; i++) {
+                    map.put(controllerIds[i], actionIds[i]);
+                }
+                actionsView = Collections.unmodifiableMap(map);
+            }
+        }
+
+        return actionsView;
     }
 
 }
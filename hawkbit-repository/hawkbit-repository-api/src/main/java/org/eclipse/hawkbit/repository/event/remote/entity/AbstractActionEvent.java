@@ -18,6 +18,8 @@ public abstract class AbstractActionEvent extends RemoteEntityEvent<Action> {
 
     private Long rolloutId;
     private Long rolloutGroupId;
+    private String controllerId;
+    private Action.Status status;
 
     /**
      * Default constructor.
@@ -40,9 +42,31 @@ public abstract class AbstractActionEvent extends RemoteEntityEvent<Action> {
      */
     public AbstractActionEvent(final Action action, final Long rolloutId, final Long rolloutGroupId,
             final String applicationId) {
+        this(action, rolloutId, rolloutGroupId, action.getStatus(), applicationId);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param action
+     *            the changed action
+     * @param rolloutId
+     *            rollout identifier (optional)
+     * @param rolloutGroupId
+     *            rollout group identifier (optional)
+     * @param status
+     *            of the action after the change which might differ from the
+     *            current status of the action if it has been changed again
+     * @param applicationId
+     *            the origin application id
+     */
+    protected AbstractActionEvent(final Action action, final Long rolloutId, final Long rolloutGroupId,
+            final Action.Status status, final String applicationId) {
         super(action, applicationId);
         this.rolloutId = rolloutId;
         this.rolloutGroupId = rolloutGroupId;
+        this.controllerId = action.getTarget() == null ? null : action.getTarget().getControllerId();
+        this.status = status;
     }
 
     public Long getRolloutId() {
@@ -53,4 +77,19 @@ public abstract class AbstractActionEvent extends RemoteEntityEvent<Action> {
         return rolloutGroupId;
     }
 
+    /**
+     * @return controller ID of the target the action belongs to
+     */
+    public String getControllerId() {
+        return controllerId;
+    }
+
+    /**
+     * @return status of the action after the change or <code>null</code> if
+     *         the event has been sent by an older node
+     */
+    public Action.Status getStatus() {
+        return status;
+    }
+
 }
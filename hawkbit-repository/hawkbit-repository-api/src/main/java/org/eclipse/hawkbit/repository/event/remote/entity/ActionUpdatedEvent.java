@@ -17,6 +17,8 @@ import org.eclipse.hawkbit.repository.model.Action;
 public class ActionUpdatedEvent extends AbstractActionEvent implements EntityUpdatedEvent {
     private static final long serialVersionUID = 2L;
 
+    private Action.Status previousStatus;
+
     /**
      * Default constructor.
      */
@@ -38,7 +40,38 @@ public class ActionUpdatedEvent extends AbstractActionEvent implements EntityUpd
      */
     public ActionUpdatedEvent(final Action action, final Long rolloutId, final Long rolloutGroupId,
             final String applicationId) {
-        super(action, rolloutId, rolloutGroupId, applicationId);
+        this(action, rolloutId, rolloutGroupId, null, action.getStatus(), applicationId);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param action
+     *            the updated action
+     * @param rolloutId
+     *            rollout identifier (optional)
+     * @param rolloutGroupId
+     *            rollout group identifier (optional)
+     * @param previousStatus
+     *            status of the action before the update or <code>null</code>
+     *            if unknown
+     * @param status
+     *            status of the action after the update
+     * @param applicationId
+     *            the origin application id
+     */
+    public ActionUpdatedEvent(final Action action, final Long rolloutId, final Long rolloutGroupId,
+            final Action.Status previousStatus, final Action.Status status, final String applicationId) {
+        super(action, rolloutId, rolloutGroupId, status, applicationId);
+        this.previousStatus = previousStatus;
+    }
+
+    /**
+     * @return status of the action before the update or <code>null</code> if
+     *         unknown
+     */
+    public Action.Status getPreviousStatus() {
+        return previousStatus;
     }
 
 }
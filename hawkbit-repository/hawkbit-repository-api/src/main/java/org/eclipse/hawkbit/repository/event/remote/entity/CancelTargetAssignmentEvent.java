@@ -19,6 +19,7 @@ public class CancelTargetAssignmentEvent extends RemoteEntityEvent<Target> {
     private static final long serialVersionUID = 1L;
 
     private Long actionId;
+    private String controllerId;
 
     /**
      * Default constructor.
@@ -40,6 +41,7 @@ public class CancelTargetAssignmentEvent extends RemoteEntityEvent<Target> {
     public CancelTargetAssignmentEvent(final Target baseEntity, final Long actionId, final String applicationId) {
         super(baseEntity, applicationId);
         this.actionId = actionId;
+        this.controllerId = baseEntity.getControllerId();
     }
 
     /**
@@ -49,4 +51,11 @@ public class CancelTargetAssignmentEvent extends RemoteEntityEvent<Target> {
         return actionId;
     }
 
+    /**
+     * @return controller ID of the target
+     */
+    public String getControllerId() {
+        return controllerId;
+    }
+
 }
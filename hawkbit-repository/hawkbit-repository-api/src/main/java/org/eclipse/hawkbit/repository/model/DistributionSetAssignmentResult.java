@@ -10,7 +10,6 @@ package org.eclipse.hawkbit.repository.model;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.springframework.util.CollectionUtils;
@@ -24,7 +23,7 @@ import org.springframework.util.CollectionUtils;
 public class DistributionSetAssignmentResult extends AssignmentResult<Target> {
 
     private final List<String> assignedTargets;
-    private final List<Action> actions;
+    private final List<Long> actions;
 
     private final TargetManagement targetManagement;
 
@@ -42,11 +41,11 @@ public class DistributionSetAssignmentResult extends AssignmentResult<Target> {
      * @param targetManagement
      *            to retrieve the assigned targets
      * @param actions
-     *            of the assignment
+     *            IDs of the actions of the assignment
      *
      */
     public DistributionSetAssignmentResult(final List<String> assignedTargets, final int assigned,
-            final int alreadyAssigned, final List<Action> actions, final TargetManagement targetManagement) {
+            final int alreadyAssigned, final List<Long> actions, final TargetManagement targetManagement) {
         super(assigned, alreadyAssigned, 0, Collections.emptyList(), Collections.emptyList());
         this.assignedTargets = assignedTargets;
         this.actions = actions;
@@ -61,7 +60,7 @@ public class DistributionSetAssignmentResult extends AssignmentResult<Target> {
             return Collections.emptyList();
         }
 
-        return actions.stream().map(Action::getId).collect(Collectors.toList());
+        return Collections.unmodifiableList(actions);
     }
 
     @Override
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A lightweight, immutable view on a {@link Target} which holds the data that
+ * is needed to answer a poll of a controller. The security token is not held
+ * in plain text but as hash only.
+ *
+ */
+public final class TargetSnapshot {
+
+    private static final String TOKEN_HASH_ALGORITHM = "SHA-256";
+
+    private final long id;
+    private final String controllerId;
+    private final byte[] securityTokenHash;
+    private final String address;
+    private final TargetUpdateStatus updateStatus;
+    private final Long assignedDistributionSetId;
+    private final boolean requestControllerAttributes;
+
+    /**
+     * Constructor.
+     *
+     * @param id
+     *            of the target
+     * @param controllerId
+     *            of the target
+     * @param securityToken
+     *            of the target in plain text
+     * @param address
+     *            of the target as persisted, might be {@code null}
+     * @param updateStatus
+     *            of the target
+     * @param assignedDistributionSetId
+     *            ID of the assigned {@link DistributionSet}, might be
+     *            {@code null}
+     * @param requestControllerAttributes
+     *            see {@link Target#isRequestControllerAttributes()}
+     */
+    public TargetSnapshot(final Long id, final String controllerId, final String securityToken, final String address,
+            final TargetUpdateStatus updateStatus, final Long assignedDistributionSetId,
+            final Boolean requestControllerAttributes) {
+        this.id = id;
+        this.controllerId = controllerId;
+        this.securityTokenHash = securityToken == null ? null : hash(securityToken);
+        this.address = address;
+        this.updateStatus = updateStatus;
+        this.assignedDistributionSetId = assignedDistributionSetId;
+        this.requestControllerAttributes = Boolean.TRUE.equals(requestControllerAttributes);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getControllerId() {
+        return controllerId;
+    }
+
+    /**
+     * @return the address of the target as persisted, see
+     *         {@link Target#getAddress()}
+     */
+    public String getAddress() {
+        return address;
+    }
+
+    public TargetUpdateStatus getUpdateStatus() {
+        return updateStatus;
+    }
+
+    public Long getAssignedDistributionSetId() {
+        return assignedDistributionSetId;
+    }
+
+    public boolean isRequestControllerAttributes() {
+        return requestControllerAttributes;
+    }
+
+    /**
+     * @param securityToken
+     *            to verify
+     * @return <code>true</code> if the given token is the security token of
+     *         the target
+     */
+    public boolean matchesSecurityToken(final String securityToken) {
+        if (securityToken == null || securityTokenHash == null) {
+            return false;
+        }
+
+        return MessageDigest.isEqual(securityTokenHash, hash(securityToken));
+    }
+
+    private static byte[] hash(final String securityToken) {
+        try {
+            return MessageDigest.getInstance(TOKEN_HASH_ALGORITHM)
+                    .digest(securityToken.getBytes(StandardCharsets.UTF_8));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(TOKEN_HASH_ALGORITHM + " is not supported by the JVM", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TargetSnapshot [id=" + id + ", controllerId=" + controllerId + ", updateStatus=" + updateStatus + "]";
+    }
+}
@@ -12,6 +12,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
+import org.eclipse.hawkbit.repository.event.remote.ArtifactBinaryDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.DistributionSetDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.DistributionSetTagDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.DistributionSetTypeDeletedEvent;
@@ -128,6 +129,9 @@ public class EventType {
         TYPES.put(35, TargetFilterQueryUpdatedEvent.class);
         TYPES.put(36, TargetFilterQueryDeletedEvent.class);
 
+        // artifact binary
+        TYPES.put(37, ArtifactBinaryDeletedEvent.class);
+
     }
 
     private int value;
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
+import org.eclipse.hawkbit.artifact.repository.CachingArtifactRepository;
+import org.eclipse.hawkbit.repository.event.remote.ArtifactBinaryDeletedEvent;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Evicts deleted artifact binaries from the {@link CachingArtifactRepository}
+ * of this node if they are deleted on any node of the cluster. The node which
+ * deletes a binary evicts it immediately, the event covers all other nodes.
+ */
+public class ArtifactCacheInvalidator {
+
+    private final ArtifactRepository artifactRepository;
+
+    /**
+     * @param artifactRepository
+     *            the repository to invalidate, nothing is done unless it is a
+     *            {@link CachingArtifactRepository}
+     */
+    public ArtifactCacheInvalidator(final ArtifactRepository artifactRepository) {
+        this.artifactRepository = artifactRepository;
+    }
+
+    @EventListener(classes = ArtifactBinaryDeletedEvent.class)
+    void invalidateOnBinaryDelete(final ArtifactBinaryDeletedEvent event) {
+        if (!(artifactRepository instanceof CachingArtifactRepository)) {
+            return;
+        }
+
+        final CachingArtifactRepository cachingRepository = (CachingArtifactRepository) artifactRepository;
+        if (event.getSha1Hash() == null) {
+            cachingRepository.invalidateTenant(event.getTenant());
+        } else {
+            cachingRepository.invalidate(event.getTenant(), event.getSha1Hash());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.hawkbit.cache.TenancyCacheManager;
+import org.eclipse.hawkbit.cache.TenantAwareCacheManager;
+import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.AbstractActionEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.event.EventListener;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Internal negative cache of the targets which have no active {@link Action},
+ * i.e. which are idle. The entries are evicted by every action event of the
+ * target on all nodes of the cluster. Every entry is reconciled with the
+ * repository after the configured time at the latest as it is dropped from the
+ * cache then.
+ *
+ * An entry is only added if no action event has been received since the
+ * repository has been queried. That way a target which gets an action while
+ * its poll is processed is not marked as idle.
+ *
+ * The assignment events invalidate the entries as well as they might arrive
+ * before the action events.
+ *
+ */
+public class IdleTargetCache {
+    private static final String CACHE_NAME = "IdleTarget";
+    private static final long DEFAULT_SIZE = 100_000;
+    private static final long DEFAULT_RECONCILIATION_SECONDS = 300;
+    private final TenancyCacheManager cacheManager;
+    private final TenantAware tenantAware;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * @param tenantAware
+     *            to get current tenant
+     * @param size
+     *            the maximum size of the cache
+     * @param reconciliationSeconds
+     *            after which an entry is dropped from the cache and the
+     *            repository is queried again
+     */
+    public IdleTargetCache(final TenantAware tenantAware, final long size, final long reconciliationSeconds) {
+        this.tenantAware = tenantAware;
+
+        final Caffeine<Object, Object> cacheBuilder = Caffeine.newBuilder().maximumSize(size)
+                .expireAfterWrite(reconciliationSeconds, TimeUnit.SECONDS);
+        final CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCaffeine(cacheBuilder);
+
+        this.cacheManager = new TenantAwareCacheManager(caffeineCacheManager, tenantAware);
+    }
+
+    /**
+     * @param tenantAware
+     *            to get current tenant
+     */
+    public IdleTargetCache(final TenantAware tenantAware) {
+        this(tenantAware, DEFAULT_SIZE, DEFAULT_RECONCILIATION_SECONDS);
+    }
+
+    /**
+     * @param controllerId
+     *            of the target
+     * @return <code>true</code> if the target of the current tenant is known
+     *         to have no active {@link Action}
+     */
+    public boolean isIdle(final String controllerId) {
+        return cacheManager.getCache(CACHE_NAME).get(controllerId) != null;
+    }
+
+    /**
+     * @return sequence that has to be retrieved before the repository is
+     *         queried and handed over to {@link #markIdle(String, long)}
+     */
+    public long getInvalidationSequence() {
+        return invalidations.get();
+    }
+
+    /**
+     * Marks the target of the current tenant as idle if no action event has
+     * been received since the given sequence has been retrieved.
+     *
+     * @param controllerId
+     *            of the target
+     * @param sequence
+     *            retrieved by {@link #getInvalidationSequence()} before the
+     *            repository has been queried
+     */
+    public void markIdle(final String controllerId, final long sequence) {
+        final Cache cache = cacheManager.getCache(CACHE_NAME);
+        cache.put(controllerId, Boolean.TRUE);
+
+        // an action might have been created in the meantime
+        if (invalidations.get() != sequence) {
+            cache.evict(controllerId);
+        }
+    }
+
+    @EventListener(classes = AbstractActionEvent.class)
+    void invalidateOnActionChange(final AbstractActionEvent event) {
+        invalidate(event.getTenant(), event.getControllerId());
+    }
+
+    @EventListener(classes = TargetAssignDistributionSetEvent.class)
+    void invalidateOnAssignment(final TargetAssignDistributionSetEvent event) {
+        invalidations.incrementAndGet();
+        final Cache cache = tenantAware.runAsTenant(event.getTenant(), () -> cacheManager.getCache(CACHE_NAME));
+        event.getActions().keySet().forEach(cache::evict);
+    }
+
+    @EventListener(classes = CancelTargetAssignmentEvent.class)
+    void invalidateOnCancel(final CancelTargetAssignmentEvent event) {
+        invalidate(event.getTenant(), event.getControllerId());
+    }
+
+    @EventListener(classes = TargetDeletedEvent.class)
+    void invalidateOnTargetDelete(final TargetDeletedEvent event) {
+        invalidate(event.getTenant(), event.getControllerId());
+    }
+
+    private void invalidate(final String tenant, final String controllerId) {
+        invalidations.incrementAndGet();
+
+        if (controllerId == null) {
+            // events of older nodes do not carry the target
+            evictCaches(tenant);
+            return;
+        }
+
+        final Cache cache = tenantAware.runAsTenant(tenant, () -> cacheManager.getCache(CACHE_NAME));
+        cache.evict(controllerId);
+    }
+
+    /**
+     * Evicts all caches for a given tenant. All caches under a certain tenant
+     * gets evicted.
+     *
+     * @param tenant
+     *            the tenant to evict caches
+     */
+    public void evictCaches(final String tenant) {
+        cacheManager.evictCaches(tenant);
+    }
+}
@@ -8,10 +8,13 @@
  */
 package org.eclipse.hawkbit.repository;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.cache.TenancyCacheManager;
@@ -19,6 +22,9 @@ import org.eclipse.hawkbit.cache.TenantAwareCacheManager;
 import org.eclipse.hawkbit.repository.event.remote.RolloutDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.RolloutGroupDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.AbstractActionEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.Action.Status;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
 import org.eclipse.hawkbit.repository.model.TotalTargetCountActionStatus;
@@ -32,11 +38,21 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 /**
  * Internal cache for Rollout status.
  *
+ * The cached status counts are maintained incrementally from the status
+ * transitions carried by the action events instead of being evicted on every
+ * change, i.e. they are not queried again while a rollout is running. An entry
+ * is evicted if the transition is unknown, e.g. by events of older nodes, or if
+ * a count would become negative. Counts of actions which change while an entry
+ * is rebuilt may be off by the changes in flight, hence every entry is
+ * reconciled with the repository after the configured time at the latest as
+ * it is dropped from the cache then.
+ *
  */
 public class RolloutStatusCache {
     private static final String CACHE_RO_NAME = "RolloutStatus";
     private static final String CACHE_GR_NAME = "RolloutGroupStatus";
     private static final long DEFAULT_SIZE = 50_000;
+    private static final long DEFAULT_RECONCILIATION_SECONDS = 60;
     private final TenancyCacheManager cacheManager;
     private final TenantAware tenantAware;
 
@@ -45,17 +61,31 @@ public class RolloutStatusCache {
      *            to get current tenant
      * @param size
      *            the maximum size of the cache
+     * @param reconciliationSeconds
+     *            after which an entry is dropped from the cache and the
+     *            repository is queried again
      */
-    public RolloutStatusCache(final TenantAware tenantAware, final long size) {
+    public RolloutStatusCache(final TenantAware tenantAware, final long size, final long reconciliationSeconds) {
         this.tenantAware = tenantAware;
 
-        final Caffeine<Object, Object> cacheBuilder = Caffeine.newBuilder().maximumSize(size);
+        final Caffeine<Object, Object> cacheBuilder = Caffeine.newBuilder().maximumSize(size)
+                .expireAfterWrite(reconciliationSeconds, TimeUnit.SECONDS);
         final CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
         caffeineCacheManager.setCaffeine(cacheBuilder);
 
         this.cacheManager = new TenantAwareCacheManager(caffeineCacheManager, tenantAware);
     }
 
+    /**
+     * @param tenantAware
+     *            to get current tenant
+     * @param size
+     *            the maximum size of the cache
+     */
+    public RolloutStatusCache(final TenantAware tenantAware, final long size) {
+        this(tenantAware, size, DEFAULT_RECONCILIATION_SECONDS);
+    }
+
     /**
      * @param tenantAware
      *            to get current tenant
@@ -199,18 +229,51 @@ public class RolloutStatusCache {
     }
 
     @EventListener(classes = AbstractActionEvent.class)
-    void invalidateCachedTotalTargetCountActionStatus(final AbstractActionEvent event) {
+    void updateCachedTotalTargetCountActionStatus(final AbstractActionEvent event) {
+        if (event.getRolloutId() == null && event.getRolloutGroupId() == null) {
+            return;
+        }
+
+        final Status previousStatus = getPreviousStatus(event);
+        if (previousStatus != null && previousStatus == event.getStatus()) {
+            return;
+        }
+
         if (event.getRolloutId() != null) {
             final Cache cache = tenantAware.runAsTenant(event.getTenant(), () -> cacheManager.getCache(CACHE_RO_NAME));
-            cache.evict(event.getRolloutId());
+            updateCount(cache, event.getRolloutId(), event, previousStatus);
         }
 
         if (event.getRolloutGroupId() != null) {
             final Cache cache = tenantAware.runAsTenant(event.getTenant(), () -> cacheManager.getCache(CACHE_GR_NAME));
-            cache.evict(event.getRolloutGroupId());
+            updateCount(cache, event.getRolloutGroupId(), event, previousStatus);
         }
     }
 
+    private static Status getPreviousStatus(final AbstractActionEvent event) {
+        if (event instanceof ActionUpdatedEvent) {
+            return ((ActionUpdatedEvent) event).getPreviousStatus();
+        }
+        return null;
+    }
+
+    private static void updateCount(final Cache cache, final Long id, final AbstractActionEvent event,
+            final Status previousStatus) {
+        final CachedTotalTargetCountActionStatus cacheItem = cache.get(id, CachedTotalTargetCountActionStatus.class);
+        if (cacheItem == null) {
+            return;
+        }
+
+        final boolean created = event instanceof ActionCreatedEvent;
+        final boolean transitionKnown = event.getStatus() != null && (created || previousStatus != null);
+        if (!transitionKnown || (!created && !cacheItem.decrement(previousStatus))) {
+            cache.evict(id);
+            return;
+        }
+
+        cacheItem.increment(event.getStatus());
+    }
+
     @EventListener(classes = RolloutDeletedEvent.class)
     void invalidateCachedTotalTargetCountOnRolloutDelete(final RolloutDeletedEvent event) {
         final Cache cache = tenantAware.runAsTenant(event.getTenant(), () -> cacheManager.getCache(CACHE_RO_NAME));
@@ -235,12 +298,14 @@ public class RolloutStatusCache {
     }
 
     private static final class CachedTotalTargetCountActionStatus {
+        private static final Status[] STATUS = Status.values();
+
         private final long id;
-        private final List<TotalTargetCountActionStatus> status;
+        private final AtomicLongArray counts = new AtomicLongArray(STATUS.length);
 
         private CachedTotalTargetCountActionStatus(final long id, final List<TotalTargetCountActionStatus> status) {
             this.id = id;
-            this.status = status;
+            status.forEach(item -> counts.addAndGet(item.getStatus().ordinal(), item.getCount()));
         }
 
         public long getId() {
@@ -248,7 +313,23 @@ public class RolloutStatusCache {
         }
 
         public List<TotalTargetCountActionStatus> getStatus() {
+            final List<TotalTargetCountActionStatus> status = new ArrayList<>(STATUS.length);
+            for (int i = 0; i < STATUS.length; i++) {
+                final long count = counts.get(i);
+                if (count > 0) {
+                    status.add(new TotalTargetCountActionStatus(id, STATUS[i], count));
+                }
+            }
             return status;
         }
+
+        private void increment(final Status status) {
+            counts.incrementAndGet(status.ordinal());
+        }
+
+        private boolean decrement(final Status status) {
+            // a negative count means the entry is out of sync
+            return counts.getAndDecrement(status.ordinal()) > 0;
+        }
     }
 }
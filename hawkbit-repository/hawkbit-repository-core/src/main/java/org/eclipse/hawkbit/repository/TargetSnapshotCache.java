@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.hawkbit.cache.TenancyCacheManager;
+import org.eclipse.hawkbit.cache.TenantAwareCacheManager;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.TargetSnapshot;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.event.EventListener;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Internal cache for {@link TargetSnapshot}s of the targets which are polling
+ * the server. The snapshots are kept by controller ID. The entries are evicted
+ * on every change of the target which is notified by the (remote) events, i.e.
+ * on all nodes of the cluster. Entries expire additionally after a short time
+ * to limit the impact of an update that raced with the filling of the cache.
+ *
+ * Snapshots which are read from the repository are cached with
+ * {@link #putIfNotEvicted(TargetSnapshot, long)} so that a read which raced
+ * with an eviction does not put an outdated snapshot into the cache.
+ *
+ */
+public class TargetSnapshotCache {
+    private static final String CACHE_SNAPSHOT_NAME = "TargetSnapshot";
+    private static final String CACHE_ID_NAME = "TargetSnapshotId";
+    private static final long DEFAULT_SIZE = 100_000;
+    private static final long DEFAULT_EXPIRY_SECONDS = 60;
+    private final TenancyCacheManager cacheManager;
+    private final TenantAware tenantAware;
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param tenantAware
+     *            to get current tenant
+     * @param size
+     *            the maximum size of the cache
+     * @param expirySeconds
+     *            after which an entry is dropped from the cache
+     */
+    public TargetSnapshotCache(final TenantAware tenantAware, final long size, final long expirySeconds) {
+        this.tenantAware = tenantAware;
+
+        final Caffeine<Object, Object> cacheBuilder = Caffeine.newBuilder().maximumSize(size)
+                .expireAfterWrite(expirySeconds, TimeUnit.SECONDS);
+        final CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCaffeine(cacheBuilder);
+
+        this.cacheManager = new TenantAwareCacheManager(caffeineCacheManager, tenantAware);
+    }
+
+    /**
+     * @param tenantAware
+     *            to get current tenant
+     */
+    public TargetSnapshotCache(final TenantAware tenantAware) {
+        this(tenantAware, DEFAULT_SIZE, DEFAULT_EXPIRY_SECONDS);
+    }
+
+    /**
+     * Retrieves cached {@link TargetSnapshot} of the current tenant.
+     *
+     * @param controllerId
+     *            of the target
+     * @return cached snapshot or empty if the target is not cached
+     */
+    public Optional<TargetSnapshot> getByControllerId(final String controllerId) {
+        return Optional.ofNullable(cacheManager.getCache(CACHE_SNAPSHOT_NAME).get(controllerId, TargetSnapshot.class));
+    }
+
+    /**
+     * Retrieves cached {@link TargetSnapshot} of the current tenant.
+     *
+     * @param targetId
+     *            of the target
+     * @return cached snapshot or empty if the target is not cached
+     */
+    public Optional<TargetSnapshot> getById(final long targetId) {
+        return Optional.ofNullable(cacheManager.getCache(CACHE_ID_NAME).get(targetId, String.class))
+                .flatMap(this::getByControllerId);
+    }
+
+    /**
+     * Puts {@link TargetSnapshot} of the current tenant into the cache.
+     *
+     * @param snapshot
+     *            to cache
+     */
+    public void put(final TargetSnapshot snapshot) {
+        cacheManager.getCache(CACHE_ID_NAME).put(snapshot.getId(), snapshot.getControllerId());
+        cacheManager.getCache(CACHE_SNAPSHOT_NAME).put(snapshot.getControllerId(), snapshot);
+    }
+
+    /**
+     * @return stamp of the evictions which has to be taken before a
+     *         {@link TargetSnapshot} is read for
+     *         {@link #putIfNotEvicted(TargetSnapshot, long)}
+     */
+    public long getEvictionStamp() {
+        return evictions.get();
+    }
+
+    /**
+     * Puts {@link TargetSnapshot} of the current tenant into the cache unless
+     * any snapshot has been evicted since the given stamp has been taken, i.e.
+     * while the snapshot was read.
+     *
+     * @param snapshot
+     *            to cache
+     * @param evictionStamp
+     *            taken by {@link #getEvictionStamp()} before the snapshot has
+     *            been read
+     */
+    public void putIfNotEvicted(final TargetSnapshot snapshot, final long evictionStamp) {
+        if (evictions.get() != evictionStamp) {
+            return;
+        }
+
+        put(snapshot);
+
+        // an eviction between the check and the put
+        if (evictions.get() != evictionStamp) {
+            cacheManager.getCache(CACHE_SNAPSHOT_NAME).evict(snapshot.getControllerId());
+        }
+    }
+
+    /**
+     * Evicts the cached {@link TargetSnapshot} of the current tenant on this
+     * node right away, i.e. without waiting for the update event.
+     *
+     * @param controllerId
+     *            of the target
+     */
+    public void evict(final String controllerId) {
+        evictions.incrementAndGet();
+        cacheManager.getCache(CACHE_SNAPSHOT_NAME).evict(controllerId);
+    }
+
+    @EventListener(classes = TargetUpdatedEvent.class)
+    void invalidateCachedTargetSnapshotOnUpdate(final TargetUpdatedEvent event) {
+        evictions.incrementAndGet();
+        tenantAware.runAsTenant(event.getTenant(), () -> {
+            final Cache idCache = cacheManager.getCache(CACHE_ID_NAME);
+            final String controllerId = idCache.get(event.getEntityId(), String.class);
+            if (controllerId != null) {
+                cacheManager.getCache(CACHE_SNAPSHOT_NAME).evict(controllerId);
+            }
+            idCache.evict(event.getEntityId());
+            return null;
+        });
+    }
+
+    @EventListener(classes = TargetDeletedEvent.class)
+    void invalidateCachedTargetSnapshotOnDelete(final TargetDeletedEvent event) {
+        evictions.incrementAndGet();
+        tenantAware.runAsTenant(event.getTenant(), () -> {
+            cacheManager.getCache(CACHE_SNAPSHOT_NAME).evict(event.getControllerId());
+            cacheManager.getCache(CACHE_ID_NAME).evict(event.getEntityId());
+            return null;
+        });
+    }
+
+    @EventListener(classes = TargetPollEvent.class)
+    void invalidateCachedTargetSnapshotOnAddressChange(final TargetPollEvent event) {
+        // the persisted address is not covered by the update event but
+        // published with the poll event
+        if (event.getTargetAdress() == null) {
+            return;
+        }
+
+        final Cache cache = tenantAware.runAsTenant(event.getTenant(),
+                () -> cacheManager.getCache(CACHE_SNAPSHOT_NAME));
+        final TargetSnapshot cached = cache.get(event.getControllerId(), TargetSnapshot.class);
+        if (cached != null && !event.getTargetAdress().equals(cached.getAddress())) {
+            evictions.incrementAndGet();
+            cache.evict(event.getControllerId());
+        }
+    }
+
+    /**
+     * Evicts all caches for a given tenant. All caches under a certain tenant
+     * gets evicted.
+     *
+     * @param tenant
+     *            the tenant to evict caches
+     */
+    public void evictCaches(final String tenant) {
+        evictions.incrementAndGet();
+        cacheManager.evictCaches(tenant);
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
+import org.eclipse.hawkbit.artifact.repository.CachingArtifactRepository;
+import org.eclipse.hawkbit.repository.event.remote.ArtifactBinaryDeletedEvent;
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Artifact cache invalidation")
+public class ArtifactCacheInvalidatorTest {
+
+    private static final String TENANT = "tenant";
+
+    private final CachingArtifactRepository cachingRepository = mock(CachingArtifactRepository.class);
+
+    @Test
+    @Description("Verifies that a deleted binary is evicted from the artifact cache")
+    public void binaryDeletionInvalidatesArtifact() {
+        new ArtifactCacheInvalidator(cachingRepository)
+                .invalidateOnBinaryDelete(new ArtifactBinaryDeletedEvent(TENANT, "sha1", "node"));
+
+        verify(cachingRepository).invalidate(TENANT, "sha1");
+        verifyNoMoreInteractions(cachingRepository);
+    }
+
+    @Test
+    @Description("Verifies that all artifacts of a deleted tenant are evicted from the artifact cache")
+    public void tenantDeletionInvalidatesTenant() {
+        new ArtifactCacheInvalidator(cachingRepository)
+                .invalidateOnBinaryDelete(new ArtifactBinaryDeletedEvent(TENANT, "node"));
+
+        verify(cachingRepository).invalidateTenant(TENANT);
+        verifyNoMoreInteractions(cachingRepository);
+    }
+
+    @Test
+    @Description("Verifies that an artifact repository without cache is left untouched")
+    public void uncachedRepositoryIsIgnored() {
+        final ArtifactRepository repository = mock(ArtifactRepository.class);
+
+        new ArtifactCacheInvalidator(repository)
+                .invalidateOnBinaryDelete(new ArtifactBinaryDeletedEvent(TENANT, "sha1", "node"));
+
+        verifyZeroInteractions(repository);
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.TotalTargetCountActionStatus;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.eclipse.hawkbit.tenancy.TenantAware.TenantRunner;
+import org.junit.Before;
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Rollout status cache")
+public class RolloutStatusCacheTest {
+
+    private static final String TENANT = "tenant";
+    private static final Long ROLLOUT = 1L;
+    private static final Long GROUP = 2L;
+
+    private final TenantAware tenantAware = mock(TenantAware.class);
+    private final Action action = mock(Action.class);
+
+    private RolloutStatusCache cache;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        when(tenantAware.getCurrentTenant()).thenReturn(TENANT);
+        when(tenantAware.runAsTenant(anyString(), any(TenantRunner.class)))
+                .thenAnswer(invocation -> ((TenantRunner<?>) invocation.getArguments()[1]).run());
+        when(action.getId()).thenReturn(3L);
+        when(action.getTenant()).thenReturn(TENANT);
+
+        cache = new RolloutStatusCache(tenantAware);
+        cache.putRolloutStatus(ROLLOUT, Arrays.asList(status(ROLLOUT, Status.SCHEDULED, 2),
+                status(ROLLOUT, Status.RUNNING, 1)));
+        cache.putRolloutGroupStatus(GROUP,
+                Arrays.asList(status(GROUP, Status.SCHEDULED, 2), status(GROUP, Status.RUNNING, 1)));
+    }
+
+    @Test
+    @Description("Verifies that the counts are moved by the status transitions of the action events.")
+    public void countsFollowStatusTransitions() {
+        cache.updateCachedTotalTargetCountActionStatus(new ActionCreatedEvent(action(Status.SCHEDULED), ROLLOUT,
+                GROUP, "node"));
+        cache.updateCachedTotalTargetCountActionStatus(
+                new ActionUpdatedEvent(action, ROLLOUT, GROUP, Status.SCHEDULED, Status.RUNNING, "node"));
+        cache.updateCachedTotalTargetCountActionStatus(
+                new ActionUpdatedEvent(action, ROLLOUT, GROUP, Status.RUNNING, Status.FINISHED, "node"));
+
+        assertThat(counts(cache.getRolloutStatus(ROLLOUT))).containsOnly(Status.SCHEDULED + "=2",
+                Status.RUNNING + "=1", Status.FINISHED + "=1");
+        assertThat(counts(cache.getRolloutGroupStatus(GROUP))).containsOnly(Status.SCHEDULED + "=2",
+                Status.RUNNING + "=1", Status.FINISHED + "=1");
+    }
+
+    @Test
+    @Description("Verifies that the counts are taken from the transition of the event and not from the current "
+            + "status of the action, i.e. an action which has been changed again is not counted twice.")
+    public void countsIgnoreCurrentStatusOfAction() {
+        action(Status.FINISHED);
+
+        cache.updateCachedTotalTargetCountActionStatus(
+                new ActionUpdatedEvent(action, ROLLOUT, GROUP, Status.SCHEDULED, Status.RUNNING, "node"));
+        cache.updateCachedTotalTargetCountActionStatus(
+                new ActionUpdatedEvent(action, ROLLOUT, GROUP, Status.RUNNING, Status.FINISHED, "node"));
+
+        assertThat(counts(cache.getRolloutStatus(ROLLOUT))).containsOnly(Status.SCHEDULED + "=1",
+                Status.RUNNING + "=1", Status.FINISHED + "=1");
+    }
+
+    @Test
+    @Description("Verifies that updates without status change are ignored and that an entry is evicted if the "
+            + "transition is unknown or does not match the counts.")
+    public void unknownTransitionEvictsEntry() {
+        cache.updateCachedTotalTargetCountActionStatus(
+                new ActionUpdatedEvent(action, ROLLOUT, GROUP, Status.RUNNING, Status.RUNNING, "node"));
+        assertThat(counts(cache.getRolloutStatus(ROLLOUT))).containsOnly(Status.SCHEDULED + "=2",
+                Status.RUNNING + "=1");
+
+        cache.updateCachedTotalTargetCountActionStatus(
+                new ActionUpdatedEvent(action, ROLLOUT, null, Status.ERROR, Status.FINISHED, "node"));
+        assertThat(cache.getRolloutStatus(ROLLOUT)).isEmpty();
+
+        cache.updateCachedTotalTargetCountActionStatus(
+                new ActionUpdatedEvent(action, null, GROUP, null, Status.FINISHED, "node"));
+        assertThat(cache.getRolloutGroupStatus(GROUP)).isEmpty();
+    }
+
+    private Action action(final Status status) {
+        when(action.getStatus()).thenReturn(status);
+        return action;
+    }
+
+    private static TotalTargetCountActionStatus status(final Long id, final Status status, final long count) {
+        return new TotalTargetCountActionStatus(id, status, count);
+    }
+
+    private static List<String> counts(final List<TotalTargetCountActionStatus> status) {
+        return status.stream().map(item -> item.getStatus() + "=" + item.getCount())
+                .collect(Collectors.toList());
+    }
+}
@@ -9,8 +9,10 @@
 package org.eclipse.hawkbit.repository.jpa;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -35,6 +37,8 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.util.CollectionUtils;
 
+import com.google.common.collect.Lists;
+
 /**
  * {@link DistributionSet} to {@link Target} assignment strategy as utility for
  * {@link JpaDeploymentManagement}.
@@ -67,7 +71,8 @@ public abstract class AbstractDsAssignmentStrategy {
      * Find targets to be considered for assignment.
      * 
      * @param controllerIDs
-     *            as provided by repository caller
+     *            as provided by repository caller, at most
+     *            {@link Constants#MAX_ENTRIES_IN_STATEMENT}
      * @param distributionSetId
      *            to assign
      * @return list of targets up to {@link Constants#MAX_ENTRIES_IN_STATEMENT}
@@ -112,30 +117,58 @@ public abstract class AbstractDsAssignmentStrategy {
     abstract void closeActiveActions(List<List<Long>> targetIds);
 
     /**
-     * Handles event sending related to the assignment.
+     * Handles event sending related to the update of the targets by the
+     * assignment. Called once per chunk of assigned targets.
      * 
      * @param set
      *            that has been assigned
      * @param targets
      *            to send events for
-     * @param targetIdsCancelList
-     *            targets where an action was canceled
-     * @param controllerIdsToActions
-     *            mapping of {@link Target#getControllerId()} to new
-     *            {@link Action} that was created as part of the assignment.
      */
-    abstract void sendAssignmentEvents(DistributionSet set, final List<JpaTarget> targets,
-            final Set<Long> targetIdsCancelList, final Map<String, JpaAction> controllerIdsToActions);
+    abstract void sendTargetUpdatedEvents(DistributionSet set, final List<JpaTarget> targets);
+
+    /**
+     * Handles event sending related to the assignment itself. Called once per
+     * assignment.
+     * 
+     * @param set
+     *            that has been assigned
+     * @param controllerIdsToActionIds
+     *            mapping of {@link Target#getControllerId()} to the ID of the
+     *            new {@link Action} that was created as part of the assignment
+     *            and that was not canceled in favor of another one.
+     * @param maintenanceWindowAvailable
+     *            see {@link Action#isMaintenanceWindowAvailable()}
+     */
+    abstract void sendDistributionSetAssignedEvent(DistributionSet set,
+            final Map<String, Long> controllerIdsToActionIds, boolean maintenanceWindowAvailable);
 
+    /**
+     * Sends the {@link TargetAssignDistributionSetEvent}s of an assignment
+     * after commit. The assignment is split into events of at most
+     * {@link RepositoryConstants#MAX_ACTIONS_PER_ASSIGNMENT_EVENT} actions so
+     * that the size of the messages on the bus and the work per event on the
+     * receiving nodes are bounded. The events keep the order of the given
+     * map.
+     */
     protected void sendTargetAssignDistributionSetEvent(final String tenant, final long distributionSetId,
-            final List<Action> actions) {
-        if (CollectionUtils.isEmpty(actions)) {
+            final Map<String, Long> controllerIdsToActionIds, final boolean maintenanceWindowAvailable) {
+        if (CollectionUtils.isEmpty(controllerIdsToActionIds)) {
             return;
         }
 
-        afterCommit.afterCommit(
-                () -> eventPublisher.publishEvent(new TargetAssignDistributionSetEvent(tenant, distributionSetId,
-                        actions, applicationContext.getId(), actions.get(0).isMaintenanceWindowAvailable())));
+        final List<TargetAssignDistributionSetEvent> events = Lists
+                .partition(Lists.newArrayList(controllerIdsToActionIds.entrySet()),
+                        RepositoryConstants.MAX_ACTIONS_PER_ASSIGNMENT_EVENT)
+                .stream()
+                .map(chunk -> new TargetAssignDistributionSetEvent(tenant, distributionSetId,
+                        chunk.stream()
+                                .collect(Collectors.toMap(Entry::getKey, Entry::getValue,
+                                        (first, second) -> second, LinkedHashMap::new)),
+                        applicationContext.getId(), maintenanceWindowAvailable))
+                .collect(Collectors.toList());
+
+        afterCommit.afterCommit(() -> events.forEach(eventPublisher::publishEvent));
     }
 
     protected void sendTargetUpdatedEvent(final JpaTarget target) {
@@ -218,9 +251,6 @@ public abstract class AbstractDsAssignmentStrategy {
     JpaAction createTargetAction(final Map<String, TargetWithActionType> targetsWithActionMap, final JpaTarget target,
             final JpaDistributionSet set) {
 
-        // enforce the 'max actions per target' quota
-        assertActionsPerTargetQuota(target, 1);
-
         // create the action
         final JpaAction actionForTarget = new JpaAction();
         final TargetWithActionType targetWithActionType = targetsWithActionMap.get(target.getControllerId());
@@ -247,10 +277,16 @@ public abstract class AbstractDsAssignmentStrategy {
         return actionStatus;
     }
 
-    private void assertActionsPerTargetQuota(final Target target, final int requested) {
-        final int quota = quotaManagement.getMaxActionsPerTarget();
-        QuotaHelper.assertAssignmentQuota(target.getId(), requested, quota, Action.class, Target.class,
-                actionRepository::countByTargetId);
+    /**
+     * Enforces the 'max actions per target' quota for one new action per
+     * target with one aggregate query per chunk of targets.
+     * 
+     * @param targetIds
+     *            of the targets that get a new action
+     */
+    void assertActionsPerTargetQuota(final List<Long> targetIds) {
+        QuotaHelper.assertAssignmentQuota(targetIds, 1, quotaManagement.getMaxActionsPerTarget(), Action.class,
+                Target.class, actionRepository::findTargetIdsWithMoreActionsThan, actionRepository::countByTargetId);
     }
 
 }
@@ -255,6 +255,20 @@ public interface ActionRepository extends BaseEntityRepository<JpaAction, Long>,
      */
     Long countByTargetId(Long targetId);
 
+    /**
+     * Retrieves the IDs of the given targets which have more {@link Action}s
+     * than the given count.
+     *
+     * @param targetIds
+     *            the IDs of the targets to check
+     * @param count
+     *            the number of {@link Action}s a target may have at most
+     * @return the IDs of the targets exceeding the given count
+     */
+    @Query("SELECT a.target.id FROM JpaAction a WHERE a.target.id IN :targetIds GROUP BY a.target.id HAVING COUNT(a.id) > :count")
+    List<Long> findTargetIdsWithMoreActionsThan(@Param("targetIds") Collection<Long> targetIds,
+            @Param("count") long count);
+
     /**
      * Counts all {@link Action}s referring to the given DistributionSet.
      *
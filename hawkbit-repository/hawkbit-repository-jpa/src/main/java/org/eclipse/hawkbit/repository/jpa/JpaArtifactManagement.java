@@ -18,6 +18,7 @@ import org.eclipse.hawkbit.artifact.repository.model.AbstractDbArtifact;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
 import org.eclipse.hawkbit.repository.ArtifactManagement;
 import org.eclipse.hawkbit.repository.QuotaManagement;
+import org.eclipse.hawkbit.repository.event.remote.ArtifactBinaryDeletedEvent;
 import org.eclipse.hawkbit.repository.exception.ArtifactDeleteFailedException;
 import org.eclipse.hawkbit.repository.exception.ArtifactUploadFailedException;
 import org.eclipse.hawkbit.repository.exception.EntityAlreadyExistsException;
@@ -26,6 +27,7 @@ import org.eclipse.hawkbit.repository.exception.InvalidMD5HashException;
 import org.eclipse.hawkbit.repository.exception.InvalidSHA1HashException;
 import org.eclipse.hawkbit.repository.exception.QuotaExceededException;
 import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
+import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.repository.jpa.model.JpaArtifact;
 import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModule;
 import org.eclipse.hawkbit.repository.jpa.utils.QuotaHelper;
@@ -34,6 +36,8 @@ import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -64,14 +68,25 @@ public class JpaArtifactManagement implements ArtifactManagement {
 
     private final QuotaManagement quotaManagement;
 
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ApplicationContext applicationContext;
+
+    private final AfterTransactionCommitExecutor afterCommit;
+
     JpaArtifactManagement(final LocalArtifactRepository localArtifactRepository,
             final SoftwareModuleRepository softwareModuleRepository, final ArtifactRepository artifactRepository,
-            final QuotaManagement quotaManagement, final TenantAware tenantAware) {
+            final QuotaManagement quotaManagement, final TenantAware tenantAware,
+            final ApplicationEventPublisher eventPublisher, final ApplicationContext applicationContext,
+            final AfterTransactionCommitExecutor afterCommit) {
         this.localArtifactRepository = localArtifactRepository;
         this.softwareModuleRepository = softwareModuleRepository;
         this.artifactRepository = artifactRepository;
         this.quotaManagement = quotaManagement;
         this.tenantAware = tenantAware;
+        this.eventPublisher = eventPublisher;
+        this.applicationContext = applicationContext;
+        this.afterCommit = afterCommit;
     }
 
     private static Artifact checkForExistingArtifact(final String filename, final boolean overrideExisting,
@@ -154,7 +169,11 @@ public class JpaArtifactManagement implements ArtifactManagement {
 
         try {
             LOG.debug("deleting artifact from repository {}", sha1Hash);
-            artifactRepository.deleteBySha1(tenantAware.getCurrentTenant(), sha1Hash);
+            final String tenant = tenantAware.getCurrentTenant();
+            artifactRepository.deleteBySha1(tenant, sha1Hash);
+            // evict the binary from the caches of the other nodes
+            afterCommit.afterCommit(() -> eventPublisher
+                    .publishEvent(new ArtifactBinaryDeletedEvent(tenant, sha1Hash, applicationContext.getId())));
             return true;
         } catch (final ArtifactStoreException e) {
             throw new ArtifactDeleteFailedException(e);
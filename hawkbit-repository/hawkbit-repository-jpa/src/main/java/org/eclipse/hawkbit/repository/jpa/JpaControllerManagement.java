@@ -13,17 +13,23 @@ import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalUnit;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
@@ -33,15 +39,19 @@ import javax.persistence.criteria.Root;
 
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.EntityFactory;
+import org.eclipse.hawkbit.repository.IdleTargetCache;
 import org.eclipse.hawkbit.repository.MaintenanceScheduleHelper;
 import org.eclipse.hawkbit.repository.QuotaManagement;
 import org.eclipse.hawkbit.repository.RepositoryConstants;
 import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.TargetAttributesUpdate;
+import org.eclipse.hawkbit.repository.TargetSnapshotCache;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
 import org.eclipse.hawkbit.repository.UpdateMode;
 import org.eclipse.hawkbit.repository.builder.ActionStatusCreate;
 import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
 import org.eclipse.hawkbit.repository.exception.CancelActionNotAllowedException;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaActionStatusCreate;
@@ -63,6 +73,7 @@ import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleMetadata;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetSnapshot;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.eclipse.hawkbit.tenancy.TenantAware;
@@ -82,9 +93,13 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
+import org.springframework.retry.backoff.FixedBackOffPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
 import org.springframework.transaction.support.TransactionCallback;
@@ -94,7 +109,6 @@ import org.springframework.validation.annotation.Validated;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 
 /**
  * JPA based {@link ControllerManagement} implementation.
@@ -105,7 +119,20 @@ import com.google.common.collect.Sets;
 public class JpaControllerManagement implements ControllerManagement {
     private static final Logger LOG = LoggerFactory.getLogger(ControllerManagement.class);
 
-    private final BlockingDeque<TargetPoll> queue;
+    private final TargetPollQueue pollQueue;
+
+    private final BlockingQueue<QueuedActionStatus> actionStatusQueue;
+
+    /**
+     * Held while queued {@link ActionStatus} entries are taken from the queue
+     * and persisted, so that a final status waits for a running flush of the
+     * entries of its action.
+     */
+    private final Object actionStatusFlushLock = new Object();
+
+    private final Map<Long, Integer> queuedActionStatusCount = new ConcurrentHashMap<>();
+
+    private final RetryTemplate retryTemplate = createRetryTemplate();
 
     @Autowired
     private EntityManager entityManager;
@@ -152,24 +179,57 @@ public class JpaControllerManagement implements ControllerManagement {
     @Autowired
     private TenantAware tenantAware;
 
+    @Autowired
+    private TargetSnapshotCache targetSnapshotCache;
+
+    @Autowired
+    private IdleTargetCache idleTargetCache;
+
     private final RepositoryProperties repositoryProperties;
 
     JpaControllerManagement(final ScheduledExecutorService executorService,
-            final RepositoryProperties repositoryProperties) {
+            final RepositoryProperties repositoryProperties, final TargetPollQueue pollQueue) {
 
+        this.pollQueue = pollQueue;
         if (!repositoryProperties.isEagerPollPersistence()) {
-            executorService.scheduleWithFixedDelay(this::flushUpdateQueue,
-                    repositoryProperties.getPollPersistenceFlushTime(),
-                    repositoryProperties.getPollPersistenceFlushTime(), TimeUnit.MILLISECONDS);
+            // the shards are flushed independently of each other
+            for (int i = 0; i < pollQueue.getShardCount(); i++) {
+                final int shard = i;
+                executorService.scheduleWithFixedDelay(() -> flushUpdateQueue(shard),
+                        repositoryProperties.getPollPersistenceFlushTime(),
+                        repositoryProperties.getPollPersistenceFlushTime(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (repositoryProperties.isLazyActionStatusPersistence()) {
+            executorService.scheduleWithFixedDelay(this::flushActionStatusQueue,
+                    repositoryProperties.getActionStatusPersistenceFlushTime(),
+                    repositoryProperties.getActionStatusPersistenceFlushTime(), TimeUnit.MILLISECONDS);
 
-            queue = new LinkedBlockingDeque<>(repositoryProperties.getPollPersistenceQueueSize());
+            actionStatusQueue = new LinkedBlockingQueue<>(repositoryProperties.getActionStatusPersistenceQueueSize());
         } else {
-            queue = null;
+            actionStatusQueue = null;
         }
 
         this.repositoryProperties = repositoryProperties;
     }
 
+    /**
+     * @return retry template for the programmatic transactions with the same
+     *         policy as the {@link Retryable} methods
+     */
+    private static RetryTemplate createRetryTemplate() {
+        final RetryTemplate template = new RetryTemplate();
+        template.setRetryPolicy(new SimpleRetryPolicy(Constants.TX_RT_MAX,
+                Collections.singletonMap(ConcurrencyFailureException.class, true)));
+
+        final FixedBackOffPolicy backOffPolicy = new FixedBackOffPolicy();
+        backOffPolicy.setBackOffPeriod(Constants.TX_RT_DELAY);
+        template.setBackOffPolicy(backOffPolicy);
+
+        return template;
+    }
+
     private <T> T runInNewTransaction(final String transactionName, final TransactionCallback<T> action) {
         final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
         def.setName(transactionName);
@@ -351,7 +411,18 @@ public class JpaControllerManagement implements ControllerManagement {
 
     @Override
     public Optional<Action> findOldestActiveActionByTarget(final String controllerId) {
+        return findOldestActiveActionByTarget(controllerId, false);
+    }
+
+    @Override
+    public Optional<Action> findOldestActiveActionByTarget(final String controllerId, final boolean bypassIdleCache) {
+        if (!bypassIdleCache && idleTargetCache.isIdle(controllerId)) {
+            return Optional.empty();
+        }
+
+        final long sequence = idleTargetCache.getInvalidationSequence();
         if (!actionRepository.activeActionExistsForControllerId(controllerId)) {
+            idleTargetCache.markIdle(controllerId, sequence);
             return Optional.empty();
         }
 
@@ -391,51 +462,80 @@ public class JpaControllerManagement implements ControllerManagement {
         return updateTargetStatus(target, address);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TargetSnapshot findOrRegisterTargetSnapshot(final String controllerId, final URI address) {
+        final Optional<TargetSnapshot> cached = targetSnapshotCache.getByControllerId(controllerId);
+
+        // steady state poll: nothing to persist but the poll time which is
+        // queued anyway, i.e. no transaction is needed
+        if (cached.isPresent() && !isStoreRequired(cached.get(), address)
+                && pollQueue.offer(tenantAware.getCurrentTenant(), controllerId, System.currentTimeMillis())) {
+            return cached.get();
+        }
+
+        return retryTemplate.execute(context -> runInNewTransaction("findOrRegisterTargetSnapshot", status -> {
+            final TargetSnapshot snapshot = toSnapshot(
+                    (JpaTarget) findOrRegisterTargetIfItDoesNotexist(controllerId, address));
+            afterCommit.afterCommit(() -> targetSnapshotCache.put(snapshot));
+            return snapshot;
+        }));
+    }
+
+    private boolean isStoreRequired(final TargetSnapshot snapshot, final URI address) {
+        return repositoryProperties.isEagerPollPersistence()
+                || TargetUpdateStatus.UNKNOWN.equals(snapshot.getUpdateStatus()) || snapshot.getAddress() == null
+                || address == null || !snapshot.getAddress().equals(address.toString());
+    }
+
+    private static TargetSnapshot toSnapshot(final JpaTarget target) {
+        return new TargetSnapshot(target.getId(), target.getControllerId(), target.getSecurityToken(),
+                Optional.ofNullable(target.getAddress()).map(URI::toString).orElse(null), target.getUpdateStatus(),
+                Optional.ofNullable(target.getAssignedDistributionSet()).map(DistributionSet::getId).orElse(null),
+                target.isRequestControllerAttributes());
+    }
+
     /**
-     * Flush the update queue by means to persisting
+     * Flush a shard of the update queue by means to persisting
      * {@link Target#getLastTargetQuery()}.
      */
-    private void flushUpdateQueue() {
-        LOG.debug("Run flushUpdateQueue.");
+    private void flushUpdateQueue(final int shard) {
+        LOG.debug("Run flushUpdateQueue for shard {}.", shard);
 
-        final int size = queue.size();
-        if (size <= 0) {
+        final long start = System.currentTimeMillis();
+        final Map<String, Map<String, Long>> polls = pollQueue.drain(shard);
+        if (polls.isEmpty()) {
             return;
         }
 
-        LOG.debug("{} events in flushUpdateQueue.", size);
-
-        final Set<TargetPoll> events = Sets.newHashSetWithExpectedSize(queue.size());
-        final int drained = queue.drainTo(events);
-
-        if (drained <= 0) {
-            return;
-        }
+        final int drained = polls.values().stream().mapToInt(Map::size).sum();
+        LOG.debug("{} events in flushUpdateQueue for shard {}.", drained, shard);
 
-        try {
-            events.stream().collect(Collectors.groupingBy(TargetPoll::getTenant)).forEach((tenant, polls) -> {
-                final TransactionCallback<Void> createTransaction = status -> updateLastTargetQueries(tenant, polls);
+        polls.forEach((tenant, tenantPolls) -> {
+            try {
+                final TransactionCallback<Void> createTransaction = status -> updateLastTargetQueries(tenant,
+                        tenantPolls);
                 tenantAware.runAsTenant(tenant, () -> runInNewTransaction("flushUpdateQueue", createTransaction));
-            });
-        } catch (final RuntimeException ex) {
-            LOG.error("Failed to persist UpdateQueue content.", ex);
-            return;
-        }
+            } catch (final RuntimeException ex) {
+                LOG.error("Failed to persist UpdateQueue content of tenant {}.", tenant, ex);
+            }
+        });
 
+        pollQueue.flushed(drained, System.currentTimeMillis() - start);
         LOG.debug("{} events persisted.", drained);
     }
 
-    private Void updateLastTargetQueries(final String tenant, final List<TargetPoll> polls) {
+    private Void updateLastTargetQueries(final String tenant, final Map<String, Long> polls) {
         LOG.debug("Persist {} targetqueries.", polls.size());
 
-        final List<List<String>> pollChunks = Lists.partition(
-                polls.stream().map(TargetPoll::getControllerId).collect(Collectors.toList()),
-                Constants.MAX_ENTRIES_IN_STATEMENT);
+        // every target needs three parameters in the statement
+        final List<List<Map.Entry<String, Long>>> pollChunks = Lists
+                .partition(Lists.newArrayList(polls.entrySet()), Constants.MAX_ENTRIES_IN_STATEMENT / 3);
 
         pollChunks.forEach(chunk -> {
-            setLastTargetQuery(tenant, System.currentTimeMillis(), chunk);
-            chunk.forEach(controllerId -> afterCommit.afterCommit(() -> eventPublisher
-                    .publishEvent(new TargetPollEvent(controllerId, tenant, applicationContext.getId()))));
+            setLastTargetQuery(tenant, chunk);
+            chunk.forEach(poll -> afterCommit.afterCommit(() -> eventPublisher
+                    .publishEvent(new TargetPollEvent(poll.getKey(), tenant, applicationContext.getId()))));
         });
 
         return null;
@@ -445,21 +545,26 @@ public class JpaControllerManagement implements ControllerManagement {
      * Sets {@link Target#getLastTargetQuery()} by native SQL in order to avoid
      * raising opt lock revision as this update is not mission critical and in
      * fact only written by {@link ControllerManagement}, i.e. the target
-     * itself.
+     * itself. Every target gets the time of its own latest poll.
      */
-    private void setLastTargetQuery(final String tenant, final long currentTimeMillis, final List<String> chunk) {
-        final Map<String, String> paramMapping = Maps.newHashMapWithExpectedSize(chunk.size());
+    private void setLastTargetQuery(final String tenant, final List<Map.Entry<String, Long>> chunk) {
+        final Map<String, Object> paramMapping = Maps.newHashMapWithExpectedSize(chunk.size() * 2);
+        final StringBuilder caseStatement = new StringBuilder();
+        final List<String> controllerIdParams = new ArrayList<>(chunk.size());
 
         for (int i = 0; i < chunk.size(); i++) {
-            paramMapping.put("cid" + i, chunk.get(i));
+            paramMapping.put("cid" + i, chunk.get(i).getKey());
+            paramMapping.put("ltq" + i, chunk.get(i).getValue());
+            caseStatement.append(" WHEN #cid").append(i).append(" THEN #ltq").append(i);
+            controllerIdParams.add("cid" + i);
         }
 
         final Query updateQuery = entityManager.createNativeQuery(
-                "UPDATE sp_target SET last_target_query = #last_target_query WHERE controller_id IN ("
-                        + formatQueryInStatementParams(paramMapping.keySet()) + ") AND tenant = #tenant");
+                "UPDATE sp_target SET last_target_query = CASE controller_id" + caseStatement
+                        + " END WHERE controller_id IN (" + formatQueryInStatementParams(controllerIdParams)
+                        + ") AND tenant = #tenant");
 
         paramMapping.entrySet().forEach(entry -> updateQuery.setParameter(entry.getKey(), entry.getValue()));
-        updateQuery.setParameter("last_target_query", currentTimeMillis);
         updateQuery.setParameter("tenant", tenant);
 
         final int updated = updateQuery.executeUpdate();
@@ -485,7 +590,8 @@ public class JpaControllerManagement implements ControllerManagement {
             storeEager = true;
         }
 
-        if (storeEager || !queue.offer(new TargetPoll(toUpdate))) {
+        if (storeEager || !pollQueue.offer(toUpdate.getTenant(), toUpdate.getControllerId(),
+                System.currentTimeMillis())) {
             toUpdate.setAddress(address.toString());
             toUpdate.setLastTargetQuery(System.currentTimeMillis());
 
@@ -595,17 +701,29 @@ public class JpaControllerManagement implements ControllerManagement {
 
         switch (actionStatus.getStatus()) {
         case ERROR:
+            persistQueuedActionStatus(action);
             final JpaTarget target = DeploymentHelper.updateTargetInfo((JpaTarget) action.getTarget(),
                     TargetUpdateStatus.ERROR, false);
             handleErrorOnAction(action, target);
             break;
         case FINISHED:
+            persistQueuedActionStatus(action);
             handleFinishedAndStoreInTargetStatus(action);
             break;
         default:
             // information status entry - check for a potential DOS attack
             assertActionStatusQuota(action);
             assertActionStatusMessageQuota(actionStatus);
+
+            // intermediate status entries are persisted later on if
+            // configured so and the queue is not full. They are queued after
+            // the commit only, i.e. not on a rollback or retry.
+            if (actionStatusQueue != null && actionStatusQueue.remainingCapacity() > 0) {
+                final QueuedActionStatus queued = new QueuedActionStatus(action, actionStatus);
+                afterCommit.afterCommit(() -> queueActionStatus(queued));
+                LOG.debug("addUpdateActionStatus for action {} queued.", action.getId());
+                return action;
+            }
             break;
         }
 
@@ -617,6 +735,136 @@ public class JpaControllerManagement implements ControllerManagement {
         return actionRepository.save(action);
     }
 
+    private void queueActionStatus(final QueuedActionStatus queued) {
+        if (actionStatusQueue.offer(queued)) {
+            queuedActionStatusCount.merge(queued.getActionId(), 1, Integer::sum);
+            return;
+        }
+
+        // the queue became full in the meantime
+        persistActionStatusInNewTransaction(Collections.singletonList(queued));
+    }
+
+    private void dequeued(final QueuedActionStatus queued) {
+        queuedActionStatusCount.computeIfPresent(queued.getActionId(), (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Persists the intermediate {@link ActionStatus} entries of given action
+     * which are still queued in order to keep them in front of the final
+     * status entry. They are persisted in a transaction of their own as they
+     * have been accepted already, regardless of the final status. Entries
+     * which are flushed concurrently are committed before this method returns
+     * as both hold the flush lock.
+     */
+    private void persistQueuedActionStatus(final JpaAction action) {
+        if (actionStatusQueue == null) {
+            return;
+        }
+
+        synchronized (actionStatusFlushLock) {
+            final List<QueuedActionStatus> queued = new ArrayList<>();
+            actionStatusQueue.removeIf(status -> {
+                if (status.getActionId() == action.getId()) {
+                    queued.add(status);
+                    return true;
+                }
+                return false;
+            });
+
+            if (!queued.isEmpty()) {
+                queued.forEach(this::dequeued);
+                persistActionStatusInNewTransaction(queued);
+            }
+        }
+    }
+
+    private void persistActionStatusInNewTransaction(final List<QueuedActionStatus> statuses) {
+        try {
+            runInNewTransaction("persistActionStatus", status -> persistActionStatus(statuses));
+        } catch (final RuntimeException ex) {
+            LOG.error("Failed to persist {} queued action status entries.", statuses.size(), ex);
+        }
+    }
+
+    /**
+     * Flushes the action status queue on shutdown.
+     */
+    public void shutdown() {
+        if (actionStatusQueue != null) {
+            flushActionStatusQueue();
+        }
+    }
+
+    /**
+     * Flush the action status queue by means to persisting the queued
+     * intermediate {@link ActionStatus} entries in one transaction per tenant.
+     */
+    private void flushActionStatusQueue() {
+        LOG.debug("Run flushActionStatusQueue.");
+
+        if (actionStatusQueue.isEmpty()) {
+            return;
+        }
+
+        // drained and persisted under the same lock, see
+        // persistQueuedActionStatus
+        synchronized (actionStatusFlushLock) {
+            flushActionStatusQueueLocked();
+        }
+    }
+
+    private void flushActionStatusQueueLocked() {
+        final List<QueuedActionStatus> statuses = new ArrayList<>(actionStatusQueue.size());
+        final int drained = actionStatusQueue.drainTo(statuses);
+
+        if (drained <= 0) {
+            return;
+        }
+        statuses.forEach(this::dequeued);
+
+        // a failure of one tenant does not affect the others
+        statuses.stream().collect(Collectors.groupingBy(QueuedActionStatus::getTenant))
+                .forEach((tenant, tenantStatuses) -> {
+                    final TransactionCallback<Void> createTransaction = status -> persistActionStatus(
+                            tenantStatuses);
+                    try {
+                        tenantAware.runAsTenant(tenant,
+                                () -> runInNewTransaction("flushActionStatusQueue", createTransaction));
+                    } catch (final RuntimeException ex) {
+                        LOG.error("Failed to persist {} queued action status entries of tenant {}.",
+                                tenantStatuses.size(), tenant, ex);
+                    }
+                });
+
+        LOG.debug("{} action status entries flushed.", drained);
+    }
+
+    private Void persistActionStatus(final List<QueuedActionStatus> statuses) {
+        final List<Long> actionIds = statuses.stream().map(QueuedActionStatus::getActionId).distinct()
+                .collect(Collectors.toList());
+
+        final Map<Long, JpaAction> actions = Lists.partition(actionIds, Constants.MAX_ENTRIES_IN_STATEMENT).stream()
+                .flatMap(chunk -> StreamSupport.stream(actionRepository.findAll(chunk).spliterator(), false))
+                .collect(Collectors.toMap(JpaAction::getId, Function.identity()));
+
+        final List<JpaActionStatus> toPersist = statuses.stream().filter(status -> {
+            final JpaAction action = actions.get(status.getActionId());
+            if (action == null) {
+                LOG.debug("Action {} has been deleted, queued status {} is dropped.", status.getActionId(),
+                        status.getActionStatus().getStatus());
+                return false;
+            }
+            status.getActionStatus().setAction(action);
+            return true;
+        }).map(QueuedActionStatus::getActionStatus).collect(Collectors.toList());
+
+        // persisted in one transaction to make use of the JDBC batch writing
+        actionStatusRepository.save(toPersist);
+
+        return null;
+    }
+
     private void handleErrorOnAction(final JpaAction mergedAction, final JpaTarget mergedTarget) {
         mergedAction.setActive(false);
         mergedAction.setStatus(Status.ERROR);
@@ -626,8 +874,10 @@ public class JpaControllerManagement implements ControllerManagement {
     }
 
     private void assertActionStatusQuota(final JpaAction action) {
+        // the queued entries count as well
         QuotaHelper.assertAssignmentQuota(action.getId(), 1, quotaManagement.getMaxStatusEntriesPerAction(),
-                ActionStatus.class, Action.class, actionStatusRepository::countByActionId);
+                ActionStatus.class, Action.class,
+                id -> actionStatusRepository.countByActionId(id) + queuedActionStatusCount.getOrDefault(id, 0));
     }
 
     private void handleFinishedAndStoreInTargetStatus(final JpaAction action) {
@@ -657,42 +907,143 @@ public class JpaControllerManagement implements ControllerManagement {
             ConcurrencyFailureException.class }, maxAttempts = Constants.TX_RT_MAX, backoff = @Backoff(delay = Constants.TX_RT_DELAY))
     public Target updateControllerAttributes(final String controllerId, final Map<String, String> data,
             final UpdateMode mode) {
-        final JpaTarget target = (JpaTarget) targetRepository.findByControllerId(controllerId)
-                .orElseThrow(() -> new EntityNotFoundException(Target.class, controllerId));
+        final JpaTarget target = targetRepository.findByControllerIdInForUpdate(Collections.singletonList(controllerId))
+                .stream().findFirst().orElseThrow(() -> new EntityNotFoundException(Target.class, controllerId));
 
-        // get the modifiable attribute map
-        final Map<String, String> controllerAttributes = target.getControllerAttributes();
+        updateAttributes(target, data, mode);
+
+        return target;
+    }
+
+    @Override
+    @Transactional
+    @Retryable(include = {
+            ConcurrencyFailureException.class }, maxAttempts = Constants.TX_RT_MAX, backoff = @Backoff(delay = Constants.TX_RT_DELAY))
+    public int updateControllerAttributes(final List<TargetAttributesUpdate> updates) {
+        final List<String> controllerIds = updates.stream().map(TargetAttributesUpdate::getControllerId).distinct()
+                .collect(Collectors.toList());
+
+        final Map<String, JpaTarget> targets = Lists.partition(controllerIds, Constants.MAX_ENTRIES_IN_STATEMENT)
+                .stream().flatMap(chunk -> targetRepository.findByControllerIdInForUpdate(chunk).stream())
+                .collect(Collectors.toMap(JpaTarget::getControllerId, Function.identity()));
+
+        // fail before anything is written
+        controllerIds.stream().filter(controllerId -> !targets.containsKey(controllerId)).findFirst()
+                .ifPresent(controllerId -> {
+                    throw new EntityNotFoundException(Target.class, controllerId);
+                });
+
+        int changed = 0;
+        for (final TargetAttributesUpdate update : updates) {
+            if (updateAttributes(targets.get(update.getControllerId()), update.getAttributes(), update.getMode())) {
+                changed++;
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * Updates the controller attributes of given target by writing only the
+     * inserted, changed and removed entries by native SQL. Neither the target
+     * nor its attribute collection is written by the entity manager in order
+     * to avoid raising the opt lock revision of the target.
+     *
+     * @return <code>true</code> if the target has been changed
+     */
+    private boolean updateAttributes(final JpaTarget target, final Map<String, String> data, final UpdateMode mode) {
+        final Map<String, String> current = new HashMap<>(target.getControllerAttributes());
+        final Map<String, String> updated = new HashMap<>(current);
 
         final UpdateMode updateMode = mode != null ? mode : UpdateMode.MERGE;
         switch (updateMode) {
         case REMOVE:
             // remove the addressed attributes
-            data.keySet().forEach(controllerAttributes::remove);
+            data.keySet().forEach(updated::remove);
             break;
         case REPLACE:
             // clear the attributes before adding the new attributes
-            controllerAttributes.clear();
-            controllerAttributes.putAll(data);
-            target.setRequestControllerAttributes(false);
+            updated.clear();
+            updated.putAll(data);
             break;
         case MERGE:
             // just merge the attributes in
-            controllerAttributes.putAll(data);
-            target.setRequestControllerAttributes(false);
+            updated.putAll(data);
             break;
         default:
             // unknown update mode
             throw new IllegalStateException("The update mode " + updateMode + " is not supported.");
         }
-        assertTargetAttributesQuota(target);
 
-        return targetRepository.save(target);
+        final boolean resetRequest = updateMode != UpdateMode.REMOVE && target.isRequestControllerAttributes();
+        if (!resetRequest && updated.equals(current)) {
+            return false;
+        }
+
+        assertTargetAttributesQuota(target.getId(), updated.size());
+
+        // the target is kept up to date for the caller but not written
+        entityManager.detach(target);
+        persistAttributeChanges(target.getId(), current, updated);
+        target.getControllerAttributes().clear();
+        target.getControllerAttributes().putAll(updated);
+
+        if (resetRequest) {
+            targetRepository.resetRequestControllerAttributes(target.getId());
+            target.setRequestControllerAttributes(false);
+            // the next poll must not request the attributes again
+            afterCommit.afterCommit(() -> targetSnapshotCache.evict(target.getControllerId()));
+        }
+
+        afterCommit.afterCommit(
+                () -> eventPublisher.publishEvent(new TargetUpdatedEvent(target, applicationContext.getId())));
+
+        return true;
+    }
+
+    private void persistAttributeChanges(final long targetId, final Map<String, String> current,
+            final Map<String, String> updated) {
+        final List<String> removed = current.keySet().stream().filter(key -> !updated.containsKey(key))
+                .collect(Collectors.toList());
+        Lists.partition(removed, Constants.MAX_ENTRIES_IN_STATEMENT).forEach(chunk -> {
+            final Query deleteQuery = entityManager.createNativeQuery(
+                    "DELETE FROM sp_target_attributes WHERE target_id = #targetId AND attribute_key IN ("
+                            + formatQueryInStatementParams(IntStream.range(0, chunk.size())
+                                    .mapToObj(i -> "key" + i).collect(Collectors.toList()))
+                            + ")");
+            deleteQuery.setParameter("targetId", targetId);
+            for (int i = 0; i < chunk.size(); i++) {
+                deleteQuery.setParameter("key" + i, chunk.get(i));
+            }
+            deleteQuery.executeUpdate();
+        });
+
+        updated.forEach((key, value) -> {
+            if (!current.containsKey(key)) {
+                executeAttributeStatement(
+                        "INSERT INTO sp_target_attributes (target_id, attribute_key, attribute_value) VALUES (#targetId, #key, #value)",
+                        targetId, key, value);
+            } else if (!Objects.equals(current.get(key), value)) {
+                executeAttributeStatement(
+                        "UPDATE sp_target_attributes SET attribute_value = #value WHERE target_id = #targetId AND attribute_key = #key",
+                        targetId, key, value);
+            }
+        });
     }
 
-    private void assertTargetAttributesQuota(final JpaTarget target) {
+    private void executeAttributeStatement(final String statement, final long targetId, final String key,
+            final String value) {
+        final Query query = entityManager.createNativeQuery(statement);
+        query.setParameter("targetId", targetId);
+        query.setParameter("key", key);
+        query.setParameter("value", value);
+        query.executeUpdate();
+    }
+
+    private void assertTargetAttributesQuota(final long targetId, final int attributes) {
         final int limit = quotaManagement.getMaxAttributeEntriesPerTarget();
-        QuotaHelper.assertAssignmentQuota(target.getId(), target.getControllerAttributes().size(), limit, "Attribute",
-                Target.class.getSimpleName(), null);
+        QuotaHelper.assertAssignmentQuota(targetId, attributes, limit, "Attribute", Target.class.getSimpleName(),
+                null);
     }
 
     @Override
@@ -787,6 +1138,32 @@ public class JpaControllerManagement implements ControllerManagement {
         return Optional.ofNullable(targetRepository.findOne(targetId));
     }
 
+    @Override
+    public Optional<TargetSnapshot> getSnapshotByControllerId(final String controllerId) {
+        final Optional<TargetSnapshot> cached = targetSnapshotCache.getByControllerId(controllerId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        final long evictionStamp = targetSnapshotCache.getEvictionStamp();
+        final Optional<TargetSnapshot> snapshot = targetRepository.findSnapshotByControllerId(controllerId);
+        snapshot.ifPresent(found -> targetSnapshotCache.putIfNotEvicted(found, evictionStamp));
+        return snapshot;
+    }
+
+    @Override
+    public Optional<TargetSnapshot> getSnapshot(final long targetId) {
+        final Optional<TargetSnapshot> cached = targetSnapshotCache.getById(targetId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        final long evictionStamp = targetSnapshotCache.getEvictionStamp();
+        final Optional<TargetSnapshot> snapshot = targetRepository.findSnapshotById(targetId);
+        snapshot.ifPresent(found -> targetSnapshotCache.putIfNotEvicted(found, evictionStamp));
+        return snapshot;
+    }
+
     @Override
     public Page<ActionStatus> findActionStatusByAction(final Pageable pageReq, final long actionId) {
         if (!actionRepository.exists(actionId)) {
@@ -835,62 +1212,29 @@ public class JpaControllerManagement implements ControllerManagement {
                         Collectors.mapping(o -> (SoftwareModuleMetadata) o[1], Collectors.toList())));
     }
 
-    private static class TargetPoll {
+    private static class QueuedActionStatus {
 
         private final String tenant;
-        private final String controllerId;
+        private final long actionId;
+        private final JpaActionStatus actionStatus;
 
-        TargetPoll(final Target target) {
-            this.tenant = target.getTenant();
-            this.controllerId = target.getControllerId();
+        QueuedActionStatus(final Action action, final JpaActionStatus actionStatus) {
+            this.tenant = action.getTenant();
+            this.actionId = action.getId();
+            this.actionStatus = actionStatus;
         }
 
         public String getTenant() {
             return tenant;
         }
 
-        public String getControllerId() {
-            return controllerId;
-        }
-
-        @Override
-        public int hashCode() {
-            final int prime = 31;
-            int result = 1;
-            result = prime * result + ((controllerId == null) ? 0 : controllerId.hashCode());
-            result = prime * result + ((tenant == null) ? 0 : tenant.hashCode());
-            return result;
+        public long getActionId() {
+            return actionId;
         }
 
-        @Override
-        public boolean equals(final Object obj) {
-            if (this == obj) {
-                return true;
-            }
-            if (obj == null) {
-                return false;
-            }
-            if (getClass() != obj.getClass()) {
-                return false;
-            }
-            final TargetPoll other = (TargetPoll) obj;
-            if (controllerId == null) {
-                if (other.controllerId != null) {
-                    return false;
-                }
-            } else if (!controllerId.equals(other.controllerId)) {
-                return false;
-            }
-            if (tenant == null) {
-                if (other.tenant != null) {
-                    return false;
-                }
-            } else if (!tenant.equals(other.tenant)) {
-                return false;
-            }
-            return true;
+        public JpaActionStatus getActionStatus() {
+            return actionStatus;
         }
-
     }
 
     /**
@@ -11,6 +11,7 @@ package org.eclipse.hawkbit.repository.jpa;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -254,77 +255,137 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         final Map<String, TargetWithActionType> targetsWithActionMap = targetsWithActionType.stream()
                 .collect(Collectors.toMap(TargetWithActionType::getControllerId, Function.identity()));
 
-        // split tIDs length into max entries in-statement because many database
-        // have constraint of max entries in in-statements e.g. Oracle with
-        // maximum 1000 elements, so we need to split the entries here and
-        // execute multiple statements we take the target only into account if
-        // the requested operation is no duplicate of a previous one
-        final List<JpaTarget> targets = assignmentStrategy.findTargetsForAssignment(controllerIDs, set.getId());
+        final boolean autoCloseActions = systemSecurityContext.runAsSystem(() -> tenantConfigurationManagement
+                .getConfigurationValue(TenantConfigurationKey.REPOSITORY_ACTIONS_AUTOCLOSE_ENABLED, Boolean.class)
+                .getValue());
+
+        // set assigned distribution set and TargetUpdateStatus
+        final String currentUser;
+        if (auditorProvider != null) {
+            currentUser = auditorProvider.getCurrentAuditor();
+        } else {
+            currentUser = null;
+        }
+
+        // split controllerIDs length into max entries in-statement because
+        // many database have constraint of max entries in in-statements e.g.
+        // Oracle with maximum 1000 elements. Every chunk is assigned by set
+        // based statements on the target IDs and flushed on its own so that
+        // only the IDs of the assigned targets and created actions are kept
+        // for the whole assignment.
+        final AssignmentChunkResult result = new AssignmentChunkResult();
+        Lists.partition(controllerIDs, Constants.MAX_ENTRIES_IN_STATEMENT)
+                .forEach(chunk -> assignDistributionSetToTargetChunk(set, chunk, targetsWithActionMap, actionMessage,
+                        assignmentStrategy, autoCloseActions, currentUser, result));
 
+        // detaching as it is not necessary to persist the set itself
+        entityManager.detach(set);
+
+        assignmentStrategy.sendDistributionSetAssignedEvent(set, result.controllerIdsToActionIds,
+                result.maintenanceWindowAvailable);
+
+        return new DistributionSetAssignmentResult(result.assignedTargets, result.assignedTargets.size(),
+                controllerIDs.size() - result.assignedTargets.size(), result.actionIds, targetManagement);
+    }
+
+    /**
+     * Assigns the {@link DistributionSet} to a chunk of up to
+     * {@link Constants#MAX_ENTRIES_IN_STATEMENT} targets. The actions are
+     * canceled and the targets are updated by statements on all target IDs of
+     * the chunk at once, the quota is checked with one aggregate query for the
+     * chunk. The new actions and their initial status are flushed together and
+     * detached afterwards so that the persistence context does not grow with
+     * the number of assigned targets.
+     */
+    // too many parameters, they are the state of the assignment which is
+    // shared by all chunks
+    @SuppressWarnings("squid:S00107")
+    private void assignDistributionSetToTargetChunk(final JpaDistributionSet set, final List<String> controllerIDs,
+            final Map<String, TargetWithActionType> targetsWithActionMap, final String actionMessage,
+            final AbstractDsAssignmentStrategy assignmentStrategy, final boolean autoCloseActions,
+            final String currentUser, final AssignmentChunkResult result) {
+
+        // we take the target only into account if the requested operation is
+        // no duplicate of a previous one
+        final List<JpaTarget> targets = assignmentStrategy.findTargetsForAssignment(controllerIDs, set.getId());
         if (targets.isEmpty()) {
-            // detaching as it is not necessary to persist the set itself
-            entityManager.detach(set);
-            // return with nothing as all targets had the DS already assigned
-            return new DistributionSetAssignmentResult(Collections.emptyList(), 0, targetsWithActionType.size(),
-                    Collections.emptyList(), targetManagement);
+            return;
         }
 
-        final List<List<Long>> targetIds = Lists.partition(
-                targets.stream().map(Target::getId).collect(Collectors.toList()), Constants.MAX_ENTRIES_IN_STATEMENT);
+        final List<Long> targetIds = targets.stream().map(Target::getId).collect(Collectors.toList());
+        final List<List<Long>> targetIdChunks = Collections.singletonList(targetIds);
 
         // override all active actions and set them into canceling state, we
         // need to remember which one we have been switched to canceling state
         // because for targets which we have changed to canceling we don't want
         // to publish the new action update event.
-        final Set<Long> targetIdsCancellList;
-
-        if (systemSecurityContext.runAsSystem(() -> tenantConfigurationManagement
-                .getConfigurationValue(TenantConfigurationKey.REPOSITORY_ACTIONS_AUTOCLOSE_ENABLED, Boolean.class)
-                .getValue())) {
-            targetIdsCancellList = Collections.emptySet();
-            assignmentStrategy.closeActiveActions(targetIds);
+        final Set<Long> targetIdsCancelList;
+        if (autoCloseActions) {
+            targetIdsCancelList = Collections.emptySet();
+            assignmentStrategy.closeActiveActions(targetIdChunks);
         } else {
-            targetIdsCancellList = assignmentStrategy.cancelActiveActions(targetIds);
+            targetIdsCancelList = assignmentStrategy.cancelActiveActions(targetIdChunks);
         }
 
         // cancel all scheduled actions which are in-active, these actions were
         // not active before and the manual assignment which has been done
         // cancels the
-        targetIds.forEach(tIds -> actionRepository.switchStatus(Status.CANCELED, tIds, false, Status.SCHEDULED));
+        actionRepository.switchStatus(Status.CANCELED, targetIds, false, Status.SCHEDULED);
 
-        // set assigned distribution set and TargetUpdateStatus
-        final String currentUser;
-        if (auditorProvider != null) {
-            currentUser = auditorProvider.getCurrentAuditor();
-        } else {
-            currentUser = null;
-        }
+        assignmentStrategy.updateTargetStatus(set, targetIdChunks, currentUser);
 
-        assignmentStrategy.updateTargetStatus(set, targetIds, currentUser);
+        // enforce the 'max actions per target' quota
+        assignmentStrategy.assertActionsPerTargetQuota(targetIds);
 
-        final Map<String, JpaAction> targetIdsToActions = targets.stream()
-                .map(t -> actionRepository.save(assignmentStrategy.createTargetAction(targetsWithActionMap, t, set)))
-                .collect(Collectors.toMap(a -> a.getTarget().getControllerId(), Function.identity()));
+        // new entities are persisted as they are, i.e. the lists contain the
+        // managed entities after save
+        final List<JpaAction> actions = targets.stream()
+                .map(target -> assignmentStrategy.createTargetAction(targetsWithActionMap, target, set))
+                .collect(Collectors.toList());
+        actionRepository.save(actions);
 
         // create initial action status when action is created so we remember
         // the initial running status because we will change the status
         // of the action itself and with this action status we have a nicer
         // action history.
-        actionStatusRepository.save(targetIdsToActions.values().stream()
+        final List<JpaActionStatus> actionStatus = actions.stream()
                 .map(action -> assignmentStrategy.createActionStatus(action, actionMessage))
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList());
+        actionStatusRepository.save(actionStatus);
 
-        // detaching as it is not necessary to persist the set itself
-        entityManager.detach(set);
-        // detaching as the entity has been updated by the JPQL query above
+        // the IDs of the new actions are generated on flush
+        entityManager.flush();
+
+        if (result.actionIds.isEmpty()) {
+            result.maintenanceWindowAvailable = actions.get(0).isMaintenanceWindowAvailable();
+        }
+        actions.forEach(action -> {
+            final Target target = action.getTarget();
+            result.actionIds.add(action.getId());
+            if (!targetIdsCancelList.contains(target.getId())) {
+                result.controllerIdsToActionIds.put(target.getControllerId(), action.getId());
+            }
+        });
+        targets.forEach(target -> result.assignedTargets.add(target.getControllerId()));
+
+        // detaching as the entities are not needed anymore and the targets
+        // have been updated by the JPQL query above
+        actionStatus.forEach(entityManager::detach);
+        actions.forEach(entityManager::detach);
         targets.forEach(entityManager::detach);
 
-        assignmentStrategy.sendAssignmentEvents(set, targets, targetIdsCancellList, targetIdsToActions);
+        assignmentStrategy.sendTargetUpdatedEvents(set, targets);
+    }
 
-        return new DistributionSetAssignmentResult(
-                targets.stream().map(Target::getControllerId).collect(Collectors.toList()), targets.size(),
-                controllerIDs.size() - targets.size(), Lists.newArrayList(targetIdsToActions.values()),
-                targetManagement);
+    /**
+     * IDs collected over all chunks of an assignment.
+     */
+    private static final class AssignmentChunkResult {
+        private final List<String> assignedTargets = new ArrayList<>();
+        private final List<Long> actionIds = new ArrayList<>();
+        // in assignment order, which is kept by the assignment events
+        private final Map<String, Long> controllerIdsToActionIds = new LinkedHashMap<>();
+        private boolean maintenanceWindowAvailable = true;
     }
 
     /**
@@ -8,16 +8,22 @@
  */
 package org.eclipse.hawkbit.repository.jpa;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
 import javax.validation.ConstraintDeclarationException;
 import javax.validation.ValidationException;
 
@@ -47,6 +53,7 @@ import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
 import org.eclipse.hawkbit.repository.jpa.model.RolloutTargetGroup;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutGroupChangeTracker;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.RolloutGroupActionEvaluator;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.RolloutGroupConditionEvaluator;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
@@ -91,6 +98,7 @@ import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.AsyncResult;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Propagation;
@@ -100,7 +108,9 @@ import org.springframework.util.StringUtils;
 import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.validation.annotation.Validated;
 
+import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * JPA implementation of {@link RolloutManagement}.
@@ -152,15 +162,41 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
 
     private final Database database;
 
+    /**
+     * Executor to handle the rollouts of a tenant in parallel,
+     * <code>null</code> if they are handled sequentially.
+     */
+    private final ExecutorService rolloutHandlerExecutor;
+
+    /**
+     * Tracker of the changed rollout groups, <code>null</code> if all running
+     * groups are evaluated on every run of the handler.
+     */
+    private final RolloutGroupChangeTracker changeTracker;
+
     JpaRolloutManagement(final TargetManagement targetManagement, final DeploymentManagement deploymentManagement,
             final RolloutGroupManagement rolloutGroupManagement,
             final DistributionSetManagement distributionSetManagement, final ApplicationContext context,
             final ApplicationEventPublisher eventPublisher, final VirtualPropertyReplacer virtualPropertyReplacer,
             final PlatformTransactionManager txManager, final TenantAware tenantAware, final LockRegistry lockRegistry,
-            final Database database) {
+            final Database database, final int rolloutHandlerThreads, final RolloutGroupChangeTracker changeTracker) {
         super(targetManagement, deploymentManagement, rolloutGroupManagement, distributionSetManagement, context,
                 eventPublisher, virtualPropertyReplacer, txManager, tenantAware, lockRegistry);
         this.database = database;
+        this.rolloutHandlerExecutor = rolloutHandlerThreads > 1
+                ? new DelegatingSecurityContextExecutorService(Executors.newFixedThreadPool(rolloutHandlerThreads,
+                        new ThreadFactoryBuilder().setNameFormat("rollout-handler-%d").setDaemon(true).build()))
+                : null;
+        this.changeTracker = changeTracker;
+    }
+
+    /**
+     * Stops the parallel handling of rollouts.
+     */
+    public void shutdown() {
+        if (rolloutHandlerExecutor != null) {
+            rolloutHandlerExecutor.shutdownNow();
+        }
     }
 
     @Override
@@ -397,12 +433,20 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         try {
 
             long targetsLeftToAdd = expectedInGroup - currentlyInGroup;
+            long lastTargetId = 0;
 
             do {
-                // Add up to TRANSACTION_TARGETS of the left targets
-                // In case a TransactionException is thrown this loop aborts
-                targetsLeftToAdd -= assignTargetsToGroupInNewTransaction(rollout, group, groupTargetFilter,
-                        Math.min(TRANSACTION_TARGETS, targetsLeftToAdd));
+                // Add up to TRANSACTION_TARGETS of the left targets, every
+                // transaction continues after the last target of the previous
+                // one. In case a TransactionException is thrown this loop
+                // aborts
+                final Slice<Target> targets = assignTargetsToGroupInNewTransaction(rollout, group, groupTargetFilter,
+                        lastTargetId, Math.min(TRANSACTION_TARGETS, targetsLeftToAdd));
+                if (!targets.hasContent()) {
+                    break;
+                }
+                targetsLeftToAdd -= targets.getNumberOfElements();
+                lastTargetId = getLastTargetId(targets);
             } while (targetsLeftToAdd > 0);
 
             group.setStatus(RolloutGroupStatus.READY);
@@ -416,24 +460,56 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         }
     }
 
-    private Long assignTargetsToGroupInNewTransaction(final JpaRollout rollout, final RolloutGroup group,
-            final String targetFilter, final long limit) {
+    private Slice<Target> assignTargetsToGroupInNewTransaction(final JpaRollout rollout, final RolloutGroup group,
+            final String targetFilter, final long lastTargetId, final long limit) {
 
         return runInNewTransaction("assignTargetsToRolloutGroup", status -> {
-            final PageRequest pageRequest = new PageRequest(0, Math.toIntExact(limit));
             final List<Long> readyGroups = RolloutHelper.getGroupsByStatusIncludingGroup(rollout.getRolloutGroups(),
                     RolloutGroupStatus.READY, group);
-            final Page<Target> targets = targetManagement.findByTargetFilterQueryAndNotInRolloutGroups(pageRequest,
-                    readyGroups, targetFilter);
+            final Slice<Target> targets = targetManagement.findByTargetFilterQueryAndNotInRolloutGroupsAfterId(
+                    lastTargetId, Math.toIntExact(limit), readyGroups, targetFilter);
 
             createAssignmentOfTargetsToGroup(targets, group);
 
-            return Long.valueOf(targets.getNumberOfElements());
+            return targets;
         });
     }
 
-    private void createAssignmentOfTargetsToGroup(final Page<Target> targets, final RolloutGroup group) {
-        targets.forEach(target -> rolloutTargetGroupRepository.save(new RolloutTargetGroup(group, target)));
+    private static long getLastTargetId(final Slice<Target> targets) {
+        return targets.getContent().get(targets.getNumberOfElements() - 1).getId();
+    }
+
+    /**
+     * Assigns the targets to the group by native bulk inserts, i.e. one
+     * statement per chunk of targets instead of one persisted
+     * {@link RolloutTargetGroup} entity per target.
+     */
+    private void createAssignmentOfTargetsToGroup(final Slice<Target> targets, final RolloutGroup group) {
+        final List<Long> targetIds = targets.getContent().stream().map(Target::getId).collect(Collectors.toList());
+        Lists.partition(targetIds, Constants.MAX_ENTRIES_IN_STATEMENT - 1)
+                .forEach(chunk -> insertRolloutTargetGroups(group.getId(), chunk));
+    }
+
+    private void insertRolloutTargetGroups(final Long groupId, final List<Long> targetIds) {
+        final List<String> targetIdParams = new ArrayList<>(targetIds.size());
+        for (int i = 0; i < targetIds.size(); i++) {
+            targetIdParams.add("tid" + i);
+        }
+
+        final Query insertQuery = entityManager
+                .createNativeQuery("INSERT INTO sp_rollouttargetgroup (rolloutGroup_Id, target_id) SELECT #groupId, id"
+                        + " FROM sp_target WHERE id IN (#" + Joiner.on(",#").join(targetIdParams) + ")");
+
+        insertQuery.setParameter("groupId", groupId);
+        for (int i = 0; i < targetIds.size(); i++) {
+            insertQuery.setParameter(targetIdParams.get(i), targetIds.get(i));
+        }
+
+        final int inserted = insertQuery.executeUpdate();
+        if (inserted < targetIds.size()) {
+            LOGGER.warn("Targets could not be assigned completely to rollout group {} ({} instead of {}).", groupId,
+                    inserted, targetIds.size());
+        }
     }
 
     @Override
@@ -522,12 +598,16 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
     private long createActionsForRolloutGroup(final Rollout rollout, final RolloutGroup group) {
         long totalActionsCreated = 0;
         try {
-            long actionsCreated;
+            long lastTargetId = 0;
+            Slice<Target> targets;
             do {
-                actionsCreated = createActionsForTargetsInNewTransaction(rollout.getId(), group.getId(),
+                targets = createActionsForTargetsInNewTransaction(rollout.getId(), group.getId(), lastTargetId,
                         TRANSACTION_TARGETS);
-                totalActionsCreated += actionsCreated;
-            } while (actionsCreated > 0);
+                if (targets.hasContent()) {
+                    totalActionsCreated += targets.getNumberOfElements();
+                    lastTargetId = getLastTargetId(targets);
+                }
+            } while (targets.hasNext());
 
         } catch (final TransactionException e) {
             LOGGER.warn("Transaction assigning Targets to RolloutGroup failed", e);
@@ -536,9 +616,9 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         return totalActionsCreated;
     }
 
-    private Long createActionsForTargetsInNewTransaction(final long rolloutId, final long groupId, final int limit) {
+    private Slice<Target> createActionsForTargetsInNewTransaction(final long rolloutId, final long groupId,
+            final long lastTargetId, final int limit) {
         return runInNewTransaction("createActionsForTargets", status -> {
-            final PageRequest pageRequest = new PageRequest(0, limit);
             final Rollout rollout = rolloutRepository.findOne(rolloutId);
             final RolloutGroup group = rolloutGroupRepository.findOne(groupId);
 
@@ -546,12 +626,13 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
             final ActionType actionType = rollout.getActionType();
             final long forceTime = rollout.getForcedTime();
 
-            final Page<Target> targets = targetManagement.findByInRolloutGroupWithoutAction(pageRequest, groupId);
-            if (targets.getTotalElements() > 0) {
+            final Slice<Target> targets = targetManagement.findByInRolloutGroupWithoutActionAfterId(lastTargetId,
+                    limit, groupId);
+            if (targets.hasContent()) {
                 createScheduledAction(targets.getContent(), distributionSet, actionType, forceTime, rollout, group);
             }
 
-            return Long.valueOf(targets.getNumberOfElements());
+            return targets;
         });
     }
 
@@ -569,10 +650,8 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         // created.
         final List<Long> targetIds = targets.stream().map(Target::getId).collect(Collectors.toList());
         actionRepository.switchStatus(Action.Status.CANCELED, targetIds, false, Action.Status.SCHEDULED);
+        assertActionsPerTargetQuota(targetIds, 1);
         targets.forEach(target -> {
-
-            assertActionsPerTargetQuota(target, 1);
-
             final JpaAction action = new JpaAction();
             action.setTarget(target);
             action.setActive(false);
@@ -619,7 +698,7 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         rolloutRepository.save(rollout);
     }
 
-    private void handleRunningRollout(final JpaRollout rollout) {
+    private void handleRunningRollout(final JpaRollout rollout, final boolean fullEvaluation) {
         LOGGER.debug("handleRunningRollout called for rollout {}", rollout.getId());
 
         final List<JpaRolloutGroup> rolloutGroupsRunning = rolloutGroupRepository.findByRolloutAndStatus(rollout,
@@ -632,8 +711,17 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
             // to find the latest group which
             executeLatestRolloutGroup(rollout);
         } else {
-            LOGGER.debug("Rollout {} has {} running groups", rollout.getId(), rolloutGroupsRunning.size());
-            executeRolloutGroups(rollout, rolloutGroupsRunning);
+            final List<JpaRolloutGroup> rolloutGroupsToEvaluate = rolloutGroupsRunning.stream()
+                    .filter(rolloutGroup -> isEvaluationDue(rolloutGroup, fullEvaluation))
+                    .collect(Collectors.toList());
+            if (rolloutGroupsToEvaluate.isEmpty()) {
+                LOGGER.debug("Rollout {} has no changed running groups", rollout.getId());
+                return;
+            }
+
+            LOGGER.debug("Rollout {} has {} running groups to evaluate", rollout.getId(),
+                    rolloutGroupsToEvaluate.size());
+            executeRolloutGroups(rollout, rolloutGroupsToEvaluate);
         }
 
         if (isRolloutComplete(rollout)) {
@@ -643,6 +731,10 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         }
     }
 
+    private boolean isEvaluationDue(final JpaRolloutGroup rolloutGroup, final boolean fullEvaluation) {
+        return fullEvaluation || changeTracker.consumeChange(rolloutGroup.getTenant(), rolloutGroup.getId());
+    }
+
     private void executeRolloutGroups(final JpaRollout rollout, final List<JpaRolloutGroup> rolloutGroups) {
         for (final JpaRolloutGroup rolloutGroup : rolloutGroups) {
 
@@ -768,12 +860,16 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
     public void handleRollouts() {
         final List<Long> rollouts = rolloutRepository.findByStatusIn(ACTIVE_ROLLOUTS);
 
+        final String tenant = tenantAware.getCurrentTenant();
+
         if (rollouts.isEmpty()) {
+            // the events of finished rollouts must not pile up
+            if (changeTracker != null) {
+                changeTracker.reset(tenant);
+            }
             return;
         }
 
-        final String tenant = tenantAware.getCurrentTenant();
-
         final String handlerId = tenant + "-rollout";
         final Lock lock = lockRegistry.obtain(handlerId);
         if (!lock.tryLock()) {
@@ -781,14 +877,38 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         }
 
         try {
-            rollouts.forEach(rolloutId -> runInNewTransaction(handlerId + "-" + rolloutId,
-                    status -> executeFittingHandler(rolloutId)));
+            // without tracker every run evaluates all running groups
+            final boolean fullEvaluation = changeTracker == null || changeTracker.startFullEvaluationIfDue(tenant);
+
+            if (rolloutHandlerExecutor == null || rollouts.size() == 1) {
+                rollouts.forEach(rolloutId -> runInNewTransaction(handlerId + "-" + rolloutId,
+                        status -> executeFittingHandler(rolloutId, fullEvaluation)));
+            } else {
+                // the rollouts are independent of each other, the lock of the
+                // tenant is held until all of them are handled
+                rollouts.stream()
+                        .map(rolloutId -> rolloutHandlerExecutor
+                                .submit(() -> runInNewTransaction(handlerId + "-" + rolloutId,
+                                        status -> executeFittingHandler(rolloutId, fullEvaluation))))
+                        .collect(Collectors.toList()).forEach(JpaRolloutManagement::awaitHandler);
+            }
         } finally {
             lock.unlock();
         }
     }
 
-    private long executeFittingHandler(final Long rolloutId) {
+    private static void awaitHandler(final Future<Long> handler) {
+        try {
+            handler.get();
+        } catch (final InterruptedException e) {
+            LOGGER.warn("Interrupted while waiting for the rollout handler", e);
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            LOGGER.error("Rollout handler failed", e.getCause());
+        }
+    }
+
+    private long executeFittingHandler(final Long rolloutId, final boolean fullEvaluation) {
         LOGGER.debug("handle rollout {}", rolloutId);
         final JpaRollout rollout = rolloutRepository.findOne(rolloutId);
 
@@ -806,7 +926,7 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
             handleStartingRollout(rollout);
             break;
         case RUNNING:
-            handleRunningRollout(rollout);
+            handleRunningRollout(rollout, fullEvaluation);
             break;
         default:
             LOGGER.error("Rollout in status {} not supposed to be handled!", rollout.getStatus());
@@ -1080,16 +1200,17 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
 
     /**
      * Enforces the quota defining the maximum number of {@link Action}s per
-     * {@link Target}.
+     * {@link Target} for all given targets with one aggregate query per chunk
+     * of targets.
      * 
-     * @param target
-     *            The target
+     * @param targetIds
+     *            The IDs of the targets
      * @param requested
-     *            number of actions to check
+     *            number of actions to check per target
      */
-    private void assertActionsPerTargetQuota(final Target target, final int requested) {
-        final int quota = quotaManagement.getMaxActionsPerTarget();
-        QuotaHelper.assertAssignmentQuota(target.getId(), requested, quota, Action.class, Target.class,
+    private void assertActionsPerTargetQuota(final List<Long> targetIds, final int requested) {
+        QuotaHelper.assertAssignmentQuota(targetIds, requested, quotaManagement.getMaxActionsPerTarget(),
+                Action.class, Target.class, actionRepository::findTargetIdsWithMoreActionsThan,
                 actionRepository::countByTargetId);
     }
 
@@ -58,6 +58,7 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.SliceImpl;
@@ -536,6 +537,76 @@ public class JpaTargetManagement implements TargetManagement {
                 pageRequest);
     }
 
+    @Override
+    public Slice<Target> findByTargetFilterQueryAndNonDSAfterId(final long lastId, final int limit,
+            final long distributionSetId, final String targetFilterQuery) {
+        throwEntityNotFoundIfDsDoesNotExist(distributionSetId);
+
+        final Specification<JpaTarget> spec = RSQLUtility.parse(targetFilterQuery, TargetFields.class,
+                virtualPropertyReplacer, database);
+
+        return findTargetsBySpecAfterId(Arrays.asList(spec,
+                TargetSpecifications.hasNotDistributionSetInActions(distributionSetId)), lastId, limit);
+    }
+
+    @Override
+    public boolean isTargetMatchingQueryAndNonDS(final long targetId, final long distributionSetId,
+            final String targetFilterQuery) {
+        throwEntityNotFoundIfDsDoesNotExist(distributionSetId);
+
+        final Specification<JpaTarget> spec = RSQLUtility.parse(targetFilterQuery, TargetFields.class,
+                virtualPropertyReplacer, database);
+
+        return targetRepository.count(SpecificationsBuilder.combineWithAnd(Arrays.asList(spec,
+                TargetSpecifications.hasNotDistributionSetInActions(distributionSetId),
+                TargetSpecifications.hasId(targetId)))) > 0;
+    }
+
+    @Override
+    public Slice<Target> findByTargetFilterQueryAndNotInRolloutGroupsAfterId(final long lastId, final int limit,
+            final Collection<Long> groups, final String targetFilterQuery) {
+
+        final Specification<JpaTarget> spec = RSQLUtility.parse(targetFilterQuery, TargetFields.class,
+                virtualPropertyReplacer, database);
+
+        return findTargetsBySpecAfterId(Arrays.asList(spec, TargetSpecifications.isNotInRolloutGroups(groups)),
+                lastId, limit);
+    }
+
+    @Override
+    public Slice<Target> findByInRolloutGroupWithoutActionAfterId(final long lastId, final int limit,
+            final long group) {
+        if (!rolloutGroupRepository.exists(group)) {
+            throw new EntityNotFoundException(RolloutGroup.class, group);
+        }
+
+        return findTargetsBySpecAfterId(
+                Collections.singletonList(TargetSpecifications.hasNoActionInRolloutGroup(group)), lastId, limit);
+    }
+
+    /**
+     * Keyset pagination: selects up to limit targets with an ID greater than
+     * lastId ordered by ID. One additional row is fetched to tell if there is
+     * a next slice, so neither an offset scan nor a count query is necessary.
+     */
+    private Slice<Target> findTargetsBySpecAfterId(final List<Specification<JpaTarget>> specList, final long lastId,
+            final int limit) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<JpaTarget> query = cb.createQuery(JpaTarget.class);
+        final Root<JpaTarget> targetRoot = query.from(JpaTarget.class);
+
+        final Predicate[] predicates = specificationsToPredicate(specList, targetRoot, query, cb);
+        query.where(cb.and(cb.and(predicates), cb.greaterThan(targetRoot.get(JpaTarget_.id), lastId)));
+        query.orderBy(cb.asc(targetRoot.get(JpaTarget_.id)));
+
+        final List<JpaTarget> resultList = entityManager.createQuery(query).setMaxResults(limit + 1)
+                .getResultList();
+        final boolean hasNext = resultList.size() > limit;
+        final List<Target> content = Collections
+                .unmodifiableList(hasNext ? resultList.subList(0, limit) : resultList);
+        return new SliceImpl<>(content, new PageRequest(0, Math.max(limit, 1)), hasNext);
+    }
+
     @Override
     public long countByRsqlAndNotInRolloutGroups(final Collection<Long> groups, final String targetFilterQuery) {
         final Specification<JpaTarget> spec = RSQLUtility.parse(targetFilterQuery, TargetFields.class,
@@ -50,15 +50,19 @@ public class OfflineDsAssignmentStrategy extends AbstractDsAssignmentStrategy {
     }
 
     @Override
-    void sendAssignmentEvents(final DistributionSet set, final List<JpaTarget> targets,
-            final Set<Long> targetIdsCancellList, final Map<String, JpaAction> targetIdsToActions) {
-
+    void sendTargetUpdatedEvents(final DistributionSet set, final List<JpaTarget> targets) {
         targets.forEach(target -> {
             target.setUpdateStatus(TargetUpdateStatus.IN_SYNC);
             sendTargetUpdatedEvent(target);
         });
     }
 
+    @Override
+    void sendDistributionSetAssignedEvent(final DistributionSet set, final Map<String, Long> controllerIdsToActionIds,
+            final boolean maintenanceWindowAvailable) {
+        // no assignment event in offline case as there is nothing to deploy
+    }
+
     @Override
     public List<JpaTarget> findTargetsForAssignment(final List<String> controllerIDs, final long setId) {
         return Lists.partition(controllerIDs, Constants.MAX_ENTRIES_IN_STATEMENT).stream()
@@ -22,10 +22,8 @@ import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.jpa.specifications.TargetSpecifications;
-import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
-import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 import org.eclipse.hawkbit.repository.model.TargetWithActionType;
 import org.springframework.context.ApplicationContext;
@@ -48,19 +46,18 @@ public class OnlineDsAssignmentStrategy extends AbstractDsAssignmentStrategy {
     }
 
     @Override
-    void sendAssignmentEvents(final DistributionSet set, final List<JpaTarget> targets,
-            final Set<Long> targetIdsCancellList, final Map<String, JpaAction> targetIdsToActions) {
-
-        final List<Action> actions = targets.stream().map(target -> {
+    void sendTargetUpdatedEvents(final DistributionSet set, final List<JpaTarget> targets) {
+        targets.forEach(target -> {
             target.setUpdateStatus(TargetUpdateStatus.PENDING);
             sendTargetUpdatedEvent(target);
+        });
+    }
 
-            return target;
-        }).filter(target -> !targetIdsCancellList.contains(target.getId())).map(Target::getControllerId)
-                .map(targetIdsToActions::get).collect(Collectors.toList());
-
-        sendTargetAssignDistributionSetEvent(set.getTenant(), set.getId(), actions);
-
+    @Override
+    void sendDistributionSetAssignedEvent(final DistributionSet set, final Map<String, Long> controllerIdsToActionIds,
+            final boolean maintenanceWindowAvailable) {
+        sendTargetAssignDistributionSetEvent(set.getTenant(), set.getId(), controllerIdsToActionIds,
+                maintenanceWindowAvailable);
     }
 
     @Override
@@ -15,6 +15,7 @@ import javax.persistence.EntityManager;
 import javax.sql.DataSource;
 
 import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
+import org.eclipse.hawkbit.repository.ArtifactCacheInvalidator;
 import org.eclipse.hawkbit.repository.ArtifactManagement;
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
@@ -22,6 +23,7 @@ import org.eclipse.hawkbit.repository.DistributionSetManagement;
 import org.eclipse.hawkbit.repository.DistributionSetTagManagement;
 import org.eclipse.hawkbit.repository.DistributionSetTypeManagement;
 import org.eclipse.hawkbit.repository.EntityFactory;
+import org.eclipse.hawkbit.repository.IdleTargetCache;
 import org.eclipse.hawkbit.repository.PropertiesQuotaManagement;
 import org.eclipse.hawkbit.repository.QuotaManagement;
 import org.eclipse.hawkbit.repository.RepositoryDefaultConfiguration;
@@ -34,6 +36,7 @@ import org.eclipse.hawkbit.repository.SoftwareModuleTypeManagement;
 import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.repository.TargetFilterQueryManagement;
 import org.eclipse.hawkbit.repository.TargetManagement;
+import org.eclipse.hawkbit.repository.TargetSnapshotCache;
 import org.eclipse.hawkbit.repository.TargetTagManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
 import org.eclipse.hawkbit.repository.TenantStatsManagement;
@@ -50,6 +53,7 @@ import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
 import org.eclipse.hawkbit.repository.jpa.aspects.ExceptionMappingAspectHandler;
 import org.eclipse.hawkbit.repository.jpa.autoassign.AutoAssignChecker;
 import org.eclipse.hawkbit.repository.jpa.autoassign.AutoAssignScheduler;
+import org.eclipse.hawkbit.repository.jpa.autoassign.AutoAssignTargetListener;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaDistributionSetBuilder;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaDistributionSetTypeBuilder;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaRolloutBuilder;
@@ -64,6 +68,7 @@ import org.eclipse.hawkbit.repository.jpa.model.helper.EntityInterceptorHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.SecurityTokenGeneratorHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.SystemSecurityContextHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.TenantAwareHolder;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutGroupChangeTracker;
 import org.eclipse.hawkbit.repository.jpa.rollout.RolloutScheduler;
 import org.eclipse.hawkbit.repository.jpa.rsql.RsqlParserValidationOracle;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
@@ -88,6 +93,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.orm.jpa.JpaBaseConfiguration;
 import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
 import org.springframework.boot.orm.jpa.EntityScan;
+import org.springframework.cloud.bus.ServiceMatcher;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
@@ -153,6 +159,24 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
         return new RolloutStatusCache(tenantAware);
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    TargetSnapshotCache targetSnapshotCache(final TenantAware tenantAware) {
+        return new TargetSnapshotCache(tenantAware);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    IdleTargetCache idleTargetCache(final TenantAware tenantAware) {
+        return new IdleTargetCache(tenantAware);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    ArtifactCacheInvalidator artifactCacheInvalidator(final ArtifactRepository artifactRepository) {
+        return new ArtifactCacheInvalidator(artifactRepository);
+    }
+
     @Bean
     @ConditionalOnMissingBean
     ApplicationEventFilter applicationEventFilter(final RepositoryProperties repositoryProperties) {
@@ -552,17 +576,34 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
                 virtualPropertyReplacer, softwareModuleRepository, criteriaNoCountDao, properties.getDatabase());
     }
 
-    @Bean
+    @Bean(destroyMethod = "shutdown")
     @ConditionalOnMissingBean
     RolloutManagement rolloutManagement(final TargetManagement targetManagement,
             final DeploymentManagement deploymentManagement, final RolloutGroupManagement rolloutGroupManagement,
             final DistributionSetManagement distributionSetManagement, final ApplicationContext context,
             final ApplicationEventPublisher eventPublisher, final VirtualPropertyReplacer virtualPropertyReplacer,
             final PlatformTransactionManager txManager, final TenantAware tenantAware, final LockRegistry lockRegistry,
-            final JpaProperties properties) {
+            final JpaProperties properties, final RepositoryProperties repositoryProperties,
+            final ObjectProvider<RolloutGroupChangeTracker> changeTracker) {
         return new JpaRolloutManagement(targetManagement, deploymentManagement, rolloutGroupManagement,
                 distributionSetManagement, context, eventPublisher, virtualPropertyReplacer, txManager, tenantAware,
-                lockRegistry, properties.getDatabase());
+                lockRegistry, properties.getDatabase(), repositoryProperties.getRolloutHandlerThreads(),
+                changeTracker.getIfAvailable());
+    }
+
+    /**
+     * {@link RolloutGroupChangeTracker} bean if the rollouts are handled event
+     * driven.
+     *
+     * @param repositoryProperties
+     *            for the interval of the full evaluation
+     * @return a new {@link RolloutGroupChangeTracker}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.server.repository", name = "event-driven-rollout-handling")
+    RolloutGroupChangeTracker rolloutGroupChangeTracker(final RepositoryProperties repositoryProperties) {
+        return new RolloutGroupChangeTracker(repositoryProperties.getRolloutFullEvaluationInterval());
     }
 
     /**
@@ -608,20 +649,36 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
      *
      * @return a new {@link ControllerManagement}
      */
-    @Bean
+    @Bean(destroyMethod = "shutdown")
     @ConditionalOnMissingBean
     ControllerManagement controllerManagement(final ScheduledExecutorService executorService,
-            final RepositoryProperties repositoryProperties) {
-        return new JpaControllerManagement(executorService, repositoryProperties);
+            final RepositoryProperties repositoryProperties, final TargetPollQueue targetPollQueue) {
+        return new JpaControllerManagement(executorService, repositoryProperties, targetPollQueue);
+    }
+
+    /**
+     * {@link TargetPollQueue} bean.
+     *
+     * @param repositoryProperties
+     *            to configure the queue
+     * @return a new {@link TargetPollQueue}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    TargetPollQueue targetPollQueue(final RepositoryProperties repositoryProperties) {
+        return new TargetPollQueue(repositoryProperties.getPollPersistenceShards(),
+                repositoryProperties.getPollPersistenceQueueSize());
     }
 
     @Bean
     @ConditionalOnMissingBean
     ArtifactManagement artifactManagement(final LocalArtifactRepository localArtifactRepository,
             final SoftwareModuleRepository softwareModuleRepository, final ArtifactRepository artifactRepository,
-            final QuotaManagement quotaManagement, final TenantAware tenantAware) {
+            final QuotaManagement quotaManagement, final TenantAware tenantAware,
+            final ApplicationEventPublisher eventPublisher, final ApplicationContext applicationContext,
+            final AfterTransactionCommitExecutor afterCommit) {
         return new JpaArtifactManagement(localArtifactRepository, softwareModuleRepository, artifactRepository,
-                quotaManagement, tenantAware);
+                quotaManagement, tenantAware, eventPublisher, applicationContext, afterCommit);
     }
 
     /**
@@ -713,6 +770,37 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
         return new AutoAssignScheduler(systemManagement, systemSecurityContext, autoAssignChecker, lockRegistry);
     }
 
+    /**
+     * {@link AutoAssignTargetListener} bean if the auto assignment is event
+     * driven.
+     *
+     * @param autoAssignChecker
+     *            to check the changed targets
+     * @param systemSecurityContext
+     *            to run as system
+     * @param lockRegistry
+     *            to synchronize with the {@link AutoAssignScheduler}
+     * @param serviceMatcher
+     *            to check the targets changed on this node only
+     * @param autoAssignScheduler
+     *            which takes precedence over the listener
+     * @param repositoryProperties
+     *            for the queue size
+     * @return a new {@link AutoAssignTargetListener}
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.server.repository", name = "event-driven-auto-assignment")
+    AutoAssignTargetListener autoAssignTargetListener(final AutoAssignChecker autoAssignChecker,
+            final SystemSecurityContext systemSecurityContext, final LockRegistry lockRegistry,
+            final ObjectProvider<ServiceMatcher> serviceMatcher,
+            final ObjectProvider<AutoAssignScheduler> autoAssignScheduler,
+            final RepositoryProperties repositoryProperties) {
+        return new AutoAssignTargetListener(autoAssignChecker, systemSecurityContext, lockRegistry,
+                serviceMatcher.getIfAvailable(), autoAssignScheduler.getIfAvailable(),
+                repositoryProperties.getAutoAssignmentQueueSize());
+    }
+
     /**
      * {@link RolloutScheduler} bean.
      * 
@@ -725,6 +813,8 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
      *            to run the rollout handler
      * @param systemSecurityContext
      *            to run as system
+     * @param repositoryProperties
+     *            for the number of tenants handled in parallel
      * @return a new {@link RolloutScheduler} bean.
      */
     @Bean
@@ -732,7 +822,9 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
     @Profile("!test")
     @ConditionalOnProperty(prefix = "hawkbit.rollout.scheduler", name = "enabled", matchIfMissing = true)
     RolloutScheduler rolloutScheduler(final TenantAware tenantAware, final SystemManagement systemManagement,
-            final RolloutManagement rolloutManagement, final SystemSecurityContext systemSecurityContext) {
-        return new RolloutScheduler(systemManagement, rolloutManagement, systemSecurityContext);
+            final RolloutManagement rolloutManagement, final SystemSecurityContext systemSecurityContext,
+            final RepositoryProperties repositoryProperties) {
+        return new RolloutScheduler(systemManagement, rolloutManagement, systemSecurityContext,
+                repositoryProperties.getRolloutSchedulerThreads());
     }
 }
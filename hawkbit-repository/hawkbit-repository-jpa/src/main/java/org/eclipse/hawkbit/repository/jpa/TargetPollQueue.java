@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.hawkbit.repository.model.Target;
+
+/**
+ * Lock-free buffer of the {@link Target#getLastTargetQuery()} updates which are
+ * persisted lazily. The polls are striped over a fixed number of shards by
+ * controller ID, every shard holds a map per tenant of the controller ID to
+ * the time of its latest poll. Repeated polls of the same target are coalesced
+ * into one update until the shard is drained.
+ */
+public class TargetPollQueue {
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Long>>[] shards;
+    private final int maxSize;
+
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder polls = new LongAdder();
+    private final LongAdder persisted = new LongAdder();
+    private final AtomicLong lastFlushLatency = new AtomicLong();
+    private final AtomicLong maxFlushLatency = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param shardCount
+     *            number of shards which can be drained independently
+     * @param maxSize
+     *            maximum number of targets with pending polls
+     */
+    @SuppressWarnings("unchecked")
+    public TargetPollQueue(final int shardCount, final int maxSize) {
+        this.shards = new ConcurrentMap[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Records a poll of a target.
+     *
+     * @param tenant
+     *            of the target
+     * @param controllerId
+     *            of the target
+     * @param pollTime
+     *            time of the poll in milliseconds
+     * @return <code>true</code> if the poll has been recorded and
+     *         <code>false</code> if the queue is full and the poll has to be
+     *         persisted by the caller
+     */
+    public boolean offer(final String tenant, final String controllerId, final long pollTime) {
+        final ConcurrentMap<String, Long> tenantPolls = shards[shardOf(controllerId)].computeIfAbsent(tenant,
+                key -> new ConcurrentHashMap<>());
+
+        // insert or update in one atomic step so that a concurrent drain
+        // cannot remove the entry in between and the size stays exact
+        final boolean[] rejected = new boolean[1];
+        tenantPolls.compute(controllerId, (key, pending) -> {
+            if (pending != null) {
+                return Math.max(pending, pollTime);
+            }
+            if (size.get() >= maxSize) {
+                rejected[0] = true;
+                return null;
+            }
+            size.incrementAndGet();
+            return pollTime;
+        });
+
+        if (rejected[0]) {
+            return false;
+        }
+
+        polls.increment();
+        return true;
+    }
+
+    /**
+     * Removes all pending polls of the given shard. Polls which are recorded
+     * concurrently remain in the queue for the next drain.
+     *
+     * @param shard
+     *            to drain
+     * @return the pending polls per tenant, i.e. controller ID to poll time
+     */
+    public Map<String, Map<String, Long>> drain(final int shard) {
+        final ConcurrentMap<String, ConcurrentMap<String, Long>> tenants = shards[shard];
+        if (tenants.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, Map<String, Long>> drained = new HashMap<>();
+        tenants.forEach((tenant, tenantPolls) -> tenantPolls.forEach((controllerId, pollTime) -> {
+            if (tenantPolls.remove(controllerId, pollTime)) {
+                size.decrementAndGet();
+                drained.computeIfAbsent(tenant, key -> new HashMap<>()).put(controllerId, pollTime);
+            }
+        }));
+
+        return drained;
+    }
+
+    /**
+     * Records the statistics of a drained and persisted shard.
+     *
+     * @param persistedPolls
+     *            number of targets which have been updated
+     * @param latency
+     *            of the flush in milliseconds
+     */
+    public void flushed(final int persistedPolls, final long latency) {
+        persisted.add(persistedPolls);
+        lastFlushLatency.set(latency);
+        maxFlushLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * @return number of shards
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * @return number of targets with pending polls
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * @return number of recorded polls
+     */
+    public long getPolls() {
+        return polls.sum();
+    }
+
+    /**
+     * @return number of persisted target updates
+     */
+    public long getPersisted() {
+        return persisted.sum();
+    }
+
+    /**
+     * @return ratio of recorded polls to persisted target updates
+     */
+    public double getCoalescingRatio() {
+        final long persistedPolls = persisted.sum();
+        return persistedPolls == 0 ? 0 : (double) polls.sum() / persistedPolls;
+    }
+
+    /**
+     * @return duration of the last flush in milliseconds
+     */
+    public long getLastFlushLatency() {
+        return lastFlushLatency.get();
+    }
+
+    /**
+     * @return duration of the slowest flush in milliseconds
+     */
+    public long getMaxFlushLatency() {
+        return maxFlushLatency.get();
+    }
+
+    private int shardOf(final String controllerId) {
+        return Math.floorMod(controllerId.hashCode(), shards.length);
+    }
+}
@@ -14,17 +14,20 @@ import java.util.Map;
 import java.util.Optional;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Tag;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetSnapshot;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 import org.eclipse.hawkbit.repository.model.TenantAwareBaseEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -89,6 +92,52 @@ public interface TargetRepository extends BaseEntityRepository<JpaTarget, Long>,
      */
     Optional<Target> findByControllerId(String controllerID);
 
+    /**
+     * Loads the {@link TargetSnapshot} of the {@link Target} with given
+     * controller ID.
+     *
+     * @param controllerId
+     *            to search for
+     * @return found {@link TargetSnapshot}
+     */
+    @Query("SELECT NEW org.eclipse.hawkbit.repository.model.TargetSnapshot(t.id, t.controllerId, t.securityToken, t.address, t.updateStatus, ds.id, t.requestControllerAttributes) FROM JpaTarget t LEFT JOIN t.assignedDistributionSet ds WHERE t.controllerId = :controllerId")
+    Optional<TargetSnapshot> findSnapshotByControllerId(@Param("controllerId") String controllerId);
+
+    /**
+     * Loads the {@link TargetSnapshot} of the {@link Target} with given ID.
+     *
+     * @param targetId
+     *            to search for
+     * @return found {@link TargetSnapshot}
+     */
+    @Query("SELECT NEW org.eclipse.hawkbit.repository.model.TargetSnapshot(t.id, t.controllerId, t.securityToken, t.address, t.updateStatus, ds.id, t.requestControllerAttributes) FROM JpaTarget t LEFT JOIN t.assignedDistributionSet ds WHERE t.id = :targetId")
+    Optional<TargetSnapshot> findSnapshotById(@Param("targetId") Long targetId);
+
+    /**
+     * Loads the {@link Target}s with given controller IDs and locks them for
+     * the rest of the transaction in order to serialize concurrent updates of
+     * their controller attributes.
+     *
+     * @param controllerIds
+     *            to search for
+     * @return {@link List} of found {@link Target}s ordered by ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM JpaTarget t WHERE t.controllerId IN :controllerIds ORDER BY t.id")
+    List<JpaTarget> findByControllerIdInForUpdate(@Param("controllerIds") Collection<String> controllerIds);
+
+    /**
+     * Resets {@link JpaTarget#isRequestControllerAttributes()} without raising
+     * the opt lock revision of the target.
+     *
+     * @param targetId
+     *            to update
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JpaTarget t SET t.requestControllerAttributes = false WHERE t.id = :targetId")
+    void resetRequestControllerAttributes(@Param("targetId") Long targetId);
+
     @Query("SELECT t.controllerAttributes FROM JpaTarget t WHERE t.controllerId=:controllerId")
     Map<String, String> getControllerAttributes(@Param("controllerId") String controllerId);
 
@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.repository.jpa.autoassign;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,6 +18,8 @@ import org.eclipse.hawkbit.exception.AbstractServerRtException;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.TargetFilterQueryManagement;
 import org.eclipse.hawkbit.repository.TargetManagement;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.jpa.rsql.TargetFilterMatcher;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.RepositoryModelConstants;
@@ -27,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Isolation;
@@ -41,6 +45,11 @@ import org.springframework.transaction.support.TransactionTemplate;
  * queries are listed. For every target filter query (TFQ) the auto assign DS is
  * retrieved. All targets get listed per target filter query, that match the TFQ
  * and that don't have the auto assign DS in their action history.
+ *
+ * Single targets can be checked as well, e.g. when they are created or
+ * updated. The target filter queries are evaluated in memory first by means
+ * of {@link TargetFilterMatcher} so that only the matching ones are confirmed
+ * by the database.
  */
 public class AutoAssignChecker {
 
@@ -56,7 +65,8 @@ public class AutoAssignChecker {
 
     /**
      * Maximum for target filter queries with auto assign DS Maximum for targets
-     * that are fetched in one turn
+     * that are fetched in one turn. The targets are scanned by ID, i.e. every
+     * turn continues after the last target of the previous one.
      */
     private static final int PAGE_SIZE = 1000;
 
@@ -113,6 +123,66 @@ public class AutoAssignChecker {
 
     }
 
+    /**
+     * Checks all target filter queries with an auto assign distribution set
+     * against the given target only and assigns their DS to the target if it
+     * matches and does not have the DS yet.
+     *
+     * @param targetId
+     *            of the target to check
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void checkTarget(final long targetId) {
+        LOGGER.debug("Auto assigned check call for target {}", targetId);
+
+        final List<TargetFilterQuery> filterQueries = targetFilterQueryManagement
+                .findWithAutoAssignDS(new PageRequest(0, PAGE_SIZE)).getContent();
+        if (filterQueries.isEmpty()) {
+            return;
+        }
+
+        targetManagement.get(targetId).ifPresent(target -> filterQueries.stream()
+                .filter(filterQuery -> mayMatch((JpaTarget) target, filterQuery))
+                .forEach(filterQuery -> checkTargetAndAssignDS(target, filterQuery)));
+    }
+
+    private static boolean mayMatch(final JpaTarget target, final TargetFilterQuery targetFilterQuery) {
+        try {
+            return TargetFilterMatcher.mayMatch(target, targetFilterQuery.getQuery());
+        } catch (final AbstractServerRtException e) {
+            LOGGER.debug("Target filter query {} cannot be evaluated", targetFilterQuery.getId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Confirms that the target matches the target filter query and assigns the
+     * DS to it. Catches PersistenceException and own exceptions derived from
+     * AbstractServerRtException
+     *
+     * @param target
+     *            the target which may match
+     * @param targetFilterQuery
+     *            the target filter query
+     */
+    private void checkTargetAndAssignDS(final Target target, final TargetFilterQuery targetFilterQuery) {
+        try {
+            final Long dsId = targetFilterQuery.getAutoAssignDistributionSet().getId();
+            final String actionMessage = String.format(ACTION_MESSAGE, targetFilterQuery.getName());
+            transactionTemplate.execute(status -> {
+                if (targetManagement.isTargetMatchingQueryAndNonDS(target.getId(), dsId,
+                        targetFilterQuery.getQuery())) {
+                    deploymentManagement.assignDistributionSet(dsId,
+                            mapToTargetsWithActionType(Collections.singletonList(target)), actionMessage);
+                }
+                return null;
+            });
+        } catch (PersistenceException | AbstractServerRtException e) {
+            LOGGER.error("Error during auto assign check of target filter query " + targetFilterQuery.getId()
+                    + " for target " + target.getId(), e);
+        }
+    }
+
     /**
      * Fetches the distribution set, gets all controllerIds and assigns the DS
      * to them. Catches PersistenceException and own exceptions derived from
@@ -125,12 +195,12 @@ public class AutoAssignChecker {
         try {
             final DistributionSet distributionSet = targetFilterQuery.getAutoAssignDistributionSet();
 
-            int count;
+            long lastTargetId = 0;
             do {
 
-                count = runTransactionalAssignment(targetFilterQuery, distributionSet.getId());
+                lastTargetId = runTransactionalAssignment(targetFilterQuery, distributionSet.getId(), lastTargetId);
 
-            } while (count == PAGE_SIZE);
+            } while (lastTargetId > 0);
 
         } catch (PersistenceException | AbstractServerRtException e) {
             LOGGER.error("Error during auto assign check of target filter query " + targetFilterQuery.getId(), e);
@@ -139,47 +209,45 @@ public class AutoAssignChecker {
     }
 
     /**
-     * Runs one page of target assignments within a dedicated transaction
+     * Runs one slice of target assignments within a dedicated transaction
      *
      * @param targetFilterQuery
      *            the target filter query
      * @param dsId
      *            distribution set id to assign
-     * @return count of targets
+     * @param lastTargetId
+     *            ID of the last target of the previous slice
+     * @return ID of the last target of this slice or {@code 0} if there are
+     *         no further targets
      */
-    private int runTransactionalAssignment(final TargetFilterQuery targetFilterQuery, final Long dsId) {
+    private long runTransactionalAssignment(final TargetFilterQuery targetFilterQuery, final Long dsId,
+            final long lastTargetId) {
         final String actionMessage = String.format(ACTION_MESSAGE, targetFilterQuery.getName());
         return transactionTemplate.execute(status -> {
-            final List<TargetWithActionType> targets = getTargetsWithActionType(targetFilterQuery.getQuery(), dsId,
-                    PAGE_SIZE);
-            final int count = targets.size();
-            if (count > 0) {
-                deploymentManagement.assignDistributionSet(dsId, targets, actionMessage);
+            final Slice<Target> targets = targetManagement.findByTargetFilterQueryAndNonDSAfterId(lastTargetId,
+                    PAGE_SIZE, dsId, targetFilterQuery.getQuery());
+            if (!targets.hasContent()) {
+                return 0L;
             }
-            return count;
+
+            deploymentManagement.assignDistributionSet(dsId, mapToTargetsWithActionType(targets.getContent()),
+                    actionMessage);
+
+            return targets.hasNext() ? targets.getContent().get(targets.getNumberOfElements() - 1).getId() : 0L;
         });
     }
 
     /**
-     * Gets all matching targets with the designated action from the target
-     * management
+     * Maps the targets to targets with the designated action type.
      *
-     * @param targetFilterQuery
-     *            the query the targets have to match
-     * @param dsId
-     *            dsId the targets are not allowed to have in their action
-     *            history
-     * @param count
-     *            maximum amount of targets to retrieve
+     * @param targets
+     *            matching the target filter query that don't have the auto
+     *            assign DS in their action history
      * @return list of targets with action type
      */
-    private List<TargetWithActionType> getTargetsWithActionType(final String targetFilterQuery, final Long dsId,
-            final int count) {
-        final Page<Target> targets = targetManagement
-                .findByTargetFilterQueryAndNonDS(new PageRequest(0, count), dsId, targetFilterQuery);
-
-        return targets.getContent().stream().map(t -> new TargetWithActionType(t.getControllerId(),
-                Action.ActionType.FORCED, RepositoryModelConstants.NO_FORCE_TIME)).collect(Collectors.toList());
+    private static List<TargetWithActionType> mapToTargetsWithActionType(final List<Target> targets) {
+        return targets.stream().map(t -> new TargetWithActionType(t.getControllerId(), Action.ActionType.FORCED,
+                RepositoryModelConstants.NO_FORCE_TIME)).collect(Collectors.toList());
     }
 
 }
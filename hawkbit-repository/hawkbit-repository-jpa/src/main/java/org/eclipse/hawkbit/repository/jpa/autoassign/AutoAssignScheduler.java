@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.repository.jpa.autoassign;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 
 import org.eclipse.hawkbit.repository.SystemManagement;
@@ -19,12 +20,18 @@ import org.springframework.scheduling.annotation.Scheduled;
 
 /**
  * Scheduler to check target filters for auto assignment of distribution sets
+ *
+ * The scheduler takes precedence over the {@link AutoAssignTargetListener}: it
+ * waits for a running check of a single target and the listener does not
+ * start new checks while a scan is pending.
  */
 public class AutoAssignScheduler {
     private static final Logger LOGGER = LoggerFactory.getLogger(AutoAssignScheduler.class);
 
     private static final String PROP_SCHEDULER_DELAY_PLACEHOLDER = "${hawkbit.autoassign.scheduler.fixedDelay:2000}";
 
+    private static final long LOCK_TIMEOUT = TimeUnit.SECONDS.toMillis(1);
+
     private final SystemManagement systemManagement;
 
     private final SystemSecurityContext systemSecurityContext;
@@ -33,6 +40,8 @@ public class AutoAssignScheduler {
 
     private final LockRegistry lockRegistry;
 
+    private volatile boolean scanPending;
+
     /**
      * Instantiates a new AutoAssignScheduler
      * 
@@ -77,16 +86,34 @@ public class AutoAssignScheduler {
         // iterate through all tenants and execute the rollout check for
         // each tenant separately.
         final Lock lock = lockRegistry.obtain("autoassign");
-        if (!lock.tryLock()) {
-            return null;
-        }
-
+        scanPending = true;
         try {
-            systemManagement.forEachTenant(tenant -> autoAssignChecker.check());
+            // waits for the check of a single target by the listener but not
+            // for the scan of another node
+            if (!lock.tryLock(LOCK_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                return null;
+            }
+
+            try {
+                systemManagement.forEachTenant(tenant -> autoAssignChecker.check());
+            } finally {
+                lock.unlock();
+            }
+        } catch (final InterruptedException e) {
+            LOGGER.debug("Auto assign scheduler interrupted", e);
+            Thread.currentThread().interrupt();
         } finally {
-            lock.unlock();
+            scanPending = false;
         }
 
         return null;
     }
+
+    /**
+     * @return <code>true</code> if the scheduler waits for or runs a check of
+     *         all target filters
+     */
+    public boolean isScanPending() {
+        return scanPending;
+    }
 }
@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.autoassign;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.eclipse.hawkbit.repository.event.remote.RemoteIdEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.bus.ServiceMatcher;
+import org.springframework.context.event.EventListener;
+import org.springframework.integration.support.locks.LockRegistry;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Checks the auto assignments of created and updated targets immediately
+ * instead of waiting for the next run of the {@link AutoAssignScheduler}. The
+ * checks run in a dedicated thread in order not to delay the transaction that
+ * changed the target, e.g. the registration of a controller.
+ *
+ * Only the node on which the target changed checks it. Changes which cannot be
+ * checked, e.g. if the queue is full or the periodic check holds the lock, are
+ * left to the {@link AutoAssignScheduler}. The scheduler of this node takes
+ * precedence, i.e. no target is checked while it waits for or runs a check
+ * of all target filters.
+ */
+public class AutoAssignTargetListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AutoAssignTargetListener.class);
+
+    private static final long LOCK_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+
+    private final AutoAssignChecker autoAssignChecker;
+    private final SystemSecurityContext systemSecurityContext;
+    private final LockRegistry lockRegistry;
+    private final ServiceMatcher serviceMatcher;
+    private final AutoAssignScheduler autoAssignScheduler;
+    private final ExecutorService executor;
+
+    private final Set<TargetKey> pendingTargets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor.
+     *
+     * @param autoAssignChecker
+     *            to check the targets
+     * @param systemSecurityContext
+     *            to run the checks as system
+     * @param lockRegistry
+     *            to synchronize with the periodic check
+     * @param serviceMatcher
+     *            to ignore the events of other nodes, <code>null</code> if
+     *            the events are not distributed
+     * @param autoAssignScheduler
+     *            which takes precedence, <code>null</code> if the periodic
+     *            check is disabled on this node
+     * @param queueSize
+     *            maximum number of targets waiting for the check
+     */
+    public AutoAssignTargetListener(final AutoAssignChecker autoAssignChecker,
+            final SystemSecurityContext systemSecurityContext, final LockRegistry lockRegistry,
+            final ServiceMatcher serviceMatcher, final AutoAssignScheduler autoAssignScheduler,
+            final int queueSize) {
+        this.autoAssignChecker = autoAssignChecker;
+        this.systemSecurityContext = systemSecurityContext;
+        this.lockRegistry = lockRegistry;
+        this.serviceMatcher = serviceMatcher;
+        this.autoAssignScheduler = autoAssignScheduler;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder().setNameFormat("auto-assign-target-%d").setDaemon(true).build());
+    }
+
+    @EventListener(classes = TargetCreatedEvent.class)
+    void onTargetCreated(final TargetCreatedEvent event) {
+        onTargetChange(event);
+    }
+
+    @EventListener(classes = TargetUpdatedEvent.class)
+    void onTargetUpdated(final TargetUpdatedEvent event) {
+        onTargetChange(event);
+    }
+
+    private void onTargetChange(final RemoteIdEvent event) {
+        if (serviceMatcher != null && !serviceMatcher.isFromSelf(event)) {
+            return;
+        }
+
+        final TargetKey key = new TargetKey(event.getTenant(), event.getEntityId());
+        // a target which is already waiting is checked with its latest state
+        if (!pendingTargets.add(key)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> check(key));
+        } catch (final RejectedExecutionException e) {
+            pendingTargets.remove(key);
+            LOGGER.debug("Auto assignment of target {} left to the periodic check.", key.targetId, e);
+        }
+    }
+
+    private void check(final TargetKey key) {
+        pendingTargets.remove(key);
+        if (isScanPending()) {
+            LOGGER.debug("Auto assignment of target {} left to the pending periodic check.", key.targetId);
+            return;
+        }
+
+        final Lock lock = lockRegistry.obtain("autoassign");
+        try {
+            if (!lock.tryLock(LOCK_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                LOGGER.debug("Auto assignment of target {} left to the periodic check.", key.targetId);
+                return;
+            }
+        } catch (final InterruptedException e) {
+            LOGGER.debug("Auto assignment check of target {} interrupted", key.targetId, e);
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        // the scheduler might have started to wait in the meantime
+        if (isScanPending()) {
+            lock.unlock();
+            LOGGER.debug("Auto assignment of target {} left to the pending periodic check.", key.targetId);
+            return;
+        }
+
+        try {
+            systemSecurityContext.runAsSystemAsTenant(() -> {
+                autoAssignChecker.checkTarget(key.targetId);
+                return null;
+            }, key.tenant);
+        } catch (final RuntimeException e) {
+            LOGGER.error("Auto assignment check of target {} failed", key.targetId, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isScanPending() {
+        return autoAssignScheduler != null && autoAssignScheduler.isScanPending();
+    }
+
+    /**
+     * @return number of targets waiting for the check
+     */
+    public int getPendingTargets() {
+        return pendingTargets.size();
+    }
+
+    /**
+     * Stops checking targets.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class TargetKey {
+        private final String tenant;
+        private final long targetId;
+
+        private TargetKey(final String tenant, final long targetId) {
+            this.tenant = tenant;
+            this.targetId = targetId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, targetId);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final TargetKey other = (TargetKey) obj;
+            return tenant.equals(other.tenant) && targetId == other.targetId;
+        }
+    }
+}
@@ -46,6 +46,9 @@ import org.eclipse.persistence.annotations.ConversionValue;
 import org.eclipse.persistence.annotations.Convert;
 import org.eclipse.persistence.annotations.ObjectTypeConverter;
 import org.eclipse.persistence.descriptors.DescriptorEvent;
+import org.eclipse.persistence.queries.UpdateObjectQuery;
+import org.eclipse.persistence.sessions.changesets.DirectToFieldChangeRecord;
+import org.eclipse.persistence.sessions.changesets.ObjectChangeSet;
 
 /**
  * JPA implementation of {@link Action}.
@@ -221,9 +224,22 @@ public class JpaAction extends AbstractJpaTenantAwareBaseEntity implements Actio
 
     @Override
     public void fireUpdateEvent(final DescriptorEvent descriptorEvent) {
+        // the transition is taken from the change set of this update as the
+        // action might have been changed again before the event is fired
+        final ObjectChangeSet changeSet = ((UpdateObjectQuery) descriptorEvent.getQuery()).getObjectChangeSet();
+        final DirectToFieldChangeRecord statusChange = (DirectToFieldChangeRecord) changeSet
+                .getChangesForAttributeNamed("status");
+        final Status previousStatus = statusChange == null ? status : toStatus(statusChange.getOldValue());
+        final Status newStatus = statusChange == null ? status : toStatus(statusChange.getNewValue());
+
         EventPublisherHolder.getInstance().getEventPublisher()
                 .publishEvent(new ActionUpdatedEvent(this, BaseEntity.getIdOrNull(rollout),
-                        BaseEntity.getIdOrNull(rolloutGroup), EventPublisherHolder.getInstance().getApplicationId()));
+                        BaseEntity.getIdOrNull(rolloutGroup), previousStatus, newStatus,
+                        EventPublisherHolder.getInstance().getApplicationId()));
+    }
+
+    private static Status toStatus(final Object value) {
+        return value instanceof Status ? (Status) value : null;
     }
 
     @Override
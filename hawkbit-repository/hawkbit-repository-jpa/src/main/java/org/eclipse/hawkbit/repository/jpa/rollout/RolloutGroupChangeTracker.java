@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.hawkbit.repository.RolloutManagement;
+import org.eclipse.hawkbit.repository.event.remote.entity.AbstractActionEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.RolloutGroupUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Tracks the {@link RolloutGroup}s whose actions or status changed since the
+ * rollout handler evaluated them the last time. The handler evaluates the
+ * success and error conditions of the changed running groups only.
+ *
+ * Changes which are not announced by an event, e.g. deleted targets, and
+ * changes which got lost, e.g. if the evaluation failed or the event has not
+ * reached this node yet, are picked up by a full evaluation of all running
+ * groups of a tenant which is due after the configured interval.
+ *
+ * @see RolloutManagement#handleRollouts()
+ */
+public class RolloutGroupChangeTracker {
+
+    private final Set<GroupKey> changedGroups = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> lastFullEvaluation = new ConcurrentHashMap<>();
+    private final long fullEvaluationInterval;
+
+    /**
+     * Constructor.
+     *
+     * @param fullEvaluationInterval
+     *            in milliseconds after which all running groups of a tenant
+     *            are evaluated regardless of changes
+     */
+    public RolloutGroupChangeTracker(final long fullEvaluationInterval) {
+        this.fullEvaluationInterval = fullEvaluationInterval;
+    }
+
+    @EventListener(classes = AbstractActionEvent.class)
+    void onActionChange(final AbstractActionEvent event) {
+        if (event.getRolloutGroupId() != null) {
+            changedGroups.add(new GroupKey(event.getTenant(), event.getRolloutGroupId()));
+        }
+    }
+
+    @EventListener(classes = RolloutGroupUpdatedEvent.class)
+    void onRolloutGroupChange(final RolloutGroupUpdatedEvent event) {
+        changedGroups.add(new GroupKey(event.getTenant(), event.getEntityId()));
+    }
+
+    /**
+     * Checks if a full evaluation of the given tenant is due and starts it if
+     * so, i.e. the changes of the tenant tracked so far are dropped.
+     *
+     * @param tenant
+     *            to check
+     * @return <code>true</code> if all running groups of the tenant have to be
+     *         evaluated
+     */
+    public boolean startFullEvaluationIfDue(final String tenant) {
+        final String key = tenant.toUpperCase(Locale.ENGLISH);
+        final long now = System.currentTimeMillis();
+        final long started = lastFullEvaluation.compute(key,
+                (ignored, last) -> last == null || now - last >= fullEvaluationInterval ? now : last);
+        if (started != now) {
+            return false;
+        }
+
+        changedGroups.removeIf(group -> group.tenant.equals(key));
+        return true;
+    }
+
+    /**
+     * Drops the changes of the given tenant tracked so far, e.g. as it has no
+     * active rollout. The next evaluation of the tenant is a full one.
+     *
+     * @param tenant
+     *            to reset
+     */
+    public void reset(final String tenant) {
+        final String key = tenant.toUpperCase(Locale.ENGLISH);
+        lastFullEvaluation.remove(key);
+        changedGroups.removeIf(group -> group.tenant.equals(key));
+    }
+
+    /**
+     * Removes the change mark of the given group.
+     *
+     * @param tenant
+     *            of the group
+     * @param rolloutGroupId
+     *            of the group
+     * @return <code>true</code> if the group changed since the last call
+     */
+    public boolean consumeChange(final String tenant, final long rolloutGroupId) {
+        return changedGroups.remove(new GroupKey(tenant, rolloutGroupId));
+    }
+
+    private static final class GroupKey {
+        private final String tenant;
+        private final long rolloutGroupId;
+
+        private GroupKey(final String tenant, final long rolloutGroupId) {
+            // tenants are case insensitive
+            this.tenant = tenant.toUpperCase(Locale.ENGLISH);
+            this.rolloutGroupId = rolloutGroupId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, rolloutGroupId);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final GroupKey other = (GroupKey) obj;
+            return tenant.equals(other.tenant) && rolloutGroupId == other.rolloutGroupId;
+        }
+    }
+}
@@ -8,6 +8,14 @@
  */
 package org.eclipse.hawkbit.repository.jpa.rollout;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.eclipse.hawkbit.repository.RolloutManagement;
 import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
@@ -15,10 +23,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * Scheduler to schedule the {@link RolloutManagement#handleRollouts()}. The
  * delay between the checks be be configured using the property from
- * {#PROP_SCHEDULER_DELAY_PLACEHOLDER}.
+ * {#PROP_SCHEDULER_DELAY_PLACEHOLDER}. The tenants are handled either
+ * sequentially on the scheduler thread or in parallel by a bounded pool of
+ * workers.
  */
 public class RolloutScheduler {
 
@@ -32,6 +44,13 @@ public class RolloutScheduler {
 
     private final SystemSecurityContext systemSecurityContext;
 
+    private final ExecutorService tenantExecutor;
+
+    private volatile int handledTenants;
+    private volatile long lastRunTime;
+    private final AtomicLong maxRunTime = new AtomicLong();
+    private final AtomicLong maxTenantTime = new AtomicLong();
+
     /**
      * Constructor.
      * 
@@ -44,16 +63,36 @@ public class RolloutScheduler {
      */
     public RolloutScheduler(final SystemManagement systemManagement, final RolloutManagement rolloutManagement,
             final SystemSecurityContext systemSecurityContext) {
+        this(systemManagement, rolloutManagement, systemSecurityContext, 1);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param systemManagement
+     *            to find all tenants
+     * @param rolloutManagement
+     *            to run the rollout handler
+     * @param systemSecurityContext
+     *            to run as system
+     * @param threads
+     *            number of tenants which are handled in parallel
+     */
+    public RolloutScheduler(final SystemManagement systemManagement, final RolloutManagement rolloutManagement,
+            final SystemSecurityContext systemSecurityContext, final int threads) {
         this.systemManagement = systemManagement;
         this.rolloutManagement = rolloutManagement;
         this.systemSecurityContext = systemSecurityContext;
+        this.tenantExecutor = threads > 1 ? Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("rollout-scheduler-%d").setDaemon(true).build()) : null;
     }
 
     /**
      * Scheduler method called by the spring-async mechanism. Retrieves all
      * tenants from the {@link SystemManagement#findTenants()} and runs for each
      * tenant the {@link RolloutManagement#handleRollouts()} in the
-     * {@link SystemSecurityContext}.
+     * {@link SystemSecurityContext}. The next run is not triggered before all
+     * tenants are handled.
      */
     @Scheduled(initialDelayString = PROP_SCHEDULER_DELAY_PLACEHOLDER, fixedDelayString = PROP_SCHEDULER_DELAY_PLACEHOLDER)
     public void runningRolloutScheduler() {
@@ -61,6 +100,8 @@ public class RolloutScheduler {
 
         // run this code in system code privileged to have the necessary
         // permission to query and create entities.
+        final long start = System.currentTimeMillis();
+        final List<String> tenants = new ArrayList<>();
         systemSecurityContext.runAsSystem(() -> {
             // workaround eclipselink that is currently not possible to
             // execute a query without multitenancy if MultiTenant
@@ -69,10 +110,89 @@ public class RolloutScheduler {
             // iterate through all tenants and execute the rollout check for
             // each tenant seperately.
 
-            systemManagement.forEachTenant(tenant -> rolloutManagement.handleRollouts());
+            if (tenantExecutor == null) {
+                systemManagement.forEachTenant(tenant -> {
+                    tenants.add(tenant);
+                    handleRollouts(tenant);
+                });
+                return null;
+            }
+
+            final List<Future<?>> handlers = new ArrayList<>();
+            systemManagement.forEachTenant(tenant -> {
+                tenants.add(tenant);
+                handlers.add(tenantExecutor.submit(
+                        () -> systemSecurityContext.runAsSystemAsTenant(() -> handleRollouts(tenant), tenant)));
+            });
+            handlers.forEach(RolloutScheduler::awaitHandler);
 
             return null;
         });
+
+        final long time = System.currentTimeMillis() - start;
+        handledTenants = tenants.size();
+        lastRunTime = time;
+        maxRunTime.accumulateAndGet(time, Math::max);
+    }
+
+    private Void handleRollouts(final String tenant) {
+        final long start = System.currentTimeMillis();
+        try {
+            rolloutManagement.handleRollouts();
+        } catch (final RuntimeException e) {
+            LOGGER.error("Exception on rollout handling of tenant {}.", tenant, e);
+        } finally {
+            maxTenantTime.accumulateAndGet(System.currentTimeMillis() - start, Math::max);
+        }
+        return null;
     }
 
+    private static void awaitHandler(final Future<?> handler) {
+        try {
+            handler.get();
+        } catch (final InterruptedException e) {
+            LOGGER.warn("Interrupted while waiting for the rollout handling of a tenant", e);
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            LOGGER.error("Rollout handling of a tenant failed", e.getCause());
+        }
+    }
+
+    /**
+     * Stops the parallel handling of tenants.
+     */
+    public void shutdown() {
+        if (tenantExecutor != null) {
+            tenantExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return number of tenants handled by the last run
+     */
+    public int getHandledTenants() {
+        return handledTenants;
+    }
+
+    /**
+     * @return duration of the last run in milliseconds
+     */
+    public long getLastRunTime() {
+        return lastRunTime;
+    }
+
+    /**
+     * @return duration of the slowest run in milliseconds
+     */
+    public long getMaxRunTime() {
+        return maxRunTime.get();
+    }
+
+    /**
+     * @return duration of the slowest handling of a single tenant in
+     *         milliseconds
+     */
+    public long getMaxTenantTime() {
+        return maxTenantTime.get();
+    }
 }
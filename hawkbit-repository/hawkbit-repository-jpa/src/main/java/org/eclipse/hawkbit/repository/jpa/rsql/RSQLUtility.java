@@ -47,6 +47,10 @@ import org.springframework.orm.jpa.vendor.Database;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
 import cz.jirutka.rsql.parser.RSQLParser;
 import cz.jirutka.rsql.parser.RSQLParserException;
 import cz.jirutka.rsql.parser.ast.AndNode;
@@ -90,12 +94,33 @@ import cz.jirutka.rsql.parser.ast.RSQLVisitor;
  * <em>lastControllerRequestAt=le=${OVERDUE_TS}</em><br>
  * It is possible to escape a macro expression by using a second '$':
  * $${OVERDUE_TS} would prevent the ${OVERDUE_TS} token from being expanded.
+ * <p>
+ * The parsed RSQL strings and the fields resolved from their selectors are
+ * kept in bounded caches as the same queries, e.g. of stored target filters,
+ * are evaluated over and over again. Values are converted for every query as
+ * they depend on the queried entity and the current time (macros).
  *
  */
 public final class RSQLUtility {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RSQLUtility.class);
 
+    private static final long CACHE_SIZE = 1_000;
+
+    private static final RSQLParser PARSER = createParser();
+
+    /**
+     * Parsed RSQL strings. The AST nodes are immutable and can be shared.
+     */
+    private static final Cache<String, Node> PARSED_QUERIES = Caffeine.newBuilder().maximumSize(CACHE_SIZE)
+            .recordStats().build();
+
+    /**
+     * Validated fields per {@link FieldNameProvider} type and selector.
+     */
+    private static final Cache<String, ResolvedField<?>> RESOLVED_FIELDS = Caffeine.newBuilder()
+            .maximumSize(CACHE_SIZE).recordStats().build();
+
     /**
      * private constructor due utility class.
      */
@@ -143,12 +168,38 @@ public final class RSQLUtility {
         parseRsql(rsql);
     }
 
-    private static Node parseRsql(final String rsql) {
+    /**
+     * @return statistics of the cache of parsed RSQL strings
+     */
+    public static CacheStats getParseCacheStats() {
+        return PARSED_QUERIES.stats();
+    }
+
+    /**
+     * @return statistics of the cache of fields resolved from RSQL selectors
+     */
+    public static CacheStats getFieldCacheStats() {
+        return RESOLVED_FIELDS.stats();
+    }
+
+    private static RSQLParser createParser() {
+        final Set<ComparisonOperator> operators = RSQLOperators.defaultOperators();
+        operators.add(new ComparisonOperator("=li=", false));
+        return new RSQLParser(operators);
+    }
+
+    static Node parseRsql(final String rsql) {
+        if (rsql == null) {
+            return parseRsqlUncached(null);
+        }
+        // failures are not cached, i.e. they are reported on every call
+        return PARSED_QUERIES.get(rsql, RSQLUtility::parseRsqlUncached);
+    }
+
+    private static Node parseRsqlUncached(final String rsql) {
         try {
             LOGGER.debug("parsing rsql string {}", rsql);
-            final Set<ComparisonOperator> operators = RSQLOperators.defaultOperators();
-            operators.add(new ComparisonOperator("=li=", false));
-            return new RSQLParser(operators).parse(rsql);
+            return PARSER.parse(rsql);
         } catch (final IllegalArgumentException e) {
             throw new RSQLParameterSyntaxException("rsql filter must not be null", e);
         } catch (final RSQLParserException e) {
@@ -174,12 +225,17 @@ public final class RSQLUtility {
         @Override
         public Predicate toPredicate(final Root<T> root, final CriteriaQuery<?> query, final CriteriaBuilder cb) {
             final Node rootNode = parseRsql(rsql);
-            query.distinct(true);
 
             final JpqQueryRSQLVisitor<A, T> jpqQueryRSQLVisitor = new JpqQueryRSQLVisitor<>(root, cb, enumType,
                     virtualPropertyReplacer, database);
             final List<Predicate> accept = rootNode.<List<Predicate>, String> accept(jpqQueryRSQLVisitor);
 
+            // filters on columns of the root entity only cannot produce
+            // duplicates, i.e. they do not need the expensive DISTINCT
+            if (jpqQueryRSQLVisitor.isToManyJoined()) {
+                query.distinct(true);
+            }
+
             if (!CollectionUtils.isEmpty(accept)) {
                 return cb.and(accept.toArray(new Predicate[accept.size()]));
             }
@@ -213,6 +269,7 @@ public final class RSQLUtility {
         private int level;
         private boolean isOrLevel;
         private final Map<Integer, Set<Join<Object, Object>>> joinsInLevel = new HashMap<>(3);
+        private boolean toManyJoined;
 
         private final SimpleTypeConverter simpleTypeConverter;
 
@@ -240,6 +297,15 @@ public final class RSQLUtility {
             isOrLevel = false;
         }
 
+        /**
+         * @return <code>true</code> if the query joins a to-many relation of
+         *         the root entity, e.g. tags or attributes, and thus may
+         *         return the same entity multiple times
+         */
+        private boolean isToManyJoined() {
+            return toManyJoined;
+        }
+
         private Set<Join<Object, Object>> getCurrentJoins() {
             if (level > 0) {
                 return joinsInLevel.get(level);
@@ -371,6 +437,7 @@ public final class RSQLUtility {
                 final String fieldNameSplit = split[i];
                 fieldPath = (fieldPath != null) ? fieldPath.get(fieldNameSplit) : root.get(fieldNameSplit);
                 if (fieldPath instanceof PluralJoin) {
+                    toManyJoined = true;
                     final Join<Object, ?> join = (Join<Object, ?>) fieldPath;
                     final From<?, Object> joinParent = join.getParent();
                     final Optional<Join<Object, Object>> currentJoinOfType = findCurrentJoinOfType(join.getJavaType());
@@ -394,6 +461,31 @@ public final class RSQLUtility {
         // https://jira.sonarsource.com/browse/SONARJAVA-1478
         @SuppressWarnings({ "squid:S2095" })
         public List<Predicate> visit(final ComparisonNode node, final String param) {
+            final ResolvedField<A> resolvedField = resolveField(node);
+            final A fieldName = resolvedField.getField();
+            final String finalProperty = resolvedField.getProperty();
+
+            final List<String> values = node.getArguments();
+            final List<Object> transformedValue = new ArrayList<>();
+            final Path<Object> fieldPath = getFieldPath(fieldName, finalProperty);
+
+            for (final String value : values) {
+                transformedValue.add(convertValueIfNecessary(node, fieldName, value, fieldPath));
+            }
+
+            return mapToPredicate(node, fieldPath, node.getArguments(), transformedValue, fieldName, database);
+        }
+
+        @SuppressWarnings("unchecked")
+        private ResolvedField<A> resolveField(final ComparisonNode node) {
+            return (ResolvedField<A>) RESOLVED_FIELDS.get(enumType.getName() + ':' + node.getSelector(),
+                    key -> resolveFieldUncached(node));
+        }
+
+        // Exception squid:S2095 - see
+        // https://jira.sonarsource.com/browse/SONARJAVA-1478
+        @SuppressWarnings({ "squid:S2095" })
+        private ResolvedField<A> resolveFieldUncached(final ComparisonNode node) {
             A fieldName = null;
             try {
                 fieldName = getFieldEnumByName(node);
@@ -405,17 +497,7 @@ public final class RSQLUtility {
                         + "}", e);
 
             }
-            final String finalProperty = getAndValidatePropertyFieldName(fieldName, node);
-
-            final List<String> values = node.getArguments();
-            final List<Object> transformedValue = new ArrayList<>();
-            final Path<Object> fieldPath = getFieldPath(fieldName, finalProperty);
-
-            for (final String value : values) {
-                transformedValue.add(convertValueIfNecessary(node, fieldName, value, fieldPath));
-            }
-
-            return mapToPredicate(node, fieldPath, node.getArguments(), transformedValue, fieldName, database);
+            return new ResolvedField<>(fieldName, getAndValidatePropertyFieldName(fieldName, node));
         }
 
         // Exception squid:S2095 - see
@@ -712,4 +794,25 @@ public final class RSQLUtility {
 
     }
 
+    /**
+     * Field of a {@link FieldNameProvider} and the validated property path
+     * resolved from an RSQL selector.
+     */
+    private static final class ResolvedField<A extends Enum<A> & FieldNameProvider> {
+        private final A field;
+        private final String property;
+
+        private ResolvedField(final A field, final String property) {
+            this.field = field;
+            this.property = property;
+        }
+
+        private A getField() {
+            return field;
+        }
+
+        private String getProperty() {
+            return property;
+        }
+    }
 }
@@ -0,0 +1,264 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rsql;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.repository.FieldNameProvider;
+import org.eclipse.hawkbit.repository.TargetFields;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.TargetFilterQuery;
+import org.eclipse.hawkbit.repository.model.TargetTag;
+
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.OrNode;
+import cz.jirutka.rsql.parser.ast.RSQLVisitor;
+
+/**
+ * Evaluates a {@link TargetFilterQuery} against a single loaded
+ * {@link JpaTarget} in memory, i.e. without querying the database.
+ *
+ * The evaluation is meant as a cheap pre-check only and is conservative: it
+ * returns <code>false</code> only if the target cannot match the query. Every
+ * comparison it cannot decide, e.g. with a macro like ${OVERDUE_TS} or a range
+ * comparison of strings which depends on the database collation, counts as a
+ * possible match. Hence a positive result has to be confirmed by the database,
+ * e.g. by
+ * {@link org.eclipse.hawkbit.repository.TargetManagement#isTargetMatchingQueryAndNonDS(long, long, String)}.
+ *
+ * The comparisons follow the predicates built by {@link RSQLUtility}, i.e.
+ * strings are compared case insensitive, '*' is a wildcard for == and !=, and
+ * a comparison on tags matches if any tag of the target fulfills it.
+ */
+public final class TargetFilterMatcher {
+
+    private static final String MACRO_PREFIX = "${";
+    private static final char LIKE_WILDCARD = '*';
+
+    private TargetFilterMatcher() {
+        // utility class
+    }
+
+    /**
+     * Checks if the given target may match the given query. The lazy
+     * relations of the target are loaded, i.e. the method has to be called
+     * within a transaction.
+     *
+     * @param target
+     *            to check
+     * @param rsql
+     *            target filter query
+     * @return <code>false</code> if the target does not match the query
+     *
+     * @throws org.eclipse.hawkbit.repository.exception.RSQLParameterSyntaxException
+     *             if the query is not valid RSQL
+     */
+    public static boolean mayMatch(final JpaTarget target, final String rsql) {
+        return RSQLUtility.parseRsql(rsql).accept(new MatchingVisitor(), target);
+    }
+
+    private static final class MatchingVisitor implements RSQLVisitor<Boolean, JpaTarget> {
+
+        @Override
+        public Boolean visit(final AndNode node, final JpaTarget target) {
+            return node.getChildren().stream().allMatch(child -> child.accept(this, target));
+        }
+
+        @Override
+        public Boolean visit(final OrNode node, final JpaTarget target) {
+            return node.getChildren().stream().anyMatch(child -> child.accept(this, target));
+        }
+
+        @Override
+        public Boolean visit(final ComparisonNode node, final JpaTarget target) {
+            final String[] graph = node.getSelector().split("\\" + FieldNameProvider.SUB_ATTRIBUTE_SEPERATOR);
+            final TargetFields field;
+            try {
+                field = TargetFields.valueOf(graph[0].toUpperCase(Locale.ENGLISH));
+            } catch (final IllegalArgumentException e) {
+                // reported by the database query
+                return true;
+            }
+
+            if (node.getArguments().stream().anyMatch(argument -> argument.contains(MACRO_PREFIX))) {
+                return true;
+            }
+
+            final Collection<Object> values = getValues(field, graph, target);
+            if (values == null) {
+                return true;
+            }
+
+            // one matching tag or attribute is sufficient like for the join
+            return values.stream().anyMatch(value -> compare(node, value));
+        }
+
+        /**
+         * @return the values of the field, a single <code>null</code> value
+         *         if the field is not set, or <code>null</code> if the field
+         *         cannot be evaluated
+         */
+        private static Collection<Object> getValues(final TargetFields field, final String[] graph,
+                final JpaTarget target) {
+            switch (field) {
+            case ID:
+            case CONTROLLERID:
+                return Collections.singletonList(target.getControllerId());
+            case NAME:
+                return Collections.singletonList(target.getName());
+            case DESCRIPTION:
+                return Collections.singletonList(target.getDescription());
+            case CREATEDAT:
+                return Collections.singletonList(target.getCreatedAt());
+            case LASTMODIFIEDAT:
+                return Collections.singletonList(target.getLastModifiedAt());
+            case LASTCONTROLLERREQUESTAT:
+                return Collections.singletonList(target.getLastTargetQuery());
+            case UPDATESTATUS:
+                return Collections.singletonList(target.getUpdateStatus());
+            case IPADDRESS:
+                return Collections.singletonList(target.getAddress() == null ? null : target.getAddress().toString());
+            case ATTRIBUTE:
+                return getAttributeValues(graph, target.getControllerAttributes());
+            case ASSIGNEDDS:
+                return getDistributionSetValues(graph, target.getAssignedDistributionSet());
+            case INSTALLEDDS:
+                return getDistributionSetValues(graph, target.getInstalledDistributionSet());
+            case TAG:
+                return getTagValues(target.getTags());
+            default:
+                return null;
+            }
+        }
+
+        private static Collection<Object> getAttributeValues(final String[] graph,
+                final Map<String, String> attributes) {
+            if (graph.length != 2) {
+                return null;
+            }
+
+            // attribute keys are compared case insensitive
+            return attributes.entrySet().stream().filter(entry -> entry.getKey().equalsIgnoreCase(graph[1]))
+                    .map(Map.Entry::getValue).collect(Collectors.toList());
+        }
+
+        private static Collection<Object> getDistributionSetValues(final String[] graph,
+                final DistributionSet distributionSet) {
+            if (graph.length != 2) {
+                return null;
+            }
+
+            final String attribute = graph[1].toLowerCase(Locale.ENGLISH);
+            if ("name".equals(attribute)) {
+                return Collections.singletonList(distributionSet == null ? null : distributionSet.getName());
+            }
+            if ("version".equals(attribute)) {
+                return Collections.singletonList(distributionSet == null ? null : distributionSet.getVersion());
+            }
+            return null;
+        }
+
+        private static Collection<Object> getTagValues(final Collection<TargetTag> tags) {
+            if (tags.isEmpty()) {
+                // left join of the tags
+                return Collections.singletonList(null);
+            }
+            return tags.stream().map(TargetTag::getName).collect(Collectors.toList());
+        }
+
+        private static boolean compare(final ComparisonNode node, final Object value) {
+            final List<String> arguments = node.getArguments();
+            final String argument = arguments.get(0);
+
+            switch (node.getOperator().getSymbol()) {
+            case "==":
+                return isEqual(value, argument);
+            case "!=":
+                return value != null && !isEqual(value, argument);
+            case "=gt=":
+                return compareNumber(value, argument, 1, 1);
+            case "=ge=":
+                return compareNumber(value, argument, 0, 1);
+            case "=lt=":
+                return compareNumber(value, argument, -1, -1);
+            case "=le=":
+                return compareNumber(value, argument, -1, 0);
+            case "=in=":
+                return value != null && arguments.stream().anyMatch(arg -> isSame(value, arg));
+            case "=out=":
+                return value != null && arguments.stream().noneMatch(arg -> isSame(value, arg));
+            default:
+                return true;
+            }
+        }
+
+        private static boolean isEqual(final Object value, final String argument) {
+            if (value instanceof String || value == null) {
+                if (argument.isEmpty()) {
+                    return value == null || ((String) value).isEmpty();
+                }
+                return value != null && toLikePattern(argument).matcher((String) value).matches();
+            }
+            return isSame(value, argument);
+        }
+
+        private static boolean isSame(final Object value, final String argument) {
+            if (value instanceof Enum) {
+                return ((Enum<?>) value).name().equalsIgnoreCase(argument);
+            }
+            if (value instanceof Number) {
+                final Long number = toLong(argument);
+                return number == null || number == ((Number) value).longValue();
+            }
+            return value != null && value.toString().equalsIgnoreCase(argument);
+        }
+
+        /**
+         * Compares a numeric value, e.g. a timestamp, with the argument.
+         * Other values are not compared as their order is up to the
+         * database.
+         */
+        private static boolean compareNumber(final Object value, final String argument, final int min,
+                final int max) {
+            if (value == null) {
+                return false;
+            }
+            final Long number = toLong(argument);
+            if (!(value instanceof Number) || number == null) {
+                return true;
+            }
+            final int result = Long.compare(((Number) value).longValue(), number);
+            return result >= min && result <= max;
+        }
+
+        private static Long toLong(final String argument) {
+            try {
+                return Long.valueOf(argument.trim());
+            } catch (final NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static Pattern toLikePattern(final String argument) {
+            final String regex = Arrays
+                    .stream(argument.split(Pattern.quote(String.valueOf(LIKE_WILDCARD)), -1))
+                    .map(part -> part.isEmpty() ? part : Pattern.quote(part)).collect(Collectors.joining(".*"));
+            return Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+        }
+    }
+}
@@ -215,6 +215,17 @@ public final class TargetSpecifications {
         }
     }
 
+    /**
+     * {@link Specification} for retrieving a {@link Target} by its ID.
+     *
+     * @param targetId
+     *            the ID of the target
+     * @return the {@link Target} {@link Specification}
+     */
+    public static Specification<JpaTarget> hasId(final Long targetId) {
+        return (targetRoot, query, cb) -> cb.equal(targetRoot.get(JpaTarget_.id), targetId);
+    }
+
     /**
      * {@link Specification} for retrieving {@link Target}s by assigned
      * distribution set.
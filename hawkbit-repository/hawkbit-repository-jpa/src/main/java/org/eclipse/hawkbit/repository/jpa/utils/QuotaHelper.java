@@ -8,15 +8,20 @@
  */
 package org.eclipse.hawkbit.repository.jpa.utils;
 
+import java.util.List;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import javax.validation.constraints.NotNull;
 
 import org.eclipse.hawkbit.repository.exception.QuotaExceededException;
+import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.validation.annotation.Validated;
 
+import com.google.common.collect.Lists;
+
 /**
  * Helper class to check assignment quotas.
  */
@@ -83,6 +88,48 @@ public final class QuotaHelper {
         assertAssignmentQuota(parentId, requested, limit, type.getSimpleName(), parentType.getSimpleName(), countFct);
     }
 
+    /**
+     * Asserts the specified assignment quota for many parent entities at once.
+     * Instead of counting the assigned entities per parent entity the parent
+     * entities which would exceed the quota are queried in chunks of
+     * {@link Constants#MAX_ENTRIES_IN_STATEMENT}.
+     * 
+     * @param parentIds
+     *            The IDs of the parent entities.
+     * @param requested
+     *            The number of entities that shall be assigned to every parent
+     *            entity.
+     * @param limit
+     *            The maximum number of entities that may be assigned to a
+     *            parent entity.
+     * @param type
+     *            The type of the entities that shall be assigned.
+     * @param parentType
+     *            The type of the parent entity.
+     * @param exceedingFct
+     *            Function to find those of the given parent entities which
+     *            have more than the given number of entities assigned.
+     * @param countFct
+     *            Function to count the entities that are currently assigned to
+     *            the parent entity.
+     * 
+     * @throws QuotaExceededException
+     *             if the assignment operation would cause the quota to be
+     *             exceeded for at least one of the parent entities
+     */
+    public static void assertAssignmentQuota(final List<Long> parentIds, final long requested, final long limit,
+            @NotNull final Class<?> type, @NotNull final Class<?> parentType,
+            final BiFunction<List<Long>, Long, List<Long>> exceedingFct, final Function<Long, Long> countFct) {
+        if (limit <= 0 || requested > limit) {
+            assertAssignmentQuota(requested, limit, type, parentType);
+            return;
+        }
+
+        Lists.partition(parentIds, Constants.MAX_ENTRIES_IN_STATEMENT).stream()
+                .map(chunk -> exceedingFct.apply(chunk, limit - requested)).flatMap(List::stream).findFirst()
+                .ifPresent(parentId -> assertAssignmentQuota(parentId, requested, limit, type, parentType, countFct));
+    }
+
     /**
      * Asserts the specified assignment quota.
      * 
@@ -12,6 +12,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
@@ -21,6 +24,7 @@ import org.eclipse.hawkbit.repository.model.Action.Status;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
@@ -42,6 +46,27 @@ public class RemoteTenantAwareEventTest extends AbstractRemoteEventTest {
         assertThat(downloadProgressEvent).isEqualTo(remoteEvent);
     }
 
+    @Test
+    @Description("Verifies that the artifact binary deletion by remote events works")
+    public void reloadArtifactBinaryDeletedByRemoteEvent() {
+        final ArtifactBinaryDeletedEvent binaryDeletedEvent = new ArtifactBinaryDeletedEvent("DEFAULT", "sha1",
+                "Node");
+
+        ArtifactBinaryDeletedEvent remoteEvent = (ArtifactBinaryDeletedEvent) createProtoStuffEvent(
+                binaryDeletedEvent);
+        assertThat(remoteEvent.getTenant()).isEqualTo("DEFAULT");
+        assertThat(remoteEvent.getSha1Hash()).isEqualTo("sha1");
+
+        remoteEvent = (ArtifactBinaryDeletedEvent) createJacksonEvent(binaryDeletedEvent);
+        assertThat(remoteEvent.getTenant()).isEqualTo("DEFAULT");
+        assertThat(remoteEvent.getSha1Hash()).isEqualTo("sha1");
+
+        remoteEvent = (ArtifactBinaryDeletedEvent) createProtoStuffEvent(
+                new ArtifactBinaryDeletedEvent("DEFAULT", "Node"));
+        assertThat(remoteEvent.getTenant()).isEqualTo("DEFAULT");
+        assertThat(remoteEvent.getSha1Hash()).isNull();
+    }
+
     @Test
     @Description("Verifies that target assignment event works")
     public void testTargetAssignDistributionSetEvent() {
@@ -66,6 +91,66 @@ public class RemoteTenantAwareEventTest extends AbstractRemoteEventTest {
         assertTargetAssignDistributionSetEvent(action, underTest);
     }
 
+    @Test
+    @Description("Verifies that a target assignment event with many actions keeps all targets and their actions")
+    public void testTargetAssignDistributionSetEventWithManyActions() {
+        final Map<String, Long> actions = new HashMap<>();
+        for (long i = 0; i < 100; i++) {
+            actions.put("target" + i, i);
+        }
+
+        final TargetAssignDistributionSetEvent assignmentEvent = new TargetAssignDistributionSetEvent("DEFAULT", 1L,
+                actions, serviceMatcher.getServiceId(), false);
+
+        TargetAssignDistributionSetEvent underTest = (TargetAssignDistributionSetEvent) createProtoStuffEvent(
+                assignmentEvent);
+        assertThat(underTest.getActions()).isEqualTo(actions);
+        assertThat(underTest.isMaintenanceWindowAvailable()).isFalse();
+
+        underTest = (TargetAssignDistributionSetEvent) createJacksonEvent(assignmentEvent);
+        assertThat(underTest.getActions()).isEqualTo(actions);
+        assertThat(underTest.getDistributionSetId()).isEqualTo(1L);
+    }
+
+    @Test
+    @Description("Verifies that a target assignment event keeps the order of its targets")
+    public void testTargetAssignDistributionSetEventKeepsOrder() {
+        final Map<String, Long> actions = new LinkedHashMap<>();
+        for (long i = 100; i > 0; i--) {
+            actions.put("target" + i, i);
+        }
+
+        final TargetAssignDistributionSetEvent assignmentEvent = new TargetAssignDistributionSetEvent("DEFAULT", 1L,
+                actions, serviceMatcher.getServiceId(), false);
+
+        TargetAssignDistributionSetEvent underTest = (TargetAssignDistributionSetEvent) createProtoStuffEvent(
+                assignmentEvent);
+        assertThat(underTest.getActions().keySet()).containsExactlyElementsOf(actions.keySet());
+
+        underTest = (TargetAssignDistributionSetEvent) createJacksonEvent(assignmentEvent);
+        assertThat(underTest.getActions().keySet()).containsExactlyElementsOf(actions.keySet());
+    }
+
+    @Test
+    @Description("Verifies that the actions of a target assignment event sent by an older node are still read")
+    public void testTargetAssignDistributionSetEventOfOlderNode() {
+        final Map<String, Long> actions = new HashMap<>();
+        actions.put("target1", 1L);
+        actions.put("target2", 2L);
+
+        // older nodes send the actions as map only
+        final TargetAssignDistributionSetEvent assignmentEvent = new TargetAssignDistributionSetEvent("DEFAULT", 1L,
+                new HashMap<>(), serviceMatcher.getServiceId(), false);
+        ReflectionTestUtils.setField(assignmentEvent, "actions", actions);
+
+        TargetAssignDistributionSetEvent underTest = (TargetAssignDistributionSetEvent) createProtoStuffEvent(
+                assignmentEvent);
+        assertThat(underTest.getActions()).isEqualTo(actions);
+
+        underTest = (TargetAssignDistributionSetEvent) createJacksonEvent(assignmentEvent);
+        assertThat(underTest.getActions()).isEqualTo(actions);
+    }
+
     private void assertTargetAssignDistributionSetEvent(final Action action,
             final TargetAssignDistributionSetEvent underTest) {
 
@@ -44,6 +44,24 @@ public class ActionEventTest extends AbstractRemoteEntityEventTest<Action> {
         assertAndCreateRemoteEvent(ActionUpdatedEvent.class);
     }
 
+    @Test
+    @Description("Verifies that the status transition of the action updated event is serialized")
+    public void testActionUpdatedEventStatusTransition() {
+        final Action action = createEntity();
+        final ActionUpdatedEvent event = new ActionUpdatedEvent(action, 1L, 2L, Status.RUNNING, Status.FINISHED,
+                "Node");
+        assertThat(event.getPreviousStatus()).isEqualTo(Status.RUNNING);
+        assertThat(event.getStatus()).isEqualTo(Status.FINISHED);
+
+        ActionUpdatedEvent underTestCreatedEvent = (ActionUpdatedEvent) createProtoStuffEvent(event);
+        assertThat(underTestCreatedEvent.getPreviousStatus()).isEqualTo(Status.RUNNING);
+        assertThat(underTestCreatedEvent.getStatus()).isEqualTo(Status.FINISHED);
+
+        underTestCreatedEvent = (ActionUpdatedEvent) createJacksonEvent(event);
+        assertThat(underTestCreatedEvent.getPreviousStatus()).isEqualTo(Status.RUNNING);
+        assertThat(underTestCreatedEvent.getStatus()).isEqualTo(Status.FINISHED);
+    }
+
     @Override
     protected RemoteEntityEvent<?> createRemoteEvent(final Action baseEntity,
             final Class<? extends RemoteEntityEvent<?>> eventType) {
@@ -78,11 +96,15 @@ public class ActionEventTest extends AbstractRemoteEntityEventTest<Action> {
         assertThat(underTestCreatedEvent.getEntity()).isEqualTo(baseEntity);
         assertThat(underTestCreatedEvent.getRolloutId()).isEqualTo(1L);
         assertThat(underTestCreatedEvent.getRolloutGroupId()).isEqualTo(2L);
+        assertThat(underTestCreatedEvent.getControllerId()).isEqualTo("Test");
+        assertThat(underTestCreatedEvent.getStatus()).isEqualTo(Status.RUNNING);
 
         underTestCreatedEvent = (AbstractActionEvent) createJacksonEvent(event);
         assertThat(underTestCreatedEvent.getEntity()).isEqualTo(baseEntity);
         assertThat(underTestCreatedEvent.getRolloutId()).isEqualTo(1L);
         assertThat(underTestCreatedEvent.getRolloutGroupId()).isEqualTo(2L);
+        assertThat(underTestCreatedEvent.getControllerId()).isEqualTo("Test");
+        assertThat(underTestCreatedEvent.getStatus()).isEqualTo(Status.RUNNING);
 
         return underTestCreatedEvent;
     }
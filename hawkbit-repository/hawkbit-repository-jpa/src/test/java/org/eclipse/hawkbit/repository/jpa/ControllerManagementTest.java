@@ -16,16 +16,20 @@ import static org.junit.Assert.fail;
 import java.io.ByteArrayInputStream;
 import java.net.URISyntaxException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import javax.validation.ConstraintViolationException;
 
 import org.apache.commons.lang3.RandomUtils;
+import org.eclipse.hawkbit.repository.IdleTargetCache;
 import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.TargetAttributesUpdate;
 import org.eclipse.hawkbit.repository.UpdateMode;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
@@ -38,6 +42,7 @@ import org.eclipse.hawkbit.repository.event.remote.entity.SoftwareModuleUpdatedE
 import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
 import org.eclipse.hawkbit.repository.exception.CancelActionNotAllowedException;
+import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.exception.QuotaExceededException;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
@@ -54,9 +59,11 @@ import org.eclipse.hawkbit.repository.test.util.TestdataFactory;
 import org.eclipse.hawkbit.repository.test.util.WithSpringAuthorityRule;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.jayway.awaitility.Awaitility;
 
 import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
@@ -70,6 +77,12 @@ public class ControllerManagementTest extends AbstractJpaIntegrationTest {
     @Autowired
     private RepositoryProperties repositoryProperties;
 
+    @Autowired
+    private IdleTargetCache idleTargetCache;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @Test
     @Description("Verifies that management get access react as specfied on calls for non existing entities by means "
             + "of Optional not present.")
@@ -150,6 +163,79 @@ public class ControllerManagementTest extends AbstractJpaIntegrationTest {
         assertThat(controllerManagement.findActionStatusByAction(PAGE, actionId).getNumberOfElements()).isEqualTo(7);
     }
 
+    @Test
+    @Description("Verifies that an idle target is not idle anymore as soon as the assignment event is received, i.e. "
+            + "without waiting for the action event.")
+    @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 1),
+            @Expect(type = TargetAssignDistributionSetEvent.class, count = 1) })
+    public void idleTargetIsInvalidatedByAssignmentEvent() {
+        final String controllerId = testdataFactory.createTarget().getControllerId();
+        assertThat(controllerManagement.findOldestActiveActionByTarget(controllerId)).isNotPresent();
+        assertThat(idleTargetCache.isIdle(controllerId)).isTrue();
+
+        final long sequence = idleTargetCache.getInvalidationSequence();
+        applicationEventPublisher.publishEvent(new TargetAssignDistributionSetEvent(tenantAware.getCurrentTenant(),
+                1L, Collections.singletonMap(controllerId, 1L), "node", false));
+        waitForActionEvent(sequence);
+
+        assertThat(idleTargetCache.isIdle(controllerId)).isFalse();
+    }
+
+    @Test
+    @Description("Verifies that a target without active action is remembered as idle until an action is assigned "
+            + "to it and again after the action has been finished.")
+    @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 1),
+            @Expect(type = DistributionSetCreatedEvent.class, count = 1),
+            @Expect(type = ActionCreatedEvent.class, count = 1), @Expect(type = ActionUpdatedEvent.class, count = 1),
+            @Expect(type = TargetUpdatedEvent.class, count = 2),
+            @Expect(type = TargetAssignDistributionSetEvent.class, count = 1),
+            @Expect(type = SoftwareModuleCreatedEvent.class, count = 3) })
+    public void idleTargetIsRememberedUntilActionIsAssigned() {
+        final String controllerId = testdataFactory.createTarget().getControllerId();
+        assertThat(controllerManagement.findOldestActiveActionByTarget(controllerId)).isNotPresent();
+        assertThat(idleTargetCache.isIdle(controllerId)).isTrue();
+
+        long sequence = idleTargetCache.getInvalidationSequence();
+        assignDistributionSet(testdataFactory.createDistributionSet().getId(), controllerId);
+        waitForActionEvent(sequence);
+        assertThat(idleTargetCache.isIdle(controllerId)).isFalse();
+        final Action action = controllerManagement.findOldestActiveActionByTarget(controllerId).get();
+        assertThat(idleTargetCache.isIdle(controllerId)).isFalse();
+
+        sequence = idleTargetCache.getInvalidationSequence();
+        controllerManagement.addUpdateActionStatus(
+                entityFactory.actionStatus().create(action.getId()).status(Action.Status.FINISHED));
+        waitForActionEvent(sequence);
+        assertThat(controllerManagement.findOldestActiveActionByTarget(controllerId)).isNotPresent();
+        assertThat(idleTargetCache.isIdle(controllerId)).isTrue();
+    }
+
+    @Test
+    @Description("Verifies that the idle target cache can be bypassed if it is not aware of an assignment yet.")
+    @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 1),
+            @Expect(type = DistributionSetCreatedEvent.class, count = 1),
+            @Expect(type = ActionCreatedEvent.class, count = 1), @Expect(type = TargetUpdatedEvent.class, count = 1),
+            @Expect(type = TargetAssignDistributionSetEvent.class, count = 1),
+            @Expect(type = SoftwareModuleCreatedEvent.class, count = 3) })
+    public void idleTargetCacheIsBypassed() {
+        final String controllerId = testdataFactory.createTarget().getControllerId();
+        final long sequence = idleTargetCache.getInvalidationSequence();
+        assignDistributionSet(testdataFactory.createDistributionSet().getId(), controllerId);
+        waitForActionEvent(sequence);
+
+        // simulates a cache which has not received the events yet
+        idleTargetCache.markIdle(controllerId, idleTargetCache.getInvalidationSequence());
+        assertThat(controllerManagement.findOldestActiveActionByTarget(controllerId)).isNotPresent();
+
+        assertThat(controllerManagement.findOldestActiveActionByTarget(controllerId, true)).isPresent();
+    }
+
+    private void waitForActionEvent(final long sequence) {
+        // action events are delivered asynchronously
+        Awaitility.await().atMost(5, TimeUnit.SECONDS)
+                .until(() -> idleTargetCache.getInvalidationSequence() > sequence);
+    }
+
     @Test
     @Description("Controller confirmation failes with invalid messages.")
     @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 1),
@@ -691,6 +777,64 @@ public class ControllerManagementTest extends AbstractJpaIntegrationTest {
                 .isEqualTo(testData);
     }
 
+    @Test
+    @Description("Ensures that unchanged target attributes are not written and that attribute updates do not raise the opt lock revision of the target.")
+    @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 1),
+            @Expect(type = TargetUpdatedEvent.class, count = 2) })
+    public void unchangedTargetAttributesAreNotWritten() {
+        final String controllerId = "testCtrl";
+        final Target target = testdataFactory.createTarget(controllerId);
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("k0", "v0");
+        attributes.put("k1", "v1");
+        controllerManagement.updateControllerAttributes(controllerId, attributes, null);
+
+        // identical attributes are sent again, e.g. after a reboot
+        controllerManagement.updateControllerAttributes(controllerId, attributes, UpdateMode.MERGE);
+
+        attributes.put("k1", "v1_modified");
+        controllerManagement.updateControllerAttributes(controllerId, attributes, null);
+
+        final Target updated = targetManagement.getByControllerID(controllerId).get();
+        assertThat(updated.getOptLockRevision()).isEqualTo(target.getOptLockRevision());
+        assertThat(updated.isRequestControllerAttributes()).isFalse();
+        assertThat(targetManagement.getControllerAttributes(controllerId)).isEqualTo(attributes);
+    }
+
+    @Test
+    @Description("Ensures that the attribute updates of many targets are applied in one batch in the given order and that none of them is applied if a target is unknown.")
+    @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 2),
+            @Expect(type = TargetUpdatedEvent.class, count = 3) })
+    public void updateTargetAttributesInBatch() {
+        testdataFactory.createTarget("batch1");
+        testdataFactory.createTarget("batch2");
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("k0", "v0");
+        attributes.put("k1", "v1");
+        final Map<String, String> removal = new HashMap<>();
+        removal.put("k0", null);
+        final Map<String, String> other = new HashMap<>();
+        other.put("k2", "v2");
+
+        assertThatExceptionOfType(EntityNotFoundException.class)
+                .isThrownBy(() -> controllerManagement
+                        .updateControllerAttributes(Arrays.asList(new TargetAttributesUpdate("batch1", other, null),
+                                new TargetAttributesUpdate(NOT_EXIST_ID, other, null))))
+                .as("batch with unknown target should fail");
+        assertThat(targetManagement.getControllerAttributes("batch1")).isEmpty();
+
+        final int changed = controllerManagement
+                .updateControllerAttributes(Arrays.asList(new TargetAttributesUpdate("batch1", attributes, null),
+                        new TargetAttributesUpdate("batch2", attributes, UpdateMode.REPLACE),
+                        new TargetAttributesUpdate("batch2", removal, UpdateMode.REMOVE)));
+
+        assertThat(changed).isEqualTo(3);
+        assertThat(targetManagement.getControllerAttributes("batch1")).isEqualTo(attributes);
+        assertThat(targetManagement.getControllerAttributes("batch2")).containsOnlyKeys("k1");
+    }
+
     @Test
     @Description("Ensures that target attributes can be updated using different update modes.")
     @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 1),
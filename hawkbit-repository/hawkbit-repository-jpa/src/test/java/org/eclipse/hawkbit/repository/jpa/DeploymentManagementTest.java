@@ -25,6 +25,7 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.eclipse.hawkbit.repository.ActionStatusFields;
+import org.eclipse.hawkbit.repository.RepositoryConstants;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.ActionCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
@@ -270,7 +271,8 @@ public class DeploymentManagementTest extends AbstractJpaIntegrationTest {
     @Description("Test verifies that an assignment with automatic cancelation works correctly even if the update is split into multiple partitions on the database.")
     @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = Constants.MAX_ENTRIES_IN_STATEMENT + 10),
             @Expect(type = TargetUpdatedEvent.class, count = 2 * (Constants.MAX_ENTRIES_IN_STATEMENT + 10)),
-            @Expect(type = TargetAssignDistributionSetEvent.class, count = 1),
+            @Expect(type = TargetAssignDistributionSetEvent.class, count = (Constants.MAX_ENTRIES_IN_STATEMENT + 10)
+                    / RepositoryConstants.MAX_ACTIONS_PER_ASSIGNMENT_EVENT + 1),
             @Expect(type = ActionCreatedEvent.class, count = 2 * (Constants.MAX_ENTRIES_IN_STATEMENT + 10)),
             @Expect(type = CancelTargetAssignmentEvent.class, count = Constants.MAX_ENTRIES_IN_STATEMENT + 10),
             @Expect(type = ActionUpdatedEvent.class, count = Constants.MAX_ENTRIES_IN_STATEMENT + 10),
@@ -294,6 +296,30 @@ public class DeploymentManagementTest extends AbstractJpaIntegrationTest {
         assertThat(deploymentManagement.countActionsAll()).isEqualTo(2 * (Constants.MAX_ENTRIES_IN_STATEMENT + 10));
     }
 
+    @Test
+    @Description("Test verifies that an assignment which is split into multiple chunks returns the IDs of all created actions, assigns the set to all targets and splits the assignment events.")
+    @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = Constants.MAX_ENTRIES_IN_STATEMENT + 10),
+            @Expect(type = TargetUpdatedEvent.class, count = Constants.MAX_ENTRIES_IN_STATEMENT + 10),
+            @Expect(type = TargetAssignDistributionSetEvent.class, count = (Constants.MAX_ENTRIES_IN_STATEMENT + 10)
+                    / RepositoryConstants.MAX_ACTIONS_PER_ASSIGNMENT_EVENT + 1),
+            @Expect(type = ActionCreatedEvent.class, count = Constants.MAX_ENTRIES_IN_STATEMENT + 10),
+            @Expect(type = DistributionSetCreatedEvent.class, count = 1),
+            @Expect(type = SoftwareModuleCreatedEvent.class, count = 3) })
+    public void assignmentOverMultipleChunksReturnsAllActions() {
+        final DistributionSet ds = testdataFactory.createDistributionSet("chunked");
+        final List<Target> targets = testdataFactory.createTargets(Constants.MAX_ENTRIES_IN_STATEMENT + 10);
+
+        final DistributionSetAssignmentResult result = assignDistributionSet(ds, targets);
+
+        assertThat(result.getAssigned()).isEqualTo(Constants.MAX_ENTRIES_IN_STATEMENT + 10);
+        assertThat(result.getAlreadyAssigned()).isZero();
+        assertThat(result.getActions()).hasSize(Constants.MAX_ENTRIES_IN_STATEMENT + 10).doesNotContainNull()
+                .doesNotHaveDuplicates();
+        assertThat(targetManagement.countByAssignedDistributionSet(ds.getId()))
+                .isEqualTo(Constants.MAX_ENTRIES_IN_STATEMENT + 10);
+        assertThat(deploymentManagement.countActionsAll()).isEqualTo(Constants.MAX_ENTRIES_IN_STATEMENT + 10);
+    }
+
     @Test
     @Description("Cancels multiple active actions on a target. Expected behaviour is that with two active "
             + "actions after canceling the second active action the first one is still running as it is not touched by the cancelation. After canceling the first one "
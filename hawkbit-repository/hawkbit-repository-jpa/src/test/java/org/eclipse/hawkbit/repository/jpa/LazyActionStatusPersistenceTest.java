@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.ActionStatus;
+import org.eclipse.hawkbit.repository.test.util.TestdataFactory;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.test.context.TestPropertySource;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Step;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Controller Management")
+@TestPropertySource(locations = "classpath:/jpa-test.properties", properties = {
+        "hawkbit.server.repository.lazyActionStatusPersistence=true",
+        "hawkbit.server.repository.actionStatusPersistenceFlushTime=1000" })
+public class LazyActionStatusPersistenceTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @Test
+    @Description("Verfies that intermediate action status entries are persisted by the flush of the queue.")
+    public void intermediateActionStatusIsPersistedLazy() throws InterruptedException {
+        final Long actionId = createTargetAndAssignDs();
+        final long initialCount = actionStatusRepository.countByActionId(actionId);
+
+        controllerManagement
+                .addUpdateActionStatus(entityFactory.actionStatus().create(actionId).status(Action.Status.RUNNING));
+        controllerManagement
+                .addUpdateActionStatus(entityFactory.actionStatus().create(actionId).status(Action.Status.DOWNLOAD));
+        assertThat(actionStatusRepository.countByActionId(actionId)).isEqualTo(initialCount);
+
+        TimeUnit.MILLISECONDS.sleep(repositoryProperties.getActionStatusPersistenceFlushTime() * 2);
+
+        assertThat(actionStatusRepository.countByActionId(actionId)).isEqualTo(initialCount + 2);
+    }
+
+    @Test
+    @Description("Verfies that a final action status is persisted immediately together with the queued entries of the action.")
+    public void finalActionStatusIsPersistedEager() {
+        final Long actionId = createTargetAndAssignDs();
+        final long initialCount = actionStatusRepository.countByActionId(actionId);
+
+        controllerManagement
+                .addUpdateActionStatus(entityFactory.actionStatus().create(actionId).status(Action.Status.RUNNING));
+        controllerManagement
+                .addUpdateActionStatus(entityFactory.actionStatus().create(actionId).status(Action.Status.FINISHED));
+
+        assertThat(actionStatusRepository.countByActionId(actionId)).isEqualTo(initialCount + 2);
+        assertThat(actionRepository.findById(actionId).get().getStatus()).isEqualTo(Action.Status.FINISHED);
+    }
+
+    @Test
+    @Description("Verfies that a final action status of concurrent writers is persisted after all intermediate "
+            + "entries of the action, even if they are flushed by the queue at the same time.")
+    public void finalActionStatusIsPersistedAfterConcurrentlyFlushedEntries() throws Exception {
+        final Long actionId = createTargetAndAssignDs();
+        final long initialCount = actionStatusRepository.countByActionId(actionId);
+        final int writers = 8;
+
+        final ExecutorService executor = new DelegatingSecurityContextExecutorService(
+                Executors.newFixedThreadPool(writers));
+        try {
+            final List<Future<Action>> updates = IntStream.range(0, writers)
+                    .mapToObj(i -> executor.submit(() -> controllerManagement.addUpdateActionStatus(
+                            entityFactory.actionStatus().create(actionId).status(Action.Status.DOWNLOAD))))
+                    .collect(Collectors.toList());
+            for (final Future<Action> update : updates) {
+                update.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // the periodic flush might be running concurrently
+        controllerManagement
+                .addUpdateActionStatus(entityFactory.actionStatus().create(actionId).status(Action.Status.FINISHED));
+
+        final List<ActionStatus> statuses = actionStatusRepository
+                .findByActionId(new PageRequest(0, 100, Direction.ASC, "id"), actionId).getContent();
+        assertThat(statuses).hasSize((int) initialCount + writers + 1);
+        assertThat(statuses.get(statuses.size() - 1).getStatus()).isEqualTo(Action.Status.FINISHED);
+    }
+
+    @Step
+    private Long createTargetAndAssignDs() {
+        final Long dsId = testdataFactory.createDistributionSet().getId();
+        testdataFactory.createTarget();
+        assignDistributionSet(dsId, TestdataFactory.DEFAULT_CONTROLLER_ID);
+
+        return deploymentManagement.findActiveActionsByTarget(PAGE, TestdataFactory.DEFAULT_CONTROLLER_ID).getContent()
+                .get(0).getId();
+    }
+}
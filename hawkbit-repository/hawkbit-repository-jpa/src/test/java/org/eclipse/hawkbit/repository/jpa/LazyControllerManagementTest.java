@@ -13,15 +13,22 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.TargetSnapshotCache;
 import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetSnapshot;
+import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 import org.eclipse.hawkbit.repository.test.matcher.Expect;
 import org.eclipse.hawkbit.repository.test.matcher.ExpectEvents;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
 import org.springframework.test.context.TestPropertySource;
 
+import com.jayway.awaitility.Awaitility;
+
 import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
 import ru.yandex.qatools.allure.annotations.Stories;
@@ -36,6 +43,9 @@ public class LazyControllerManagementTest extends AbstractJpaIntegrationTest {
     @Autowired
     private RepositoryProperties repositoryProperties;
 
+    @Autowired
+    private TargetSnapshotCache targetSnapshotCache;
+
     @Test
     @Description("Verfies that lazy target poll update is executed as specified.")
     @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 1),
@@ -53,4 +63,46 @@ public class LazyControllerManagementTest extends AbstractJpaIntegrationTest {
         assertThat(updated.getOptLockRevision()).isEqualTo(target.getOptLockRevision());
         assertThat(updated.getLastTargetQuery()).isGreaterThan(target.getLastTargetQuery());
     }
+
+    @Test
+    @Description("Verfies that a poll which does not change the target is answered from the snapshot cache and that "
+            + "the cached snapshot is evicted if the target is updated.")
+    @ExpectEvents({ @Expect(type = TargetCreatedEvent.class, count = 1),
+            @Expect(type = TargetPollEvent.class, count = 2), @Expect(type = TargetUpdatedEvent.class, count = 1) })
+    public void findOrRegisterTargetSnapshotIsServedFromCache() throws InterruptedException {
+        final TargetSnapshot snapshot = controllerManagement.findOrRegisterTargetSnapshot("BB", LOCALHOST);
+        assertThat(snapshot.getControllerId()).isEqualTo("BB");
+        assertThat(snapshot.getUpdateStatus()).isEqualTo(TargetUpdateStatus.REGISTERED);
+        assertThat(snapshot.getAssignedDistributionSetId()).isNull();
+
+        assertThat(controllerManagement.findOrRegisterTargetSnapshot("BB", LOCALHOST))
+                .as("steady state poll is served from the cache").isSameAs(snapshot);
+        TimeUnit.MILLISECONDS.sleep(repositoryProperties.getPollPersistenceFlushTime() + 1);
+
+        final Target target = targetManagement.getByControllerID("BB").get();
+        assertThat(target.getLastTargetQuery()).isNotNull();
+        assertThat(snapshot.matchesSecurityToken(target.getSecurityToken())).isTrue();
+        assertThat(snapshot.matchesSecurityToken("wrong")).isFalse();
+        assertThat(controllerManagement.getSnapshot(target.getId())).contains(snapshot);
+
+        targetManagement.update(entityFactory.target().update("BB").name("updated"));
+        // the update event is delivered asynchronously
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(new DelegatingSecurityContextCallable<>(
+                () -> !targetSnapshotCache.getByControllerId("BB").isPresent()));
+    }
+
+    @Test
+    @Description("Verfies that a snapshot which has been read while a snapshot was evicted is not cached.")
+    public void snapshotReadRacingAnEvictionIsNotCached() {
+        final TargetSnapshot snapshot = new TargetSnapshot(1L, "CC", "token", null, TargetUpdateStatus.REGISTERED,
+                null, false);
+
+        final long staleStamp = targetSnapshotCache.getEvictionStamp();
+        targetSnapshotCache.evict("CC");
+        targetSnapshotCache.putIfNotEvicted(snapshot, staleStamp);
+        assertThat(targetSnapshotCache.getByControllerId("CC")).isEmpty();
+
+        targetSnapshotCache.putIfNotEvicted(snapshot, targetSnapshotCache.getEvictionStamp());
+        assertThat(targetSnapshotCache.getByControllerId("CC")).contains(snapshot);
+    }
 }
@@ -666,6 +666,29 @@ public class TargetManagementSearchTest extends AbstractJpaIntegrationTest {
 
     }
 
+    @Test
+    @Description("Verifies that targets without given assigned DS are returned slice by slice ordered by ID, "
+            + "every slice continuing after the last target of the previous one.")
+    public void findTargetWithoutAssignedDistributionSetAfterId() {
+        final DistributionSet assignedSet = testdataFactory.createDistributionSet("");
+        final List<Target> unassignedTargets = testdataFactory.createTargets(12, "unassigned", "unassigned");
+        assignDistributionSet(assignedSet, testdataFactory.createTargets(10, "assigned", "assigned"));
+
+        final List<Target> result = new ArrayList<>();
+        long lastId = 0;
+        Slice<Target> slice;
+        do {
+            slice = targetManagement.findByTargetFilterQueryAndNonDSAfterId(lastId, 5, assignedSet.getId(),
+                    "name==*");
+            assertThat(slice.getNumberOfElements()).isLessThanOrEqualTo(5);
+            result.addAll(slice.getContent());
+            lastId = result.get(result.size() - 1).getId();
+        } while (slice.hasNext());
+
+        assertThat(result).as("all unassigned targets ordered by ID").hasSize(unassignedTargets.size())
+                .containsAll(unassignedTargets).isSortedAccordingTo(Comparator.comparing(Target::getId));
+    }
+
     @Test
     @Description("Verfies that targets with given installed DS are returned from repository.")
     public void findTargetByInstalledDistributionSet() {
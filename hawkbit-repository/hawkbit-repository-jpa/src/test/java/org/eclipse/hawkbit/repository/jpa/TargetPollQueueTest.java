@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Controller Management")
+public class TargetPollQueueTest {
+
+    @Test
+    @Description("Verfies that repeated polls of a target are coalesced to its latest poll time.")
+    public void pollsAreCoalesced() {
+        final TargetPollQueue queue = new TargetPollQueue(1, 10);
+
+        assertThat(queue.offer("tenant", "target", 1L)).isTrue();
+        assertThat(queue.offer("tenant", "target", 3L)).isTrue();
+        assertThat(queue.offer("tenant", "target", 2L)).isTrue();
+        assertThat(queue.getSize()).isEqualTo(1);
+
+        final Map<String, Map<String, Long>> drained = queue.drain(0);
+        assertThat(drained.get("tenant")).containsEntry("target", 3L).hasSize(1);
+        assertThat(queue.getSize()).isZero();
+
+        queue.flushed(1, 5L);
+        assertThat(queue.getCoalescingRatio()).isEqualTo(3.0);
+        assertThat(queue.getMaxFlushLatency()).isEqualTo(5L);
+    }
+
+    @Test
+    @Description("Verfies that new targets are rejected if the queue is full while known targets are still accepted.")
+    public void fullQueueRejectsNewTargets() {
+        final TargetPollQueue queue = new TargetPollQueue(2, 2);
+
+        assertThat(queue.offer("tenant", "target1", 1L)).isTrue();
+        assertThat(queue.offer("tenant", "target2", 1L)).isTrue();
+        assertThat(queue.offer("tenant", "target3", 1L)).isFalse();
+        assertThat(queue.offer("tenant", "target1", 2L)).isTrue();
+
+        final Map<String, Long> drained = new HashMap<>();
+        for (int shard = 0; shard < queue.getShardCount(); shard++) {
+            queue.drain(shard).values().forEach(drained::putAll);
+        }
+        assertThat(drained).containsEntry("target1", 2L).containsEntry("target2", 1L).hasSize(2);
+    }
+
+    @Test
+    @Description("Verfies that the size stays exact if targets are polled while the queue is drained.")
+    public void sizeIsExactOnConcurrentDrain() throws Exception {
+        final TargetPollQueue queue = new TargetPollQueue(1, 1_000);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            final Future<?> polling = executor.submit(() -> {
+                for (long poll = 0; poll < 100_000; poll++) {
+                    queue.offer("tenant", "target" + poll % 10, poll);
+                }
+            });
+
+            int drained = 0;
+            while (!polling.isDone()) {
+                drained += queue.drain(0).values().stream().mapToInt(Map::size).sum();
+            }
+            polling.get();
+
+            final int remaining = queue.drain(0).values().stream().mapToInt(Map::size).sum();
+            assertThat(drained + remaining).isGreaterThan(0);
+            assertThat(queue.getSize()).isZero();
+            assertThat(queue.getPolls()).isEqualTo(100_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
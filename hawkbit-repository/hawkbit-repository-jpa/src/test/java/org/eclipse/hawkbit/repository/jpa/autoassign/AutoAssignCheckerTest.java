@@ -134,6 +134,33 @@ public class AutoAssignCheckerTest extends AbstractJpaIntegrationTest {
 
     }
 
+    @Test
+    @Description("Verifies that the check of a single target assigns the DS of the matching target filter queries only and only once.")
+    public void checkTargetAssignsMatchingFiltersOnly() {
+        final DistributionSet setA = testdataFactory.createDistributionSet("dsA");
+        final DistributionSet setB = testdataFactory.createDistributionSet("dsB");
+
+        targetFilterQueryManagement.updateAutoAssignDS(targetFilterQueryManagement
+                .create(entityFactory.targetFilterQuery().create().name("filterA").query("id==match*")).getId(),
+                setA.getId());
+        targetFilterQueryManagement.updateAutoAssignDS(targetFilterQueryManagement
+                .create(entityFactory.targetFilterQuery().create().name("filterB").query("id==other*")).getId(),
+                setB.getId());
+
+        final Target matching = testdataFactory.createTarget("matching");
+        final Target notMatching = testdataFactory.createTarget("notMatching");
+
+        // Run the check twice
+        autoAssignChecker.checkTarget(matching.getId());
+        autoAssignChecker.checkTarget(matching.getId());
+        autoAssignChecker.checkTarget(notMatching.getId());
+
+        assertThat(deploymentManagement.getAssignedDistributionSet(matching.getControllerId())).contains(setA);
+        assertThat(deploymentManagement.findActionsByTarget(matching.getControllerId(), PAGE).getContent())
+                .hasSize(1);
+        assertThat(deploymentManagement.getAssignedDistributionSet(notMatching.getControllerId())).isEmpty();
+    }
+
     @Test
     @Description("Test auto assignment of an incomplete DS to filtered targets, that causes failures")
     public void checkAutoAssignWithFailures() {
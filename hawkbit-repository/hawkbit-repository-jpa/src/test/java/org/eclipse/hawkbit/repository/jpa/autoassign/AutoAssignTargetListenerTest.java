@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.autoassign;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.integration.support.locks.DefaultLockRegistry;
+import org.springframework.integration.support.locks.LockRegistry;
+
+import com.jayway.awaitility.Awaitility;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+/**
+ * Test class for {@link AutoAssignTargetListener}.
+ */
+@Features("Unit Tests - Repository")
+@Stories("Auto assign target listener")
+public class AutoAssignTargetListenerTest {
+
+    private static final String TENANT = "tenant";
+
+    private final AutoAssignChecker autoAssignChecker = mock(AutoAssignChecker.class);
+    private final SystemSecurityContext systemSecurityContext = mock(SystemSecurityContext.class);
+    private final AutoAssignScheduler autoAssignScheduler = mock(AutoAssignScheduler.class);
+    private final LockRegistry lockRegistry = new DefaultLockRegistry();
+
+    private AutoAssignTargetListener listener;
+
+    @Before
+    public void setup() {
+        doAnswer(invocation -> ((Callable<?>) invocation.getArguments()[0]).call()).when(systemSecurityContext)
+                .runAsSystemAsTenant(any(Callable.class), eq(TENANT));
+        listener = new AutoAssignTargetListener(autoAssignChecker, systemSecurityContext, lockRegistry, null,
+                autoAssignScheduler, 10);
+    }
+
+    @After
+    public void shutdown() {
+        listener.shutdown();
+    }
+
+    @Test
+    @Description("Verifies that created and updated targets are checked for auto assignments.")
+    public void changedTargetsAreChecked() {
+        listener.onTargetCreated(new TargetCreatedEvent(target(1L), "node"));
+        listener.onTargetUpdated(new TargetUpdatedEvent(target(2L), "node"));
+
+        verify(autoAssignChecker, timeout(5_000)).checkTarget(1L);
+        verify(autoAssignChecker, timeout(5_000)).checkTarget(2L);
+    }
+
+    @Test
+    @Description("Verifies that no target is checked while a periodic check of all target filters is pending.")
+    public void pendingSchedulerTakesPrecedence() {
+        when(autoAssignScheduler.isScanPending()).thenReturn(true);
+
+        listener.onTargetCreated(new TargetCreatedEvent(target(1L), "node"));
+
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> listener.getPendingTargets() == 0);
+        verify(autoAssignChecker, never()).checkTarget(anyLong());
+    }
+
+    @Test
+    @Description("Verifies that a target is left to the periodic check if the scheduler starts waiting while the "
+            + "listener waits for the lock.")
+    public void schedulerWaitingForLockTakesPrecedence() {
+        final ReentrantLock lock = (ReentrantLock) lockRegistry.obtain("autoassign");
+        lock.lock();
+        try {
+            listener.onTargetCreated(new TargetCreatedEvent(target(1L), "node"));
+            Awaitility.await().atMost(5, TimeUnit.SECONDS).until(lock::hasQueuedThreads);
+            when(autoAssignScheduler.isScanPending()).thenReturn(true);
+        } finally {
+            lock.unlock();
+        }
+
+        // the listener has taken and released the lock again
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> !lock.isLocked() && !lock.hasQueuedThreads());
+        verify(autoAssignChecker, never()).checkTarget(anyLong());
+    }
+
+    private static Target target(final long id) {
+        final Target target = mock(Target.class);
+        when(target.getId()).thenReturn(id);
+        when(target.getTenant()).thenReturn(TENANT);
+        return target;
+    }
+}
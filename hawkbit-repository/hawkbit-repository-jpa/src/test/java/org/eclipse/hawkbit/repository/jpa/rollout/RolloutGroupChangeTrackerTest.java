@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Rollout Management")
+public class RolloutGroupChangeTrackerTest {
+
+    private static final String TENANT = "tenant";
+
+    private final RolloutGroupChangeTracker tracker = new RolloutGroupChangeTracker(TimeUnit.HOURS.toMillis(1));
+
+    @Test
+    @Description("Verifies that a rollout group is marked as changed by an action event once.")
+    public void actionEventMarksRolloutGroupAsChanged() {
+        tracker.onActionChange(actionUpdatedEvent(1L, 2L));
+
+        assertThat(tracker.consumeChange(TENANT.toUpperCase(), 2L)).isTrue();
+        assertThat(tracker.consumeChange(TENANT, 2L)).isFalse();
+        assertThat(tracker.consumeChange(TENANT, 3L)).isFalse();
+    }
+
+    @Test
+    @Description("Verifies that a full evaluation is due once per interval and drops the tracked changes of the tenant.")
+    public void fullEvaluationIsDueOncePerInterval() {
+        tracker.onActionChange(actionUpdatedEvent(1L, 2L));
+
+        assertThat(tracker.startFullEvaluationIfDue(TENANT)).isTrue();
+        assertThat(tracker.startFullEvaluationIfDue(TENANT)).isFalse();
+        assertThat(tracker.startFullEvaluationIfDue("other")).isTrue();
+        assertThat(tracker.consumeChange(TENANT, 2L)).isFalse();
+    }
+
+    @Test
+    @Description("Verifies that a reset drops the tracked changes of the tenant only and makes the next evaluation a full one.")
+    public void resetDropsChangesOfTenant() {
+        assertThat(tracker.startFullEvaluationIfDue(TENANT)).isTrue();
+        tracker.onActionChange(actionUpdatedEvent(1L, 2L));
+        tracker.onActionChange(actionUpdatedEvent("other", 1L, 3L));
+
+        tracker.reset(TENANT);
+
+        assertThat(tracker.consumeChange(TENANT, 2L)).isFalse();
+        assertThat(tracker.consumeChange("other", 3L)).isTrue();
+        assertThat(tracker.startFullEvaluationIfDue(TENANT)).isTrue();
+    }
+
+    private static ActionUpdatedEvent actionUpdatedEvent(final Long rolloutId, final Long rolloutGroupId) {
+        return actionUpdatedEvent(TENANT, rolloutId, rolloutGroupId);
+    }
+
+    private static ActionUpdatedEvent actionUpdatedEvent(final String tenant, final Long rolloutId,
+            final Long rolloutGroupId) {
+        final Action action = mock(Action.class);
+        when(action.getId()).thenReturn(10L);
+        when(action.getTenant()).thenReturn(tenant);
+        when(action.getStatus()).thenReturn(Status.RUNNING);
+        return new ActionUpdatedEvent(action, rolloutId, rolloutGroupId, Status.SCHEDULED, Status.RUNNING,
+                "application");
+    }
+}
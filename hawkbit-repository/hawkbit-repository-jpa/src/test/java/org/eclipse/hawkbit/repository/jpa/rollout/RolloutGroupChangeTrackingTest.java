@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Rollout Management")
+@TestPropertySource(properties = "hawkbit.server.repository.event-driven-rollout-handling=true")
+public class RolloutGroupChangeTrackingTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private RolloutGroupChangeTracker changeTracker;
+
+    @Test
+    @Description("Verifies that the tracked changes of a tenant without active rollouts are dropped by the rollout "
+            + "handler.")
+    public void changesAreDroppedWithoutActiveRollouts() {
+        final String tenant = tenantAware.getCurrentTenant();
+        final Action action = mock(Action.class);
+        when(action.getId()).thenReturn(10L);
+        when(action.getTenant()).thenReturn(tenant);
+        when(action.getStatus()).thenReturn(Status.FINISHED);
+        changeTracker.onActionChange(new ActionUpdatedEvent(action, 1L, 2L, Status.RUNNING, Status.FINISHED, "node"));
+
+        rolloutManagement.handleRollouts();
+
+        assertThat(changeTracker.consumeChange(tenant, 2L)).isFalse();
+        assertThat(changeTracker.startFullEvaluationIfDue(tenant)).isTrue();
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+import org.eclipse.hawkbit.repository.RolloutManagement;
+import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Rollout Management")
+public class RolloutSchedulerTest {
+
+    private final SystemManagement systemManagement = mock(SystemManagement.class);
+    private final RolloutManagement rolloutManagement = mock(RolloutManagement.class);
+    private final SystemSecurityContext systemSecurityContext = mock(SystemSecurityContext.class);
+
+    private RolloutScheduler scheduler;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        doAnswer(invocation -> {
+            Arrays.asList("tenant1", "tenant2", "tenant3")
+                    .forEach(((Consumer<String>) invocation.getArguments()[0])::accept);
+            return null;
+        }).when(systemManagement).forEachTenant(any());
+        when(systemSecurityContext.runAsSystem(any()))
+                .thenAnswer(invocation -> ((Callable<?>) invocation.getArguments()[0]).call());
+        when(systemSecurityContext.runAsSystemAsTenant(any(), anyString()))
+                .thenAnswer(invocation -> ((Callable<?>) invocation.getArguments()[0]).call());
+    }
+
+    @After
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    @Description("Verifies that all tenants are handled sequentially by default and their handling time is recorded.")
+    public void tenantsAreHandledSequentially() {
+        scheduler = new RolloutScheduler(systemManagement, rolloutManagement, systemSecurityContext);
+
+        scheduler.runningRolloutScheduler();
+
+        verify(rolloutManagement, times(3)).handleRollouts();
+        assertThat(scheduler.getHandledTenants()).isEqualTo(3);
+        assertThat(scheduler.getMaxRunTime()).isGreaterThanOrEqualTo(scheduler.getMaxTenantTime());
+    }
+
+    @Test
+    @Description("Verifies that all tenants are handled in parallel and a failing tenant does not prevent the handling of the others.")
+    public void tenantsAreHandledInParallel() {
+        scheduler = new RolloutScheduler(systemManagement, rolloutManagement, systemSecurityContext, 2);
+        doThrow(new IllegalStateException("expected")).doNothing().when(rolloutManagement).handleRollouts();
+
+        scheduler.runningRolloutScheduler();
+
+        verify(rolloutManagement, times(3)).handleRollouts();
+        assertThat(scheduler.getHandledTenants()).isEqualTo(3);
+        assertThat(scheduler.getMaxRunTime()).isGreaterThanOrEqualTo(scheduler.getMaxTenantTime());
+    }
+}
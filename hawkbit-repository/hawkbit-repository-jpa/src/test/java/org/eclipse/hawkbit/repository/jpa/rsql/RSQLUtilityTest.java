@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.repository.jpa.rsql;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
@@ -23,9 +24,13 @@ import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.criteria.SetJoin;
 import javax.persistence.metamodel.Attribute;
 
 import org.eclipse.hawkbit.repository.DistributionSetFields;
@@ -74,6 +79,8 @@ public class RSQLUtilityTest {
     private CriteriaQuery<SoftwareModule> criteriaQueryMock;
     @Mock
     private CriteriaBuilder criteriaBuilderMock;
+    @Mock
+    private SetJoin<Object, Object> tagsJoinMock;
 
     private final Database testDb = Database.H2;
 
@@ -183,6 +190,71 @@ public class RSQLUtilityTest {
         verify(criteriaBuilderMock, times(1)).and(any(Predicate.class));
     }
 
+    @Test
+    @Description("Verifies that a repeatedly evaluated RSQL string is parsed once and an unknown field is reported on every evaluation.")
+    public void repeatedRsqlIsParsedOnce() {
+        reset(baseSoftwareModuleRootMock, criteriaQueryMock, criteriaBuilderMock);
+        final String correctRsql = "name==cached;version==1.3";
+        when(baseSoftwareModuleRootMock.get("name")).thenReturn(baseSoftwareModuleRootMock);
+        when(baseSoftwareModuleRootMock.get("version")).thenReturn(baseSoftwareModuleRootMock);
+        when(baseSoftwareModuleRootMock.getJavaType()).thenReturn((Class) SoftwareModule.class);
+        final long hits = RSQLUtility.getParseCacheStats().hitCount();
+        final long misses = RSQLUtility.getParseCacheStats().missCount();
+
+        // test
+        for (int i = 0; i < 2; i++) {
+            RSQLUtility.parse(correctRsql, SoftwareModuleFields.class, null, testDb)
+                    .toPredicate(baseSoftwareModuleRootMock, criteriaQueryMock, criteriaBuilderMock);
+        }
+
+        // verification
+        assertThat(RSQLUtility.getParseCacheStats().missCount() - misses).isEqualTo(1);
+        assertThat(RSQLUtility.getParseCacheStats().hitCount() - hits).isEqualTo(1);
+        verify(criteriaBuilderMock, times(2)).and(any(Predicate.class));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                RSQLUtility.parse("cachedUnknownField==abc", SoftwareModuleFields.class, null, testDb)
+                        .toPredicate(baseSoftwareModuleRootMock, criteriaQueryMock, criteriaBuilderMock);
+                fail("Missing an expected RSQLParameterUnsupportedFieldException because of unknown RSQL field");
+            } catch (final RSQLParameterUnsupportedFieldException e) {
+            }
+        }
+    }
+
+    @Test
+    @Description("Verifies that a filter on columns of the root entity does not make the query distinct.")
+    public void scalarRsqlDoesNotApplyDistinct() {
+        reset(baseSoftwareModuleRootMock, criteriaQueryMock, criteriaBuilderMock);
+        when(baseSoftwareModuleRootMock.get("name")).thenReturn(baseSoftwareModuleRootMock);
+        when(baseSoftwareModuleRootMock.get("updateStatus")).thenReturn(baseSoftwareModuleRootMock);
+
+        // test
+        RSQLUtility.parse("name==abc;updatestatus==registered", TargetFields.class, null, testDb)
+                .toPredicate(baseSoftwareModuleRootMock, criteriaQueryMock, criteriaBuilderMock);
+
+        // verification
+        verify(criteriaQueryMock, never()).distinct(true);
+    }
+
+    @Test
+    @Description("Verifies that a filter on a to-many relation makes the query distinct.")
+    public void toManyRsqlAppliesDistinct() {
+        reset(baseSoftwareModuleRootMock, criteriaQueryMock, criteriaBuilderMock, tagsJoinMock);
+        when(baseSoftwareModuleRootMock.get("tags")).thenReturn((Path) tagsJoinMock);
+        when(baseSoftwareModuleRootMock.join("tags", JoinType.LEFT)).thenReturn((Join) tagsJoinMock);
+        when(tagsJoinMock.getParent()).thenReturn((From) baseSoftwareModuleRootMock);
+        when(tagsJoinMock.get("name")).thenReturn(baseSoftwareModuleRootMock);
+
+        // test
+        RSQLUtility.parse("tag==abc", TargetFields.class, null, testDb).toPredicate(baseSoftwareModuleRootMock,
+                criteriaQueryMock, criteriaBuilderMock);
+
+        // verification
+        verify(baseSoftwareModuleRootMock).join("tags", JoinType.LEFT);
+        verify(criteriaQueryMock).distinct(true);
+    }
+
     @Test
     public void correctRsqlBuildsNotLikePredicate() {
         reset(baseSoftwareModuleRootMock, criteriaQueryMock, criteriaBuilderMock);
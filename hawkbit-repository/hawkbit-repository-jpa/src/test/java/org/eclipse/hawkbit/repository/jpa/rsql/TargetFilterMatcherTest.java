@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rsql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.model.TargetTag;
+import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+import org.junit.Before;
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("RSQL search utility")
+public class TargetFilterMatcherTest {
+
+    private final JpaTarget target = mock(JpaTarget.class);
+
+    @Before
+    public void setupTarget() {
+        final TargetTag tag = mock(TargetTag.class);
+        when(tag.getName()).thenReturn("Alpha");
+
+        when(target.getControllerId()).thenReturn("device-4711");
+        when(target.getName()).thenReturn("Device 4711");
+        when(target.getUpdateStatus()).thenReturn(TargetUpdateStatus.REGISTERED);
+        when(target.getLastTargetQuery()).thenReturn(1_000L);
+        when(target.getControllerAttributes()).thenReturn(Collections.singletonMap("Revision", "1.2"));
+        when(target.getTags()).thenReturn(Collections.singleton(tag));
+    }
+
+    @Test
+    @Description("Verifies that fields, attributes and tags of a target are compared like by the database query.")
+    public void matchesFieldsAttributesAndTags() {
+        assertThat(TargetFilterMatcher.mayMatch(target, "controllerId==DEVICE-*")).isTrue();
+        assertThat(TargetFilterMatcher.mayMatch(target, "name==*4711;updateStatus==registered")).isTrue();
+        assertThat(TargetFilterMatcher.mayMatch(target, "attribute.revision=in=(1.1,1.2)")).isTrue();
+        assertThat(TargetFilterMatcher.mayMatch(target, "tag==alpha,tag==beta")).isTrue();
+        assertThat(TargetFilterMatcher.mayMatch(target, "lastControllerRequestAt=gt=999")).isTrue();
+
+        assertThat(TargetFilterMatcher.mayMatch(target, "controllerId==other*")).isFalse();
+        assertThat(TargetFilterMatcher.mayMatch(target, "name==*4711;updateStatus==pending")).isFalse();
+        assertThat(TargetFilterMatcher.mayMatch(target, "attribute.unknown==1.2")).isFalse();
+        assertThat(TargetFilterMatcher.mayMatch(target, "tag=out=(alpha)")).isFalse();
+        assertThat(TargetFilterMatcher.mayMatch(target, "lastControllerRequestAt=lt=1000")).isFalse();
+        assertThat(TargetFilterMatcher.mayMatch(target, "description!=abc")).isFalse();
+    }
+
+    @Test
+    @Description("Verifies that comparisons which cannot be evaluated in memory count as possible match.")
+    public void undecidableComparisonMayMatch() {
+        assertThat(TargetFilterMatcher.mayMatch(target, "lastControllerRequestAt=le=${OVERDUE_TS}")).isTrue();
+        assertThat(TargetFilterMatcher.mayMatch(target, "name=gt=A")).isTrue();
+        assertThat(TargetFilterMatcher.mayMatch(target, "unknownField==abc")).isTrue();
+    }
+}
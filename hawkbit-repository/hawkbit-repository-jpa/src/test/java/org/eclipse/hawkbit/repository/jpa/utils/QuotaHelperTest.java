@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.eclipse.hawkbit.repository.exception.QuotaExceededException;
+import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Quota Helper")
+public class QuotaHelperTest {
+
+    private static final long LIMIT = 10;
+
+    private final List<Long> parentIds = LongStream.range(0, Constants.MAX_ENTRIES_IN_STATEMENT * 2L + 1).boxed()
+            .collect(Collectors.toList());
+    private final List<List<Long>> queriedChunks = new ArrayList<>();
+    private final List<Long> countedParents = new ArrayList<>();
+
+    @Test
+    @Description("Verifies that the parents are checked in chunks and none is counted if the quota is kept.")
+    public void quotaIsCheckedPerChunk() {
+        QuotaHelper.assertAssignmentQuota(parentIds, 1, LIMIT, Action.class, Target.class, (chunk, count) -> {
+            assertThat(count).isEqualTo(LIMIT - 1);
+            queriedChunks.add(chunk);
+            return Collections.emptyList();
+        }, this::count);
+
+        assertThat(queriedChunks).hasSize(3);
+        assertThat(queriedChunks.get(0)).hasSize(Constants.MAX_ENTRIES_IN_STATEMENT);
+        assertThat(queriedChunks.get(2)).containsExactly((long) Constants.MAX_ENTRIES_IN_STATEMENT * 2);
+        assertThat(countedParents).isEmpty();
+    }
+
+    @Test
+    @Description("Verifies that the quota violation of a parent in a later chunk is reported for this parent only and "
+            + "that the remaining chunks are not queried.")
+    public void quotaViolationIsReportedForExceedingParent() {
+        final long exceeding = Constants.MAX_ENTRIES_IN_STATEMENT + 5L;
+
+        assertThatExceptionOfType(QuotaExceededException.class).isThrownBy(() -> QuotaHelper
+                .assertAssignmentQuota(parentIds, 1, LIMIT, Action.class, Target.class, (chunk, count) -> {
+                    queriedChunks.add(chunk);
+                    return chunk.contains(exceeding) ? Collections.singletonList(exceeding)
+                            : Collections.emptyList();
+                }, this::count));
+
+        assertThat(queriedChunks).hasSize(2);
+        assertThat(countedParents).containsExactly(exceeding);
+    }
+
+    @Test
+    @Description("Verifies that a request beyond the limit is rejected without querying the parents.")
+    public void requestBeyondLimitIsRejected() {
+        assertThatExceptionOfType(QuotaExceededException.class)
+                .isThrownBy(() -> QuotaHelper.assertAssignmentQuota(parentIds, LIMIT + 1, LIMIT, Action.class,
+                        Target.class, (chunk, count) -> {
+                            queriedChunks.add(chunk);
+                            return Collections.emptyList();
+                        }, this::count));
+
+        assertThat(queriedChunks).isEmpty();
+    }
+
+    private Long count(final Long parentId) {
+        countedParents.add(parentId);
+        return LIMIT;
+    }
+}
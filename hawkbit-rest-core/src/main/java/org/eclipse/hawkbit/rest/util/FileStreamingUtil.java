@@ -8,10 +8,14 @@
  */
 package org.eclipse.hawkbit.rest.util;
 
+import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
@@ -46,6 +50,21 @@ public final class FileStreamingUtil {
 
     private static final int BUFFER_SIZE = 0x2000; // 8k
 
+    /**
+     * Request attributes of the Tomcat sendfile support, i.e. the connector
+     * writes the file to the socket without copying it through the heap.
+     */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Smaller ranges are streamed as Tomcat writes them through its buffer
+     * anyway.
+     */
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024L;
+
     private FileStreamingUtil() {
 
     }
@@ -169,12 +188,13 @@ public final class FileStreamingUtil {
         // full request - no range
         if (ranges.isEmpty() || ranges.get(0).equals(full)) {
             LOG.debug("filename ({}) results into a full request: ", filename);
-            result = handleFullFileRequest(artifact, filename, response, progressListener, full);
+            result = handleFullFileRequest(artifact, filename, response, request, progressListener, full);
         }
         // standard range request
         else if (ranges.size() == 1) {
             LOG.debug("filename ({}) results into a standard range request: ", filename);
-            result = handleStandardRangeRequest(artifact, filename, response, progressListener, ranges);
+            result = handleStandardRangeRequest(artifact, filename, response, request, progressListener,
+                    ranges);
         }
         // multipart range request
         else {
@@ -186,15 +206,19 @@ public final class FileStreamingUtil {
     }
 
     private static ResponseEntity<InputStream> handleFullFileRequest(final AbstractDbArtifact artifact,
-            final String filename, final HttpServletResponse response,
+            final String filename, final HttpServletResponse response, final HttpServletRequest request,
             final FileStreamingProgressListener progressListener, final ByteRange full) {
         final ByteRange r = full;
         response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + r.getStart() + "-" + r.getEnd() + "/" + r.getTotal());
         response.setContentLengthLong(r.getLength());
 
-        try (InputStream from = artifact.getFileInputStream()) {
+        if (sendfile(artifact, request, progressListener, r, filename)) {
+            return ResponseEntity.ok().build();
+        }
+
+        try (ArtifactReader from = new ArtifactReader(artifact)) {
             final ServletOutputStream to = response.getOutputStream();
-            copyStreams(from, to, progressListener, r.getStart(), r.getLength(), filename);
+            from.copy(to, progressListener, r.getStart(), r.getLength(), filename);
         } catch (final IOException e) {
             throw new FileStreamingFailedException("fullfileRequest " + filename, e);
         }
@@ -260,21 +284,18 @@ public final class FileStreamingUtil {
         response.setContentType("multipart/byteranges; boundary=" + ByteRange.MULTIPART_BOUNDARY);
         response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
 
-        try {
+        try (ArtifactReader from = new ArtifactReader(artifact)) {
             final ServletOutputStream to = response.getOutputStream();
 
             for (final ByteRange r : ranges) {
-                try (InputStream from = artifact.getFileInputStream()) {
-
-                    // Add multipart boundary and header fields for every range.
-                    to.println();
-                    to.println("--" + ByteRange.MULTIPART_BOUNDARY);
-                    to.println(HttpHeaders.CONTENT_RANGE + ": bytes " + r.getStart() + "-" + r.getEnd() + "/"
-                            + r.getTotal());
-
-                    // Copy single part range of multi part range.
-                    copyStreams(from, to, progressListener, r.getStart(), r.getLength(), filename);
-                }
+                // Add multipart boundary and header fields for every range.
+                to.println();
+                to.println("--" + ByteRange.MULTIPART_BOUNDARY);
+                to.println(HttpHeaders.CONTENT_RANGE + ": bytes " + r.getStart() + "-" + r.getEnd() + "/"
+                        + r.getTotal());
+
+                // Copy single part range of multi part range.
+                from.copy(to, progressListener, r.getStart(), r.getLength(), filename);
             }
 
             // End with final multipart boundary.
@@ -288,16 +309,20 @@ public final class FileStreamingUtil {
     }
 
     private static ResponseEntity<InputStream> handleStandardRangeRequest(final AbstractDbArtifact artifact,
-            final String filename, final HttpServletResponse response,
+            final String filename, final HttpServletResponse response, final HttpServletRequest request,
             final FileStreamingProgressListener progressListener, final List<ByteRange> ranges) {
         final ByteRange r = ranges.get(0);
         response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + r.getStart() + "-" + r.getEnd() + "/" + r.getTotal());
         response.setContentLengthLong(r.getLength());
         response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
 
-        try (InputStream from = artifact.getFileInputStream()) {
+        if (sendfile(artifact, request, progressListener, r, filename)) {
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).build();
+        }
+
+        try (ArtifactReader from = new ArtifactReader(artifact)) {
             final ServletOutputStream to = response.getOutputStream();
-            copyStreams(from, to, progressListener, r.getStart(), r.getLength(), filename);
+            from.copy(to, progressListener, r.getStart(), r.getLength(), filename);
         } catch (final IOException e) {
             LOG.error("standardRangeRequest of file ({}) failed!", filename, e);
             throw new FileStreamingFailedException(filename);
@@ -306,6 +331,83 @@ public final class FileStreamingUtil {
         return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).build();
     }
 
+    /**
+     * Hands the range over to the Tomcat sendfile support if the connector
+     * supports it and the artifact is kept in a local file. The response body
+     * must not be written in that case, Tomcat sends the file after the
+     * request has been processed.
+     * 
+     * @return <code>true</code> if the range is sent by Tomcat,
+     *         <code>false</code> if it has to be streamed
+     */
+    private static boolean sendfile(final AbstractDbArtifact artifact, final HttpServletRequest request,
+            final FileStreamingProgressListener progressListener, final ByteRange r, final String filename) {
+        if (r.getLength() < SENDFILE_MIN_SIZE || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            return false;
+        }
+
+        final File file = artifact.getFile();
+        if (file == null) {
+            return false;
+        }
+
+        LOG.debug("filename ({}) is handed over to sendfile from {} to {}", filename, r.getStart(), r.getEnd());
+
+        request.setAttribute(SENDFILE_FILENAME, file.getAbsolutePath());
+        request.setAttribute(SENDFILE_START, r.getStart());
+        request.setAttribute(SENDFILE_END, r.getEnd() + 1);
+
+        // Tomcat offers no callback for the completed transfer, so the
+        // progress is reported completely on hand over
+        if (progressListener != null) {
+            progressListener.progress(r.getLength(), r.getLength(), r.getLength());
+        }
+
+        return true;
+    }
+
+    private static long readChannel(final FileChannel from, final OutputStream to,
+            final FileStreamingProgressListener progressListener, final long start, final long length,
+            final String filename) throws IOException {
+
+        final long startMillis = System.currentTimeMillis();
+        LOG.trace("Start of channel read of file {} from {} to {}", filename, start, length);
+
+        Preconditions.checkNotNull(from);
+        Preconditions.checkNotNull(to);
+        final byte[] buf = new byte[BUFFER_SIZE];
+        final ByteBuffer buffer = ByteBuffer.wrap(buf);
+        long total = 0;
+        final ProgressNotifier progress = new ProgressNotifier(progressListener, length);
+
+        // positioned reads, i.e. neither the bytes before the range are read
+        // nor the position of the channel is changed
+        while (total < length) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buf.length, length - total));
+            final int r = from.read(buffer, start + total);
+            if (r == -1) {
+                break;
+            }
+
+            to.write(buf, 0, r);
+            total += r;
+
+            progress.shipped(r, total);
+        }
+
+        final long totalTime = System.currentTimeMillis() - startMillis;
+
+        if (total < length) {
+            throw new FileStreamingFailedException(filename + ": " + (length - total)
+                    + " bytes could not be written to client, total time on write: !" + totalTime + " ms");
+        }
+
+        LOG.trace("Finished channel read of file {} with length {} in {} ms", filename, length, totalTime);
+
+        return total;
+    }
+
     private static long copyStreams(final InputStream from, final OutputStream to,
             final FileStreamingProgressListener progressListener, final long start, final long length,
             final String filename) throws IOException {
@@ -317,42 +419,22 @@ public final class FileStreamingUtil {
         Preconditions.checkNotNull(to);
         final byte[] buf = new byte[BUFFER_SIZE];
         long total = 0;
-        int progressPercent = 1;
+        final ProgressNotifier progress = new ProgressNotifier(progressListener, length);
 
         ByteStreams.skipFully(from, start);
 
-        long toRead = length;
-        boolean toContinue = true;
-        long shippedSinceLastEvent = 0;
-
-        while (toContinue) {
-            final int r = from.read(buf);
+        // never read beyond the range so that the stream can be reused for
+        // subsequent ranges
+        while (total < length) {
+            final int r = from.read(buf, 0, (int) Math.min(buf.length, length - total));
             if (r == -1) {
                 break;
             }
 
-            toRead -= r;
-            if (toRead > 0) {
-                to.write(buf, 0, r);
-                total += r;
-                shippedSinceLastEvent += r;
-            } else {
-                to.write(buf, 0, (int) toRead + r);
-                total += toRead + r;
-                shippedSinceLastEvent += toRead + r;
-                toContinue = false;
-            }
-
-            if (progressListener != null) {
-                final int newPercent = DoubleMath.roundToInt(total * 100.0 / length, RoundingMode.DOWN);
+            to.write(buf, 0, r);
+            total += r;
 
-                // every 10 percent an event
-                if (newPercent == 100 || newPercent > progressPercent + 10) {
-                    progressPercent = newPercent;
-                    progressListener.progress(length, shippedSinceLastEvent, total);
-                    shippedSinceLastEvent = 0;
-                }
-            }
+            progress.shipped(r, total);
         }
 
         final long totalTime = System.currentTimeMillis() - startMillis;
@@ -367,6 +449,92 @@ public final class FileStreamingUtil {
         return total;
     }
 
+    /**
+     * Reads the requested ranges of an artifact, opening the artifact only once
+     * per request. Uses positioned reads on the {@link FileChannel} if
+     * supported by the artifact repository. Otherwise an {@link InputStream}
+     * is kept open and skipped forward, it is only reopened if a range starts
+     * before the current stream position.
+     */
+    private static final class ArtifactReader implements Closeable {
+        private final AbstractDbArtifact artifact;
+        private final FileChannel channel;
+        private InputStream stream;
+        private long streamPosition;
+
+        private ArtifactReader(final AbstractDbArtifact artifact) {
+            this.artifact = artifact;
+            this.channel = artifact.getFileChannel();
+        }
+
+        private long copy(final OutputStream to, final FileStreamingProgressListener progressListener,
+                final long start, final long length, final String filename) throws IOException {
+            if (channel != null) {
+                return readChannel(channel, to, progressListener, start, length, filename);
+            }
+
+            if (stream == null || start < streamPosition) {
+                closeStream();
+                stream = artifact.getFileInputStream();
+                streamPosition = 0;
+            }
+
+            final long copied = copyStreams(stream, to, progressListener, start - streamPosition, length, filename);
+            streamPosition = start + copied;
+            return copied;
+        }
+
+        private void closeStream() throws IOException {
+            if (stream != null) {
+                stream.close();
+                stream = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                closeStream();
+            } finally {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reports the progress of a single copy operation to a
+     * {@link FileStreamingProgressListener} every 10 percent.
+     */
+    private static final class ProgressNotifier {
+        private final FileStreamingProgressListener progressListener;
+        private final long length;
+        private int progressPercent = 1;
+        private long shippedSinceLastEvent;
+
+        private ProgressNotifier(final FileStreamingProgressListener progressListener, final long length) {
+            this.progressListener = progressListener;
+            this.length = length;
+        }
+
+        private void shipped(final long shipped, final long total) {
+            if (progressListener == null) {
+                return;
+            }
+
+            shippedSinceLastEvent += shipped;
+            final int newPercent = DoubleMath.roundToInt(total * 100.0 / length, RoundingMode.DOWN);
+
+            // every 10 percent an event
+            if (newPercent == 100 || newPercent > progressPercent + 10) {
+                progressPercent = newPercent;
+                progressListener.progress(length, shippedSinceLastEvent, total);
+                shippedSinceLastEvent = 0;
+            }
+        }
+    }
+
     private static final class ByteRange {
         private static final String MULTIPART_BOUNDARY = "THIS_STRING_SEPARATES_MULTIPART";
 
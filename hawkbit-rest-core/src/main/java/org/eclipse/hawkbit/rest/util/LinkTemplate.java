@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.rest.util;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.hateoas.Link;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.util.UriUtils;
+
+import com.google.common.base.Throwables;
+
+/**
+ * Template of a link to a controller method which is expanded for many
+ * entities, e.g. the self link of every target of a page.
+ *
+ * Building a link by means of
+ * {@link org.springframework.hateoas.mvc.ControllerLinkBuilder#methodOn(Class, Object...)}
+ * records a proxy invocation and expands the URI template of the method for
+ * every link. The template resolves the link only once per request with
+ * placeholders as arguments, see {@link #text(int)}, {@link #id(int)} and
+ * {@link #number(int)}, and replaces the placeholders for every entity. The
+ * resolved link is kept per request as it depends on the URL of the request,
+ * e.g. the host name or the forwarded headers.
+ *
+ * Example:
+ *
+ * <pre>
+ * private static final LinkTemplate TARGET = LinkTemplate
+ *         .of(() -&gt; linkTo(methodOn(MgmtTargetRestApi.class).getTarget(text(0))).withSelfRel());
+ *
+ * response.add(TARGET.expand(target.getControllerId()));
+ * </pre>
+ */
+public final class LinkTemplate {
+
+    private static final String CACHE_KEY = LinkTemplate.class.getName() + ".CACHE";
+
+    // the blanks show if the link builder encodes the path variables
+    private static final String TEXT_PLACEHOLDER = "hawkbit link param ";
+
+    private final Supplier<Link> resolver;
+
+    private LinkTemplate(final Supplier<Link> resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Creates a template.
+     *
+     * @param resolver
+     *            builds the link with the placeholders instead of the
+     *            arguments of the controller method
+     * @return the template
+     */
+    public static LinkTemplate of(final Supplier<Link> resolver) {
+        return new LinkTemplate(resolver);
+    }
+
+    /**
+     * @param index
+     *            of the value in {@link #expand(Object...)}
+     * @return placeholder for a {@link String} path variable
+     */
+    public static String text(final int index) {
+        return TEXT_PLACEHOLDER + index;
+    }
+
+    /**
+     * @param index
+     *            of the value in {@link #expand(Object...)}
+     * @return placeholder for a {@link Long} argument
+     */
+    public static Long id(final int index) {
+        return Long.MIN_VALUE + index;
+    }
+
+    /**
+     * @param index
+     *            of the value in {@link #expand(Object...)}
+     * @return placeholder for an {@link Integer} argument
+     */
+    public static Integer number(final int index) {
+        return Integer.MIN_VALUE + index;
+    }
+
+    /**
+     * Expands the template.
+     *
+     * @param values
+     *            to replace the placeholders with, the value at index i
+     *            replaces the placeholder with index i
+     * @return the link
+     */
+    public Link expand(final Object... values) {
+        final Link resolved = resolve();
+
+        final Map<String, String> replacements = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            final String value = String.valueOf(values[i]);
+            replacements.put(encode(text(i)), encode(value));
+            replacements.put(text(i), value);
+            replacements.put(String.valueOf(id(i)), value);
+            replacements.put(String.valueOf(number(i)), value);
+        }
+
+        return new Link(replace(resolved.getHref(), replacements), resolved.getRel());
+    }
+
+    /**
+     * Replaces the placeholders in one pass, i.e. the values are not searched
+     * for placeholders again. The longest placeholder wins as the text
+     * placeholder 1 is a prefix of 10.
+     */
+    private static String replace(final String href, final Map<String, String> replacements) {
+        final StringBuilder result = new StringBuilder(href.length());
+        int position = 0;
+        while (position < href.length()) {
+            String match = null;
+            for (final String placeholder : replacements.keySet()) {
+                if (href.startsWith(placeholder, position)
+                        && (match == null || placeholder.length() > match.length())) {
+                    match = placeholder;
+                }
+            }
+
+            if (match == null) {
+                result.append(href.charAt(position));
+                position++;
+            } else {
+                result.append(replacements.get(match));
+                position += match.length();
+            }
+        }
+        return result.toString();
+    }
+
+    private Link resolve() {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return resolver.get();
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<LinkTemplate, Link> resolved = (Map<LinkTemplate, Link>) attributes.getAttribute(CACHE_KEY,
+                RequestAttributes.SCOPE_REQUEST);
+        if (resolved == null) {
+            resolved = new IdentityHashMap<>();
+            attributes.setAttribute(CACHE_KEY, resolved, RequestAttributes.SCOPE_REQUEST);
+        }
+        return resolved.computeIfAbsent(this, template -> resolver.get());
+    }
+
+    /**
+     * Encodes the value like the link builder encodes path variables, i.e. a
+     * '/' is kept.
+     */
+    private static String encode(final String value) {
+        try {
+            return UriUtils.encodePath(value, StandardCharsets.UTF_8.name());
+        } catch (final UnsupportedEncodingException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+}
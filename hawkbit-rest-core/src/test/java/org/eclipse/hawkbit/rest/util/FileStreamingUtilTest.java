@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.hawkbit.artifact.repository.model.AbstractDbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Direct Device Integration API")
+@Stories("Artifact file streaming")
+public class FileStreamingUtilTest {
+
+    private static final int SIZE = 100_000;
+    private static final long LAST_MODIFIED = 1_000_000L;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final byte[] content = new byte[SIZE];
+    private final AtomicInteger openedStreams = new AtomicInteger();
+    private final AtomicLong shippedBytes = new AtomicLong();
+
+    private final AbstractDbArtifact artifact = new AbstractDbArtifact("artifact", new DbArtifactHash("sha1", "md5"),
+            SIZE, null) {
+        @Override
+        public InputStream getFileInputStream() {
+            openedStreams.incrementAndGet();
+            return new ByteArrayInputStream(content);
+        }
+    };
+
+    public FileStreamingUtilTest() {
+        for (int i = 0; i < SIZE; i++) {
+            content[i] = (byte) i;
+        }
+    }
+
+    @Test
+    @Description("Verifies that the whole artifact is streamed and the progress of all bytes is reported.")
+    public void fullDownload() {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        final ResponseEntity<InputStream> result = download(null, response);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 0-99999/100000");
+        assertThat(shippedBytes.get()).isEqualTo(SIZE);
+    }
+
+    @Test
+    @Description("Verifies that a single range, including an open and a suffix range, is streamed from its offset.")
+    public void singleRangeDownload() {
+        assertRange("bytes=1000-1999", 1000, 2000);
+        assertRange("bytes=99000-", 99000, SIZE);
+        assertRange("bytes=-500", SIZE - 500, SIZE);
+        assertRange("bytes=99990-200000", 99990, SIZE);
+    }
+
+    @Test
+    @Description("Verifies that the ranges of a multipart request are streamed from one stream if they are ascending "
+            + "and that the stream is reopened for a range before the current position.")
+    public void multipartRangeDownload() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        download("bytes=10-19,50000-50009", response);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.PARTIAL_CONTENT.value());
+        assertThat(response.getContentAsByteArray()).isEqualTo(multipart(10, 19, 50000, 50009));
+        assertThat(openedStreams.get()).isEqualTo(1);
+        assertThat(shippedBytes.get()).isEqualTo(20);
+
+        response = new MockHttpServletResponse();
+        download("bytes=50000-50009,10-19", response);
+
+        assertThat(response.getContentAsByteArray()).isEqualTo(multipart(50000, 50009, 10, 19));
+        assertThat(openedStreams.get()).isEqualTo(3);
+    }
+
+    @Test
+    @Description("Verifies that the ranges of an artifact in a local file are read from their positions of one "
+            + "file channel, in any order and without opening a stream.")
+    public void channelRangeDownload() throws IOException {
+        final File file = folder.newFile();
+        Files.write(file.toPath(), content);
+        final List<FileChannel> channels = new ArrayList<>();
+        final AbstractDbArtifact channelArtifact = new AbstractDbArtifact("artifact",
+                new DbArtifactHash("sha1", "md5"), SIZE, null) {
+            @Override
+            public InputStream getFileInputStream() {
+                openedStreams.incrementAndGet();
+                return new ByteArrayInputStream(content);
+            }
+
+            @Override
+            public FileChannel getFileChannel() {
+                try {
+                    final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+                    channels.add(channel);
+                    return channel;
+                } catch (final IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=50000-59999,10-19");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        FileStreamingUtil.writeFileResponse(channelArtifact, "file", LAST_MODIFIED, response, request,
+                (length, shippedSinceLast, total) -> shippedBytes.addAndGet(shippedSinceLast));
+
+        assertThat(response.getContentAsByteArray()).isEqualTo(multipart(50000, 59999, 10, 19));
+        assertThat(shippedBytes.get()).isEqualTo(10_010);
+        assertThat(openedStreams.get()).isZero();
+        assertThat(channels).hasSize(1);
+        assertThat(channels.get(0).isOpen()).isFalse();
+    }
+
+    @Test
+    @Description("Verifies that an invalid or unsatisfiable range is rejected.")
+    public void invalidRangeIsRejected() {
+        assertThat(download("bytes=a-b", new MockHttpServletResponse()).getStatusCode())
+                .isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(download("bytes=2000-1000", new MockHttpServletResponse()).getStatusCode())
+                .isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(openedStreams.get()).isZero();
+    }
+
+    @Test
+    @Description("Verifies that full and single range requests of an artifact in a local file are handed over to "
+            + "the Tomcat sendfile support without writing the body.")
+    public void sendfileDownload() throws IOException {
+        final File file = folder.newFile();
+        Files.write(file.toPath(), content);
+        final AbstractDbArtifact fileArtifact = fileArtifact(file);
+
+        MockHttpServletRequest request = sendfileRequest(null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileStreamingUtil.writeFileResponse(fileArtifact, "file", LAST_MODIFIED, response, request,
+                (length, shippedSinceLast, total) -> shippedBytes.addAndGet(shippedSinceLast));
+
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(response.getContentLength()).isEqualTo(SIZE);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(file.getAbsolutePath());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(0L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo((long) SIZE);
+        assertThat(shippedBytes.get()).isEqualTo(SIZE);
+
+        request = sendfileRequest("bytes=1000-");
+        response = new MockHttpServletResponse();
+        FileStreamingUtil.writeFileResponse(fileArtifact, "file", LAST_MODIFIED, response, request, null);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.PARTIAL_CONTENT.value());
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(response.getContentLength()).isEqualTo(SIZE - 1000);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(1000L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo((long) SIZE);
+        assertThat(openedStreams.get()).isZero();
+    }
+
+    @Test
+    @Description("Verifies that the artifact is streamed if sendfile is not supported, the artifact is not kept in a "
+            + "local file or the range is small.")
+    public void sendfileNotUsed() throws IOException {
+        final File file = folder.newFile();
+        Files.write(file.toPath(), content);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileStreamingUtil.writeFileResponse(fileArtifact(file), "file", LAST_MODIFIED, response, request, null);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+
+        request = sendfileRequest(null);
+        response = new MockHttpServletResponse();
+        FileStreamingUtil.writeFileResponse(artifact, "file", LAST_MODIFIED, response, request, null);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+
+        request = sendfileRequest("bytes=10-19");
+        response = new MockHttpServletResponse();
+        FileStreamingUtil.writeFileResponse(fileArtifact(file), "file", LAST_MODIFIED, response, request, null);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 10, 20));
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+    }
+
+    private AbstractDbArtifact fileArtifact(final File file) {
+        return new AbstractDbArtifact("artifact", new DbArtifactHash("sha1", "md5"), SIZE, null) {
+            @Override
+            public InputStream getFileInputStream() {
+                openedStreams.incrementAndGet();
+                return new ByteArrayInputStream(content);
+            }
+
+            @Override
+            public File getFile() {
+                return file;
+            }
+        };
+    }
+
+    private static MockHttpServletRequest sendfileRequest(final String range) {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        if (range != null) {
+            request.addHeader("Range", range);
+        }
+        return request;
+    }
+
+    private void assertRange(final String range, final int from, final int to) {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        shippedBytes.set(0);
+
+        final ResponseEntity<InputStream> result = download(range, response);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, from, to));
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes " + from + "-" + (to - 1) + "/" + SIZE);
+        assertThat(shippedBytes.get()).isEqualTo(to - from);
+    }
+
+    private ResponseEntity<InputStream> download(final String range, final MockHttpServletResponse response) {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        if (range != null) {
+            request.addHeader("Range", range);
+        }
+
+        return FileStreamingUtil.writeFileResponse(artifact, "file", LAST_MODIFIED, response, request,
+                (length, shippedSinceLast, total) -> shippedBytes.addAndGet(shippedSinceLast));
+    }
+
+    private byte[] multipart(final int... bounds) throws IOException {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (int i = 0; i < bounds.length; i += 2) {
+            expected.write(("\r\n--THIS_STRING_SEPARATES_MULTIPART\r\nContent-Range: bytes " + bounds[i] + "-"
+                    + bounds[i + 1] + "/" + SIZE + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            expected.write(Arrays.copyOfRange(content, bounds[i], bounds[i + 1] + 1));
+        }
+        expected.write("\r\n--THIS_STRING_SEPARATES_MULTIPART--".getBytes(StandardCharsets.ISO_8859_1));
+        return expected.toByteArray();
+    }
+}
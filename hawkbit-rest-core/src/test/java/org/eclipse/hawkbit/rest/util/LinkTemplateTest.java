@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2018 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.id;
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.number;
+import static org.eclipse.hawkbit.rest.util.LinkTemplate.text;
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.hawkbit.mgmt.rest.api.MgmtTargetRestApi;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Management API")
+@Stories("Link templates")
+public class LinkTemplateTest {
+
+    private final AtomicInteger resolved = new AtomicInteger();
+
+    private final LinkTemplate target = LinkTemplate.of(() -> {
+        resolved.incrementAndGet();
+        return linkTo(methodOn(MgmtTargetRestApi.class).getTarget(text(0))).withSelfRel();
+    });
+
+    private final LinkTemplate action = LinkTemplate
+            .of(() -> linkTo(methodOn(MgmtTargetRestApi.class).getAction(text(0), id(1))).withRel("action"));
+
+    private final LinkTemplate actions = LinkTemplate.of(() -> linkTo(
+            methodOn(MgmtTargetRestApi.class).getActionHistory(text(0), number(1), number(2), null, null))
+                    .withRel("actions"));
+
+    @Before
+    public void setRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @After
+    public void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @Description("Verifies that the expanded link equals the link built by the link builder, i.e. the path variables "
+            + "are encoded the same way.")
+    public void expandEncodesLikeLinkBuilder() {
+        for (final String controllerId : new String[] { "device1", "device 1", "a/b", "100%", "50%20", "a;b=c",
+                "a+b", "ger\u00e4t-\u00fc", "\u8bbe\u5907", "a?b#c" }) {
+            assertThat(target.expand(controllerId))
+                    .isEqualTo(linkTo(methodOn(MgmtTargetRestApi.class).getTarget(controllerId)).withSelfRel());
+        }
+    }
+
+    @Test
+    @Description("Verifies that id and number placeholders are replaced in the path and in the request parameters.")
+    public void expandReplacesIdsAndNumbers() {
+        assertThat(action.expand("device 1", 4711L)).isEqualTo(
+                linkTo(methodOn(MgmtTargetRestApi.class).getAction("device 1", 4711L)).withRel("action"));
+        assertThat(actions.expand("a/b", 5, 10)).isEqualTo(linkTo(
+                methodOn(MgmtTargetRestApi.class).getActionHistory("a/b", 5, 10, null, null)).withRel("actions"));
+    }
+
+    @Test
+    @Description("Verifies that placeholders in the values are not replaced again.")
+    public void valuesAreNotExpanded() {
+        final String placeholder = String.valueOf(id(1));
+
+        assertThat(action.expand(placeholder, 1L)).isEqualTo(
+                linkTo(methodOn(MgmtTargetRestApi.class).getAction(placeholder, 1L)).withRel("action"));
+        assertThat(target.expand(text(1))).isEqualTo(
+                linkTo(methodOn(MgmtTargetRestApi.class).getTarget(text(1))).withSelfRel());
+    }
+
+    @Test
+    @Description("Verifies that the link is resolved once per request.")
+    public void linkIsResolvedOncePerRequest() {
+        target.expand("a");
+        target.expand("b");
+        assertThat(resolved.get()).isEqualTo(1);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        target.expand("c");
+        assertThat(resolved.get()).isEqualTo(2);
+    }
+}
@@ -12,7 +12,7 @@ import java.util.Optional;
 
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
-import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetSnapshot;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationProperties.TenantConfigurationKey;
 import org.slf4j.Logger;
@@ -77,28 +77,35 @@ public class ControllerPreAuthenticateSecurityTokenFilter extends AbstractContro
 
     @Override
     public HeaderAuthentication getPreAuthenticatedCredentials(final DmfTenantSecurityToken securityToken) {
-        final Optional<Target> target = systemSecurityContext.runAsSystemAsTenant(() -> {
+        final Optional<TargetSnapshot> target = systemSecurityContext.runAsSystemAsTenant(() -> {
             if (securityToken.getTargetId() != null) {
-                return controllerManagement.get(securityToken.getTargetId());
+                return controllerManagement.getSnapshot(securityToken.getTargetId());
             }
-            return controllerManagement.getByControllerId(securityToken.getControllerId());
+            return controllerManagement.getSnapshotByControllerId(securityToken.getControllerId());
         }, securityToken.getTenant());
 
+        // the snapshot holds the hash of the security token only, so the
+        // provided token is returned as credential if it matches
+        final String providedToken = getProvidedSecurityToken(securityToken);
         return target.map(t -> new HeaderAuthentication(t.getControllerId(),
-                systemSecurityContext.runAsSystemAsTenant(() -> t.getSecurityToken(), securityToken.getTenant())))
-                .orElse(null);
+                t.matchesSecurityToken(providedToken) ? providedToken : null)).orElse(null);
+    }
+
+    private static String getProvidedSecurityToken(final DmfTenantSecurityToken securityToken) {
+        final String authHeader = securityToken.getHeader(DmfTenantSecurityToken.AUTHORIZATION_HEADER);
+        if ((authHeader != null) && authHeader.startsWith(TARGET_SECURITY_TOKEN_AUTH_SCHEME)) {
+            return authHeader.substring(OFFSET_TARGET_TOKEN);
+        }
+        return null;
     }
 
     private String resolveControllerId(final DmfTenantSecurityToken securityToken) {
         if (securityToken.getControllerId() != null) {
             return securityToken.getControllerId();
         }
-        final Optional<Target> foundTarget = systemSecurityContext.runAsSystemAsTenant(
-                () -> controllerManagement.get(securityToken.getTargetId()), securityToken.getTenant());
-        if (!foundTarget.isPresent()) {
-            return null;
-        }
-        return foundTarget.get().getControllerId();
+        final Optional<TargetSnapshot> foundTarget = systemSecurityContext.runAsSystemAsTenant(
+                () -> controllerManagement.getSnapshot(securityToken.getTargetId()), securityToken.getTenant());
+        return foundTarget.map(TargetSnapshot::getControllerId).orElse(null);
     }
 
     @Override